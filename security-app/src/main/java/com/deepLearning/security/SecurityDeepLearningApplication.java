@@ -2,12 +2,14 @@ package com.deepLearning.security;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * SecurityDeepLearningApplication is the entry point for the Spring Boot application.
  * <p>
  * This class is annotated with {@code @SpringBootApplication}, which enables auto-configuration,
- * component scanning, and configuration for the application.
+ * component scanning, and configuration for the application. {@code @ConfigurationPropertiesScan} registers the
+ * {@code @ConfigurationProperties} classes of the application (e.g. under the {@code security.*} prefix).
  * <p>
  * The {@code main} method uses {@link SpringApplication#run(Class, String...)} to launch the application.
  * <p>
@@ -22,6 +24,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * {@link org.springframework.boot.CommandLineRunner} or {@link org.springframework.boot.ApplicationRunner}.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SecurityDeepLearningApplication {
 
 	/**
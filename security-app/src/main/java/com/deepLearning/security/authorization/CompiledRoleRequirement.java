@@ -0,0 +1,92 @@
+package com.deepLearning.security.authorization;
+
+import com.deepLearning.security.model.Roles;
+import lombok.Getter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * CompiledRoleRequirement is the immutable, pre-computed form of a {@link RoleCheck} annotation.
+ * <p>
+ * The required roles are folded into a single {@code int} bitmask at compile time, so a decision is a handful of
+ * {@code instanceof} and bitwise operations: no expression parsing, no evaluation context and no allocation.
+ * <p>
+ * Instances are created through {@link #compile(RoleCheck)} and cached per method by
+ * {@link RoleCheckAuthorizationManager}.
+ */
+public final class CompiledRoleRequirement {
+
+    /**
+     * Requirement that grants access to everybody.
+     */
+    public static final CompiledRoleRequirement PERMIT_ALL =
+            new CompiledRoleRequirement(RoleCheck.Access.PERMIT_ALL, 0, false);
+
+    @Getter
+    private final RoleCheck.Access access;
+
+    /**
+     * Bitmask of the required roles (see {@link Roles#mask()}).
+     */
+    @Getter
+    private final int requiredMask;
+
+    private final boolean requireAll;
+
+    private CompiledRoleRequirement(RoleCheck.Access access, int requiredMask, boolean requireAll) {
+        this.access = access;
+        this.requiredMask = requiredMask;
+        this.requireAll = requireAll;
+    }
+
+    /**
+     * Compiles the given annotation.
+     *
+     * @param roleCheck the annotation to compile.
+     * @return the compiled requirement.
+     * @throws IllegalStateException if a role-based check does not list any role.
+     */
+    public static CompiledRoleRequirement compile(RoleCheck roleCheck) {
+        if (roleCheck.access() == RoleCheck.Access.PERMIT_ALL) {
+            return PERMIT_ALL;
+        }
+        int mask = 0;
+        for (Roles role : roleCheck.value()) {
+            mask |= role.mask();
+        }
+        if (roleCheck.access() == RoleCheck.Access.ROLES && mask == 0) {
+            throw new IllegalStateException("@RoleCheck with access ROLES must list at least one role");
+        }
+        return new CompiledRoleRequirement(roleCheck.access(), mask, roleCheck.requireAll());
+    }
+
+    /**
+     * Decides whether the given authentication satisfies this requirement.
+     *
+     * @param authentication the current authentication, may be {@code null}.
+     * @return {@code true} if access is granted.
+     */
+    public boolean isGranted(Authentication authentication) {
+        if (access == RoleCheck.Access.PERMIT_ALL) {
+            return true;
+        }
+        boolean anonymous = authentication == null || authentication instanceof AnonymousAuthenticationToken;
+        if (access == RoleCheck.Access.ANONYMOUS) {
+            return anonymous;
+        }
+        if (anonymous || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (access == RoleCheck.Access.AUTHENTICATED) {
+            return true;
+        }
+        int granted = Roles.maskOf(authentication.getAuthorities()) & requiredMask;
+        return requireAll ? granted == requiredMask : granted != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRoleRequirement[access=" + access + ", requiredMask=" + requiredMask
+                + ", requireAll=" + requireAll + "]";
+    }
+}
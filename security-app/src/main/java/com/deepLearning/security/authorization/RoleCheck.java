@@ -0,0 +1,87 @@
+package com.deepLearning.security.authorization;
+
+import com.deepLearning.security.model.Roles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * RoleCheck is a compiled alternative to {@code @PreAuthorize} for the simple access rules used by the controllers.
+ * <p>
+ * Instead of a SpEL expression that is evaluated on every invocation, the requirement is described declaratively
+ * and compiled once (at startup) by {@link RoleCheckAuthorizationManager} into a {@link CompiledRoleRequirement},
+ * which decides access with a bitmask test against the {@link Roles} of the current authentication.
+ * <p>
+ * Equivalents of the expressions used in this application:
+ * <ul>
+ *   <li>{@code @PreAuthorize("permitAll()")} - {@code @RoleCheck(access = Access.PERMIT_ALL)}</li>
+ *   <li>{@code @PreAuthorize("isAnonymous()")} - {@code @RoleCheck(access = Access.ANONYMOUS)}</li>
+ *   <li>{@code @PreAuthorize("isAuthenticated()")} - {@code @RoleCheck(access = Access.AUTHENTICATED)}</li>
+ *   <li>{@code @PreAuthorize("hasRole('USER')")} - {@code @RoleCheck(Roles.ROLE_USER)}</li>
+ *   <li>{@code @PreAuthorize("hasAnyRole('USER', 'ADMIN')")} - {@code @RoleCheck({Roles.ROLE_USER, Roles.ROLE_ADMIN})}</li>
+ *   <li>{@code @PreAuthorize("hasRole('USER') and hasRole('ADMIN')")} -
+ *       {@code @RoleCheck(value = {Roles.ROLE_USER, Roles.ROLE_ADMIN}, requireAll = true)}</li>
+ * </ul>
+ * <p>
+ * The annotation may be placed on a method or on a type; a method-level annotation takes precedence.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * &#64;RoleCheck(Roles.ROLE_ADMIN)
+ * &#64;GetMapping("/admin")
+ * public String getAdmin() { ... }
+ * </pre>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface RoleCheck {
+
+    /**
+     * The roles required by the protected method. Only used when {@link #access()} is {@link Access#ROLES}.
+     *
+     * @return the required roles.
+     */
+    Roles[] value() default {};
+
+    /**
+     * The kind of access rule.
+     *
+     * @return the access rule, {@link Access#ROLES} by default.
+     */
+    Access access() default Access.ROLES;
+
+    /**
+     * Whether all of {@link #value()} are required ({@code true}) or any one of them is enough ({@code false}).
+     *
+     * @return {@code true} if every listed role is required.
+     */
+    boolean requireAll() default false;
+
+    /**
+     * The kinds of access rules supported by {@link RoleCheck}.
+     */
+    enum Access {
+        /**
+         * Everybody, including anonymous users, is allowed.
+         */
+        PERMIT_ALL,
+        /**
+         * Only anonymous (not logged in) users are allowed.
+         */
+        ANONYMOUS,
+        /**
+         * Any authenticated, non-anonymous user is allowed.
+         */
+        AUTHENTICATED,
+        /**
+         * Users holding the roles listed in {@link RoleCheck#value()} are allowed.
+         */
+        ROLES
+    }
+}
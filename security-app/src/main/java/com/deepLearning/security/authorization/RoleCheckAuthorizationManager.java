@@ -0,0 +1,139 @@
+package com.deepLearning.security.authorization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * RoleCheckAuthorizationManager decides access to methods annotated with {@link RoleCheck}.
+ * <p>
+ * Every annotated method is compiled exactly once per target class into a {@link CompiledRoleRequirement}: an
+ * inherited method may be guarded by a different type-level {@link RoleCheck} in each subclass, so requirements are
+ * keyed by the method and the target class, like Spring's own method security caches its attributes. Compilation
+ * happens eagerly for all controller beans once the singletons are instantiated, and lazily (on first invocation)
+ * for any other annotated bean. After that, a decision consists of one {@link ConcurrentHashMap#get(Object)} and a
+ * bitmask test, and returns one of two shared {@link AuthorizationDecision} instances.
+ * <p>
+ * It is registered together with its method interceptor in
+ * {@link com.deepLearning.security.configuration.MethodSecurityConfig}.
+ */
+@Slf4j
+public class RoleCheckAuthorizationManager implements AuthorizationManager<MethodInvocation>,
+        SmartInitializingSingleton, ApplicationContextAware {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    /**
+     * Compiled requirements keyed by the invoked method and the target class.
+     */
+    private final Map<MethodClassKey, CompiledRoleRequirement> requirements = new ConcurrentHashMap<>();
+
+    private ApplicationContext applicationContext;
+
+    /**
+     * Decides whether the current authentication may invoke the given method.
+     *
+     * @param authentication supplier of the current authentication.
+     * @param invocation     the intercepted method invocation.
+     * @return the shared granted or denied decision.
+     */
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return getRequirement(invocation.getMethod(), invocation.getThis()).isGranted(authentication.get())
+                ? GRANTED
+                : DENIED;
+    }
+
+    /**
+     * Same as {@link #check(Supplier, MethodInvocation)}; overridden so that the interceptor does not go through
+     * the deprecated default bridge.
+     */
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return check(authentication, invocation);
+    }
+
+    /**
+     * Returns the compiled requirement of the given method on the class of the target, compiling it if it was not
+     * seen before.
+     *
+     * @param method the invoked method.
+     * @param target the target object of the invocation, may be {@code null}.
+     * @return the compiled requirement, never {@code null}.
+     */
+    public CompiledRoleRequirement getRequirement(Method method, Object target) {
+        Class<?> targetClass = target == null ? method.getDeclaringClass() : AopUtils.getTargetClass(target);
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        CompiledRoleRequirement requirement = requirements.get(key);
+        if (requirement == null) {
+            requirement = requirements.computeIfAbsent(key, k -> compile(method, targetClass));
+        }
+        return requirement;
+    }
+
+    /**
+     * Compiles the requirements of all controllers so that no compilation happens on the request path.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (applicationContext == null) {
+            return;
+        }
+        for (Object controller : applicationContext.getBeansWithAnnotation(Controller.class).values()) {
+            precompile(AopUtils.getTargetClass(controller));
+        }
+        log.info("Compiled {} @RoleCheck requirements", requirements.size());
+    }
+
+    /**
+     * Compiles the requirements of every annotated method of the given class.
+     *
+     * @param type the class to scan.
+     */
+    public void precompile(Class<?> type) {
+        boolean typeAnnotated = AnnotatedElementUtils.hasAnnotation(type, RoleCheck.class);
+        ReflectionUtils.doWithMethods(type, method -> {
+            if (typeAnnotated || AnnotatedElementUtils.hasAnnotation(method, RoleCheck.class)) {
+                requirements.computeIfAbsent(new MethodClassKey(method, type), k -> compile(method, type));
+            }
+        }, ReflectionUtils.USER_DECLARED_METHODS);
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.applicationContext = applicationContext;
+    }
+
+    private static CompiledRoleRequirement compile(Method method, Class<?> targetClass) {
+        RoleCheck roleCheck = AnnotatedElementUtils.findMergedAnnotation(method, RoleCheck.class);
+        if (roleCheck == null) {
+            roleCheck = AnnotatedElementUtils.findMergedAnnotation(targetClass, RoleCheck.class);
+        }
+        if (roleCheck == null) {
+            roleCheck = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RoleCheck.class);
+        }
+        CompiledRoleRequirement requirement = roleCheck == null
+                ? CompiledRoleRequirement.PERMIT_ALL
+                : CompiledRoleRequirement.compile(roleCheck);
+        log.debug("Compiled {} for {}", requirement, method);
+        return requirement;
+    }
+}
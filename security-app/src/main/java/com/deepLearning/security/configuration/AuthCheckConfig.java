@@ -0,0 +1,49 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.jwt.AuthCheckFilter;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.jwt.RejectionLog;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * AuthCheckConfig registers the {@link AuthCheckFilter} on {@code security.auth-check.path}, ahead of every other
+ * filter including the Spring Security filter chain, when {@code security.auth-check.enabled} is {@code true}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "security.auth-check", name = "enabled", havingValue = "true")
+public class AuthCheckConfig {
+
+    /**
+     * Provides the registration of the check filter.
+     *
+     * @param properties          the check endpoint properties.
+     * @param tokenProvider       verifies the tokens.
+     * @param revokedTokenService checks the revocations.
+     * @param sanityGate          bounds the token length.
+     * @param rejectionLog        counts the rejected checks.
+     * @param userDetailsService  loads the current state of the user, through the user cache.
+     * @return the filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<AuthCheckFilter> authCheckFilter(AuthCheckProperties properties,
+                                                                   JwtTokenProvider tokenProvider,
+                                                                   RevokedTokenService revokedTokenService,
+                                                                   TokenSanityGate sanityGate,
+                                                                   RejectionLog rejectionLog,
+                                                                   UserDetailsService userDetailsService) {
+        FilterRegistrationBean<AuthCheckFilter> registration = new FilterRegistrationBean<>(new AuthCheckFilter(
+                tokenProvider, revokedTokenService, sanityGate, rejectionLog, userDetailsService, properties));
+        registration.addUrlPatterns(properties.getPath());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,50 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AuthCheckProperties configures the token check endpoint used by the edge proxy.
+ * <p>
+ * Bound from the {@code security.auth-check} prefix:
+ * <pre>
+ * security:
+ *   auth-check:
+ *     enabled: true
+ *     path: /internal/auth/check
+ *     allowed-networks: 10.0.0.0/8      # callers outside these networks get 403
+ *     shared-secret: ${AUTH_CHECK_SECRET} # optional, expected in the X-Auth-Check-Secret header
+ * </pre>
+ * The endpoint is off unless enabled, since it answers ahead of the Spring Security filter chain.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.auth-check")
+public class AuthCheckProperties {
+
+    /**
+     * Whether the check endpoint is registered.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Path of the check endpoint. It should only be reachable by the proxy.
+     */
+    private String path = "/internal/auth/check";
+
+    /**
+     * Networks, as addresses or CIDR ranges, the proxy calls from; other callers are refused. Defaults to the
+     * loopback and private IPv4 and IPv6 ranges.
+     */
+    private List<String> allowedNetworks = new ArrayList<>(List.of(
+            "127.0.0.0/8", "::1/128", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "fc00::/7"));
+
+    /**
+     * Secret the proxy sends in the {@code X-Auth-Check-Secret} header, or empty to rely on the networks alone.
+     */
+    private String sharedSecret = "";
+}
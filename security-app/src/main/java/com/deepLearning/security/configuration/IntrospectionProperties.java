@@ -0,0 +1,49 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IntrospectionProperties configures the token introspection endpoint.
+ * <p>
+ * Bound from the {@code security.introspection} prefix:
+ * <pre>
+ * security:
+ *   introspection:
+ *     max-cache-age: 30s                     # upper bound of the cache lifetime suggested to callers
+ *     allowed-networks: 10.0.0.0/8           # callers outside these networks get 403
+ *     shared-secret: ${INTROSPECTION_SECRET} # expected in the X-Introspection-Secret header
+ * </pre>
+ * Resource servers authenticate as clients, with their network and the shared secret, rather than with the token
+ * of a user: they have no user of their own, and a user's token would expire or be revoked under them. The endpoint
+ * refuses every caller until a shared secret is set.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.introspection")
+public class IntrospectionProperties {
+
+    /**
+     * Longest time callers may cache an introspection response. A revocation is only seen by a caller once its
+     * cached answer has expired, so this bounds how long a revoked token may still be accepted.
+     */
+    private Duration maxCacheAge = Duration.ofSeconds(30);
+
+    /**
+     * Networks, as addresses or CIDR ranges, the resource servers call from; other callers are refused. Defaults to
+     * the loopback and private IPv4 and IPv6 ranges.
+     */
+    private List<String> allowedNetworks = new ArrayList<>(List.of(
+            "127.0.0.0/8", "::1/128", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "fc00::/7"));
+
+    /**
+     * Secret the resource servers send in the {@code X-Introspection-Secret} header. While empty, every caller is
+     * refused.
+     */
+    private String sharedSecret = "";
+}
@@ -0,0 +1,73 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.verifier.Hs256TokenCodec;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+
+/**
+ * JwtConfig creates the framework-independent building blocks of token verification from {@link JwtProperties}.
+ * <p>
+ * The classes created here have no Spring dependencies on purpose, so they are wired in this configuration
+ * rather than annotated as components.
+ */
+@Configuration
+@Slf4j
+public class JwtConfig {
+
+    /**
+     * Provides the structural pre-verification gate used by {@link com.deepLearning.security.jwt.JwtTokenProvider}.
+     *
+     * @param properties the JWT properties.
+     * @return the token sanity gate.
+     */
+    @Bean
+    public TokenSanityGate tokenSanityGate(JwtProperties properties) {
+        return new TokenSanityGate(
+                properties.getMaxTokenLength(),
+                properties.getAllowedAlgorithms(),
+                properties.getAllowedKeyIds());
+    }
+
+    /**
+     * Provides the HS256 signing key from {@code security.jwt.secret}, or a random key if none is configured.
+     *
+     * @param properties the JWT properties.
+     * @return the signing key.
+     */
+    @Bean
+    public SecretKey jwtSigningKey(JwtProperties properties) {
+        if (!StringUtils.hasText(properties.getSecret())) {
+            log.warn("security.jwt.secret is not set, using a random signing key; tokens will not survive a restart");
+            return Jwts.SIG.HS256.key().build();
+        }
+        byte[] secret = Decoders.BASE64.decode(properties.getSecret());
+        if (secret.length < 32) {
+            throw new IllegalStateException("security.jwt.secret must be at least 256 bits");
+        }
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    /**
+     * Provides the specialized HS256 codec used by {@link com.deepLearning.security.jwt.JwtTokenProvider}
+     * for the application's own claim set. The role table of compact tokens is {@link Roles} in declaration order,
+     * matching {@link Roles#mask()}.
+     *
+     * @param jwtSigningKey the signing key.
+     * @return the token codec.
+     */
+    @Bean
+    public Hs256TokenCodec hs256TokenCodec(SecretKey jwtSigningKey) {
+        return new Hs256TokenCodec(jwtSigningKey.getEncoded(),
+                Arrays.stream(Roles.values()).map(Roles::getAuthority).toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.verifier.ClaimProfile;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JwtProperties holds the configuration of token issuing and verification.
+ * <p>
+ * Bound from the {@code security.jwt} prefix:
+ * <pre>
+ * security:
+ *   jwt:
+ *     max-token-length: 4096
+ *     allowed-algorithms: [HS256]
+ *     allowed-key-ids: []
+ *     secret: # Base64 encoded HS256 secret, at least 256 bits
+ *     claim-profile: LEGACY      # COMPACT once every node reads both profiles
+ *     access-token-ttl: 3m
+ *     refresh-token-ttl: 30d
+ *     ttl-jitter: 0.1            # lifetimes are shortened by a random 0-10%
+ *     refresh-grace-period: 10s  # repeated refreshes with the same token get the same result
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtProperties {
+
+    /**
+     * Tokens longer than this (in characters) are rejected before any parsing.
+     */
+    private int maxTokenLength = 4096;
+
+    /**
+     * Accepted values of the {@code alg} token header.
+     */
+    private List<String> allowedAlgorithms = new ArrayList<>(List.of("HS256"));
+
+    /**
+     * Accepted values of the {@code kid} token header. Tokens without a {@code kid} are always accepted.
+     */
+    private List<String> allowedKeyIds = new ArrayList<>();
+
+    /**
+     * Base64 encoded HMAC-SHA256 signing secret. When empty a random key is generated at startup, so tokens do
+     * not survive a restart and are not accepted by other instances.
+     */
+    private String secret;
+
+    /**
+     * Claim encoding of newly issued tokens. Tokens of every profile are accepted regardless of this setting.
+     * <p>
+     * Switching to {@link ClaimProfile#COMPACT} takes two deploys: first roll out this version with
+     * {@code LEGACY} everywhere, then set {@code COMPACT} once no node runs an older version. Older versions only
+     * read {@code token_type}, so they would take a compact refresh token, which has none, for an access token.
+     */
+    private ClaimProfile claimProfile = ClaimProfile.LEGACY;
+
+    /**
+     * Lifetime of access tokens.
+     */
+    private Duration accessTokenTtl = Duration.ofMinutes(3);
+
+    /**
+     * Lifetime of refresh tokens, and of refresh token families since their last rotation.
+     */
+    private Duration refreshTokenTtl = Duration.ofDays(30);
+
+    /**
+     * Fraction (0 to 1) by which token lifetimes are randomly shortened, so that clients which signed in at the
+     * same time do not all refresh at the same time.
+     */
+    private double ttlJitter = 0.1;
+
+    /**
+     * Window after a refresh in which the same refresh token is answered with the same new token pair instead of
+     * being treated as reuse; covers several tabs or retries refreshing at once. {@code 0} disables it.
+     */
+    private Duration refreshGracePeriod = Duration.ofSeconds(10);
+}
@@ -0,0 +1,31 @@
+package com.deepLearning.security.configuration;
+
+import io.lettuce.core.RedisURI;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+
+/**
+ * Builds the {@link RedisURI} of the dedicated Lettuce connections (client-side caching, pub/sub, rate limiting) from the
+ * standalone settings of {@code spring.data.redis}: host, port, database, credentials, SSL and timeout.
+ */
+final class LettuceUris {
+
+    private LettuceUris() {
+    }
+
+    static RedisURI from(RedisProperties redisProperties) {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(redisProperties.getHost())
+                .withPort(redisProperties.getPort())
+                .withDatabase(redisProperties.getDatabase())
+                .withSsl(redisProperties.getSsl().isEnabled());
+        if (redisProperties.getPassword() != null) {
+            uri = redisProperties.getUsername() != null
+                    ? uri.withAuthentication(redisProperties.getUsername(), redisProperties.getPassword())
+                    : uri.withPassword(redisProperties.getPassword().toCharArray());
+        }
+        if (redisProperties.getTimeout() != null) {
+            uri = uri.withTimeout(redisProperties.getTimeout());
+        }
+        return uri.build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.RedisLoginAttemptService;
+import com.deepLearning.security.securityServices.LocalLoginAttemptService;
+import com.deepLearning.security.securityServices.LoginAttemptService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * LoginAttemptConfig creates the {@link LoginAttemptService} selected by {@code security.login-attempts.mode}.
+ */
+@Configuration
+public class LoginAttemptConfig {
+
+    /**
+     * Provides the login attempt service: a {@link LocalLoginAttemptService}, or a {@link RedisLoginAttemptService}
+     * in {@code redis} mode.
+     *
+     * @param properties    the login attempt properties.
+     * @param redisTemplate the Redis template, used in {@code redis} mode.
+     * @return the login attempt service.
+     */
+    @Bean
+    public LoginAttemptService loginAttemptService(LoginAttemptProperties properties,
+                                                   ObjectProvider<StringRedisTemplate> redisTemplate) {
+        if (properties.getMode() == LoginAttemptProperties.Mode.REDIS) {
+            return new RedisLoginAttemptService(redisTemplate.getObject(), properties);
+        }
+        return new LocalLoginAttemptService(properties);
+    }
+}
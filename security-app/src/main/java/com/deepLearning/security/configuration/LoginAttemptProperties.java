@@ -0,0 +1,91 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * LoginAttemptProperties configures the temporary lockout of accounts after repeated failed sign-ins.
+ * <p>
+ * Bound from the {@code security.login-attempts} prefix:
+ * <pre>
+ * security:
+ *   login-attempts:
+ *     enabled: true
+ *     mode: local              # local (per node) or redis (shared by the cluster)
+ *     max-failures: 5          # failures within the window that lock the account ...
+ *     window: 15m              # ... counted over a sliding window
+ *     lock-duration: 1m        # first lockout; every further lockout doubles it ...
+ *     max-lock-duration: 1h    # ... up to this duration
+ *     max-keys: 100000         # usernames tracked in memory
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.login-attempts")
+public class LoginAttemptProperties {
+
+    /**
+     * Whether failed sign-ins are tracked and accounts locked.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Where the failure counters are kept.
+     */
+    private Mode mode = Mode.LOCAL;
+
+    /**
+     * Number of failures within the {@code window} that locks the account.
+     */
+    private int maxFailures = 5;
+
+    /**
+     * Length of the sliding window the failures are counted in.
+     */
+    private Duration window = Duration.ofMinutes(15);
+
+    /**
+     * Duration of the first lockout. Each further lockout while the failures go on doubles it.
+     */
+    private Duration lockDuration = Duration.ofMinutes(1);
+
+    /**
+     * Upper bound of the lockout duration.
+     */
+    private Duration maxLockDuration = Duration.ofHours(1);
+
+    /**
+     * Maximum number of usernames tracked in memory.
+     */
+    private int maxKeys = 100_000;
+
+    /**
+     * Where the failure counters are kept.
+     */
+    public enum Mode {
+        /**
+         * In memory, counters are per node.
+         */
+        LOCAL,
+        /**
+         * In Redis, counters are shared by the cluster.
+         */
+        REDIS
+    }
+
+    /**
+     * Returns the duration of the given lockout: {@code lockDuration} doubled for every earlier lockout, bounded
+     * by {@code maxLockDuration}.
+     *
+     * @param lockouts the number of lockouts so far, including this one.
+     * @return the duration of the lockout in milliseconds.
+     */
+    public long lockDurationMillis(int lockouts) {
+        long max = maxLockDuration.toMillis();
+        long duration = lockDuration.toMillis() << Math.min(Math.max(lockouts - 1, 0), 30);
+        return duration < 0 || duration > max ? max : duration;
+    }
+}
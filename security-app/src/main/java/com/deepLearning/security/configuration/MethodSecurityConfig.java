@@ -0,0 +1,61 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.authorization.RoleCheckAuthorizationManager;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+
+/**
+ * MethodSecurityConfig registers the compiled {@link RoleCheck} authorization next to the SpEL based
+ * {@code @PreAuthorize} support enabled by {@code @EnableMethodSecurity} in {@link SecurityConfig}.
+ * <p>
+ * The advisor is picked up by the method security infrastructure like the built-in ones and runs at the same
+ * position in the interceptor chain as {@code @PreAuthorize}. Denials surface as
+ * {@link org.springframework.security.access.AccessDeniedException} and are therefore handled by the
+ * configured {@code JwtAccessDeniedHandler} / {@code JwtAuthEntryPoint}, exactly like SpEL denials.
+ * <p>
+ * Both beans are declared {@code static} and as infrastructure beans so that they are created before,
+ * and are not themselves subject to, bean post-processing.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MethodSecurityConfig {
+
+    /**
+     * Provides the authorization manager that compiles and evaluates {@link RoleCheck} annotations.
+     *
+     * @return the role check authorization manager.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static RoleCheckAuthorizationManager roleCheckAuthorizationManager() {
+        return new RoleCheckAuthorizationManager();
+    }
+
+    /**
+     * Provides the advisor that intercepts methods annotated with {@link RoleCheck}, directly or via their class.
+     *
+     * @param roleCheckAuthorizationManager the manager that decides access.
+     * @return the method interceptor advisor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor roleCheckAuthorizationAdvisor(RoleCheckAuthorizationManager roleCheckAuthorizationManager) {
+        Pointcut pointcut = Pointcuts.union(
+                new AnnotationMatchingPointcut(null, RoleCheck.class, true),
+                new AnnotationMatchingPointcut(RoleCheck.class, true));
+        AuthorizationManagerBeforeMethodInterceptor interceptor =
+                new AuthorizationManagerBeforeMethodInterceptor(pointcut, roleCheckAuthorizationManager);
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.rateLimit.LocalRateLimiter;
+import com.deepLearning.security.rateLimit.RateLimiter;
+import com.deepLearning.security.rateLimit.RedisRateLimiter;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RateLimitConfig creates the {@link RateLimiter} selected by {@code security.rate-limit.mode}.
+ * <p>
+ * The limiters have no Spring dependencies on purpose, so they are wired in this configuration rather than
+ * annotated as components.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Provides the rate limiter: a {@link LocalRateLimiter}, or a {@link RedisRateLimiter} that falls back to a
+     * local one while Redis is unavailable or slower than {@code security.rate-limit.timeout}. The Redis limiter
+     * has its own connection, which is closed with the context.
+     *
+     * @param properties      the rate limit properties.
+     * @param redisProperties the Redis connection properties, used in {@code redis} mode.
+     * @return the rate limiter.
+     */
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, RedisProperties redisProperties) {
+        LocalRateLimiter local = new LocalRateLimiter(properties.getMaxKeys(), properties.getStripes());
+        if (properties.getMode() == RateLimitProperties.Mode.REDIS) {
+            return new RedisRateLimiter(LettuceUris.from(redisProperties), properties.getTimeout(), local);
+        }
+        return local;
+    }
+}
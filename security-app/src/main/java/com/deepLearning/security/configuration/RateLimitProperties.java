@@ -0,0 +1,104 @@
+package com.deepLearning.security.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RateLimitProperties configures the rate limits of the sign-in and sign-up endpoints.
+ * <p>
+ * Bound from the {@code security.rate-limit} prefix:
+ * <pre>
+ * security:
+ *   rate-limit:
+ *     enabled: true
+ *     mode: local          # local (per node) or redis (shared by the cluster)
+ *     timeout: 100ms       # per-call timeout of the Redis check, after which the local limiter answers
+ *     max-keys: 100000     # buckets kept in memory by the local limiter
+ *     stripes: 64          # stripes of the local limiter
+ *     per-ip:
+ *       capacity: 30       # requests per client IP ...
+ *       period: 1m         # ... per minute
+ *     per-username:
+ *       capacity: 10
+ *       period: 1m
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether sign-in and sign-up requests are rate limited.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Where the buckets are kept.
+     */
+    private Mode mode = Mode.LOCAL;
+
+    /**
+     * Timeout of a single Redis check in {@code redis} mode; a slower check is answered by the local limiter.
+     */
+    private Duration timeout = Duration.ofMillis(100);
+
+    /**
+     * Maximum number of buckets kept in memory by the local limiter.
+     */
+    private int maxKeys = 100_000;
+
+    /**
+     * Number of stripes of the local limiter, rounded up to a power of two.
+     */
+    private int stripes = 64;
+
+    /**
+     * Limit per client IP address.
+     */
+    private Limit perIp = new Limit(30, Duration.ofMinutes(1));
+
+    /**
+     * Limit per username.
+     */
+    private Limit perUsername = new Limit(10, Duration.ofMinutes(1));
+
+    /**
+     * Where the buckets are kept.
+     */
+    public enum Mode {
+        /**
+         * In memory, limits are per node.
+         */
+        LOCAL,
+        /**
+         * In Redis, limits are shared by the cluster.
+         */
+        REDIS
+    }
+
+    /**
+     * A bucket of {@code capacity} requests, refilled over {@code period}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Maximum number of requests in a burst.
+         */
+        private int capacity;
+
+        /**
+         * Time needed to refill the whole bucket.
+         */
+        private Duration period;
+    }
+}
@@ -0,0 +1,35 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RejectionProperties configures how unauthenticated and unauthorized requests are rejected.
+ * <p>
+ * Bound from the {@code security.rejection} prefix:
+ * <pre>
+ * security:
+ *   rejection:
+ *     fast: true          # pre-rendered 401/403 bodies, no /error dispatch
+ *     log-interval: 10s   # how often aggregated rejection counters are logged
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.rejection")
+public class RejectionProperties {
+
+    /**
+     * Whether rejections are written directly with pre-rendered bodies ({@code true}) or go through
+     * {@code HttpServletResponse.sendError} and the error page dispatch ({@code false}).
+     */
+    private boolean fast = true;
+
+    /**
+     * Minimal interval between two aggregated rejection log lines.
+     */
+    private Duration logInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,40 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.RedisRevocationTransport;
+import com.deepLearning.security.revocation.LocalDenyList;
+import com.deepLearning.security.revocation.LocalRevocationTransport;
+import com.deepLearning.security.revocation.RevocationBroadcast;
+import com.deepLearning.security.revocation.RevocationTransport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * RevocationBroadcastConfig creates the {@link RevocationBroadcast} when {@code security.revocation-broadcast.enabled}
+ * is set, with the transport selected by {@code security.revocation-broadcast.transport}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "security.revocation-broadcast", name = "enabled", havingValue = "true")
+public class RevocationBroadcastConfig {
+
+    /**
+     * Provides the revocation broadcast, subscribed to its transport.
+     *
+     * @param properties      the revocation broadcast properties.
+     * @param redisTemplate   the Redis template, used by the {@code redis} transport.
+     * @param redisProperties the Redis connection properties, used by the {@code redis} transport.
+     * @return the revocation broadcast.
+     */
+    @Bean(destroyMethod = "close")
+    public RevocationBroadcast revocationBroadcast(RevocationBroadcastProperties properties,
+                                                   ObjectProvider<StringRedisTemplate> redisTemplate,
+                                                   ObjectProvider<RedisProperties> redisProperties) {
+        RevocationTransport transport = properties.getTransport() == RevocationBroadcastProperties.Transport.REDIS
+                ? new RedisRevocationTransport(redisTemplate.getObject(), LettuceUris.from(redisProperties.getObject()))
+                : new LocalRevocationTransport();
+        return new RevocationBroadcast(transport, new LocalDenyList());
+    }
+}
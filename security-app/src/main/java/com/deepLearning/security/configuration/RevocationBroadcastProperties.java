@@ -0,0 +1,47 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * RevocationBroadcastProperties configures the broadcast of revocations to a local deny-list on every node.
+ * <p>
+ * Bound from the {@code security.revocation-broadcast} prefix:
+ * <pre>
+ * security:
+ *   revocation-broadcast:
+ *     enabled: true
+ *     transport: redis    # redis (pub/sub, for clusters) or local (a single node)
+ * </pre>
+ * Until the Redis marker {@code revoked:index:complete} is set, tokens missing from the deny-list are still looked
+ * up in the blacklist; see {@link com.deepLearning.security.redis.RedisRevocationTransport}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation-broadcast")
+public class RevocationBroadcastProperties {
+
+    /**
+     * Whether revocation checks are answered from a local deny-list kept in sync by broadcast.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How revocations reach the other nodes.
+     */
+    private Transport transport = Transport.REDIS;
+
+    public enum Transport {
+
+        /**
+         * Within this JVM only.
+         */
+        LOCAL,
+
+        /**
+         * Redis pub/sub.
+         */
+        REDIS
+    }
+}
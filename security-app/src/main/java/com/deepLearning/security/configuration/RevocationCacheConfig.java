@@ -0,0 +1,41 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.TrackedRevocationCache;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RevocationCacheConfig creates the {@link TrackedRevocationCache} when {@code security.revocation-cache.enabled}
+ * is set.
+ * <p>
+ * The cache needs a RESP3 connection of its own, so it connects with the standalone settings of
+ * {@code spring.data.redis} instead of going through the shared connection factory, with
+ * {@code security.revocation-check.timeout} as command timeout.
+ */
+@Configuration
+public class RevocationCacheConfig {
+
+    /**
+     * Provides the revocation cache.
+     *
+     * @param properties      the revocation cache properties.
+     * @param checkProperties the revocation check properties.
+     * @param redisProperties the Redis connection properties.
+     * @param meterRegistry   the registry of the cache metrics.
+     * @return the revocation cache.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "security.revocation-cache", name = "enabled", havingValue = "true")
+    public TrackedRevocationCache trackedRevocationCache(RevocationCacheProperties properties,
+                                                         RevocationCheckProperties checkProperties,
+                                                         RedisProperties redisProperties,
+                                                         MeterRegistry meterRegistry) {
+        RedisURI redisUri = LettuceUris.from(redisProperties);
+        redisUri.setTimeout(checkProperties.getTimeout());
+        return new TrackedRevocationCache(redisUri, properties.getMaxSize(), meterRegistry);
+    }
+}
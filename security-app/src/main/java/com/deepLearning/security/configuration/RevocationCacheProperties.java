@@ -0,0 +1,32 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * RevocationCacheProperties configures the local cache of revocation lookups.
+ * <p>
+ * Bound from the {@code security.revocation-cache} prefix:
+ * <pre>
+ * security:
+ *   revocation-cache:
+ *     enabled: true       # cache revocation answers locally, invalidated by Redis (requires Redis 6+)
+ *     max-size: 100000    # maximum number of cached answers
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation-cache")
+public class RevocationCacheProperties {
+
+    /**
+     * Whether revocation answers are cached locally with Redis client-side caching.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of cached answers.
+     */
+    private int maxSize = 100_000;
+}
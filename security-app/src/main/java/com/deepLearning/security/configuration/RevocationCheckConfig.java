@@ -0,0 +1,76 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.ResilientRevocationLookup;
+import com.deepLearning.security.redis.ShardedRevocationStore;
+import com.deepLearning.security.redis.TrackedRevocationCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * RevocationCheckConfig creates the {@link ResilientRevocationLookup} behind {@code RevokedTokenService}.
+ * <p>
+ * The Redis lookup goes to the {@link ShardedRevocationStore} if the blacklist is sharded, or through the
+ * {@link TrackedRevocationCache} if it is enabled; both are connected with the per-call timeout. Otherwise it is an
+ * {@code EXISTS} through the reactive template, which gives up after the per-call timeout without affecting other
+ * commands on the shared connection. The cache only tracks {@code spring.data.redis}, so it is not used for a
+ * sharded blacklist.
+ * <p>
+ * Batches are looked up with one {@code MGET} per shard, or one {@code MGET} through the reactive template. With the
+ * cache, each token of a batch goes through the cache, which answers the tokens it tracks without Redis.
+ */
+@Configuration
+public class RevocationCheckConfig {
+
+    /**
+     * Provides the guarded revocation lookup.
+     *
+     * @param properties            the revocation check properties.
+     * @param reactiveRedisTemplate the reactive Redis template.
+     * @param revocationCache       the revocation cache, if enabled.
+     * @param shardedStore          the sharded blacklist, if enabled.
+     * @param meterRegistry         the registry of the metrics.
+     * @return the revocation lookup.
+     */
+    @Bean
+    public ResilientRevocationLookup resilientRevocationLookup(RevocationCheckProperties properties,
+                                                               ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                                               ObjectProvider<TrackedRevocationCache> revocationCache,
+                                                               ObjectProvider<ShardedRevocationStore> shardedStore,
+                                                               MeterRegistry meterRegistry) {
+        Duration timeout = properties.getTimeout();
+        ShardedRevocationStore store = shardedStore.getIfAvailable();
+        TrackedRevocationCache cache = revocationCache.getIfAvailable();
+        Predicate<String> remoteLookup;
+        Function<List<String>, boolean[]> batchLookup = null;
+        if (store != null) {
+            remoteLookup = store::isRevoked;
+            batchLookup = store::areRevoked;
+        } else if (cache != null) {
+            remoteLookup = cache::isRevoked;
+        } else {
+            remoteLookup = token -> Boolean.TRUE.equals(reactiveRedisTemplate.hasKey(token).timeout(timeout).block());
+            batchLookup = tokens -> {
+                List<String> values = reactiveRedisTemplate.opsForValue().multiGet(tokens).timeout(timeout).block();
+                boolean[] revoked = new boolean[tokens.size()];
+                for (int i = 0; values != null && i < revoked.length; i++) {
+                    revoked[i] = values.get(i) != null;
+                }
+                return revoked;
+            };
+        }
+        if (batchLookup == null) {
+            return new ResilientRevocationLookup(remoteLookup, properties.getDegradedMode(),
+                    properties.getFailureThreshold(), properties.getOpenDuration(), meterRegistry);
+        }
+        return new ResilientRevocationLookup(remoteLookup, batchLookup, properties.getDegradedMode(),
+                properties.getFailureThreshold(), properties.getOpenDuration(), meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RevocationCheckProperties configures how revocation checks behave when Redis is slow or unavailable.
+ * <p>
+ * Bound from the {@code security.revocation-check} prefix:
+ * <pre>
+ * security:
+ *   revocation-check:
+ *     timeout: 50ms            # per-call timeout of the Redis lookup
+ *     failure-threshold: 5     # consecutive failures that open the circuit
+ *     open-duration: 5s        # how long lookups skip Redis once the circuit is open
+ *     degraded-mode: fail-closed   # fail-closed (reject tokens) or fail-open (accept unless revoked locally)
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation-check")
+public class RevocationCheckProperties {
+
+    /**
+     * Timeout of a single Redis lookup.
+     */
+    private Duration timeout = Duration.ofMillis(50);
+
+    /**
+     * Number of consecutive failed lookups that open the circuit.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * Time the circuit stays open before a probe lookup is let through.
+     */
+    private Duration openDuration = Duration.ofSeconds(5);
+
+    /**
+     * Answer of lookups that cannot reach Redis.
+     */
+    private DegradedMode degradedMode = DegradedMode.FAIL_CLOSED;
+
+    public enum DegradedMode {
+
+        /**
+         * Every token is treated as revoked.
+         */
+        FAIL_CLOSED,
+
+        /**
+         * Tokens are accepted unless revoked recently on this node (or known from the revocation broadcast).
+         */
+        FAIL_OPEN
+    }
+}
@@ -0,0 +1,74 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.RedisRevocationIndexStore;
+import com.deepLearning.security.revocation.LocalRevocationIndexStore;
+import com.deepLearning.security.revocation.RevocationIndex;
+import com.deepLearning.security.revocation.RevocationIndexStore;
+import com.deepLearning.security.verifier.TokenIdSequence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * RevocationIndexConfig creates the {@link TokenIdSequence} and the {@link RevocationIndex} when
+ * {@code security.revocation-index.enabled} is set, with the store selected by {@code security.revocation-index.store}.
+ * <p>
+ * The size of the index is reported in the {@code auth.revocation.index.tokens} and
+ * {@code auth.revocation.index.bytes} gauges.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "security.revocation-index", name = "enabled", havingValue = "true")
+public class RevocationIndexConfig {
+
+    /**
+     * Provides the sequence of access token ids of this node.
+     *
+     * @param properties the revocation index properties.
+     * @return the token id sequence.
+     */
+    @Bean
+    public TokenIdSequence tokenIdSequence(RevocationIndexProperties properties) {
+        return new TokenIdSequence(properties.getNodeId());
+    }
+
+    /**
+     * Provides the revocation index, subscribed to its store.
+     *
+     * @param properties            the revocation index properties.
+     * @param jwtProperties         the JWT properties, for the lifetime of access tokens.
+     * @param checkProperties       the revocation check properties, for the timeout of direct lookups.
+     * @param redisTemplate         the Redis template, used by the {@code redis} store.
+     * @param reactiveRedisTemplate the reactive Redis template, used by the {@code redis} store.
+     * @param redisProperties       the Redis connection properties, used by the {@code redis} store.
+     * @param meterRegistry         the registry of the index metrics.
+     * @return the revocation index.
+     */
+    @Bean(destroyMethod = "close")
+    public RevocationIndex revocationIndex(RevocationIndexProperties properties,
+                                           JwtProperties jwtProperties,
+                                           RevocationCheckProperties checkProperties,
+                                           ObjectProvider<StringRedisTemplate> redisTemplate,
+                                           ObjectProvider<ReactiveStringRedisTemplate> reactiveRedisTemplate,
+                                           ObjectProvider<RedisProperties> redisProperties,
+                                           MeterRegistry meterRegistry) {
+        RevocationIndexStore store = properties.getStore() == RevocationIndexProperties.Store.REDIS
+                ? new RedisRevocationIndexStore(redisTemplate.getObject(), reactiveRedisTemplate.getObject(),
+                        checkProperties.getTimeout(), LettuceUris.from(redisProperties.getObject()))
+                : new LocalRevocationIndexStore();
+        RevocationIndex index = new RevocationIndex(store, properties.getSegmentLength(),
+                jwtProperties.getAccessTokenTtl());
+        Gauge.builder("auth.revocation.index.tokens", index, RevocationIndex::size)
+                .description("Revoked tokens in the revocation index")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.index.bytes", index, RevocationIndex::sizeInBytes)
+                .description("Approximate heap size of the revocation index")
+                .register(meterRegistry);
+        return index;
+    }
+}
@@ -0,0 +1,62 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.verifier.TokenIdSequence;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RevocationIndexProperties configures sequence-numbered access tokens and the in-memory bitmap index of their
+ * revocations.
+ * <p>
+ * Bound from the {@code security.revocation-index} prefix:
+ * <pre>
+ * security:
+ *   revocation-index:
+ *     enabled: true
+ *     node-id: 3             # unique per node, 0 to 32767
+ *     segment-length: 1m     # issue time covered by one bitmap; the same on every node
+ *     store: redis           # redis (bitmaps and pub/sub, for clusters) or local (a single node)
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation-index")
+public class RevocationIndexProperties {
+
+    /**
+     * Whether access tokens get sequence-numbered ids whose revocations are checked in a local bitmap index.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Id of this node, the prefix of the token ids it issues; must be unique in the cluster, from 0 to
+     * {@value TokenIdSequence#MAX_NODE_ID}.
+     */
+    private int nodeId = 0;
+
+    /**
+     * Issue time covered by one segment of the index. A segment is dropped one access token lifetime after its end.
+     */
+    private Duration segmentLength = Duration.ofMinutes(1);
+
+    /**
+     * Where the revocations of the cluster are kept and how they reach the other nodes.
+     */
+    private Store store = Store.REDIS;
+
+    public enum Store {
+
+        /**
+         * Within this JVM only.
+         */
+        LOCAL,
+
+        /**
+         * Redis bitmaps and pub/sub.
+         */
+        REDIS
+    }
+}
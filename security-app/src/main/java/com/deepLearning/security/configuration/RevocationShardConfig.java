@@ -0,0 +1,65 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.ShardedRevocationStore;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RevocationShardConfig creates the {@link ShardedRevocationStore} when {@code security.revocation-shards.enabled}
+ * is set, and a {@code revocationShards} health indicator that pings every node.
+ * <p>
+ * The nodes use {@code security.revocation-check.timeout} as command timeout. Since the node list may have changed
+ * since the last start, the store sweeps all nodes for misplaced keys in the background after startup.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "security.revocation-shards", name = "enabled", havingValue = "true")
+public class RevocationShardConfig {
+
+    /**
+     * Provides the sharded revocation store.
+     *
+     * @param properties      the revocation shard properties.
+     * @param checkProperties the revocation check properties.
+     * @param meterRegistry   the registry of the shard metrics.
+     * @return the sharded revocation store.
+     */
+    @Bean(destroyMethod = "close")
+    public ShardedRevocationStore shardedRevocationStore(RevocationShardProperties properties,
+                                                         RevocationCheckProperties checkProperties,
+                                                         MeterRegistry meterRegistry) {
+        List<RedisURI> nodes = properties.getNodes().stream()
+                .map(node -> {
+                    RedisURI uri = RedisURI.create(node);
+                    uri.setTimeout(checkProperties.getTimeout());
+                    return uri;
+                })
+                .toList();
+        ShardedRevocationStore store = new ShardedRevocationStore(nodes, properties.getVirtualNodes(), meterRegistry);
+        store.rebalanceAsync();
+        return store;
+    }
+
+    /**
+     * Provides the health of the revocation shards: up if every node answers a ping.
+     *
+     * @param store the sharded revocation store.
+     * @return the health indicator.
+     */
+    @Bean
+    public HealthIndicator revocationShardsHealthIndicator(ShardedRevocationStore store) {
+        return () -> {
+            Map<String, Boolean> nodes = store.checkHealth();
+            Health.Builder health = nodes.containsValue(false) ? Health.down() : Health.up();
+            nodes.forEach((node, up) -> health.withDetail(node, up ? "UP" : "DOWN"));
+            return health.build();
+        };
+    }
+}
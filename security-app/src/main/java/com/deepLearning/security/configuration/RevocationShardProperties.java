@@ -0,0 +1,44 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RevocationShardProperties configures the sharded revocation blacklist.
+ * <p>
+ * Bound from the {@code security.revocation-shards} prefix:
+ * <pre>
+ * security:
+ *   revocation-shards:
+ *     enabled: true
+ *     nodes:                       # Redis URIs; keys are spread over them with consistent hashing
+ *       - redis://redis-a:6379
+ *       - redis://:secret@redis-b:6379/0
+ *     virtual-nodes: 160           # points per node on the hash ring
+ * </pre>
+ * Refresh token families, rate limits and the revocation broadcast stay on {@code spring.data.redis}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.revocation-shards")
+public class RevocationShardProperties {
+
+    /**
+     * Whether the revocation blacklist is spread over {@link #nodes} instead of {@code spring.data.redis}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The Redis nodes of the blacklist, as Redis URIs.
+     */
+    private List<String> nodes = new ArrayList<>();
+
+    /**
+     * Number of points per node on the hash ring; more points spread the keys more evenly.
+     */
+    private int virtualNodes = 160;
+}
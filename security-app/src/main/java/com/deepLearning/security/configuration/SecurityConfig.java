@@ -3,8 +3,11 @@ package com.deepLearning.security.configuration;
 import com.deepLearning.security.jwt.JwtAccessDeniedHandler;
 import com.deepLearning.security.jwt.JwtAuthEntryPoint;
 import com.deepLearning.security.jwt.JwtAuthFilter;
+import com.deepLearning.security.oAuth2.CookieOAuth2AuthorizationRequestRepository;
 import com.deepLearning.security.oAuth2.OAuth2SuccessHandler;
+import com.deepLearning.security.userServices.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,9 +18,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -39,7 +45,7 @@ import java.util.List;
  *   <li><b>Defines URL access rules</b> via authorizeHttpRequests:
  *       <ul>
  *         <li>Endpoints under "/api/auth/**", "/error", and "/oauth2/**" are publicly accessible.</li>
- *         <li>Endpoints under "/home/**" require authentication.</li>
+ *         <li>Endpoints under "/home/**" and "/api/admin/**" require authentication.</li>
  *         <li>The logout endpoint "/api/log/logout" is publicly accessible.</li>
  *         <li>All other endpoints are permitted by default.</li>
  *       </ul>
@@ -47,11 +53,16 @@ import java.util.List;
  *   <li><b>Configures OAuth2 login</b> with custom endpoints:
  *       <ul>
  *         <li>The authorization endpoint is set to "/oauth2/login".</li>
+ *         <li>The pending authorization request is kept in an encrypted cookie by
+ *             CookieOAuth2AuthorizationRequestRepository rather than in the HTTP session, so any node can
+ *             complete the callback.</li>
  *         <li>The redirection (callback) endpoint is set to "/login/oauth2/code/*".</li>
+ *         <li>The code exchange and user info calls go through the pooled, timeout-bounded clients of
+ *             OAuth2ProviderConfig.</li>
  *         <li>A custom OAuth2SuccessHandler is specified to process successful OAuth2 authentication events.</li>
  *       </ul>
  *   </li>
- *   <li><b>Registers a DaoAuthenticationProvider</b> that uses the provided UserDetailsService and a BCryptPasswordEncoder,
+ *   <li><b>Registers a DaoAuthenticationProvider</b> that uses the sign-in lookup of the UserService and a BCryptPasswordEncoder,
  *       supporting authentication based on username and password.</li>
  *   <li><b>Defines a custom JwtAuthFilter</b> that is added to the filter chain before the
  *       UsernamePasswordAuthenticationFilter, ensuring that JWT authentication is processed early in the request flow.</li>
@@ -59,8 +70,12 @@ import java.util.List;
  * </ul>
  * <p>
  * This configuration is designed according to best practices for stateless RESTful security and integrates JWT and OAuth2-based authentication.
+ * <p>
+ * It is only active in servlet applications; with {@code spring.main.web-application-type=reactive} the
+ * {@link com.deepLearning.security.reactive.ReactiveSecurityConfig} takes its place.
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
@@ -71,9 +86,9 @@ public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
 
     /**
-     * Service used for loading user-specific data during authentication.
+     * Service used for loading users with their password hash during sign-in.
      */
-    private final UserDetailsService userDetailsService;
+    private final UserService userService;
 
     /**
      * Entry point for handling authentication errors (e.g., invalid or missing JWT).
@@ -90,6 +105,22 @@ public class SecurityConfig {
      */
     private final OAuth2SuccessHandler oAuth2SuccessHandler;
 
+    /**
+     * Stateless store of pending OAuth2 authorization requests.
+     */
+    private final CookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
+
+    /**
+     * Client of the provider token endpoint.
+     */
+    private final OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient;
+
+    /**
+     * User services of plain OAuth2 and OpenID Connect providers.
+     */
+    private final DefaultOAuth2UserService oAuth2UserService;
+    private final OidcUserService oidcUserService;
+
     /**
      * Configures the main SecurityFilterChain for the application.
      * <p>
@@ -138,7 +169,8 @@ public class SecurityConfig {
                     request
                             .requestMatchers("/api/auth/**", "/error", "/oauth2/**").permitAll()
                             .requestMatchers("/home/user", "/home/admin").authenticated()
-                            .requestMatchers("/api/log/logout").authenticated()
+                            .requestMatchers("/api/log/logout", "/api/log/revoke").authenticated()
+                            .requestMatchers("/api/admin/**").authenticated()
                             .requestMatchers("/h2-console/**").permitAll()
                             .anyRequest().permitAll();
                 })
@@ -148,9 +180,15 @@ public class SecurityConfig {
                 // Configure OAuth2 login with custom endpoints and success handler
                 .oauth2Login(oAuth2 ->
                         oAuth2.authorizationEndpoint(authorization ->
-                                        authorization.baseUri("/oauth2/login"))
+                                        authorization.baseUri("/oauth2/login")
+                                                .authorizationRequestRepository(authorizationRequestRepository))
                                 .redirectionEndpoint(redirection ->
                                         redirection.baseUri("/login/oauth2/code/*"))
+                                .tokenEndpoint(token ->
+                                        token.accessTokenResponseClient(authorizationCodeTokenResponseClient))
+                                .userInfoEndpoint(userInfo ->
+                                        userInfo.userService(oAuth2UserService)
+                                                .oidcUserService(oidcUserService))
                                 .successHandler(oAuth2SuccessHandler)
                 )
                 // Register the DaoAuthenticationProvider
@@ -176,14 +214,15 @@ public class SecurityConfig {
     /**
      * Configures and returns a DaoAuthenticationProvider.
      * <p>
-     * This provider uses the injected UserDetailsService and BCryptPasswordEncoder for authenticating users by their credentials.
+     * This provider loads users from the database with {@link UserService#loadUserForSignIn}, bypassing the user cache,
+     * and uses the BCryptPasswordEncoder for authenticating users by their credentials.
      *
      * @return a configured DaoAuthenticationProvider.
      */
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setUserDetailsService(userService::loadUserForSignIn);
         authenticationProvider.setPasswordEncoder(passwordEncoder());
         return authenticationProvider;
     }
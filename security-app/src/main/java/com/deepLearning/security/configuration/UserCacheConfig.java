@@ -0,0 +1,42 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.redis.RedisUserCache;
+import com.deepLearning.security.userServices.LocalUserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * UserCacheConfig puts the shared Redis tier behind the {@link LocalUserCache} when
+ * {@code security.user-cache.shared.enabled} is set. The two-tier cache is the primary {@code UserCache}, so every
+ * consumer of the local one uses it instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "security.user-cache.shared", name = "enabled", havingValue = "true")
+public class UserCacheConfig {
+
+    /**
+     * Provides the two-tier user cache, subscribed to the invalidations of the other nodes.
+     *
+     * @param localUserCache  the local tier.
+     * @param properties      the user cache properties.
+     * @param redisTemplate   the Redis template of the shared tier.
+     * @param redisProperties the Redis connection properties of the subscription.
+     * @param meterRegistry   the registry of the lookup counters.
+     * @return the two-tier user cache.
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    public RedisUserCache redisUserCache(LocalUserCache localUserCache, UserCacheProperties properties,
+                                         StringRedisTemplate redisTemplate, RedisProperties redisProperties,
+                                         MeterRegistry meterRegistry) {
+        RedisUserCache cache = new RedisUserCache(localUserCache, redisTemplate,
+                properties.getShared().getTimeToLive(), meterRegistry);
+        cache.subscribe(LettuceUris.from(redisProperties));
+        return cache;
+    }
+}
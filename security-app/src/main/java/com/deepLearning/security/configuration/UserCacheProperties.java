@@ -0,0 +1,60 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * UserCacheProperties configures the in-memory cache of loaded users and the optional cache shared by all nodes
+ * in Redis.
+ * <p>
+ * Bound from the {@code security.user-cache} prefix:
+ * <pre>
+ * security:
+ *   user-cache:
+ *     max-size: 10000     # maximum number of cached users
+ *     time-to-live: 60s   # how long a cached user is used before it is loaded again
+ *     shared:
+ *       enabled: true     # second tier in Redis, with invalidations broadcast to all nodes
+ *       time-to-live: 5m  # how long a user snapshot is kept in Redis
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * Maximum number of cached users; {@code 0} disables the cache.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * Time after which a cached user is loaded again. Bounds how long a change made outside of
+     * {@code UserService} (e.g., directly in the database) can go unnoticed.
+     */
+    private Duration timeToLive = Duration.ofSeconds(60);
+
+    /**
+     * The cache shared by all nodes.
+     */
+    private final Shared shared = new Shared();
+
+    @Getter
+    @Setter
+    public static class Shared {
+
+        /**
+         * Whether users missing from the in-memory cache are looked up in Redis before the database.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time after which a user snapshot expires from Redis. Bounds how long a snapshot can outlive a change whose
+         * invalidation did not reach Redis.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+}
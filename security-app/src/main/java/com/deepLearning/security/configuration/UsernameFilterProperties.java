@@ -0,0 +1,49 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * UsernameFilterProperties configures the in-memory Bloom filter of existing usernames, which lets sign-up skip the
+ * existence query for usernames that are definitely new.
+ * <p>
+ * Bound from the {@code security.username-filter} prefix:
+ * <pre>
+ * security:
+ *   username-filter:
+ *     enabled: true               # answer "definitely not present" from memory
+ *     expected-usernames: 1000000 # minimal number of usernames the filter is sized for
+ *     false-positive-rate: 0.01   # share of new usernames that are still checked in the database
+ *     rebuild-interval: 10m       # how often the filter is rebuilt from the users table
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.username-filter")
+public class UsernameFilterProperties {
+
+    /**
+     * Whether the filter is built; when off, every existence check queries the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimal number of usernames the filter is sized for. A rebuild sizes it for one and a half times the users in
+     * the table if that is more. The filter takes about 1.2 bytes per username at a 1% false positive rate.
+     */
+    private long expectedUsernames = 1_000_000;
+
+    /**
+     * False positive rate of the filter at the number of usernames it is sized for.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Interval of the rebuild from the {@code users} table. Bounds how long deleted usernames still cost a query,
+     * and how long users created by other nodes are unknown to the filter.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,143 @@
+package com.deepLearning.security.controllers;
+
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.dto.AuthCredentials;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.exceptions.AccountTemporarilyLockedException;
+import com.deepLearning.security.exceptions.RateLimitExceededException;
+import com.deepLearning.security.jwt.JwtTokenManager;
+import com.deepLearning.security.rateLimit.AuthRateLimiter;
+import com.deepLearning.security.securityServices.AuthService;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Tag(name = "Authentication Controller", description = "Controller for user authentication and token management")
+public class AuthController {
+
+    private final AuthService authService;
+    private final JwtTokenManager jwtTokenManager;
+    private final AuthRateLimiter authRateLimiter;
+
+    @Operation(summary = "User registration", description = "Registers a new user with provided credentials")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "User successfully registered"),
+            @ApiResponse(responseCode = "400", description = "Invalid registration data"),
+            @ApiResponse(responseCode = "429", description = "Too many requests")
+    })
+    @PostMapping("/sign-up")
+    @RoleCheck(access = RoleCheck.Access.ANONYMOUS)
+    public ResponseEntity<HttpStatus> signUp(@RequestBody AuthCredentials credentials,
+                                             HttpServletRequest request, HttpServletResponse response) {
+        authRateLimiter.acquire(request, response, credentials.username());
+        boolean isRegistered = authService.registration(credentials);
+        return isRegistered
+                ? new ResponseEntity<>(HttpStatus.CREATED)
+                : new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    @Operation(summary = "User authentication", description = "Authenticates a user and returns access and refresh tokens")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful authentication",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokensDto.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials or temporarily locked account"),
+            @ApiResponse(responseCode = "429", description = "Too many requests")
+    })
+    @PostMapping("/sign-in")
+    @RoleCheck(access = RoleCheck.Access.ANONYMOUS)
+    public ResponseEntity<TokensDto> signIn(@RequestBody AuthCredentials credentials,
+                                            HttpServletRequest request, HttpServletResponse response) {
+        authRateLimiter.acquire(request, response, credentials.username());
+        TokensDto tokens = authService.authenticate(credentials);
+        return new ResponseEntity<>(tokens, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Refresh token", description = "Refreshes access token using a valid refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "New access token generated",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokensDto.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid refresh token")
+    })
+    @SecurityRequirement(name = "JWT")
+    @PostMapping("/refresh-token")
+    @RoleCheck(access = RoleCheck.Access.AUTHENTICATED)
+    public ResponseEntity<?> refreshToken(@RequestBody TokensDto tokens) {
+        TokensDto tokensDto = jwtTokenManager.manageTokens(tokens);
+
+        if (tokensDto != null) {
+            return new ResponseEntity<>(tokensDto, HttpStatus.OK);
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+        }
+    }
+
+    /**
+     * Answers a rejected refresh token with 401 Unauthorized.
+     *
+     * @param e the rejection.
+     * @return a 401 response.
+     */
+    @ExceptionHandler(TokenRejectedException.class)
+    public ResponseEntity<String> handleRejectedToken(TokenRejectedException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+    }
+
+    /**
+     * Answers a rate limited request with 429 Too Many Requests; the rate limit headers are already set.
+     *
+     * @param e the rejection.
+     * @return a 429 response.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getDecision().retryAfterSeconds()))
+                .body("Too many requests");
+    }
+
+    /**
+     * Answers a sign-in of a temporarily locked account with 401 Unauthorized, telling when to retry.
+     *
+     * @param e the rejection.
+     * @return a 401 response.
+     */
+    @ExceptionHandler(AccountTemporarilyLockedException.class)
+    public ResponseEntity<String> handleTemporarilyLocked(AccountTemporarilyLockedException e) {
+        long retryAfter = Math.max(1, Duration.between(Instant.now(), e.getLockedUntil()).toSeconds() + 1);
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Answers a failed sign-in with 401 Unauthorized.
+     *
+     * @param e the rejection.
+     * @return a 401 response.
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> handleAuthenticationFailure(AuthenticationException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+    }
+}
@@ -1,11 +1,12 @@
 package com.deepLearning.security.controllers;
 
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.model.Roles;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,6 +23,9 @@ import java.time.LocalDateTime;
  * </ul>
  * <p>
  * Each endpoint returns a simple greeting message along with the current date and time.
+ * <p>
+ * Access rules are declared with {@link RoleCheck}, which is compiled into bitmask checks at startup
+ * instead of evaluating a SpEL expression on every call.
  */
 @RestController
 @RequestMapping("/home")
@@ -41,7 +45,7 @@ public class HomeController {
     })
     @SecurityRequirement(name = "JWT")
 
-    @PreAuthorize("hasRole('USER')")
+    @RoleCheck(Roles.ROLE_USER)
     @GetMapping("/user")
     public String getUser() {
         return "Hello World: " + LocalDateTime.now();
@@ -60,14 +64,14 @@ public class HomeController {
     })
     @SecurityRequirement(name = "JWT")
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @RoleCheck(Roles.ROLE_ADMIN)
     @GetMapping("/admin")
     public String getAdmin() {
         return "Hello admin: " + LocalDateTime.now();
     }
 
     @GetMapping("/free")
-    @PreAuthorize("permitAll()")
+    @RoleCheck(access = RoleCheck.Access.PERMIT_ALL)
     public String getFree() {
         return "Hello world free: " + LocalDateTime.now();
     }
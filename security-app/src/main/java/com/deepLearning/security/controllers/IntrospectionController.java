@@ -0,0 +1,118 @@
+package com.deepLearning.security.controllers;
+
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.configuration.IntrospectionProperties;
+import com.deepLearning.security.dto.IntrospectionRequest;
+import com.deepLearning.security.dto.IntrospectionResponse;
+import com.deepLearning.security.dto.TokenIntrospection;
+import com.deepLearning.security.securityServices.TokenIntrospectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * IntrospectionController lets resource servers check many tokens in one call, in the spirit of RFC 7662.
+ * <p>
+ * The endpoint at {@code /api/auth/introspect} takes a JSON list of tokens and answers, for each of them in the same
+ * order, whether it is active and, if so, its subject, scope (the space-separated authorities) and timestamps.
+ * The answer carries a {@code Cache-Control: private, max-age} that never outlives the first expiring active token,
+ * so callers can cache it without accepting a token after its expiry.
+ * <p>
+ * Callers are resource servers rather than users, so they authenticate as clients, like the edge proxy at the
+ * check endpoint: only callers from {@code security.introspection.allowed-networks} with the
+ * {@code security.introspection.shared-secret} in the {@value #SECRET_HEADER} header are answered, the others get
+ * {@code 403 Forbidden}. A user's token is not needed, and would not do: it would tie the resource servers to a
+ * person whose token expires, and is revoked on logout.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/auth")
+@Tag(name = "Introspection Controller", description = "API for checking the status of tokens")
+public class IntrospectionController {
+
+    /**
+     * Maximum number of tokens in one introspection request.
+     */
+    static final int MAX_BATCH_SIZE = 1_000;
+
+    public static final String SECRET_HEADER = "X-Introspection-Secret";
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+    private final List<IpAddressMatcher> allowedNetworks;
+    private final byte[] sharedSecret;
+
+    /**
+     * Constructs the controller.
+     *
+     * @param tokenIntrospectionService introspects the tokens.
+     * @param properties                the allowed callers.
+     */
+    public IntrospectionController(TokenIntrospectionService tokenIntrospectionService,
+                                   IntrospectionProperties properties) {
+        this.tokenIntrospectionService = tokenIntrospectionService;
+        this.allowedNetworks = properties.getAllowedNetworks().stream().map(IpAddressMatcher::new).toList();
+        this.sharedSecret = properties.getSharedSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Introspects a batch of tokens.
+     *
+     * @param request     the tokens, at most {@link #MAX_BATCH_SIZE}.
+     * @param secret      the shared secret of the caller.
+     * @param httpRequest the HTTP request, for the address of the caller.
+     * @return the status of each token, 400 Bad Request if the batch is missing or too large, or 403 Forbidden if
+     * the caller is not allowed.
+     */
+    @Operation(summary = "Token introspection", description = "Returns the status of a batch of tokens")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens introspected"),
+            @ApiResponse(responseCode = "400", description = "Batch missing or too large"),
+            @ApiResponse(responseCode = "403", description = "Caller outside the allowed networks or without the secret")
+    })
+    @RoleCheck(access = RoleCheck.Access.PERMIT_ALL)
+    @PostMapping("/introspect")
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestBody IntrospectionRequest request,
+                                                            @RequestHeader(value = SECRET_HEADER, required = false)
+                                                            String secret,
+                                                            HttpServletRequest httpRequest) {
+        if (!isAllowedCaller(httpRequest.getRemoteAddr(), secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (request.tokens() == null || request.tokens().size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<TokenIntrospection> introspections = tokenIntrospectionService.introspect(request.tokens());
+        Duration maxAge = tokenIntrospectionService.cacheDuration(introspections);
+        CacheControl cacheControl = maxAge.isZero()
+                ? CacheControl.noStore()
+                : CacheControl.maxAge(maxAge).cachePrivate();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(new IntrospectionResponse(introspections));
+    }
+
+    private boolean isAllowedCaller(String address, String secret) {
+        if (address == null || allowedNetworks.stream().noneMatch(network -> network.matches(address))) {
+            return false;
+        }
+        return sharedSecret.length > 0 && secret != null
+                && MessageDigest.isEqual(sharedSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
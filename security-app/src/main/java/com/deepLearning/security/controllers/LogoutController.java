@@ -1,7 +1,11 @@
 package com.deepLearning.security.controllers;
 
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.dto.BatchRevocationRequest;
+import com.deepLearning.security.dto.BatchRevocationResult;
 import com.deepLearning.security.dto.TokensDto;
 import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.model.Roles;
 import com.deepLearning.security.redis.RevokedTokenServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,8 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,15 +28,23 @@ import org.springframework.web.bind.annotation.RestController;
  * the controller calls the {@code revokeToken} method of {@code RevokedTokenService} to add the tokens to
  * a blacklist. This prevents further use of the tokens for authentication.
  * <p>
+ * Administrators can revoke many tokens and sessions at once through {@code /api/log/revoke}.
+ * <p>
  * The controller is designed for use in stateless RESTful applications using JWT-based security,
  * where explicit token revocation is necessary during logout.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/log")
 @RequiredArgsConstructor
 @Tag(name = "Logout Controller", description = "API for revoking tokens upon user logout")
 public class LogoutController {
 
+    /**
+     * Maximum number of tokens, and of family ids, in one batch revocation.
+     */
+    static final int MAX_BATCH_SIZE = 10_000;
+
     /**
      * Service responsible for revoking tokens by storing them in a blacklist (e.g., in Redis).
      */
@@ -61,10 +73,36 @@ public class LogoutController {
             @ApiResponse(responseCode = "401", description = "Unauthorized - token is missing or invalid")
     })
     @SecurityRequirement(name = "JWT")
-    @PreAuthorize("isAuthenticated()")
+    @RoleCheck(access = RoleCheck.Access.AUTHENTICATED)
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestBody TokensDto tokens) {
         revokedTokenServiceImpl.revokeToken(tokens);
         return ResponseEntity.ok("Logged out successfully");
     }
+
+    /**
+     * Revokes many tokens and refresh token families (sessions) at once, e.g. all sessions of a compromised client.
+     * <p>
+     * The tokens are verified in parallel and everything is written to Redis in one pipelined round trip.
+     * Malformed, foreign and expired tokens are skipped and counted in the result.
+     *
+     * @param request the tokens and family ids to revoke, at most {@link #MAX_BATCH_SIZE} of each.
+     * @return the outcome of the revocation, or 400 Bad Request if the batch is too large.
+     */
+    @Operation(summary = "Batch revocation", description = "Revokes many tokens and sessions at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "400", description = "Batch too large"),
+            @ApiResponse(responseCode = "403", description = "Access denied - user does not have the required role")
+    })
+    @SecurityRequirement(name = "JWT")
+    @RoleCheck(Roles.ROLE_ADMIN)
+    @PostMapping("/revoke")
+    public ResponseEntity<BatchRevocationResult> revoke(@RequestBody BatchRevocationRequest request) {
+        if ((request.tokens() != null && request.tokens().size() > MAX_BATCH_SIZE)
+                || (request.familyIds() != null && request.familyIds().size() > MAX_BATCH_SIZE)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(revokedTokenServiceImpl.revokeTokens(request));
+    }
 }
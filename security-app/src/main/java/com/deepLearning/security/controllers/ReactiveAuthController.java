@@ -0,0 +1,138 @@
+package com.deepLearning.security.controllers;
+
+import com.deepLearning.security.dto.AuthCredentials;
+import com.deepLearning.security.dto.BatchRevocationRequest;
+import com.deepLearning.security.dto.BatchRevocationResult;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.exceptions.AccountTemporarilyLockedException;
+import com.deepLearning.security.exceptions.RateLimitExceededException;
+import com.deepLearning.security.jwt.JwtTokenManager;
+import com.deepLearning.security.rateLimit.AuthRateLimiter;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.securityServices.AuthService;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * ReactiveAuthController serves the authentication endpoints of {@link AuthController} and
+ * {@link LogoutController} on the reactive stack, under the same paths and with the same responses.
+ * <p>
+ * The services behind these endpoints block (JPA, the synchronous Redis client, BCrypt), so they never run on
+ * the event loop:
+ * <ul>
+ *   <li>sign-up and sign-in hash passwords, and run on the {@code passwordHashingScheduler}, bounded to one
+ *       thread per core;</li>
+ *   <li>the rate limit check, the refresh, the logout and the batch revocation run on the bounded elastic
+ *       scheduler.</li>
+ * </ul>
+ * Access rules are declared in {@link com.deepLearning.security.reactive.ReactiveSecurityConfig}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final AuthService authService;
+    private final JwtTokenManager jwtTokenManager;
+    private final RevokedTokenService revokedTokenService;
+    private final AuthRateLimiter authRateLimiter;
+    private final Scheduler passwordHashingScheduler;
+
+    @PostMapping("/api/auth/sign-up")
+    public Mono<ResponseEntity<HttpStatus>> signUp(@RequestBody AuthCredentials credentials,
+                                                   ServerWebExchange exchange) {
+        return acquire(exchange, credentials.username())
+                .then(Mono.fromCallable(() -> authService.registration(credentials))
+                        .subscribeOn(passwordHashingScheduler))
+                .map(isRegistered -> new ResponseEntity<>(isRegistered ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST));
+    }
+
+    @PostMapping("/api/auth/sign-in")
+    public Mono<ResponseEntity<TokensDto>> signIn(@RequestBody AuthCredentials credentials,
+                                                  ServerWebExchange exchange) {
+        return acquire(exchange, credentials.username())
+                .then(Mono.fromCallable(() -> authService.authenticate(credentials))
+                        .subscribeOn(passwordHashingScheduler))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/api/auth/refresh-token")
+    public Mono<ResponseEntity<TokensDto>> refreshToken(@RequestBody TokensDto tokens) {
+        return Mono.fromCallable(() -> jwtTokenManager.manageTokens(tokens))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/api/log/logout")
+    public Mono<ResponseEntity<String>> logout(@RequestBody TokensDto tokens) {
+        return Mono.fromRunnable(() -> revokedTokenService.revokeToken(tokens))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.ok("Logged out successfully"));
+    }
+
+    @PostMapping("/api/log/revoke")
+    public Mono<ResponseEntity<BatchRevocationResult>> revoke(@RequestBody BatchRevocationRequest request) {
+        if ((request.tokens() != null && request.tokens().size() > LogoutController.MAX_BATCH_SIZE)
+                || (request.familyIds() != null && request.familyIds().size() > LogoutController.MAX_BATCH_SIZE)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromCallable(() -> revokedTokenService.revokeTokens(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(TokenRejectedException.class)
+    public ResponseEntity<String> handleRejectedToken(TokenRejectedException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getDecision().retryAfterSeconds()))
+                .body("Too many requests");
+    }
+
+    @ExceptionHandler(AccountTemporarilyLockedException.class)
+    public ResponseEntity<String> handleTemporarilyLocked(AccountTemporarilyLockedException e) {
+        long retryAfter = Math.max(1, Duration.between(Instant.now(), e.getLockedUntil()).toSeconds() + 1);
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> handleAuthenticationFailure(AuthenticationException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+    }
+
+    /**
+     * Applies the sign-in and sign-up rate limits off the event loop, since the Redis limiter blocks.
+     */
+    private Mono<Void> acquire(ServerWebExchange exchange, String username) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String clientAddress = remoteAddress == null || remoteAddress.getAddress() == null
+                ? "unknown"
+                : remoteAddress.getAddress().getHostAddress();
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        return Mono.<Void>fromRunnable(() -> authRateLimiter.acquire(clientAddress, username, headers::set))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
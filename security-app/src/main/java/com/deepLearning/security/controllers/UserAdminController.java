@@ -0,0 +1,83 @@
+package com.deepLearning.security.controllers;
+
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.dto.UserPage;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.repositories.UserSearchCriteria;
+import com.deepLearning.security.userServices.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * UserAdminController lets administrators list and search users.
+ * <p>
+ * The endpoint at {@code /api/admin/users} returns the users in username order, optionally restricted to a username
+ * prefix and to values of the account flags. Pages are chained by cursor: the {@code next} of a page is passed as
+ * {@code after} to get the following one. Since a page starts at a username rather than at an offset, every page
+ * costs the same, however deep it is (see {@link com.deepLearning.security.repositories.UserSearchRepository}).
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "User Admin Controller", description = "API for listing and searching users")
+public class UserAdminController {
+
+    /**
+     * Number of users in a page when no limit is given.
+     */
+    static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Maximum number of users in a page.
+     */
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final UserService userService;
+
+    /**
+     * Lists one page of users.
+     *
+     * @param prefix                the start of the usernames, if any.
+     * @param accountNonExpired     the required value of the flag, if any.
+     * @param accountNonLocked      the required value of the flag, if any.
+     * @param credentialsNonExpired the required value of the flag, if any.
+     * @param enabled               the required value of the flag, if any.
+     * @param after                 the cursor of the page, or none for the first page.
+     * @param limit                 the number of users in the page, at most {@link #MAX_PAGE_SIZE}.
+     * @return the page, or 400 Bad Request if the limit is out of range.
+     */
+    @Operation(summary = "User search", description = "Returns one page of users in username order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users listed"),
+            @ApiResponse(responseCode = "400", description = "Limit out of range"),
+            @ApiResponse(responseCode = "403", description = "Access denied - user does not have the required role")
+    })
+    @SecurityRequirement(name = "JWT")
+    @RoleCheck(Roles.ROLE_ADMIN)
+    @GetMapping("/users")
+    public ResponseEntity<UserPage> searchUsers(@RequestParam(required = false) String prefix,
+                                                @RequestParam(required = false) Boolean accountNonExpired,
+                                                @RequestParam(required = false) Boolean accountNonLocked,
+                                                @RequestParam(required = false) Boolean credentialsNonExpired,
+                                                @RequestParam(required = false) Boolean enabled,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserSearchCriteria criteria = new UserSearchCriteria(prefix == null || prefix.isEmpty() ? null : prefix,
+                accountNonExpired, accountNonLocked, credentialsNonExpired, enabled);
+        return ResponseEntity.ok(userService.searchUsers(criteria, after, limit));
+    }
+}
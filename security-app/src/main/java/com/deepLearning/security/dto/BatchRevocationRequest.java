@@ -0,0 +1,22 @@
+package com.deepLearning.security.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A data transfer object (DTO) listing the tokens and sessions to revoke at once, e.g. all sessions of a
+ * compromised client.
+ *
+ * @param tokens    access or refresh tokens to revoke; a refresh token revokes its whole family.
+ * @param familyIds ids of refresh token families (sessions) to revoke.
+ */
+@Schema(description = "Tokens and refresh token families to revoke at once")
+public record BatchRevocationRequest(
+        @Schema(description = "Access or refresh tokens to revoke")
+        List<String> tokens,
+
+        @Schema(description = "Ids of refresh token families (sessions) to revoke")
+        List<String> familyIds
+) {
+}
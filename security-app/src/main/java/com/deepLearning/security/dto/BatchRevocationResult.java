@@ -0,0 +1,20 @@
+package com.deepLearning.security.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A data transfer object (DTO) with the outcome of a batch revocation.
+ *
+ * @param revoked         tokens added to the blacklist.
+ * @param familiesRevoked refresh token families revoked, by id or through one of their tokens.
+ * @param expired         tokens skipped because they have already expired.
+ * @param invalid         tokens skipped because they are malformed or not signed by this application.
+ */
+@Schema(description = "Outcome of a batch revocation")
+public record BatchRevocationResult(
+        int revoked,
+        int familiesRevoked,
+        int expired,
+        int invalid
+) {
+}
@@ -0,0 +1,17 @@
+package com.deepLearning.security.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A data transfer object (DTO) listing the tokens to introspect at once.
+ *
+ * @param tokens the tokens, answered in the same order.
+ */
+@Schema(description = "Tokens to introspect at once")
+public record IntrospectionRequest(
+        @Schema(description = "Tokens to introspect")
+        List<String> tokens
+) {
+}
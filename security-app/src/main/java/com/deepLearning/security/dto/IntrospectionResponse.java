@@ -0,0 +1,16 @@
+package com.deepLearning.security.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A data transfer object (DTO) with the status of each introspected token.
+ *
+ * @param tokens the status of each token, in the order of the request.
+ */
+@Schema(description = "Status of each introspected token")
+public record IntrospectionResponse(
+        List<TokenIntrospection> tokens
+) {
+}
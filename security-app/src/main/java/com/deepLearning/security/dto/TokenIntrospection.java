@@ -0,0 +1,34 @@
+package com.deepLearning.security.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A data transfer object (DTO) with the status of one token, named after the introspection response of RFC 7662.
+ * An inactive token only carries {@code active: false}.
+ *
+ * @param active    whether the token is a valid, unexpired and unrevoked access token.
+ * @param sub       the subject (username) of the token.
+ * @param scope     the authorities of the token, space-separated.
+ * @param exp       the expiry of the token, in epoch seconds.
+ * @param iat       the issue time of the token, in epoch seconds.
+ * @param tokenType the type of the token.
+ */
+@Schema(description = "Status of one token (RFC 7662)")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospection(
+        boolean active,
+        String sub,
+        String scope,
+        Long exp,
+        Long iat,
+        @JsonProperty("token_type")
+        String tokenType
+) {
+
+    /**
+     * The answer for every token that is not active.
+     */
+    public static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, null, null, null, null);
+}
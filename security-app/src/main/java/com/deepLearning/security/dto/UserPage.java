@@ -0,0 +1,19 @@
+package com.deepLearning.security.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A data transfer object (DTO) with one page of listed users.
+ *
+ * @param users the users of the page, in username order.
+ * @param next  the cursor of the next page (the {@code after} parameter of the next request), or {@code null} if
+ *              this is the last page.
+ */
+@Schema(description = "One page of users")
+public record UserPage(
+        List<UserSummary> users,
+        String next
+) {
+}
@@ -0,0 +1,48 @@
+package com.deepLearning.security.dto;
+
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * A data transfer object (DTO) with the account of one user, as listed to administrators. The password is never
+ * included.
+ *
+ * @param id                    the ID of the user.
+ * @param username              the username.
+ * @param image                 the profile image, if any.
+ * @param roles                 the roles of the user.
+ * @param accountNonExpired     whether the account has not expired.
+ * @param accountNonLocked      whether the account is not locked, counting an ended lock as unlocked.
+ * @param credentialsNonExpired whether the credentials have not expired.
+ * @param enabled               whether the account is enabled.
+ * @param lockedUntil           the end of a temporary lock, if any.
+ */
+@Schema(description = "Account of one user")
+public record UserSummary(
+        Long id,
+        String username,
+        String image,
+        Set<Roles> roles,
+        boolean accountNonExpired,
+        boolean accountNonLocked,
+        boolean credentialsNonExpired,
+        boolean enabled,
+        Instant lockedUntil
+) {
+
+    /**
+     * Returns the summary of a user.
+     *
+     * @param user the user.
+     * @return the summary.
+     */
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getImage(), Set.copyOf(user.getRoles()),
+                user.isAccountNonExpired(), user.isAccountNonLocked(), user.isCredentialsNonExpired(),
+                user.isEnabled(), user.getLockedUntil());
+    }
+}
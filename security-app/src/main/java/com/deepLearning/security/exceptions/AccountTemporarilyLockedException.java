@@ -0,0 +1,50 @@
+package com.deepLearning.security.exceptions;
+
+import lombok.Getter;
+import org.springframework.security.authentication.LockedException;
+
+import java.time.Instant;
+
+/**
+ * AccountTemporarilyLockedException is a {@link LockedException} for accounts locked after repeated failed
+ * sign-ins, carrying the end of the lock.
+ * <p>
+ * It is thrown before the user is loaded or the password is checked, on every attempt against a locked account,
+ * so like {@link TokenRejectedException} it does not capture a stack trace.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * Instant lockedUntil = loginAttemptService.lockedUntil(username);
+ * if (lockedUntil != null) {
+ *     throw new AccountTemporarilyLockedException(lockedUntil);
+ * }
+ * </pre>
+ */
+@Getter
+public class AccountTemporarilyLockedException extends LockedException {
+
+    /**
+     * The end of the lock.
+     */
+    private final Instant lockedUntil;
+
+    /**
+     * Constructs a new exception for a lock ending at the given instant.
+     *
+     * @param lockedUntil the end of the lock.
+     */
+    public AccountTemporarilyLockedException(Instant lockedUntil) {
+        super("Account is temporarily locked");
+        this.lockedUntil = lockedUntil;
+    }
+
+    /**
+     * Does not fill in the stack trace.
+     *
+     * @return this exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,48 @@
+package com.deepLearning.security.exceptions;
+
+import com.deepLearning.security.rateLimit.RateLimitDecision;
+import lombok.Getter;
+
+/**
+ * RateLimitExceededException is thrown when a request exceeds its rate limit and is answered with
+ * 429 Too Many Requests.
+ * <p>
+ * Like {@link TokenRejectedException} it does not capture a stack trace: it is thrown on every rejected request,
+ * and its throw site is always the rate limit check.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * RateLimitDecision decision = rateLimiter.tryAcquire(key, rule);
+ * if (!decision.allowed()) {
+ *     throw new RateLimitExceededException(decision);
+ * }
+ * </pre>
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * The decision that denied the request.
+     */
+    private final RateLimitDecision decision;
+
+    /**
+     * Constructs a new exception for the given decision.
+     *
+     * @param decision the decision that denied the request.
+     */
+    public RateLimitExceededException(RateLimitDecision decision) {
+        super("Too many requests");
+        this.decision = decision;
+    }
+
+    /**
+     * Does not fill in the stack trace.
+     *
+     * @return this exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
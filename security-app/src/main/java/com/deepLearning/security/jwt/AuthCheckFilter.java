@@ -0,0 +1,162 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.AuthCheckProperties;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AuthCheckFilter answers the token checks of an edge proxy ({@code auth_request}-style subrequests) without
+ * reaching Spring MVC or the Spring Security filter chain.
+ * <p>
+ * It is a terminal filter: it never calls the rest of the chain, so it guards itself. Only callers from
+ * {@code security.auth-check.allowed-networks}, and with the {@value #SECRET_HEADER} header if
+ * {@code security.auth-check.shared-secret} is set, are answered; the others get {@code 403 Forbidden}.
+ * <p>
+ * The bearer token of the request is verified with {@link JwtTokenProvider#parseToken} and checked against the
+ * revocations like in {@link JwtAuthFilter}. The user is then loaded like in {@link JwtAuthFilter}, which is
+ * answered by the user cache in the common case, so that a disabled or locked account is refused and the roles are
+ * the current ones rather than those in the token. The response has no body:
+ * <ul>
+ *   <li>{@code 204 No Content} with the {@value #USER_HEADER}, {@value #ROLES_HEADER} (comma-separated authorities)
+ *       and {@value #EXPIRES_HEADER} (epoch seconds) headers, for a valid access token of an active user;</li>
+ *   <li>{@code 401 Unauthorized} with {@code WWW-Authenticate: Bearer} otherwise, counted by
+ *       {@link RejectionLog}.</li>
+ * </ul>
+ * It is registered on {@code security.auth-check.path} by
+ * {@link com.deepLearning.security.configuration.AuthCheckConfig}.
+ */
+public class AuthCheckFilter implements Filter {
+
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String EXPIRES_HEADER = "X-Auth-Expires";
+    public static final String SECRET_HEADER = "X-Auth-Check-Secret";
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtTokenProvider tokenProvider;
+    private final RevokedTokenService revokedTokenService;
+    private final TokenSanityGate sanityGate;
+    private final RejectionLog rejectionLog;
+    private final UserDetailsService userDetailsService;
+    private final List<IpAddressMatcher> allowedNetworks;
+    private final byte[] sharedSecret;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param tokenProvider       verifies the tokens.
+     * @param revokedTokenService checks the revocations.
+     * @param sanityGate          bounds the token length.
+     * @param rejectionLog        counts the rejected checks.
+     * @param userDetailsService  loads the current state of the user.
+     * @param properties          the allowed callers.
+     */
+    public AuthCheckFilter(JwtTokenProvider tokenProvider, RevokedTokenService revokedTokenService,
+                           TokenSanityGate sanityGate, RejectionLog rejectionLog,
+                           UserDetailsService userDetailsService, AuthCheckProperties properties) {
+        this.tokenProvider = tokenProvider;
+        this.revokedTokenService = revokedTokenService;
+        this.sanityGate = sanityGate;
+        this.rejectionLog = rejectionLog;
+        this.userDetailsService = userDetailsService;
+        this.allowedNetworks = properties.getAllowedNetworks().stream().map(IpAddressMatcher::new).toList();
+        this.sharedSecret = properties.getSharedSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain) {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.setContentLength(0);
+        if (!isAllowedCaller(request)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        try {
+            String token = token(request.getHeader(HttpHeaders.AUTHORIZATION));
+            TokenClaims claims = check(token);
+            UserDetails user = activeUser(claims.subject());
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            response.setHeader(USER_HEADER, user.getUsername());
+            response.setHeader(ROLES_HEADER, user.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.joining(",")));
+            response.setHeader(EXPIRES_HEADER, Long.toString(claims.expiresAt()));
+        } catch (JwtException e) {
+            rejectionLog.record(e instanceof TokenRejectedException rejected
+                    ? rejected.getReason()
+                    : TokenRejectedException.Reason.INVALID);
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        }
+    }
+
+    private boolean isAllowedCaller(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (address == null || allowedNetworks.stream().noneMatch(network -> network.matches(address))) {
+            return false;
+        }
+        if (sharedSecret.length == 0) {
+            return true;
+        }
+        String secret = request.getHeader(SECRET_HEADER);
+        return secret != null && MessageDigest.isEqual(sharedSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String token(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.UNAUTHENTICATED);
+        }
+        if (authorization.length() - BEARER.length() > sanityGate.getMaxLength()) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        return authorization.substring(BEARER.length());
+    }
+
+    private TokenClaims check(String token) {
+        TokenClaims claims = tokenProvider.parseToken(token);
+        if (claims.type() != TokenType.ACCESS) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.WRONG_TOKEN_TYPE);
+        }
+        if (revokedTokenService.isTokenRevoked(token, claims)) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.REVOKED);
+        }
+        return claims;
+    }
+
+    private UserDetails activeUser(String username) {
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.ACCESS_DENIED);
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked() || !user.isAccountNonExpired()) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.ACCESS_DENIED);
+        }
+        return user;
+    }
+}
@@ -3,7 +3,9 @@ package com.deepLearning.security.jwt;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.stereotype.Component;
@@ -14,7 +16,7 @@ import java.io.IOException;
  * JwtAccessDeniedHandler is a custom implementation of the AccessDeniedHandler interface.
  * <p>
  * This handler is invoked when an authenticated user attempts to access a resource for which they do not have the required permissions.
- * In such cases, it sends an HTTP 403 Forbidden response to the client.
+ * In such cases, it sends an HTTP 403 Forbidden response to the client through {@link RejectionResponder}.
  * <p>
  * This is typically used in conjunction with JWT-based authentication, where access control is enforced by checking user roles and authorities.
  * <p>
@@ -25,13 +27,21 @@ import java.io.IOException;
  * </pre>
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
 @Slf4j
 public class JwtAccessDeniedHandler implements AccessDeniedHandler {
 
+    /**
+     * Writes the 403 response.
+     */
+    private final RejectionResponder rejectionResponder;
+
     /**
      * Handles an access denied failure.
      * <p>
-     * This method sends a 403 Forbidden response with a simple "Forbidden" message.
+     * This method sends a 403 Forbidden response with a simple "Forbidden" message. The exception is logged only
+     * when fast rejection is disabled; in fast mode it is counted by the aggregated {@link RejectionLog}.
      *
      * @param request               the HttpServletRequest that resulted in an AccessDeniedException
      * @param response              the HttpServletResponse to send the error response
@@ -42,7 +52,9 @@ public class JwtAccessDeniedHandler implements AccessDeniedHandler {
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, AccessDeniedException accessDeniedException)
             throws IOException, ServletException {
-        log.error(accessDeniedException.getMessage(), accessDeniedException);
-        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden");
+        if (!rejectionResponder.isFast()) {
+            log.error(accessDeniedException.getMessage(), accessDeniedException);
+        }
+        rejectionResponder.forbidden(response);
     }
 }
\ No newline at end of file
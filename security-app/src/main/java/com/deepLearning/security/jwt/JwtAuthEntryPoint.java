@@ -1,9 +1,12 @@
 package com.deepLearning.security.jwt;
 
+import com.deepLearning.security.verifier.TokenRejectedException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
@@ -17,8 +20,9 @@ import java.io.IOException;
  * This component is invoked whenever an unauthenticated user attempts to access a secured REST endpoint.
  * It is responsible for sending an HTTP 401 Unauthorized error response to the client.
  * <p>
- * The handler logs the authentication exception details and then sends an error response.
- * This is useful for diagnosing authentication issues and ensuring that unauthorized access is properly denied.
+ * The response is written by {@link RejectionResponder}. In fast mode (the default) a pre-rendered body is written
+ * without an error page dispatch and the rejection is only counted in the aggregated {@link RejectionLog}; otherwise
+ * the exception is logged and {@code sendError} is used.
  * <p>
  * Example usage:
  * <pre>
@@ -27,14 +31,21 @@ import java.io.IOException;
  * </pre>
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthEntryPoint implements AuthenticationEntryPoint {
 
+    /**
+     * Writes the 401 response.
+     */
+    private final RejectionResponder rejectionResponder;
+
     /**
      * Commences an authentication scheme.
      * <p>
      * This method is called when an exception is thrown due to an unauthenticated user attempting to access a secured resource.
-     * It logs the error and sends a 401 Unauthorized response to the client.
+     * It sends a 401 Unauthorized response to the client.
      *
      * @param request       the HttpServletRequest in which the exception occurred.
      * @param response      the HttpServletResponse to which the error response will be sent.
@@ -47,7 +58,9 @@ public class JwtAuthEntryPoint implements AuthenticationEntryPoint {
                          HttpServletResponse response,
                          AuthenticationException authException)
             throws IOException, ServletException {
-        log.error(authException.getMessage(), authException);
-        response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
+        if (!rejectionResponder.isFast()) {
+            log.error(authException.getMessage(), authException);
+        }
+        rejectionResponder.unauthorized(response, TokenRejectedException.Reason.UNAUTHENTICATED);
     }
 }
@@ -1,6 +1,10 @@
 package com.deepLearning.security.jwt;
 
 import com.deepLearning.security.redis.RevokedTokenServiceImpl;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import com.deepLearning.security.verifier.TokenType;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,6 +12,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,21 +30,31 @@ import java.io.IOException;
  * This filter performs the following steps:
  * <ol>
  *   <li>Extracts the JWT token from the "Authorization" header using the Bearer scheme.</li>
- *   <li>Validates the token using the JwtTokenProvider.</li>
- *   <li>Checks if the token is revoked via the RevokedTokenService.</li>
+ *   <li>Parses and validates the token once using the JwtTokenProvider.</li>
+ *   <li>Checks if the token is revoked via the RevokedTokenService; with the revocation broadcast enabled, this
+ *       is answered from the local deny-list, and with the revocation index enabled, access tokens are checked with
+ *       a probe of its local bitmap.</li>
  *   <li>Ensures that the token is not a refresh token (as refresh tokens should not be used for authentication).</li>
- *   <li>Retrieves the username from the token and loads the corresponding UserDetails.</li>
+ *   <li>Loads the UserDetails of the token subject.</li>
  *   <li>If the user is found, sets the authentication in the SecurityContext, allowing the request to proceed as authenticated.</li>
- *   <li>If any validation fails, the filter sends a 401 Unauthorized error response.</li>
+ *   <li>If any validation fails, the filter rejects the request with 401 Unauthorized through the
+ *       {@link RejectionResponder}.</li>
  * </ol>
  * <p>
  * This filter extends {@code OncePerRequestFilter} to guarantee that it is executed only once per request.
  * It is typically added to the security filter chain before the UsernamePasswordAuthenticationFilter.
  *
  * <p><b>Note:</b> The filter expects the JWT to be provided in the "Authorization" header in the format: "Bearer {token}".
- * If the token is missing, does not start with "Bearer ", or is invalid, the filter will log a warning or error and reject the request.
+ * If the token is missing or does not start with "Bearer ", the request continues unauthenticated.
+ * If the token is invalid, the request is rejected.
+ * <p>
+ * Rejections are cheap on purpose: the filter throws stackless {@link TokenRejectedException}s, the response body
+ * is pre-rendered and the individual rejection is not logged but counted by {@link RejectionLog}.
+ * <p>
+ * The WebFlux counterpart is {@link com.deepLearning.security.reactive.ReactiveJwtAuthFilter}.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -59,6 +74,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
      */
     private final RevokedTokenServiceImpl revokedTokenServiceImpl;
 
+    /**
+     * Writes the 401 response for rejected tokens.
+     */
+    private final RejectionResponder rejectionResponder;
+
+    /**
+     * Used to drop oversized Authorization headers before the token is even extracted.
+     */
+    private final TokenSanityGate sanityGate;
+
     /**
      * Filters each incoming HTTP request to perform JWT authentication.
      * <p>
@@ -80,30 +105,33 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             final String token = extractToken(request);
 
-            if (token != null && tokenProvider.validateToken(token)) {
-                if (revokedTokenServiceImpl.isTokenRevoked(token)) {
-                    throw new JwtException("Token has been revoked");
+            if (token != null && !token.isEmpty()) {
+                TokenClaims claims = tokenProvider.parseToken(token);
+                if (revokedTokenServiceImpl.isTokenRevoked(token, claims)) {
+                    throw new TokenRejectedException(TokenRejectedException.Reason.REVOKED);
                 }
-                String tokenType = tokenProvider.extractClaimFromToken(token, claims ->
-                        claims.get("token_type", String.class));
-                if (tokenType != null && tokenType.equals("refreshToken")) {
-                    throw new JwtException("Refresh token can't be used for authentication");
+                if (claims.type() == TokenType.REFRESH) {
+                    throw new TokenRejectedException(TokenRejectedException.Reason.WRONG_TOKEN_TYPE);
                 }
 
-                final String username = tokenProvider.getUsernameFromToken(token);
-                UserDetails user = userDetailsService.loadUserByUsername(username);
+                UserDetails user = userDetailsService.loadUserByUsername(claims.subject());
 
                 if (user != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    log.info("Set authentication in context holder for {}", user.getUsername());
+                    log.debug("Set authentication in context holder for {}", user.getUsername());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         } catch (JwtException e) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
-            log.error("JwtAuthFilter: JwtException {}", e.getMessage());
+            TokenRejectedException.Reason reason = e instanceof TokenRejectedException rejected
+                    ? rejected.getReason()
+                    : TokenRejectedException.Reason.INVALID;
+            if (!rejectionResponder.isFast()) {
+                log.error("JwtAuthFilter: JwtException {}", e.getMessage());
+            }
+            rejectionResponder.unauthorized(response, reason);
             return;
         }
         filterChain.doFilter(request, response);
@@ -113,22 +141,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
      * Extracts the JWT token from the Authorization header of the request.
      * <p>
      * The method expects the header to begin with the string "Bearer ".
-     * If the header is absent or does not follow this format, a warning is logged and {@code null} is returned.
+     * If the header is absent or does not follow this format, {@code null} is returned and the request continues
+     * unauthenticated. This is the normal case for public endpoints, so it is only logged at debug level.
+     * Headers that are longer than any acceptable token are rejected without copying the token out of them.
      *
      * @param request the HttpServletRequest from which the token is to be extracted
      * @return the JWT token string if present and well-formed; {@code null} otherwise
+     * @throws TokenRejectedException if the header is longer than the maximum token length
      */
     private String extractToken(HttpServletRequest request) {
         final String requestToken = request.getHeader("Authorization");
 
         if (requestToken == null) {
-            log.warn("There is no Authorization header");
+            log.debug("There is no Authorization header");
             return null;
         }
         if (!requestToken.startsWith("Bearer ")) {
-            log.warn("Token does not begin with Bearer");
+            log.debug("Token does not begin with Bearer");
             return null;
         }
+        if (requestToken.length() - 7 > sanityGate.getMaxLength()) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
         return requestToken.substring(7);
     }
 }
\ No newline at end of file
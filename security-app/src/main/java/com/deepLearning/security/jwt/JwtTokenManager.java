@@ -0,0 +1,281 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.redis.RefreshTokenFamilyService;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenManager is responsible for managing JWT tokens, particularly for issuing and refreshing tokens.
+ * <p>
+ * This service uses the {@code JwtTokenProvider} to validate and generate JWT tokens, the
+ * {@code RefreshTokenFamilyService} to rotate refresh tokens, and the {@code UserDetailsService} (behind a
+ * {@link UserCache}) to load user details based on the username extracted from the refresh token.
+ * <p>
+ * Refresh tokens are rotated: every refresh consumes the presented refresh token and returns a new access token
+ * together with a new refresh token of the same family. Presenting a consumed refresh token again revokes the
+ * whole family, see {@link RefreshTokenFamilyService}.
+ * <p>
+ * Clients with several tabs, or retrying clients, often refresh with the same refresh token at once. Within
+ * {@code security.jwt.refresh-grace-period} all of them get the same new token pair, and the work is done once:
+ * <ul>
+ *   <li>on this node, concurrent refreshes with the same token wait for the first one, and its result is kept
+ *       for up to {@link #LOCAL_RETENTION_MILLIS};</li>
+ *   <li>across nodes, the rotation script keeps the result in Redis for the whole grace period.</li>
+ * </ul>
+ * The new pair is signed before the rotation, because the script stores it atomically with the rotation; a refresh
+ * that then finds the token already rotated discards its pair. See {@code refresh} for why this is cheaper than
+ * signing after the rotation.
+ * Refreshes are counted in the {@code auth.refresh} counter, tagged with their {@code outcome}: {@code rotated},
+ * {@code deduplicated_local}, {@code deduplicated_grace} or {@code rejected}.
+ * <p>
+ * The result is returned as an object containing the new tokens - "accessToken" and "refreshToken".
+ *
+ * @see JwtTokenProvider for token operations.
+ * @see RefreshTokenFamilyService for refresh token rotation.
+ * @see UserDetailsService for retrieving user details.
+ */
+@Service
+@Log4j2
+public class JwtTokenManager {
+
+    /**
+     * How long a result is kept on this node for repeated refreshes. Longer windows are served from Redis; this
+     * only bounds the memory used here.
+     */
+    static final long LOCAL_RETENTION_MILLIS = 1000L;
+
+    /**
+     * Provides JWT token operations such as token validation, extraction of claims, and token generation.
+     */
+    private final JwtTokenProvider jwtTokenProvider;
+
+    /**
+     * Loads user-specific data during authentication.
+     */
+    private final UserDetailsService userDetailsService;
+
+    /**
+     * Cache in front of the {@code userDetailsService}.
+     */
+    private final UserCache userCache;
+
+    /**
+     * Tracks the current refresh token of each family.
+     */
+    private final RefreshTokenFamilyService refreshTokenFamilyService;
+
+    /**
+     * Grace period for repeated refreshes with the same token, in milliseconds.
+     */
+    private final long gracePeriodMillis;
+
+    /**
+     * Running and recently completed refreshes on this node, by family and token id.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<TokensDto>> recentRefreshes = new ConcurrentHashMap<>();
+
+    private final Counter rotated;
+    private final Counter deduplicatedLocal;
+    private final Counter deduplicatedGrace;
+    private final Counter rejected;
+
+    /**
+     * Constructs the token manager.
+     *
+     * @param jwtTokenProvider          the token provider.
+     * @param userDetailsService        the user details service.
+     * @param userCache                 the cache in front of the user details service.
+     * @param refreshTokenFamilyService the refresh token family store.
+     * @param properties                the JWT properties.
+     * @param meterRegistry             the registry of the refresh metrics.
+     */
+    public JwtTokenManager(JwtTokenProvider jwtTokenProvider,
+                           UserDetailsService userDetailsService,
+                           UserCache userCache,
+                           RefreshTokenFamilyService refreshTokenFamilyService,
+                           JwtProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
+        this.refreshTokenFamilyService = refreshTokenFamilyService;
+        this.gracePeriodMillis = properties.getRefreshGracePeriod().toMillis();
+        this.rotated = refreshCounter(meterRegistry, "rotated");
+        this.deduplicatedLocal = refreshCounter(meterRegistry, "deduplicated_local");
+        this.deduplicatedGrace = refreshCounter(meterRegistry, "deduplicated_grace");
+        this.rejected = refreshCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Issues an access token and the first refresh token of a new family for a freshly authenticated user.
+     *
+     * @param user the authenticated user.
+     * @return an object containing the "accessToken" and the "refreshToken".
+     */
+    public TokensDto issueTokens(UserDetails user) {
+        String familyId = newId();
+        String tokenId = newId();
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user, familyId, tokenId);
+        refreshTokenFamilyService.startFamily(familyId, tokenId, jwtTokenProvider.getRefreshTokenTtlMillis());
+        return new TokensDto(jwtTokenProvider.generateAccessToken(user), refreshToken);
+    }
+
+    /**
+     * Exchanges the provided refresh token for a new access token and a new refresh token.
+     * <p>
+     * The method performs the following steps:
+     * <ol>
+     *   <li>Parses the refresh token once and checks that it is a refresh token of a family.</li>
+     *   <li>Joins a refresh with the same token that is running or has just completed on this node, if any.</li>
+     *   <li>Loads the user details, from the {@link UserCache} if possible.</li>
+     *   <li>Consumes the refresh token and registers its successor in one atomic Redis operation, or picks up
+     *       the result of a refresh with the same token on another node within the grace period.</li>
+     *   <li>Returns the new access token and the new refresh token.</li>
+     * </ol>
+     *
+     * @param tokens an object containing the "refreshToken" with the current refresh token value.
+     * @return an object containing the new "accessToken" and "refreshToken".
+     * @throws TokenRejectedException if the refresh token is invalid, expired, not a refresh token, already used,
+     *                                or its family has been revoked.
+     */
+    public TokensDto manageTokens(TokensDto tokens) {
+        try {
+            TokenClaims claims = parseRefreshToken(tokens.refreshToken());
+            if (gracePeriodMillis <= 0) {
+                return refresh(claims);
+            }
+            return refreshOnce(claims);
+        } catch (TokenRejectedException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the refresh for the given token unless it is already running or has just completed on this node.
+     */
+    private TokensDto refreshOnce(TokenClaims claims) {
+        String key = claims.familyId() + ':' + claims.tokenId();
+        CompletableFuture<TokensDto> refresh = new CompletableFuture<>();
+        CompletableFuture<TokensDto> existing = recentRefreshes.putIfAbsent(key, refresh);
+        if (existing != null) {
+            deduplicatedLocal.increment();
+            return await(existing);
+        }
+        try {
+            TokensDto result = refresh(claims);
+            refresh.complete(result);
+            CompletableFuture.delayedExecutor(Math.min(gracePeriodMillis, LOCAL_RETENTION_MILLIS),
+                    TimeUnit.MILLISECONDS).execute(() -> recentRefreshes.remove(key, refresh));
+            return result;
+        } catch (RuntimeException e) {
+            recentRefreshes.remove(key, refresh);
+            refresh.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private TokensDto refresh(TokenClaims claims) {
+        UserDetails user = loadUser(claims.subject());
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            refreshTokenFamilyService.revokeFamily(claims.familyId());
+            throw new TokenRejectedException(TokenRejectedException.Reason.REVOKED);
+        }
+
+        // The new pair is signed before the rotation on purpose: the script stores it as the grant in the same atomic
+        // step, so a concurrent refresh on another node can never see the token consumed without a grant to return.
+        // Signing only after a successful rotation would need a second write (reserve, then publish the grant) and
+        // make the other nodes wait or poll in between. Both signatures are HMACs of a few hundred bytes, a few
+        // microseconds against the round trip a second write costs, and repeated refreshes on this node are joined
+        // by refreshOnce before they get here, so at most one discarded pair is signed per node and token.
+        String nextTokenId = newId();
+        TokensDto next = new TokensDto(
+                jwtTokenProvider.generateAccessToken(user),
+                jwtTokenProvider.generateRefreshToken(user, claims.familyId(), nextTokenId));
+        RefreshTokenFamilyService.Rotation rotation = refreshTokenFamilyService.rotate(
+                claims.familyId(), claims.tokenId(), nextTokenId, jwtTokenProvider.getRefreshTokenTtlMillis(),
+                next.accessToken() + ' ' + next.refreshToken(), gracePeriodMillis);
+
+        switch (rotation.result()) {
+            case ROTATED -> {
+                rotated.increment();
+                return next;
+            }
+            case ALREADY_ROTATED -> {
+                deduplicatedGrace.increment();
+                String grant = rotation.grant();
+                int separator = grant.indexOf(' ');
+                return new TokensDto(grant.substring(0, separator), grant.substring(separator + 1));
+            }
+            default -> throw new TokenRejectedException(TokenRejectedException.Reason.REVOKED);
+        }
+    }
+
+    /**
+     * Parses the refresh token once and checks that it is a refresh token of a family.
+     */
+    private TokenClaims parseRefreshToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        TokenClaims claims = jwtTokenProvider.parseToken(refreshToken);
+        if (claims.type() != TokenType.REFRESH) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.WRONG_TOKEN_TYPE);
+        }
+        if (claims.familyId() == null || claims.tokenId() == null) {
+            // refresh tokens without a family cannot be rotated safely
+            throw new TokenRejectedException(TokenRejectedException.Reason.INVALID);
+        }
+        return claims;
+    }
+
+    /**
+     * Loads the user details, going to the {@code userDetailsService} only on a cache miss.
+     */
+    private UserDetails loadUser(String username) {
+        UserDetails user = userCache.getUserFromCache(username);
+        if (user == null) {
+            user = userDetailsService.loadUserByUsername(username);
+            userCache.putUserInCache(user);
+        }
+        return user;
+    }
+
+    private static TokensDto await(CompletableFuture<TokensDto> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.refresh")
+                .description("Refresh token exchanges by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String newId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,348 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.verifier.ClaimProfile;
+import com.deepLearning.security.verifier.Hs256TokenCodec;
+import com.deepLearning.security.verifier.RevocationClient;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenIdSequence;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import com.deepLearning.security.verifier.TokenType;
+import com.deepLearning.security.verifier.TokenVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * JwtTokenProvider is responsible for generating, validating, and extracting information from JWT tokens.
+ * <p>
+ * This component provides methods to generate both access tokens and refresh tokens for a given user,
+ * validate tokens, extract the username (subject) from a token, and check whether a refresh token is nearing expiration.
+ * <p>
+ * The generated tokens include a custom claim "token_type" to distinguish between access tokens and refresh tokens.
+ * Additionally, the access token includes the "authorities" claim to represent the user's roles or permissions.
+ * <p>
+ * Every token is passed through the {@link TokenSanityGate} before it is parsed, so oversized or structurally
+ * invalid tokens are rejected without any HMAC or JSON work.
+ * <p>
+ * Tokens are signed and verified by the specialized {@link Hs256TokenCodec}, which handles the fixed claim set
+ * issued here without jjwt's general-purpose machinery. Tokens the codec does not understand (another header,
+ * unknown claims) are verified by jjwt instead, so both paths accept exactly the same tokens.
+ * <p>
+ * New tokens are written in the configured {@link ClaimProfile}; tokens of either profile are accepted, so the
+ * profile can be switched while tokens of the other one are still in circulation.
+ * <p>
+ * With {@code security.revocation-index.enabled}, access tokens carry an id ("jti") from the {@link TokenIdSequence}
+ * of this node, so that their revocations can be kept in the bitmap index.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * UserDetails user = userDetailsService.loadUserByUsername("john.doe");
+ * String accessToken = jwtTokenProvider.generateAccessToken(user);
+ * String refreshToken = jwtTokenProvider.generateRefreshToken(user, familyId, tokenId);
+ * </pre>
+ *
+ * <p>
+ * <b>Note:</b> The signing key is configured with {@code security.jwt.secret}; without it a random key is used.
+ * </p>
+ */
+@Component
+@Slf4j
+public class JwtTokenProvider {
+
+    /**
+     * Structural pre-verification check applied to every token before parsing.
+     */
+    private final TokenSanityGate sanityGate;
+
+    /**
+     * Fast path for signing and verifying the application's own claim set.
+     */
+    private final Hs256TokenCodec codec;
+
+    /**
+     * Secret key used for signing and verifying JWT tokens on the jjwt path.
+     */
+    private final SecretKey key;
+
+    /**
+     * Verifier of the tokens, shared with the services that verify them without this application.
+     */
+    private final TokenVerifier verifier;
+
+    /**
+     * jjwt parser, built once; used for {@link #extractClaimFromToken}.
+     */
+    private final JwtParser parser;
+
+    /**
+     * Claim encoding of newly issued tokens.
+     */
+    private final ClaimProfile claimProfile;
+
+    /**
+     * Access token validity period.
+     */
+    private final long accessTokenTtlMillis;
+
+    /**
+     * Refresh token validity period.
+     */
+    private final long refreshTokenTtlMillis;
+
+    /**
+     * Fraction by which token lifetimes are randomly shortened.
+     */
+    private final double ttlJitter;
+
+    /**
+     * Ids of access tokens, or {@code null} if access tokens carry no id.
+     */
+    private final TokenIdSequence tokenIdSequence;
+
+    /**
+     * Constructs a provider that issues access tokens without ids.
+     *
+     * @param sanityGate    the structural pre-verification gate.
+     * @param codec         the HS256 fast path codec.
+     * @param jwtSigningKey the HS256 signing key, the same one the codec was created with.
+     * @param properties    the JWT properties.
+     */
+    public JwtTokenProvider(TokenSanityGate sanityGate, Hs256TokenCodec codec, SecretKey jwtSigningKey,
+                            JwtProperties properties) {
+        this(sanityGate, codec, jwtSigningKey, properties, null);
+    }
+
+    /**
+     * Constructs the provider.
+     *
+     * @param sanityGate      the structural pre-verification gate.
+     * @param codec           the HS256 fast path codec.
+     * @param jwtSigningKey   the HS256 signing key, the same one the codec was created with.
+     * @param properties      the JWT properties.
+     * @param tokenIdSequence the ids of access tokens, if the revocation index is enabled.
+     */
+    @Autowired
+    public JwtTokenProvider(TokenSanityGate sanityGate, Hs256TokenCodec codec, SecretKey jwtSigningKey,
+                            JwtProperties properties, @Nullable TokenIdSequence tokenIdSequence) {
+        this.sanityGate = sanityGate;
+        this.codec = codec;
+        this.key = jwtSigningKey;
+        this.verifier = new TokenVerifier(sanityGate, codec, jwtSigningKey, RevocationClient.NONE);
+        this.parser = Jwts.parser().verifyWith(jwtSigningKey).build();
+        this.claimProfile = properties.getClaimProfile();
+        this.accessTokenTtlMillis = properties.getAccessTokenTtl().toMillis();
+        this.refreshTokenTtlMillis = properties.getRefreshTokenTtl().toMillis();
+        this.ttlJitter = Math.max(0, Math.min(1, properties.getTtlJitter()));
+        this.tokenIdSequence = tokenIdSequence;
+    }
+
+    /**
+     * Generates a refresh token for the provided user details.
+     * <p>
+     * The token is valid for {@code security.jwt.refresh-token-ttl} (30 days by default, shortened by the
+     * configured jitter) and includes a custom claim "token_type" with the value "refreshToken",
+     * its id ("jti") and the id of its refresh token family ("fid"). The family must be registered with
+     * {@link com.deepLearning.security.redis.RefreshTokenFamilyService}; {@link JwtTokenManager} takes care of that.
+     *
+     * @param userDetails the user details for whom the token is generated
+     * @param familyId    the id of the refresh token family
+     * @param tokenId     the id of the token
+     * @return a JWT refresh token as a String
+     */
+    public String generateRefreshToken(UserDetails userDetails, String familyId, String tokenId) {
+        long now = System.currentTimeMillis();
+        return issue(userDetails.getUsername(), now, now + jittered(refreshTokenTtlMillis), TokenType.REFRESH, null,
+                tokenId, familyId);
+    }
+
+    /**
+     * Generates an access token for the provided user details.
+     * <p>
+     * The token is valid for {@code security.jwt.access-token-ttl} (3 minutes by default, shortened by the
+     * configured jitter) and includes custom claims:
+     * <ul>
+     *   <li>"token_type" with the value "accessToken"</li>
+     *   <li>"authorities" containing the names of the user's granted authorities</li>
+     *   <li>"jti" with the next id of the {@link TokenIdSequence}, if the revocation index is enabled</li>
+     * </ul>
+     *
+     * @param userDetails the user details for whom the token is generated
+     * @return a JWT access token as a String
+     */
+    public String generateAccessToken(UserDetails userDetails) {
+        long now = System.currentTimeMillis();
+        return issue(userDetails.getUsername(), now, now + jittered(accessTokenTtlMillis), TokenType.ACCESS,
+                authorityNames(userDetails.getAuthorities()),
+                tokenIdSequence == null ? null : tokenIdSequence.nextTokenId(), null);
+    }
+
+    /**
+     * @return the maximum lifetime of refresh tokens in milliseconds, before jitter.
+     */
+    public long getRefreshTokenTtlMillis() {
+        return refreshTokenTtlMillis;
+    }
+
+    /**
+     * Verifies the provided token and returns its claims.
+     * <p>
+     * This is the single parse of a token on the request path, done by the {@link TokenVerifier}: the token passes
+     * the {@link TokenSanityGate}, is verified by the {@link Hs256TokenCodec} and, only if the codec does not
+     * understand its shape, by jjwt.
+     *
+     * @param token the JWT token.
+     * @return the verified claims.
+     * @throws TokenRejectedException if the token is malformed, invalid or expired.
+     */
+    public TokenClaims parseToken(String token) {
+        return verifier.parse(token);
+    }
+
+    /**
+     * Validates the provided JWT token.
+     * <p>
+     * The token is considered valid if it is non-null, non-empty and {@link #parseToken(String) can be parsed}.
+     * If the token is invalid or cannot be parsed, a stackless {@link TokenRejectedException} is thrown; the
+     * underlying parser exception is only logged at debug level.
+     *
+     * @param token the JWT token to validate
+     * @return {@code true} if the token is valid, {@code false} if it is null or empty
+     * @throws TokenRejectedException if the token is invalid or expired
+     */
+    public boolean validateToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        parseToken(token);
+        return true;
+    }
+
+    /**
+     * Extracts the username (subject) from the provided JWT token.
+     *
+     * @param token the JWT token from which to extract the username
+     * @return the username (subject) contained in the token
+     */
+    public String getUsernameFromToken(String token) {
+        return parseToken(token).subject();
+    }
+
+    /**
+     * Checks whether the given refresh token is close to expiration.
+     * <p>
+     * This method extracts the expiration date from the token and compares the remaining time
+     * with one day (86400000 milliseconds). If the remaining time is less than one day,
+     * the method returns {@code true}.
+     *
+     * @param refreshToken the refresh token to check
+     * @return {@code true} if the refresh token will expire in less than one day, {@code false} otherwise
+     */
+    public boolean isRefreshTokenExpiredSoon(String refreshToken) {
+        long remainingMillis = parseToken(refreshToken).expiresAtMillis() - System.currentTimeMillis();
+        long oneDayInMillis = 86400000L; // 24 hours
+        return remainingMillis < oneDayInMillis;
+    }
+
+    /**
+     * Extracts a specific claim from the JWT token using a provided function.
+     * <p>
+     * This method parses the token with jjwt to retrieve its claims and then applies the provided function to extract
+     * a particular piece of information. Prefer {@link #parseToken(String)} for the claims issued by this
+     * application; this method is meant for arbitrary claims.
+     * <p>
+     * <b>Note:</b> If the token is malformed, an error is logged and the function is applied to a null claim,
+     * which may lead to a {@code NullPointerException}. Consider adding additional null checks as needed.
+     *
+     * @param token    the JWT token from which to extract the claim
+     * @param function a function that processes the {@link Claims} and returns a desired value
+     * @param <T>      the type of the value to be returned
+     * @return the value extracted from the token's claims
+     */
+    public <T> T extractClaimFromToken(String token, Function<Claims, T> function) {
+        Claims claims = null;
+        try {
+            checkSanity(token);
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (MalformedJwtException ex) {
+            log.error("Invalid JWT token", ex);
+        }
+        return function.apply(claims);
+    }
+
+    /**
+     * Signs a token with the codec, falling back to jjwt for values the codec cannot encode.
+     */
+    private String issue(String subject, long nowMillis, long expiresAtMillis, TokenType type,
+                         List<String> authorities, String tokenId, String familyId) {
+        long issuedAt = nowMillis / 1000L;
+        long expiresAt = expiresAtMillis / 1000L;
+        String token = codec.sign(claimProfile, subject, issuedAt, expiresAt, type, authorities, tokenId,
+                familyId);
+        if (token != null) {
+            return token;
+        }
+        var builder = Jwts.builder().subject(subject)
+                .issuedAt(new Date(issuedAt * 1000L))
+                .expiration(new Date(expiresAt * 1000L))
+                .claim("token_type", type.getClaimValue());
+        if (authorities != null) {
+            builder.claim("authorities", authorities);
+        }
+        if (tokenId != null) {
+            builder.id(tokenId);
+        }
+        if (familyId != null) {
+            builder.claim("fid", familyId);
+        }
+        return builder.signWith(key, Jwts.SIG.HS256).compact();
+    }
+
+    /**
+     * Runs the token through the {@link TokenSanityGate}.
+     *
+     * @throws TokenRejectedException if the token fails the structural check.
+     */
+    private void checkSanity(String token) {
+        TokenSanityGate.Result result = sanityGate.check(token);
+        if (result != TokenSanityGate.Result.OK) {
+            log.debug("Token rejected by sanity gate: {}", result);
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+    }
+
+    /**
+     * Shortens a lifetime by a random fraction of up to {@code ttlJitter}, spreading the expiry of tokens issued
+     * at the same moment.
+     */
+    private long jittered(long ttlMillis) {
+        if (ttlJitter == 0) {
+            return ttlMillis;
+        }
+        return ttlMillis - (long) (ThreadLocalRandom.current().nextDouble() * ttlJitter * ttlMillis);
+    }
+
+    private static List<String> authorityNames(Collection<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+}
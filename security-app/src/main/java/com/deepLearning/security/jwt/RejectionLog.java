@@ -0,0 +1,84 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.RejectionProperties;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RejectionLog aggregates rejected requests and logs them at most once per configured interval.
+ * <p>
+ * Logging every rejection at ERROR with a stack trace turns a flood of bad tokens into a flood of log I/O.
+ * Instead, each rejection increments a {@link LongAdder} per {@link TokenRejectedException.Reason} (contention free)
+ * and the first rejection after the interval has elapsed emits a single summary line, for example:
+ * <pre>
+ * Rejected 15230 request(s) in the last 10 s: MALFORMED=15002, EXPIRED=220, UNAUTHENTICATED=8
+ * </pre>
+ * Only one thread wins the compare-and-set that elects the writer, so the log volume is bounded regardless of
+ * the request rate.
+ */
+@Component
+@Slf4j
+public class RejectionLog {
+
+    private static final TokenRejectedException.Reason[] REASONS = TokenRejectedException.Reason.values();
+
+    private final LongAdder[] counters = new LongAdder[REASONS.length];
+    private final long intervalNanos;
+    private final AtomicLong windowStart;
+
+    /**
+     * Constructs the log with the interval configured in {@link RejectionProperties}.
+     *
+     * @param properties the rejection properties.
+     */
+    public RejectionLog(RejectionProperties properties) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        this.intervalNanos = properties.getLogInterval().toNanos();
+        this.windowStart = new AtomicLong(System.nanoTime() - intervalNanos);
+    }
+
+    /**
+     * Records a rejection and, if the interval has elapsed, logs the aggregated counters.
+     *
+     * @param reason why the request was rejected.
+     */
+    public void record(TokenRejectedException.Reason reason) {
+        counters[reason.ordinal()].increment();
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            flush(now - start);
+        }
+    }
+
+    /**
+     * Returns the number of rejections recorded for the given reason since the last summary.
+     *
+     * @param reason the rejection reason.
+     * @return the pending count.
+     */
+    public long pending(TokenRejectedException.Reason reason) {
+        return counters[reason.ordinal()].sum();
+    }
+
+    private void flush(long elapsedNanos) {
+        StringBuilder summary = new StringBuilder();
+        long total = 0;
+        for (TokenRejectedException.Reason reason : REASONS) {
+            long count = counters[reason.ordinal()].sumThenReset();
+            if (count > 0) {
+                total += count;
+                summary.append(summary.isEmpty() ? "" : ", ").append(reason).append('=').append(count);
+            }
+        }
+        if (total > 0) {
+            log.warn("Rejected {} request(s) in the last {} s: {}", total, elapsedNanos / 1_000_000_000L, summary);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.RejectionProperties;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RejectionResponder writes 401 Unauthorized and 403 Forbidden responses for the JWT security layer.
+ * <p>
+ * In fast mode ({@code security.rejection.fast=true}, the default) the response bodies are rendered once at
+ * startup and copied straight to the output stream: no {@code sendError}, hence no dispatch to the {@code /error}
+ * page, no message conversion and no per-request string building. Every rejection is counted by
+ * {@link RejectionLog} instead of being logged individually.
+ * <p>
+ * With fast mode disabled the responder falls back to {@link HttpServletResponse#sendError(int, String)}, which
+ * renders the regular Spring Boot error response.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class RejectionResponder {
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"status\":401,\"error\":\"Unauthorized\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FORBIDDEN_BODY =
+            "{\"status\":403,\"error\":\"Forbidden\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RejectionProperties properties;
+    private final RejectionLog rejectionLog;
+
+    /**
+     * Rejects the request with 401 Unauthorized.
+     *
+     * @param response the response to write to.
+     * @param reason   why the request was rejected.
+     * @throws IOException if writing the response fails.
+     */
+    public void unauthorized(HttpServletResponse response, TokenRejectedException.Reason reason) throws IOException {
+        rejectionLog.record(reason);
+        if (properties.isFast()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            write(response, HttpServletResponse.SC_UNAUTHORIZED, UNAUTHORIZED_BODY);
+        } else {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized");
+        }
+    }
+
+    /**
+     * Rejects the request with 403 Forbidden.
+     *
+     * @param response the response to write to.
+     * @throws IOException if writing the response fails.
+     */
+    public void forbidden(HttpServletResponse response) throws IOException {
+        rejectionLog.record(TokenRejectedException.Reason.ACCESS_DENIED);
+        if (properties.isFast()) {
+            write(response, HttpServletResponse.SC_FORBIDDEN, FORBIDDEN_BODY);
+        } else {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden");
+        }
+    }
+
+    /**
+     * @return whether rejections are written in fast mode.
+     */
+    public boolean isFast() {
+        return properties.isFast();
+    }
+
+    private static void write(HttpServletResponse response, int status, byte[] body) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,131 @@
+package com.deepLearning.security.model;
+
+
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Roles is an enumeration of the security roles available in the application.
+ * <p>
+ * This enum defines the two primary roles used for access control:
+ * <ul>
+ *   <li><b>ROLE_USER</b>: Represents a standard user with limited privileges.</li>
+ *   <li><b>ROLE_ADMIN</b>: Represents an administrator with elevated privileges.</li>
+ * </ul>
+ * <p>
+ * These roles can be used with Spring Security's method security annotations (e.g., {@code @PreAuthorize})
+ * to restrict access to specific endpoints or functionalities based on the user's assigned role.
+ * <p>
+ * Every role also owns a single bit ({@link #mask()}), so a set of roles can be represented as an {@code int}
+ * bitmask. This is what {@link com.deepLearning.security.authorization.RoleCheck} compiles its requirements into.
+ * The same bits are written into compact access tokens, so new roles must only ever be appended.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ *   // Checking if a user has the ROLE_ADMIN role
+ *   if(user.getAuthorities().contains(new SimpleGrantedAuthority(Roles.ROLE_ADMIN.name()))) {
+ *       // grant access to admin features
+ *   }
+ * </pre>
+ */
+public enum Roles implements GrantedAuthority {
+    ROLE_USER,
+    ROLE_ADMIN;
+
+    /**
+     * Cached copy of {@link #values()}; the array returned by {@code values()} is cloned on every call.
+     */
+    private static final Roles[] VALUES = values();
+
+    /**
+     * Returns the bit that represents this role inside a role bitmask.
+     *
+     * @return {@code 1 << ordinal()}.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Resolves a role by its authority string (e.g. "ROLE_USER").
+     *
+     * @param authority the authority string.
+     * @return the matching role, or {@code null} if the authority is not one of the application roles.
+     */
+    public static Roles fromAuthority(String authority) {
+        if (authority == null) {
+            return null;
+        }
+        for (Roles role : VALUES) {
+            if (role.name().equals(authority)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Folds the given authorities into a role bitmask.
+     * <p>
+     * {@link Roles} instances contribute their bit directly, other authorities (e.g. {@code SimpleGrantedAuthority})
+     * are resolved by their authority string. Unknown authorities are ignored. Lists are walked by index,
+     * so the common case does not allocate an iterator.
+     *
+     * @param authorities the authorities to fold, may be {@code null}.
+     * @return the role bitmask.
+     */
+    public static int maskOf(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return 0;
+        }
+        int mask = 0;
+        if (authorities instanceof List<? extends GrantedAuthority> list) {
+            for (int i = 0, size = list.size(); i < size; i++) {
+                mask |= maskOf(list.get(i));
+            }
+        } else {
+            for (GrantedAuthority authority : authorities) {
+                mask |= maskOf(authority);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the bit of a single authority.
+     *
+     * @param authority the authority.
+     * @return the role bit, or {@code 0} if the authority is not an application role.
+     */
+    public static int maskOf(GrantedAuthority authority) {
+        if (authority instanceof Roles role) {
+            return role.mask();
+        }
+        Roles role = authority == null ? null : fromAuthority(authority.getAuthority());
+        return role == null ? 0 : role.mask();
+    }
+
+    /**
+     * If the <code>GrantedAuthority</code> can be represented as a <code>String</code>
+     * and that <code>String</code> is sufficient in precision to be relied upon for an
+     * access control decision by an {@link AccessDecisionManager} (or delegate), this
+     * method should return such a <code>String</code>.
+     * <p>
+     * If the <code>GrantedAuthority</code> cannot be expressed with sufficient precision
+     * as a <code>String</code>, <code>null</code> should be returned. Returning
+     * <code>null</code> will require an <code>AccessDecisionManager</code> (or delegate)
+     * to specifically support the <code>GrantedAuthority</code> implementation, so
+     * returning <code>null</code> should be avoided unless actually required.
+     *
+     * @return a representation of the granted authority (or <code>null</code> if the
+     * granted authority cannot be expressed as a <code>String</code> with sufficient
+     * precision).
+     */
+    @Override
+    public String getAuthority() {
+        return name();
+    }
+}
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -23,6 +24,7 @@ import java.util.Set;
  *   <li><b>password</b> - The user's password (stored in encoded form in production).</li>
  *   <li><b>image</b> - A URL or path to the user's profile image.</li>
  *   <li><b>roles</b> - A collection of roles assigned to the user (e.g., "ROLE_USER", "ROLE_ADMIN").</li>
+ *   <li><b>lockedUntil</b> - The end of a temporary lock after repeated failed sign-ins, if any.</li>
  * </ul>
  * <p>
  * The class implements the {@code UserDetails} interface by providing:
@@ -77,6 +79,13 @@ public class User implements UserDetails {
     private boolean isCredentialsNonExpired=true;
     private boolean isEnabled=true;
 
+    /**
+     * The end of a temporary lock, set together with {@code isAccountNonLocked = false} after repeated failed
+     * sign-ins. The account counts as unlocked again once this instant has passed; {@code null} for accounts that
+     * are not locked or are locked permanently.
+     */
+    private Instant lockedUntil;
+
     /**
      * The list of roles assigned to the user (e.g., "ROLE_USER", "ROLE_ADMIN").
      * This field is eagerly fetched from the database.
@@ -126,12 +135,14 @@ public class User implements UserDetails {
 
     /**
      * Indicates whether the user is locked or unlocked.
+     * <p>
+     * A temporary lock ends by itself once {@code lockedUntil} has passed, without the row being updated.
      *
      * @return {@code true} if the account is not locked; {@code false} otherwise.
      */
     @Override
     public boolean isAccountNonLocked() {
-        return this.isAccountNonLocked;
+        return this.isAccountNonLocked || (this.lockedUntil != null && this.lockedUntil.isBefore(Instant.now()));
     }
 
     /**
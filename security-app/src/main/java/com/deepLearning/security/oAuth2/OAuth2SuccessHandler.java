@@ -1,22 +1,20 @@
 package com.deepLearning.security.oAuth2;
 
 import com.deepLearning.security.jwt.JwtTokenProvider;
-import com.deepLearning.security.model.Roles;
 import com.deepLearning.security.model.User;
 import com.deepLearning.security.userServices.UserService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
-import java.util.Set;
 
 /**
  * OAuth2SuccessHandler handles successful OAuth2 authentication events.
@@ -25,13 +23,9 @@ import java.util.Set;
  * <ol>
  *   <li>Extracts the authenticated user's details from the OAuth2User principal.</li>
  *   <li>Retrieves the user's email from the OAuth2 attributes.</li>
- *   <li>Checks if a user with the given email already exists:
- *       <ul>
- *         <li>If the user exists, loads the user details via UserDetailsService.</li>
- *         <li>If the user does not exist, creates a new user with the given email, profile picture,
- *         and assigns the default role (ROLE_USER).</li>
- *       </ul>
- *   </li>
+ *   <li>Provisions the user with {@link UserService#provision}: an existing user is returned as is, a new one is
+ *       created with the given email, profile picture and the default role (ROLE_USER). This is a single upsert
+ *       statement, and concurrent first sign-ins of the same user on this node share it.</li>
  *   <li>Generates a new JWT access token for the authenticated user using JwtTokenProvider.</li>
  *   <li>Builds a target URL with the access token as a query parameter and redirects the user to that URL.</li>
  * </ol>
@@ -42,12 +36,12 @@ import java.util.Set;
  * Additionally, consider using immutable collections for the roles assignment.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserService userService;
-    private final UserDetailsService userDetailsService;
 
     /**
      * Handles a successful OAuth2 authentication by processing the authenticated user's information,
@@ -66,19 +60,7 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
         OAuth2User oAuth2User = (OAuth2User) authentication.getPrincipal();
         final String email = oAuth2User.getAttribute("email");
 
-        User user;
-        if (userService.isExistUsername(email)) {
-            user = (User) userDetailsService.loadUserByUsername(email);
-        } else {
-
-            // Create new user with default role ROLE_USER using an immutable list
-            user = userService.save(new User(
-                    email,
-                    null,
-                    oAuth2User.getAttribute("picture"),
-                    Set.of(Roles.ROLE_USER)
-            ));
-        }
+        User user = userService.provision(email, oAuth2User.getAttribute("picture"));
 
         final String token = jwtTokenProvider.generateAccessToken(user);
 
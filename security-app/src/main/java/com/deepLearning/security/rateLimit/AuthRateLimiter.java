@@ -0,0 +1,112 @@
+package com.deepLearning.security.rateLimit;
+
+import com.deepLearning.security.configuration.RateLimitProperties;
+import com.deepLearning.security.exceptions.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+/**
+ * AuthRateLimiter applies the per-IP and per-username limits of the sign-in and sign-up endpoints.
+ * <p>
+ * The client IP is checked first, so a client that is over its limit cannot consume the tokens of the usernames
+ * it tries. The IP is {@link HttpServletRequest#getRemoteAddr()}; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so that it is the address of the client rather than of the proxy.
+ * Usernames are compared case-insensitively, so changing their case does not give a new bucket.
+ * <p>
+ * Every checked response carries the rate limit headers of the most restrictive bucket:
+ * <ul>
+ *   <li>{@code RateLimit-Limit} - the capacity of the bucket;</li>
+ *   <li>{@code RateLimit-Remaining} - the requests that can still be made right now;</li>
+ *   <li>{@code RateLimit-Reset} - the seconds until the bucket is full again;</li>
+ *   <li>{@code Retry-After} - on a denied request, the seconds until the next request is allowed.</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * authRateLimiter.acquire(request, response, credentials.username()); // throws RateLimitExceededException
+ * TokensDto tokens = authService.authenticate(credentials);
+ * </pre>
+ */
+@Component
+public class AuthRateLimiter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    /**
+     * Usernames are cut to this length in keys, so that huge usernames do not make huge keys.
+     */
+    private static final int MAX_USERNAME_KEY_LENGTH = 256;
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final RateLimitRule perIp;
+    private final RateLimitRule perUsername;
+
+    /**
+     * Constructs the limiter.
+     *
+     * @param rateLimiter the rate limiter holding the buckets.
+     * @param properties  the rate limit properties.
+     */
+    public AuthRateLimiter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = properties.isEnabled();
+        this.perIp = RateLimitRule.of(properties.getPerIp().getCapacity(), properties.getPerIp().getPeriod());
+        this.perUsername = RateLimitRule.of(
+                properties.getPerUsername().getCapacity(), properties.getPerUsername().getPeriod());
+    }
+
+    /**
+     * Takes a token from the buckets of the client IP and of the username, and writes the rate limit headers.
+     *
+     * @param request  the request.
+     * @param response the response the headers are written to.
+     * @param username the username of the request, may be {@code null}.
+     * @throws RateLimitExceededException if either bucket is empty.
+     */
+    public void acquire(HttpServletRequest request, HttpServletResponse response, String username) {
+        acquire(request.getRemoteAddr(), username, response::setHeader);
+    }
+
+    /**
+     * Takes a token from the buckets of the client address and of the username, and writes the rate limit
+     * headers with the given header setter. Used by both the servlet and the reactive controllers.
+     *
+     * @param clientAddress the address of the client.
+     * @param username      the username of the request, may be {@code null}.
+     * @param headers       sets a response header.
+     * @throws RateLimitExceededException if either bucket is empty.
+     */
+    public void acquire(String clientAddress, String username, BiConsumer<String, String> headers) {
+        if (!enabled) {
+            return;
+        }
+        RateLimitDecision decision = rateLimiter.tryAcquire("ip:" + clientAddress, perIp);
+        if (decision.allowed() && username != null) {
+            RateLimitDecision byUsername = rateLimiter.tryAcquire("user:" + usernameKey(username), perUsername);
+            if (!byUsername.allowed() || byUsername.remaining() < decision.remaining()) {
+                decision = byUsername;
+            }
+        }
+
+        headers.accept(LIMIT_HEADER, Integer.toString(decision.limit()));
+        headers.accept(REMAINING_HEADER, Long.toString(decision.remaining()));
+        headers.accept(RESET_HEADER, Long.toString(decision.resetSeconds()));
+        if (!decision.allowed()) {
+            throw new RateLimitExceededException(decision);
+        }
+    }
+
+    private static String usernameKey(String username) {
+        String key = username.length() > MAX_USERNAME_KEY_LENGTH
+                ? username.substring(0, MAX_USERNAME_KEY_LENGTH)
+                : username;
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,115 @@
+package com.deepLearning.security.rateLimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * LocalRateLimiter is a lock-free, in-process {@link RateLimiter} with bounded memory.
+ * <p>
+ * Each key has a single {@link AtomicLong} holding the theoretical arrival time (TAT) of its bucket, updated with
+ * a compare-and-set loop, so a check is one map lookup and one CAS in the common case. Keys are spread over a
+ * power-of-two number of stripes, each holding at most {@code maxKeys / stripes} buckets:
+ * <ul>
+ *   <li>when a new key does not fit into its stripe, idle buckets of that stripe are dropped first. A bucket is
+ *       idle once its TAT is in the past; it is then full, and dropping it does not change any decision;</li>
+ *   <li>if the stripe is still full, arbitrary buckets are dropped until it is back to 90% of its size, which
+ *       bounds memory under a flood of distinct keys at the price of resetting some limits early.</li>
+ * </ul>
+ * Only the stripe the new key belongs to is swept, so the cost of an eviction does not grow with the total
+ * number of keys.
+ * <p>
+ * Limits are per node; see {@link RedisRateLimiter} for limits shared by the whole cluster.
+ */
+public final class LocalRateLimiter implements RateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final int stripeMask;
+    private final int stripeCapacity;
+    private final LongSupplier clock;
+    private final long origin;
+
+    /**
+     * Constructs the limiter.
+     *
+     * @param maxKeys the maximum number of buckets kept in memory.
+     * @param stripes the number of stripes, rounded up to a power of two.
+     */
+    public LocalRateLimiter(int maxKeys, int stripes) {
+        this(maxKeys, stripes, System::nanoTime);
+    }
+
+    /**
+     * Constructs the limiter with the given nanosecond clock.
+     */
+    @SuppressWarnings("unchecked")
+    LocalRateLimiter(int maxKeys, int stripes, LongSupplier clock) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(stripes, 1 << 16)) * 2 - 1);
+        this.stripes = new ConcurrentHashMap[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.stripeMask = count - 1;
+        this.stripeCapacity = Math.max(1, maxKeys / count);
+        this.clock = clock;
+        // keeps the clock positive, so that a fresh bucket (TAT 0) is always full
+        this.origin = clock.getAsLong() - 1;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        long now = clock.getAsLong() - origin;
+        AtomicLong bucket = bucket(key, now);
+        long interval = rule.intervalNanos();
+        long tolerance = rule.toleranceNanos();
+        while (true) {
+            long tat = bucket.get();
+            long nextTat = Math.max(tat, now) + interval;
+            long allowAt = nextTat - tolerance;
+            if (allowAt > now) {
+                return new RateLimitDecision(false, rule.capacity(), 0, allowAt - now, tat - now);
+            }
+            if (bucket.compareAndSet(tat, nextTat)) {
+                return new RateLimitDecision(true, rule.capacity(), (now - allowAt) / interval, 0, nextTat - now);
+            }
+        }
+    }
+
+    /**
+     * @return the number of buckets kept in memory.
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        int hash = key.hashCode();
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= stripeCapacity) {
+            evict(stripe, now);
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    /**
+     * Drops idle buckets, then arbitrary ones until the stripe is back to 90% of its capacity.
+     */
+    private void evict(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> bucket.get() <= now);
+        int target = stripeCapacity - Math.max(1, stripeCapacity / 10);
+        Iterator<AtomicLong> iterator = stripe.values().iterator();
+        while (stripe.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
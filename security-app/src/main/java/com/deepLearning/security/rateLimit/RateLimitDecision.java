@@ -0,0 +1,34 @@
+package com.deepLearning.security.rateLimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitDecision is the outcome of a single {@link RateLimiter} check.
+ *
+ * @param allowed         whether the request may proceed.
+ * @param limit           the capacity of the bucket.
+ * @param remaining       the number of requests that can still be made right now.
+ * @param retryAfterNanos for a denied request, the time until the next request is allowed; {@code 0} otherwise.
+ * @param resetNanos      the time until the bucket is full again.
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, long retryAfterNanos, long resetNanos) {
+
+    /**
+     * @return {@link #retryAfterNanos()} in whole seconds, rounded up.
+     */
+    public long retryAfterSeconds() {
+        return toSeconds(retryAfterNanos);
+    }
+
+    /**
+     * @return {@link #resetNanos()} in whole seconds, rounded up.
+     */
+    public long resetSeconds() {
+        return toSeconds(resetNanos);
+    }
+
+    private static long toSeconds(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return nanos <= 0 ? 0 : (nanos + second - 1) / second;
+    }
+}
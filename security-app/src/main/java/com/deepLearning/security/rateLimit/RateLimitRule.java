@@ -0,0 +1,46 @@
+package com.deepLearning.security.rateLimit;
+
+import java.time.Duration;
+
+/**
+ * RateLimitRule describes a token bucket: up to {@code capacity} requests in a burst, refilled at a rate of
+ * {@code capacity} requests per period.
+ * <p>
+ * The bucket is evaluated with the generic cell rate algorithm (GCRA), so the only state kept per key is the
+ * theoretical arrival time of the next request; {@link #intervalNanos()} is the time needed to refill one token.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * RateLimitRule rule = RateLimitRule.of(10, Duration.ofMinutes(1)); // 10 requests, then one every 6 seconds
+ * </pre>
+ *
+ * @param capacity      the maximum number of requests in a burst.
+ * @param intervalNanos the time needed to refill one token, in nanoseconds.
+ */
+public record RateLimitRule(int capacity, long intervalNanos) {
+
+    public RateLimitRule {
+        if (capacity <= 0 || intervalNanos <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and interval must be positive");
+        }
+    }
+
+    /**
+     * Creates a rule allowing {@code capacity} requests per {@code period}.
+     *
+     * @param capacity the maximum number of requests in a burst.
+     * @param period   the time needed to refill the whole bucket.
+     * @return the rule.
+     */
+    public static RateLimitRule of(int capacity, Duration period) {
+        return new RateLimitRule(capacity, Math.max(1, period.toNanos() / Math.max(1, capacity)));
+    }
+
+    /**
+     * @return how far the theoretical arrival time may run ahead of the current time, i.e. the burst size as
+     * a duration.
+     */
+    public long toleranceNanos() {
+        return intervalNanos * capacity;
+    }
+}
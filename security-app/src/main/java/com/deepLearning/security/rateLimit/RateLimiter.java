@@ -0,0 +1,30 @@
+package com.deepLearning.security.rateLimit;
+
+/**
+ * RateLimiter takes one token from the bucket of a key, if one is available.
+ * <p>
+ * Implementations are thread-safe. A key must always be checked with the same {@link RateLimitRule}; callers keep
+ * keys of different rules apart with a prefix (e.g., {@code ip:} and {@code user:}).
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * RateLimitDecision decision = rateLimiter.tryAcquire("ip:" + request.getRemoteAddr(), rule);
+ * if (!decision.allowed()) {
+ *     // answer with 429 Too Many Requests
+ * }
+ * </pre>
+ *
+ * @see LocalRateLimiter for the in-process implementation.
+ * @see RedisRateLimiter for the cluster-wide implementation.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the bucket of the given key.
+     *
+     * @param key  the key of the bucket.
+     * @param rule the rule of the bucket.
+     * @return the decision, with the state of the bucket after the check.
+     */
+    RateLimitDecision tryAcquire(String key, RateLimitRule rule);
+}
@@ -0,0 +1,148 @@
+package com.deepLearning.security.rateLimit;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * RedisRateLimiter is a {@link RateLimiter} shared by all nodes of the cluster.
+ * <p>
+ * Each bucket is a single string key {@code rl:<key>} holding its theoretical arrival time in microseconds. A
+ * check is one {@code EVALSHA} of the {@code redis/rate-limit.lua} script, which reads the clock of the Redis
+ * server and updates the bucket atomically. The key expires as soon as the bucket is full again, so idle keys do
+ * not stay in Redis.
+ * <p>
+ * The checks go through a dedicated connection whose command and connect timeouts are
+ * {@code security.rate-limit.timeout}, so a slow Redis delays a sign-in by at most that timeout instead of the
+ * command timeout of the shared connection. While the connection is down, commands are rejected at once rather than
+ * queued. The connection is opened on first use, so the application starts while Redis is unavailable.
+ * <p>
+ * If Redis cannot be reached in time, the check is made by the {@code fallback} limiter of this node instead, so an
+ * outage of Redis neither blocks sign-ins nor removes the protection.
+ */
+@Slf4j
+public class RedisRateLimiter implements RateLimiter, AutoCloseable {
+
+    /**
+     * Prefix of the bucket keys.
+     */
+    static final String KEY_PREFIX = "rl:";
+
+    /**
+     * Rate limit script; returns {allowed, remaining, retry after, reset}, times in microseconds.
+     */
+    private static final String RATE_LIMIT_SCRIPT = loadScript("redis/rate-limit.lua");
+
+    private final RedisClient client;
+
+    /**
+     * Limiter used while Redis is unavailable.
+     */
+    private final RateLimiter fallback;
+
+    private volatile StatefulRedisConnection<String, String> connection;
+    private volatile String scriptSha;
+
+    /**
+     * Constructs the limiter.
+     *
+     * @param redisUri the Redis server.
+     * @param timeout  the command and connect timeout of the checks.
+     * @param fallback the limiter used while Redis is unavailable.
+     */
+    public RedisRateLimiter(RedisURI redisUri, Duration timeout, RateLimiter fallback) {
+        redisUri.setTimeout(timeout);
+        this.client = RedisClient.create(redisUri);
+        client.setOptions(ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(timeout).build())
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+        this.fallback = fallback;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        long intervalMicros = Math.max(1, rule.intervalNanos() / 1000);
+        List<Object> result;
+        try {
+            result = evaluate(new String[]{KEY_PREFIX + key},
+                    Long.toString(intervalMicros), Long.toString(intervalMicros * rule.capacity()));
+        } catch (RedisException e) {
+            log.debug("Redis rate limit check failed, using the local limiter", e);
+            return fallback.tryAcquire(key, rule);
+        }
+        if (result == null || result.size() < 4) {
+            return fallback.tryAcquire(key, rule);
+        }
+        return new RateLimitDecision(
+                toLong(result.get(0)) == 1,
+                rule.capacity(),
+                toLong(result.get(1)),
+                toLong(result.get(2)) * 1000,
+                toLong(result.get(3)) * 1000);
+    }
+
+    @Override
+    public void close() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null) {
+            current.close();
+        }
+        client.shutdown();
+    }
+
+    private List<Object> evaluate(String[] keys, String... args) {
+        RedisCommands<String, String> commands = connection().sync();
+        String sha = scriptSha;
+        if (sha == null) {
+            sha = commands.digest(RATE_LIMIT_SCRIPT);
+            scriptSha = sha;
+        }
+        try {
+            return commands.evalsha(sha, ScriptOutputType.MULTI, keys, args);
+        } catch (RedisNoScriptException e) {
+            return commands.eval(RATE_LIMIT_SCRIPT, ScriptOutputType.MULTI, keys, args);
+        }
+    }
+
+    private StatefulRedisConnection<String, String> connection() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null) {
+            synchronized (this) {
+                current = connection;
+                if (current == null) {
+                    current = client.connect();
+                    connection = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static String loadScript(String path) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+}
@@ -0,0 +1,70 @@
+package com.deepLearning.security.reactive;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * CachingReactiveUserDetailsService looks users up without blocking the event loop.
+ * <p>
+ * Users are served from the in-memory cache on the calling thread. Only a miss goes to the {@link UserCache},
+ * which may ask Redis, and then to the JPA based {@link UserDetailsService}, on the given bounded
+ * {@link Scheduler}; the loaded user is cached. A user that does not exist completes empty.
+ */
+public class CachingReactiveUserDetailsService implements ReactiveUserDetailsService {
+
+    private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
+    private final UserCache localCache;
+    private final Scheduler blockingScheduler;
+
+    /**
+     * Constructs the service with a cache that never blocks.
+     *
+     * @param userDetailsService the JPA based user details service.
+     * @param userCache          the in-memory user cache.
+     * @param blockingScheduler  the scheduler of the blocking lookups.
+     */
+    public CachingReactiveUserDetailsService(UserDetailsService userDetailsService, UserCache userCache,
+                                             Scheduler blockingScheduler) {
+        this(userDetailsService, userCache, userCache, blockingScheduler);
+    }
+
+    /**
+     * Constructs the service.
+     *
+     * @param userDetailsService the JPA based user details service.
+     * @param userCache          the user cache, possibly backed by Redis.
+     * @param localCache         the in-memory tier of the user cache, read on the calling thread.
+     * @param blockingScheduler  the scheduler of the blocking lookups.
+     */
+    public CachingReactiveUserDetailsService(UserDetailsService userDetailsService, UserCache userCache,
+                                             UserCache localCache, Scheduler blockingScheduler) {
+        this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
+        this.localCache = localCache;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        UserDetails cached = localCache.getUserFromCache(username);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.fromCallable(() -> {
+                    UserDetails user = userCache.getUserFromCache(username);
+                    if (user == null) {
+                        user = userDetailsService.loadUserByUsername(username);
+                        userCache.putUserInCache(user);
+                    }
+                    return user;
+                })
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+}
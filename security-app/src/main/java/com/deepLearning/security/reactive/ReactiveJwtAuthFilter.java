@@ -0,0 +1,99 @@
+package com.deepLearning.security.reactive;
+
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.redis.ReactiveRevokedTokenService;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveJwtAuthFilter is the WebFlux counterpart of {@code JwtAuthFilter}.
+ * <p>
+ * It performs the same steps without blocking the event loop:
+ * <ol>
+ *   <li>Extracts the JWT token from the "Authorization" header using the Bearer scheme.</li>
+ *   <li>Parses and validates the token once using the JwtTokenProvider; this is pure CPU work and runs on the
+ *       calling thread.</li>
+ *   <li>Rejects refresh tokens, which must not be used for authentication.</li>
+ *   <li>Checks the Redis blacklist, or the revocation index, through the {@link ReactiveRevokedTokenService}.</li>
+ *   <li>Looks the user up through the {@link ReactiveUserDetailsService}.</li>
+ *   <li>Continues the chain with the authentication in the reactive security context.</li>
+ * </ol>
+ * <p>
+ * A request without a bearer token continues unauthenticated; an invalid one is rejected with 401 Unauthorized
+ * through the {@link ReactiveRejectionHandler}.
+ */
+@RequiredArgsConstructor
+public class ReactiveJwtAuthFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenProvider tokenProvider;
+    private final ReactiveRevokedTokenService revokedTokenService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final ReactiveRejectionHandler rejectionHandler;
+    private final TokenSanityGate sanityGate;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token;
+        TokenClaims claims;
+        try {
+            token = extractToken(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            if (token == null || token.isEmpty()) {
+                return chain.filter(exchange);
+            }
+            claims = tokenProvider.parseToken(token);
+            if (claims.type() == TokenType.REFRESH) {
+                throw new TokenRejectedException(TokenRejectedException.Reason.WRONG_TOKEN_TYPE);
+            }
+        } catch (JwtException e) {
+            return rejectionHandler.unauthorized(exchange, e instanceof TokenRejectedException rejected
+                    ? rejected.getReason()
+                    : TokenRejectedException.Reason.INVALID);
+        }
+
+        return authenticate(token, claims)
+                .onErrorResume(TokenRejectedException.class,
+                        e -> rejectionHandler.unauthorized(exchange, e.getReason()).then(Mono.empty()))
+                .flatMap(authentication -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)));
+    }
+
+    private Mono<Authentication> authenticate(String token, TokenClaims claims) {
+        return revokedTokenService.isTokenRevoked(token, claims)
+                .flatMap(revoked -> revoked
+                        ? Mono.error(new TokenRejectedException(TokenRejectedException.Reason.REVOKED))
+                        : userDetailsService.findByUsername(claims.subject()))
+                .switchIfEmpty(Mono.error(() -> new TokenRejectedException(TokenRejectedException.Reason.INVALID)))
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    /**
+     * Extracts the token of a Bearer Authorization header.
+     *
+     * @return the token, or {@code null} if the header is absent or not a bearer header.
+     * @throws TokenRejectedException if the header is longer than the maximum token length.
+     */
+    private String extractToken(String header) {
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        if (header.length() - BEARER_PREFIX.length() > sanityGate.getMaxLength()) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        return header.substring(BEARER_PREFIX.length());
+    }
+}
@@ -0,0 +1,71 @@
+package com.deepLearning.security.reactive;
+
+import com.deepLearning.security.jwt.RejectionLog;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ReactiveRejectionHandler writes 401 Unauthorized and 403 Forbidden responses for the WebFlux security layer.
+ * <p>
+ * It is the reactive counterpart of {@code RejectionResponder} in fast mode: the bodies are rendered once and
+ * written as a single buffer, and every rejection is counted by {@link RejectionLog} instead of being logged.
+ * It also serves as the entry point and access denied handler of the {@code SecurityWebFilterChain}.
+ */
+@RequiredArgsConstructor
+public class ReactiveRejectionHandler implements ServerAuthenticationEntryPoint, ServerAccessDeniedHandler {
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"status\":401,\"error\":\"Unauthorized\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FORBIDDEN_BODY =
+            "{\"status\":403,\"error\":\"Forbidden\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RejectionLog rejectionLog;
+
+    /**
+     * Rejects the exchange with 401 Unauthorized.
+     *
+     * @param exchange the exchange.
+     * @param reason   why the request was rejected.
+     * @return completes when the response is written.
+     */
+    public Mono<Void> unauthorized(ServerWebExchange exchange, TokenRejectedException.Reason reason) {
+        rejectionLog.record(reason);
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        return write(exchange.getResponse(), HttpStatus.UNAUTHORIZED, UNAUTHORIZED_BODY);
+    }
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException e) {
+        return unauthorized(exchange, TokenRejectedException.Reason.UNAUTHENTICATED);
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, AccessDeniedException e) {
+        rejectionLog.record(TokenRejectedException.Reason.ACCESS_DENIED);
+        return write(exchange.getResponse(), HttpStatus.FORBIDDEN, FORBIDDEN_BODY);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, HttpStatus status, byte[] body) {
+        if (response.isCommitted()) {
+            return Mono.empty();
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,180 @@
+package com.deepLearning.security.reactive;
+
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.jwt.RejectionLog;
+import com.deepLearning.security.redis.ReactiveRevokedTokenService;
+import com.deepLearning.security.userServices.LocalUserCache;
+import com.deepLearning.security.userServices.UserService;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * ReactiveSecurityConfig is the WebFlux counterpart of {@code SecurityConfig}, active when the application runs
+ * with {@code spring.main.web-application-type=reactive} (e.g., with the {@code reactive} profile).
+ * <p>
+ * The reactive stack serves requests on a small number of event loop threads, so nothing on the request path
+ * may block:
+ * <ul>
+ *   <li>tokens are verified on the event loop, which is pure CPU work;</li>
+ *   <li>the revocation check uses the reactive Redis client;</li>
+ *   <li>users are served from the in-memory {@code LocalUserCache}, and only cache misses go to Redis (with
+ *       {@code security.user-cache.shared.enabled}) and JPA on the bounded elastic scheduler;</li>
+ *   <li>BCrypt runs on the {@code passwordHashingScheduler}, bounded to one thread per core, so that a burst of
+ *       sign-ins queues up instead of starving the rest of the application.</li>
+ * </ul>
+ * <p>
+ * The URL rules mirror the {@code @RoleCheck} annotations of the servlet controllers, since method security
+ * based on the thread-bound security context does not apply to reactive handlers. OAuth2 login is only
+ * available on the servlet stack.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    /**
+     * Configures the SecurityWebFilterChain of the reactive stack: stateless, no CSRF, no form login or HTTP Basic,
+     * the JWT filter at the authentication position, and the URL access rules.
+     *
+     * @param http             the ServerHttpSecurity to configure.
+     * @param jwtAuthFilter    the reactive JWT filter.
+     * @param rejectionHandler writes 401 and 403 responses.
+     * @return the constructed SecurityWebFilterChain.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveJwtAuthFilter jwtAuthFilter,
+                                                         ReactiveRejectionHandler rejectionHandler) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(exchange -> {
+                    CorsConfiguration corsConfiguration = new CorsConfiguration();
+                    corsConfiguration.setAllowedOriginPatterns(List.of("*"));
+                    corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                    corsConfiguration.setAllowedHeaders(List.of("*"));
+                    corsConfiguration.setAllowCredentials(true);
+                    return corsConfiguration;
+                }))
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(rejectionHandler)
+                        .accessDeniedHandler(rejectionHandler))
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(HttpMethod.POST, "/api/auth/sign-up", "/api/auth/sign-in")
+                        .access(ReactiveSecurityConfig::anonymousOnly)
+                        .pathMatchers("/api/auth/refresh-token", "/api/log/logout").authenticated()
+                        .pathMatchers("/home/user").hasRole("USER")
+                        .pathMatchers("/home/admin", "/api/log/revoke").hasRole("ADMIN")
+                        .anyExchange().permitAll())
+                .addFilterAt(jwtAuthFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Provides the reactive JWT filter.
+     */
+    @Bean
+    public ReactiveJwtAuthFilter reactiveJwtAuthFilter(JwtTokenProvider tokenProvider,
+                                                       ReactiveRevokedTokenService revokedTokenService,
+                                                       ReactiveUserDetailsService userDetailsService,
+                                                       ReactiveRejectionHandler rejectionHandler,
+                                                       TokenSanityGate sanityGate) {
+        return new ReactiveJwtAuthFilter(
+                tokenProvider, revokedTokenService, userDetailsService, rejectionHandler, sanityGate);
+    }
+
+    /**
+     * Provides the handler that writes 401 and 403 responses.
+     */
+    @Bean
+    public ReactiveRejectionHandler reactiveRejectionHandler(RejectionLog rejectionLog) {
+        return new ReactiveRejectionHandler(rejectionLog);
+    }
+
+    /**
+     * Provides the non-blocking user lookup, backed by the cached JPA user details service. Only the in-memory tier
+     * of the user cache is read on the event loop.
+     */
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(UserDetailsService userDetailsService,
+                                                                 UserCache userCache,
+                                                                 LocalUserCache localUserCache) {
+        return new CachingReactiveUserDetailsService(userDetailsService, userCache, localUserCache,
+                Schedulers.boundedElastic());
+    }
+
+    /**
+     * Provides a PasswordEncoder bean that uses BCrypt hashing, as {@code SecurityConfig} does on the servlet stack.
+     *
+     * @return an instance of BCryptPasswordEncoder.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /**
+     * Exposes the AuthenticationManager used by the {@code AuthService} for sign-in, backed by a
+     * DaoAuthenticationProvider that loads users from the database, as on the servlet stack. It is called on the
+     * {@code passwordHashingScheduler} only.
+     *
+     * @param userService     the user service.
+     * @param passwordEncoder the password encoder.
+     * @return the configured AuthenticationManager.
+     */
+    @Bean
+    public AuthenticationManager authManager(UserService userService, PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+        authenticationProvider.setUserDetailsService(userService::loadUserForSignIn);
+        return new ProviderManager(authenticationProvider);
+    }
+
+    /**
+     * Provides the scheduler BCrypt runs on: one thread per core, with a bounded queue of waiting tasks.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordHashingScheduler() {
+        return Schedulers.newBoundedElastic(
+                Runtime.getRuntime().availableProcessors(), 10_000, "password-hashing");
+    }
+
+    /**
+     * Grants access to requests without an authenticated user, like {@code @RoleCheck(access = ANONYMOUS)}.
+     */
+    private static Mono<AuthorizationDecision> anonymousOnly(Mono<Authentication> authentication,
+                                                             AuthorizationContext context) {
+        return authentication
+                .map(user -> new AuthorizationDecision(
+                        user instanceof AnonymousAuthenticationToken || !user.isAuthenticated()))
+                .defaultIfEmpty(new AuthorizationDecision(true));
+    }
+}
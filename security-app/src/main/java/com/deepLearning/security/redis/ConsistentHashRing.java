@@ -0,0 +1,115 @@
+package com.deepLearning.security.redis;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * ConsistentHashRing maps keys to named nodes with consistent hashing.
+ * <p>
+ * Every node is placed on a 64-bit ring at {@code virtualNodes} points, derived from its name; a key belongs to the
+ * first point at or after its own hash, wrapping around. With enough virtual nodes the keys spread evenly, and
+ * adding or removing a node only moves the keys of that node - about {@code 1/n} of them - while all other keys
+ * keep their owner.
+ * <p>
+ * Rings are immutable: {@link #with} and {@link #without} return a new ring, so a ring can be read from any
+ * thread and swapped atomically.
+ *
+ * @param <T> the type of the nodes.
+ */
+public final class ConsistentHashRing<T> {
+
+    /**
+     * The points of the ring, by hash.
+     */
+    private final NavigableMap<Long, T> points = new TreeMap<>();
+
+    /**
+     * The nodes, by name, in insertion order.
+     */
+    private final Map<String, T> nodes;
+
+    /**
+     * Number of points per node.
+     */
+    private final int virtualNodes;
+
+    /**
+     * Creates a ring of the given nodes.
+     *
+     * @param nodes        the nodes, by name; names must be stable across restarts and nodes.
+     * @param virtualNodes the number of points per node.
+     */
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+        this.virtualNodes = virtualNodes;
+        this.nodes.forEach((name, node) -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(name + '#' + i), node);
+            }
+        });
+    }
+
+    /**
+     * Returns the node the given key belongs to.
+     *
+     * @param key the key.
+     * @return the owner of the key.
+     * @throws IllegalStateException if the ring is empty.
+     */
+    public T nodeFor(String key) {
+        if (points.isEmpty()) {
+            throw new IllegalStateException("No nodes in the ring");
+        }
+        Map.Entry<Long, T> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * Returns a ring with the given node added, or replaced if a node of that name exists.
+     */
+    public ConsistentHashRing<T> with(String name, T node) {
+        Map<String, T> next = new LinkedHashMap<>(nodes);
+        next.put(name, node);
+        return new ConsistentHashRing<>(next, virtualNodes);
+    }
+
+    /**
+     * Returns a ring without the node of the given name.
+     */
+    public ConsistentHashRing<T> without(String name) {
+        Map<String, T> next = new LinkedHashMap<>(nodes);
+        next.remove(name);
+        return new ConsistentHashRing<>(next, virtualNodes);
+    }
+
+    /**
+     * Returns the nodes, by name.
+     */
+    public Map<String, T> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters of the key, followed by the MurmurHash3 finalizer so that keys with a
+     * common prefix, such as JWTs, still spread over the whole ring.
+     */
+    static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,39 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.verifier.TokenClaims;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveRevokedTokenService is the non-blocking counterpart of the revocation check of
+ * {@link RevokedTokenService}, used by the WebFlux security layer.
+ * <p>
+ * It reads the same Redis blacklist, so tokens revoked through either stack are rejected by both.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * reactiveRevokedTokenService.isTokenRevoked(token)
+ *         .flatMap(revoked -&gt; revoked ? reject(exchange) : chain.filter(exchange));
+ * </pre>
+ */
+public interface ReactiveRevokedTokenService {
+
+    /**
+     * Checks if a given token is revoked by verifying its existence in the Redis blacklist.
+     *
+     * @param token the JWT token to check for revocation
+     * @return a {@code Mono} emitting {@code true} if the token is revoked; {@code false} otherwise
+     */
+    Mono<Boolean> isTokenRevoked(String token);
+
+    /**
+     * Checks if a given, already verified token is revoked. Implementations may use the claims to answer without
+     * a lookup by token, e.g. from the revocation index.
+     *
+     * @param token  the JWT token to check for revocation
+     * @param claims the verified claims of the token
+     * @return a {@code Mono} emitting {@code true} if the token is revoked; {@code false} otherwise
+     */
+    default Mono<Boolean> isTokenRevoked(String token, TokenClaims claims) {
+        return isTokenRevoked(token);
+    }
+}
@@ -0,0 +1,136 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.RevocationCheckProperties;
+import com.deepLearning.security.revocation.RevocationBroadcast;
+import com.deepLearning.security.revocation.RevocationIndex;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenIdSequence;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * ReactiveRevokedTokenServiceImpl answers revocation checks of the WebFlux stack like {@link RevokedTokenServiceImpl}
+ * does for the servlet stack, with the same local answers and the same protection against a slow Redis:
+ * <ul>
+ *   <li>the deny-list of the {@link RevocationBroadcast} answers the tokens it holds, and all others once it is
+ *       authoritative, and the {@link TrackedRevocationCache} answers the tokens it has cached, both without a
+ *       round trip;</li>
+ *   <li>every remote lookup goes through the {@link ResilientRevocationLookup}, with its circuit breaker and
+ *       degraded mode, and is abandoned after {@code security.revocation-check.timeout}.</li>
+ * </ul>
+ * The plain blacklist is checked with a {@link ReactiveStringRedisTemplate}, so the check does not hold a thread
+ * while waiting for Redis. A sharded blacklist, a cache miss and the store of the {@link RevocationIndex} are
+ * checked through their blocking clients on the bounded elastic scheduler.
+ */
+@Service
+public class ReactiveRevokedTokenServiceImpl implements ReactiveRevokedTokenService {
+
+    /**
+     * Reactive Redis template for performing string-based operations.
+     */
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    /**
+     * Guarded Redis lookup, shared with the servlet stack.
+     */
+    private final ResilientRevocationLookup revocationLookup;
+
+    /**
+     * Broadcast of revocations to the deny-list of every node, or {@code null} if disabled.
+     */
+    private final RevocationBroadcast revocationBroadcast;
+
+    /**
+     * Local revocation cache, or {@code null} if disabled.
+     */
+    private final TrackedRevocationCache revocationCache;
+
+    /**
+     * Sharded blacklist, or {@code null} if the blacklist is kept in {@code redisTemplate}.
+     */
+    private final ShardedRevocationStore shardedStore;
+
+    /**
+     * Index of sequence-numbered tokens, or {@code null} if disabled.
+     */
+    private final RevocationIndex revocationIndex;
+
+    /**
+     * Timeout of a single remote lookup.
+     */
+    private final Duration timeout;
+
+    /**
+     * Constructs the service.
+     *
+     * @param redisTemplate       the reactive Redis template.
+     * @param revocationLookup    the guarded Redis lookup.
+     * @param checkProperties     the revocation check properties.
+     * @param revocationBroadcast the revocation broadcast, if enabled.
+     * @param revocationCache     the revocation cache, if enabled.
+     * @param shardedStore        the sharded blacklist, if enabled.
+     * @param revocationIndex     the revocation index, if enabled.
+     */
+    public ReactiveRevokedTokenServiceImpl(ReactiveStringRedisTemplate redisTemplate,
+                                           ResilientRevocationLookup revocationLookup,
+                                           RevocationCheckProperties checkProperties,
+                                           ObjectProvider<RevocationBroadcast> revocationBroadcast,
+                                           ObjectProvider<TrackedRevocationCache> revocationCache,
+                                           ObjectProvider<ShardedRevocationStore> shardedStore,
+                                           ObjectProvider<RevocationIndex> revocationIndex) {
+        this.redisTemplate = redisTemplate;
+        this.revocationLookup = revocationLookup;
+        this.timeout = checkProperties.getTimeout();
+        this.revocationBroadcast = revocationBroadcast.getIfAvailable();
+        this.shardedStore = shardedStore.getIfAvailable();
+        // the cache only tracks spring.data.redis, so it is not used for a sharded blacklist
+        this.revocationCache = this.shardedStore == null ? revocationCache.getIfAvailable() : null;
+        this.revocationIndex = revocationIndex.getIfAvailable();
+    }
+
+    @Override
+    public Mono<Boolean> isTokenRevoked(String token) {
+        if (revocationBroadcast != null) {
+            if (revocationBroadcast.isRevoked(token)) {
+                return Mono.just(true);
+            }
+            if (revocationBroadcast.isAuthoritative()) {
+                return Mono.just(false);
+            }
+        }
+        if (shardedStore != null) {
+            return revocationLookup.isRevoked(token, blocking(() -> shardedStore.isRevoked(token)), timeout);
+        }
+        if (revocationCache != null) {
+            Boolean cached = revocationCache.cachedAnswer(token);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return revocationLookup.isRevoked(token, blocking(() -> revocationCache.isRevoked(token)), timeout);
+        }
+        return revocationLookup.isRevoked(token, redisTemplate.hasKey(token), timeout);
+    }
+
+    @Override
+    public Mono<Boolean> isTokenRevoked(String token, TokenClaims claims) {
+        long tokenId = revocationIndex == null ? -1 : TokenIdSequence.parse(claims.tokenId());
+        if (tokenId < 0) {
+            return isTokenRevoked(token);
+        }
+        if (revocationIndex.isSynchronized()) {
+            return Mono.just(revocationIndex.isRevoked(claims.issuedAt(), tokenId));
+        }
+        return revocationLookup.isRevoked(token,
+                blocking(() -> revocationIndex.isRevokedRemotely(claims.issuedAt(), tokenId)), timeout);
+    }
+
+    private static Mono<Boolean> blocking(Callable<Boolean> lookup) {
+        return Mono.fromCallable(lookup).subscribeOn(Schedulers.boundedElastic());
+    }
+}
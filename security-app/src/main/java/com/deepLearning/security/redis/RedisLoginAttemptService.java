@@ -0,0 +1,110 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.LoginAttemptProperties;
+import com.deepLearning.security.securityServices.LoginAttemptService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RedisLoginAttemptService keeps the failure counters of {@link LoginAttemptService} in Redis, shared by all
+ * nodes of the cluster.
+ * <p>
+ * Each username has a hash {@code la:<username>} with the failure counts of the current and the previous fixed
+ * window, the number of lockouts and the end of the current lock. A failure is recorded by one {@code EVALSHA} of
+ * the {@code redis/login-failure.lua} script, which uses the clock of the Redis server; the hash expires once it
+ * no longer affects any decision.
+ * <p>
+ * Locks seen by this node are remembered locally until they end, so an attacker hammering a locked account costs
+ * a map lookup rather than a round trip to Redis. The local entries are dropped on a successful sign-in through
+ * this node; a lock ended early on another node is only noticed here once the lock would have ended anyway.
+ */
+public class RedisLoginAttemptService implements LoginAttemptService {
+
+    /**
+     * Prefix of the attempts keys.
+     */
+    static final String KEY_PREFIX = "la:";
+
+    /**
+     * Failure script; returns the end of the lock if the failure locked the username, 0 otherwise.
+     */
+    private static final RedisScript<Long> FAILURE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/login-failure.lua"), Long.class);
+
+    /**
+     * Redis template for performing string-based operations.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Locks seen by this node, by username, as epoch milliseconds.
+     */
+    private final ConcurrentHashMap<String, Long> knownLocks = new ConcurrentHashMap<>();
+
+    private final LoginAttemptProperties properties;
+
+    /**
+     * Constructs the service.
+     *
+     * @param redisTemplate the Redis template.
+     * @param properties    the login attempt properties.
+     */
+    public RedisLoginAttemptService(StringRedisTemplate redisTemplate, LoginAttemptProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public Instant lockedUntil(String username) {
+        long now = System.currentTimeMillis();
+        Long known = knownLocks.get(username);
+        if (known != null) {
+            if (known > now) {
+                return Instant.ofEpochMilli(known);
+            }
+            knownLocks.remove(username, known);
+        }
+        Object stored = redisTemplate.opsForHash().get(KEY_PREFIX + username, "u");
+        long lockedUntil = stored == null ? 0 : Long.parseLong(stored.toString());
+        if (lockedUntil <= now) {
+            return null;
+        }
+        remember(username, lockedUntil, now);
+        return Instant.ofEpochMilli(lockedUntil);
+    }
+
+    @Override
+    public Instant recordFailure(String username) {
+        Long lockedUntil = redisTemplate.execute(FAILURE_SCRIPT, List.of(KEY_PREFIX + username),
+                Integer.toString(properties.getMaxFailures()),
+                Long.toString(Math.max(1, properties.getWindow().toMillis())),
+                Long.toString(properties.getLockDuration().toMillis()),
+                Long.toString(properties.getMaxLockDuration().toMillis()));
+        if (lockedUntil == null || lockedUntil == 0) {
+            return null;
+        }
+        remember(username, lockedUntil, System.currentTimeMillis());
+        return Instant.ofEpochMilli(lockedUntil);
+    }
+
+    @Override
+    public void recordSuccess(String username) {
+        knownLocks.remove(username);
+        redisTemplate.delete(KEY_PREFIX + username);
+    }
+
+    private void remember(String username, long lockedUntil, long now) {
+        if (knownLocks.size() >= properties.getMaxKeys()) {
+            knownLocks.values().removeIf(until -> until <= now);
+            if (knownLocks.size() >= properties.getMaxKeys()) {
+                return;
+            }
+        }
+        knownLocks.put(username, lockedUntil);
+    }
+}
@@ -0,0 +1,241 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.revocation.RevocationIndexStore;
+import com.deepLearning.security.revocation.SegmentRevocations;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * RedisRevocationIndexStore keeps the revocations of the {@link com.deepLearning.security.revocation.RevocationIndex}
+ * in Redis bitmaps and publishes them over Redis pub/sub.
+ * <p>
+ * A revoked token id sets bit {@code id & 0xFFFF} of {@code revoked:seq:<segment>:<id >>> 16}, so every key holds
+ * at most 8 KiB, and consecutive ids of a node share their keys. Each key expires with its segment. Revocations are
+ * written and published on the {@code revocations:seq} channel, as lines of
+ * {@code "<segment> <retainUntil> <id> <id> ..."}, in one pipelined round trip; the keys are the snapshot a node
+ * reads when it (re)subscribes.
+ * <p>
+ * The subscription works like the one of {@link RedisRevocationTransport}: a Lettuce pub/sub connection of its own,
+ * with state changes delivered on a single thread of this store once Redis has confirmed the {@code SUBSCRIBE}.
+ * <p>
+ * Direct lookups are a {@code GETBIT} through the reactive template, which gives up after the lookup timeout
+ * without affecting other commands on the shared connection.
+ */
+@Slf4j
+public class RedisRevocationIndexStore implements RevocationIndexStore {
+
+    /**
+     * Channel of the revocation events.
+     */
+    static final String CHANNEL = "revocations:seq";
+
+    /**
+     * Prefix of the bitmap keys.
+     */
+    static final String KEY_PREFIX = "revoked:seq:";
+
+    /**
+     * Number of keys asked for per {@code SCAN} while reading the snapshot.
+     */
+    static final int SCAN_COUNT = 500;
+
+    /**
+     * Redis template for writing and reading the bitmaps.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Reactive Redis template for direct lookups.
+     */
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    /**
+     * Timeout of a direct lookup.
+     */
+    private final Duration lookupTimeout;
+
+    private final RedisClient client;
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revocation-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private StatefulRedisPubSubConnection<String, String> connection;
+
+    /**
+     * Constructs the store.
+     *
+     * @param redisTemplate         the Redis template used to write and read the bitmaps.
+     * @param reactiveRedisTemplate the reactive Redis template used for direct lookups.
+     * @param lookupTimeout         the timeout of a direct lookup.
+     * @param redisUri              the Redis server of the subscription connection.
+     */
+    public RedisRevocationIndexStore(StringRedisTemplate redisTemplate,
+                                     ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                     Duration lookupTimeout,
+                                     RedisURI redisUri) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.lookupTimeout = lookupTimeout;
+        this.client = RedisClient.create(redisUri);
+    }
+
+    @Override
+    public void publishAll(Collection<SegmentRevocations> revocations) {
+        if (revocations.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder();
+        for (SegmentRevocations revocation : revocations) {
+            if (!message.isEmpty()) {
+                message.append('\n');
+            }
+            message.append(revocation.segment()).append(' ').append(revocation.retainUntilMillis());
+            for (long tokenId : revocation.tokenIds()) {
+                message.append(' ').append(tokenId);
+            }
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection strings = (StringRedisConnection) connection;
+            for (SegmentRevocations revocation : revocations) {
+                String lastKey = null;
+                for (long tokenId : revocation.tokenIds()) {
+                    String key = key(revocation.segment(), tokenId);
+                    strings.setBit(key, tokenId & 0xFFFF, true);
+                    if (!key.equals(lastKey)) {
+                        strings.pExpireAt(key, revocation.retainUntilMillis());
+                        lastKey = key;
+                    }
+                }
+            }
+            strings.publish(CHANNEL, message.toString());
+            return null;
+        });
+    }
+
+    @Override
+    public Collection<SegmentRevocations> snapshot() {
+        long now = System.currentTimeMillis();
+        List<SegmentRevocations> revocations = new ArrayList<>();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(SCAN_COUNT).build();
+            try (Cursor<byte[]> keys = connection.keyCommands().scan(options)) {
+                while (keys.hasNext()) {
+                    byte[] key = keys.next();
+                    byte[] bits = connection.stringCommands().get(key);
+                    Long ttl = connection.keyCommands().pTtl(key);
+                    if (bits != null && ttl != null && ttl > 0) {
+                        revocations.add(decode(new String(key, StandardCharsets.UTF_8), bits, now + ttl));
+                    }
+                }
+            }
+            return null;
+        });
+        return revocations;
+    }
+
+    @Override
+    public boolean isRevoked(long segment, long tokenId) {
+        return Boolean.TRUE.equals(reactiveRedisTemplate.opsForValue()
+                .getBit(key(segment, tokenId), tokenId & 0xFFFF)
+                .timeout(lookupTimeout)
+                .block());
+    }
+
+    @Override
+    public synchronized void subscribe(Subscriber subscriber) {
+        if (connection != null) {
+            throw new IllegalStateException("Already subscribed");
+        }
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                notifier.execute(subscriber::onDisconnected);
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+                // wait for the SUBSCRIBE confirmation
+            }
+        });
+        connection = client.connectPubSub();
+        connection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                for (String line : message.split("\n")) {
+                    String[] fields = line.split(" ");
+                    if (fields.length > 2) {
+                        long[] tokenIds = new long[fields.length - 2];
+                        for (int i = 2; i < fields.length; i++) {
+                            tokenIds[i - 2] = Long.parseLong(fields[i]);
+                        }
+                        subscriber.onRevocations(new SegmentRevocations(
+                                Long.parseLong(fields[0]), Long.parseLong(fields[1]), tokenIds));
+                    }
+                }
+            }
+
+            @Override
+            public void subscribed(String channel, long count) {
+                notifier.execute(subscriber::onConnected);
+            }
+        });
+        connection.sync().subscribe(CHANNEL);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection != null) {
+            connection.close();
+        }
+        client.shutdown();
+        notifier.shutdown();
+    }
+
+    static String key(long segment, long tokenId) {
+        return KEY_PREFIX + segment + ':' + (tokenId >>> 16);
+    }
+
+    /**
+     * Reads the token ids of a bitmap key; Redis numbers the bits of each byte from the most significant one.
+     */
+    private static SegmentRevocations decode(String key, byte[] bits, long retainUntilMillis) {
+        int separator = key.lastIndexOf(':');
+        long segment = Long.parseLong(key.substring(KEY_PREFIX.length(), separator));
+        long high = Long.parseLong(key.substring(separator + 1)) << 16;
+        int count = 0;
+        for (byte b : bits) {
+            count += Integer.bitCount(b & 0xFF);
+        }
+        long[] tokenIds = new long[count];
+        int n = 0;
+        for (int i = 0; i < bits.length; i++) {
+            for (int bit = 0; bit < 8; bit++) {
+                if ((bits[i] & (0x80 >>> bit)) != 0) {
+                    tokenIds[n++] = high | (i * 8L + bit);
+                }
+            }
+        }
+        return new SegmentRevocations(segment, retainUntilMillis, tokenIds);
+    }
+}
@@ -0,0 +1,168 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.revocation.RevocationEvent;
+import com.deepLearning.security.revocation.RevocationTransport;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * RedisRevocationTransport broadcasts revocations over Redis pub/sub.
+ * <p>
+ * Revocations are added to the sorted set {@code revoked:index}, scored by the expiry of the token, and published
+ * on the {@code revocations} channel as lines of {@code "<expiresAt> <token>"}, both by one {@code EVALSHA} of the
+ * {@code redis/publish-revocation.lua} script per batch. The index is the snapshot a node reads when it (re)subscribes;
+ * expired entries are dropped by every publish, and the whole index expires with its last entry.
+ * <p>
+ * The index only holds what was published. Blacklist entries written before the broadcast was rolled out, or by
+ * nodes that do not publish yet, are not in it, so the snapshot is only {@linkplain #isComplete() complete} once the
+ * marker key {@code revoked:index:complete} exists. Set it ({@code SET revoked:index:complete 1}) when every node
+ * publishes and the longest token lifetime has passed since the last one was upgraded; nodes read it on every resync.
+ * <p>
+ * The subscription uses a Lettuce pub/sub connection of its own, which Lettuce re-establishes after a connection
+ * loss. The subscriber is told about a lost connection synchronously on the Lettuce I/O thread, so that lookups stop
+ * trusting the deny-list at once, and about a new one only once Redis has confirmed the {@code SUBSCRIBE}, so that
+ * the snapshot read afterwards cannot miss an event. The resync runs on a single thread of this transport, never on
+ * the Lettuce I/O thread.
+ */
+@Slf4j
+public class RedisRevocationTransport implements RevocationTransport {
+
+    /**
+     * Channel of the revocation events.
+     */
+    static final String CHANNEL = "revocations";
+
+    /**
+     * Sorted set of the current revocations.
+     */
+    static final String INDEX_KEY = "revoked:index";
+
+    /**
+     * Marker set once the index holds every entry of the blacklist.
+     */
+    static final String COMPLETE_KEY = "revoked:index:complete";
+
+    /**
+     * Publish script; returns the number of receiving nodes.
+     */
+    private static final RedisScript<Long> PUBLISH_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/publish-revocation.lua"), Long.class);
+
+    /**
+     * Redis template for publishing and reading the snapshot.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisClient client;
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revocation-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private StatefulRedisPubSubConnection<String, String> connection;
+
+    /**
+     * Constructs the transport.
+     *
+     * @param redisTemplate the Redis template used to publish and to read the snapshot.
+     * @param redisUri      the Redis server of the subscription connection.
+     */
+    public RedisRevocationTransport(StringRedisTemplate redisTemplate, RedisURI redisUri) {
+        this.redisTemplate = redisTemplate;
+        this.client = RedisClient.create(redisUri);
+    }
+
+    @Override
+    public void publishAll(Collection<RevocationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[1 + 2 * events.size()];
+        args[0] = CHANNEL;
+        int i = 1;
+        for (RevocationEvent event : events) {
+            args[i++] = event.token();
+            args[i++] = Long.toString(event.expiresAtMillis());
+        }
+        redisTemplate.execute(PUBLISH_SCRIPT, List.of(INDEX_KEY), args);
+    }
+
+    @Override
+    public Collection<RevocationEvent> snapshot() {
+        Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(INDEX_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        if (entries == null) {
+            return List.of();
+        }
+        return entries.stream()
+                .map(entry -> new RevocationEvent(entry.getValue(), entry.getScore().longValue()))
+                .toList();
+    }
+
+    @Override
+    public boolean isComplete() {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(COMPLETE_KEY));
+    }
+
+    @Override
+    public synchronized void subscribe(Subscriber subscriber) {
+        if (connection != null) {
+            throw new IllegalStateException("Already subscribed");
+        }
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                subscriber.onDisconnected();
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+                // wait for the SUBSCRIBE confirmation
+            }
+        });
+        connection = client.connectPubSub();
+        connection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                for (String line : message.split("\n")) {
+                    int separator = line.indexOf(' ');
+                    if (separator > 0) {
+                        subscriber.onRevocation(new RevocationEvent(
+                                line.substring(separator + 1), Long.parseLong(line.substring(0, separator))));
+                    }
+                }
+            }
+
+            @Override
+            public void subscribed(String channel, long count) {
+                notifier.execute(subscriber::onConnected);
+            }
+        });
+        connection.sync().subscribe(CHANNEL);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection != null) {
+            connection.close();
+        }
+        client.shutdown();
+        notifier.shutdown();
+    }
+}
@@ -0,0 +1,195 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.userServices.LocalUserCache;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * RedisUserCache is a two-tier {@link UserCache}: the node's {@link LocalUserCache} in front of user snapshots
+ * shared by all nodes in Redis.
+ * <p>
+ * A lookup missing the local tier reads the {@link UserSnapshot} at {@code user:<username>} and keeps it locally, so
+ * a cold node (after a deploy or restart) fills from Redis instead of the database. Users put into the cache are
+ * written to both tiers; the snapshots expire after {@code security.user-cache.shared.time-to-live}. Snapshots leave
+ * out the password hash, so users read from Redis have none and must not be used to check a password.
+ * <p>
+ * Removing a user deletes its snapshot and publishes its username on the {@code user-invalidations} channel in one
+ * pipelined round trip, and every node subscribed to the channel removes it from its local tier. While the
+ * subscription is down, invalidations may be missed, so the local tier is cleared whenever the subscription is lost
+ * and again once it is re-established.
+ * <p>
+ * Redis failures never fail a lookup: the user is then loaded from the database. Lookups are counted in
+ * {@code auth.users.cache}, tagged with the tier that answered ({@code local}, {@code shared}) or {@code miss}.
+ */
+@Slf4j
+public class RedisUserCache implements UserCache, AutoCloseable {
+
+    /**
+     * Channel of the invalidated usernames.
+     */
+    static final String CHANNEL = "user-invalidations";
+
+    /**
+     * Prefix of the snapshot keys.
+     */
+    static final String KEY_PREFIX = "user:";
+
+    private final LocalUserCache local;
+    private final StringRedisTemplate redisTemplate;
+    private final long timeToLiveSeconds;
+    private final Counter localHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+
+    private RedisClient client;
+    private StatefulRedisPubSubConnection<String, String> connection;
+    private volatile boolean subscribed;
+
+    /**
+     * Constructs the cache; call {@link #subscribe(RedisURI)} to receive the invalidations of other nodes.
+     *
+     * @param local         the local tier.
+     * @param redisTemplate the Redis template of the shared tier.
+     * @param timeToLive    the lifetime of the snapshots in Redis.
+     * @param meterRegistry the registry of the lookup counters.
+     */
+    public RedisUserCache(LocalUserCache local, StringRedisTemplate redisTemplate, Duration timeToLive,
+                          MeterRegistry meterRegistry) {
+        this.local = local;
+        this.redisTemplate = redisTemplate;
+        this.timeToLiveSeconds = Math.max(1, timeToLive.toSeconds());
+        this.localHits = meterRegistry.counter("auth.users.cache", "result", "local");
+        this.sharedHits = meterRegistry.counter("auth.users.cache", "result", "shared");
+        this.misses = meterRegistry.counter("auth.users.cache", "result", "miss");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails user = local.getUserFromCache(username);
+        if (user != null) {
+            localHits.increment();
+            return user;
+        }
+        try {
+            byte[] snapshot = redisTemplate.execute((RedisCallback<byte[]>) redis ->
+                    redis.stringCommands().get(key(username)));
+            User shared = snapshot == null ? null : UserSnapshot.decode(snapshot);
+            if (shared != null && shared.getUsername().equals(username)) {
+                local.putUserInCache(shared);
+                sharedHits.increment();
+                return shared;
+            }
+        } catch (RuntimeException e) {
+            log.debug("Reading the cached user {} from Redis failed: {}", username, e.toString());
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        local.putUserInCache(user);
+        if (!(user instanceof User entity)) {
+            return;
+        }
+        try {
+            byte[] snapshot = UserSnapshot.encode(entity);
+            redisTemplate.execute((RedisCallback<Boolean>) redis ->
+                    redis.stringCommands().setEx(key(entity.getUsername()), timeToLiveSeconds, snapshot));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Writing the cached user {} to Redis failed: {}", entity.getUsername(), e.toString());
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        local.removeUserFromCache(username);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) redis -> {
+                redis.keyCommands().del(key(username));
+                redis.publish(CHANNEL.getBytes(StandardCharsets.UTF_8), username.getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Invalidating the cached user {} in Redis failed, other nodes may use it for up to {}s: {}",
+                    username, timeToLiveSeconds, e.toString());
+        }
+    }
+
+    /**
+     * Subscribes to the invalidations of other nodes on a Lettuce pub/sub connection of its own, which Lettuce
+     * re-establishes after a connection loss.
+     *
+     * @param redisUri the Redis server of the subscription connection.
+     */
+    public synchronized void subscribe(RedisURI redisUri) {
+        if (client != null) {
+            throw new IllegalStateException("Already subscribed");
+        }
+        client = RedisClient.create(redisUri);
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                subscribed = false;
+                local.clear();
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+                // wait for the SUBSCRIBE confirmation
+            }
+        });
+        connection = client.connectPubSub();
+        connection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String username) {
+                local.removeUserFromCache(username);
+            }
+
+            @Override
+            public void subscribed(String channel, long count) {
+                local.clear();
+                subscribed = true;
+            }
+        });
+        connection.sync().subscribe(CHANNEL);
+    }
+
+    /**
+     * @return {@code true} if invalidations of other nodes are currently received.
+     */
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection != null) {
+            connection.close();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    private static byte[] key(String username) {
+        return (KEY_PREFIX + username).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.deepLearning.security.redis;
+
+/**
+ * RefreshTokenFamilyService tracks refresh token families for refresh token rotation.
+ * <p>
+ * A family starts with the refresh token issued at sign-in. Every refresh consumes the presented token and
+ * registers the one issued in exchange, so at any time exactly one token of a family can be used. Presenting
+ * a token that has already been consumed means it was copied; the whole family is revoked, which also locks out
+ * whoever holds the latest token.
+ * <p>
+ * The main methods are:
+ * <ul>
+ *   <li>{@code startFamily(...)} - registers the first token of a new family.</li>
+ *   <li>{@code rotate(...)} - atomically consumes the current token and registers its successor.</li>
+ *   <li>{@code revokeFamily(...)} - revokes all tokens of a family (e.g., on logout).</li>
+ * </ul>
+ */
+public interface RefreshTokenFamilyService {
+
+    /**
+     * Registers the first refresh token of a new family.
+     *
+     * @param familyId  the family id ({@code fid} claim).
+     * @param tokenId   the id of the refresh token ({@code jti} claim).
+     * @param ttlMillis how long the family is kept, normally the lifetime of the refresh token.
+     */
+    void startFamily(String familyId, String tokenId, long ttlMillis);
+
+    /**
+     * Consumes the presented refresh token and registers its successor in one atomic operation.
+     * <p>
+     * The {@code grant} (the tokens issued in exchange) is kept for {@code graceMillis}. If the same token is
+     * presented again within that period - several tabs or a retry refreshing at once - the call returns
+     * {@link RotationResult#ALREADY_ROTATED} with the original grant instead of revoking the family.
+     *
+     * @param familyId    the family id.
+     * @param tokenId     the id of the presented refresh token.
+     * @param nextTokenId the id of the refresh token issued in exchange.
+     * @param ttlMillis   the new time to live of the family.
+     * @param grant       the serialized tokens issued in exchange.
+     * @param graceMillis the grace period, {@code 0} to disable it.
+     * @return the outcome of the rotation.
+     */
+    Rotation rotate(String familyId, String tokenId, String nextTokenId, long ttlMillis, String grant,
+                    long graceMillis);
+
+    /**
+     * Revokes all refresh tokens of a family.
+     *
+     * @param familyId the family id.
+     */
+    void revokeFamily(String familyId);
+
+    /**
+     * Outcome of {@link #rotate(String, String, String, long, String, long)}.
+     *
+     * @param result the result of the rotation.
+     * @param grant  the grant of the earlier rotation if the result is {@link RotationResult#ALREADY_ROTATED},
+     *               {@code null} otherwise.
+     */
+    record Rotation(RotationResult result, String grant) {
+    }
+
+    /**
+     * Result of a rotation.
+     */
+    enum RotationResult {
+
+        /**
+         * The presented token was current and has been replaced by its successor.
+         */
+        ROTATED,
+
+        /**
+         * The presented token was replaced moments ago, within the grace period; the earlier grant is returned.
+         */
+        ALREADY_ROTATED,
+
+        /**
+         * The family does not exist (anymore); it expired or was revoked.
+         */
+        UNKNOWN_FAMILY,
+
+        /**
+         * The presented token had already been consumed; the family has been revoked.
+         */
+        REUSED
+    }
+}
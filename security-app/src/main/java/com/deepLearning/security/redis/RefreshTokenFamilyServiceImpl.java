@@ -0,0 +1,78 @@
+package com.deepLearning.security.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RefreshTokenFamilyServiceImpl stores refresh token families in Redis.
+ * <p>
+ * Each family is a single string key {@code rt:family:<fid>} holding the id of its current token, with the
+ * lifetime of that token as TTL. The grant of a rotation is kept for the grace period under
+ * {@code rt:grace:<fid>:<jti>}. Rotation is done by the {@code redis/rotate-refresh-token.lua} script, so the
+ * check of the current token, its replacement, the grace lookup and the revocation on reuse happen in one round
+ * trip and cannot interleave with a concurrent refresh of the same family. The script is sent by SHA
+ * ({@code EVALSHA}) and only loaded once per server.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenFamilyServiceImpl implements RefreshTokenFamilyService {
+
+    /**
+     * Prefix of the family keys.
+     */
+    static final String KEY_PREFIX = "rt:family:";
+
+    /**
+     * Prefix of the grace keys.
+     */
+    static final String GRACE_KEY_PREFIX = "rt:grace:";
+
+    /**
+     * Rotation script; returns "R" (rotated), "U" (unknown family), "G" followed by the earlier grant (rotated
+     * within the grace period) or "X" (reused, family revoked).
+     */
+    private static final RedisScript<String> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/rotate-refresh-token.lua"), String.class);
+
+    /**
+     * Redis template for performing string-based operations.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void startFamily(String familyId, String tokenId, long ttlMillis) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + familyId, tokenId, ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Rotation rotate(String familyId, String tokenId, String nextTokenId, long ttlMillis, String grant,
+                           long graceMillis) {
+        String result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(KEY_PREFIX + familyId, GRACE_KEY_PREFIX + familyId + ':' + tokenId),
+                tokenId, nextTokenId, Long.toString(ttlMillis), grant, Long.toString(graceMillis));
+        if (result == null || result.isEmpty() || result.charAt(0) == 'U') {
+            return new Rotation(RotationResult.UNKNOWN_FAMILY, null);
+        }
+        return switch (result.charAt(0)) {
+            case 'R' -> new Rotation(RotationResult.ROTATED, null);
+            case 'G' -> new Rotation(RotationResult.ALREADY_ROTATED, result.substring(1));
+            default -> {
+                log.warn("Refresh token reuse detected, revoked token family {}", familyId);
+                yield new Rotation(RotationResult.REUSED, null);
+            }
+        };
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        redisTemplate.delete(KEY_PREFIX + familyId);
+    }
+}
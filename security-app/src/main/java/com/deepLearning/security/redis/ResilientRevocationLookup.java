@@ -0,0 +1,271 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.RevocationCheckProperties.DegradedMode;
+import com.deepLearning.security.resilience.CircuitBreaker;
+import com.deepLearning.security.revocation.LocalDenyList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * ResilientRevocationLookup guards the Redis revocation lookup, so that a slow or unavailable Redis costs each
+ * request at most one short timeout, and usually nothing.
+ * <p>
+ * The remote lookup is expected to enforce its own per-call timeout ({@code security.revocation-check.timeout}).
+ * Failed and timed out lookups are counted by a {@link CircuitBreaker}: after
+ * {@code security.revocation-check.failure-threshold} consecutive failures, lookups skip Redis for
+ * {@code security.revocation-check.open-duration}, after which a single probe decides whether to resume. A probe
+ * that is cancelled, or whose outcome is lost, counts as failed after at most the open duration.
+ * <p>
+ * Lookups that do not reach Redis are answered according to {@code security.revocation-check.degraded-mode}:
+ * <ul>
+ *   <li>{@code FAIL_CLOSED} - the token is treated as revoked;</li>
+ *   <li>{@code FAIL_OPEN} - the token is accepted unless it is on the local list of revocations made through this
+ *       node (see {@link #recordRevocation}).</li>
+ * </ul>
+ * Degraded answers are counted in {@code auth.revocation.degraded}, tagged with the {@code mode} and the
+ * {@code cause} ({@code error} or {@code open}); the state of the circuit is the {@code auth.revocation.circuit}
+ * gauge (0 closed, 1 open, 2 half-open), and its transitions are logged and counted in
+ * {@code auth.revocation.circuit.transitions}.
+ * <p>
+ * {@link #areRevoked(List)} checks a whole batch with one remote lookup (e.g. an {@code MGET}), which counts as one
+ * call for the circuit breaker. {@link #isRevoked(String, Mono, Duration)} guards a non-blocking lookup of the
+ * WebFlux stack the same way, abandoning it after the timeout.
+ */
+@Slf4j
+public class ResilientRevocationLookup {
+
+    /**
+     * The Redis lookup, with its own timeout.
+     */
+    private final Predicate<String> remoteLookup;
+
+    /**
+     * The Redis lookup of a batch, with its own timeout; answers in the order of the tokens.
+     */
+    private final Function<List<String>, boolean[]> batchLookup;
+
+    private final DegradedMode degradedMode;
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Revocations made through this node, answered locally in {@code FAIL_OPEN} mode.
+     */
+    private final LocalDenyList recentRevocations = new LocalDenyList();
+
+    private final Counter failures;
+    private final Counter skipped;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs the lookup.
+     *
+     * @param remoteLookup     the Redis lookup; must time out after the per-call timeout.
+     * @param degradedMode     the answer of lookups that cannot reach Redis.
+     * @param failureThreshold the number of consecutive failures that open the circuit.
+     * @param openDuration     how long lookups skip Redis once the circuit is open.
+     * @param meterRegistry    the registry of the metrics.
+     */
+    public ResilientRevocationLookup(Predicate<String> remoteLookup, DegradedMode degradedMode,
+                                     int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this(remoteLookup, tokens -> {
+            boolean[] revoked = new boolean[tokens.size()];
+            for (int i = 0; i < revoked.length; i++) {
+                revoked[i] = remoteLookup.test(tokens.get(i));
+            }
+            return revoked;
+        }, degradedMode, failureThreshold, openDuration, meterRegistry);
+    }
+
+    /**
+     * Constructs the lookup with a dedicated lookup of batches.
+     *
+     * @param remoteLookup     the Redis lookup; must time out after the per-call timeout.
+     * @param batchLookup      the Redis lookup of a batch, answering in the order of the tokens; must time out
+     *                         after the per-call timeout.
+     * @param degradedMode     the answer of lookups that cannot reach Redis.
+     * @param failureThreshold the number of consecutive failures that open the circuit.
+     * @param openDuration     how long lookups skip Redis once the circuit is open.
+     * @param meterRegistry    the registry of the metrics.
+     */
+    public ResilientRevocationLookup(Predicate<String> remoteLookup, Function<List<String>, boolean[]> batchLookup,
+                                     DegradedMode degradedMode, int failureThreshold, Duration openDuration,
+                                     MeterRegistry meterRegistry) {
+        this.remoteLookup = remoteLookup;
+        this.batchLookup = batchLookup;
+        this.degradedMode = degradedMode;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker("revocation", failureThreshold, openDuration, this::onTransition);
+        this.failures = degradedCounter("error");
+        this.skipped = degradedCounter("open");
+        Gauge.builder("auth.revocation.circuit", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the revocation lookup circuit: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks if the given token is revoked, degrading as configured if Redis cannot be reached.
+     *
+     * @param token the JWT token to check for revocation.
+     * @return {@code true} if the token is (treated as) revoked.
+     */
+    public boolean isRevoked(String token) {
+        return isRevoked(token, () -> remoteLookup.test(token));
+    }
+
+    /**
+     * Checks if the given token is revoked with another remote lookup, e.g. of the revocation index, under the same
+     * circuit breaker and degraded mode.
+     *
+     * @param token        the JWT token to check for revocation.
+     * @param remoteLookup the Redis lookup of the token; must time out after the per-call timeout.
+     * @return {@code true} if the token is (treated as) revoked.
+     */
+    public boolean isRevoked(String token, BooleanSupplier remoteLookup) {
+        if (!circuitBreaker.tryAcquire()) {
+            skipped.increment();
+            return degraded(token);
+        }
+        boolean revoked;
+        try {
+            revoked = remoteLookup.getAsBoolean();
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            failures.increment();
+            log.debug("Revocation lookup failed: {}", e.toString());
+            return degraded(token);
+        } catch (Error e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+        return revoked;
+    }
+
+    /**
+     * Checks if the given token is revoked with a non-blocking remote lookup, under the same circuit breaker and
+     * degraded mode. A lookup that has not answered within the timeout is cancelled and counts as a failure; a lookup
+     * cancelled by the subscriber, e.g. because the client went away, is reported as abandoned.
+     *
+     * @param token        the JWT token to check for revocation.
+     * @param remoteLookup the Redis lookup of the token; an empty lookup means not revoked.
+     * @param timeout      the per-call timeout.
+     * @return a {@code Mono} emitting {@code true} if the token is (treated as) revoked.
+     */
+    public Mono<Boolean> isRevoked(String token, Mono<Boolean> remoteLookup, Duration timeout) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                skipped.increment();
+                return Mono.just(degraded(token));
+            }
+            AtomicBoolean reported = new AtomicBoolean();
+            return remoteLookup
+                    .defaultIfEmpty(false)
+                    .timeout(timeout)
+                    .doOnNext(revoked -> {
+                        reported.set(true);
+                        circuitBreaker.onSuccess();
+                    })
+                    .onErrorResume(e -> {
+                        reported.set(true);
+                        circuitBreaker.onFailure();
+                        failures.increment();
+                        log.debug("Revocation lookup failed: {}", e.toString());
+                        return Mono.just(degraded(token));
+                    })
+                    .doOnCancel(() -> {
+                        if (reported.compareAndSet(false, true)) {
+                            circuitBreaker.onCancel();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Checks which of the given tokens are revoked with one remote lookup, degrading as configured for the whole
+     * batch if Redis cannot be reached.
+     *
+     * @param tokens the JWT tokens to check for revocation.
+     * @return for each token, {@code true} if it is (treated as) revoked.
+     */
+    public boolean[] areRevoked(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return new boolean[0];
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            skipped.increment(tokens.size());
+            return degraded(tokens);
+        }
+        boolean[] revoked;
+        try {
+            revoked = batchLookup.apply(tokens);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            failures.increment(tokens.size());
+            log.debug("Batch revocation lookup failed: {}", e.toString());
+            return degraded(tokens);
+        } catch (Error e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+        return revoked;
+    }
+
+    /**
+     * Remembers a revocation made through this node, for lookups in {@code FAIL_OPEN} mode.
+     *
+     * @param token           the revoked token.
+     * @param expiresAtMillis the expiry of the token, in epoch milliseconds.
+     */
+    public void recordRevocation(String token, long expiresAtMillis) {
+        recentRevocations.add(token, expiresAtMillis);
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean degraded(String token) {
+        return degradedMode == DegradedMode.FAIL_CLOSED || recentRevocations.contains(token);
+    }
+
+    private boolean[] degraded(List<String> tokens) {
+        boolean[] revoked = new boolean[tokens.size()];
+        for (int i = 0; i < revoked.length; i++) {
+            revoked[i] = degraded(tokens.get(i));
+        }
+        return revoked;
+    }
+
+    private void onTransition(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            log.warn("Circuit {} {} -> {}: revocation lookups skip Redis and {}", name, from, to,
+                    degradedMode == DegradedMode.FAIL_CLOSED ? "reject tokens" : "use local revocations");
+        } else {
+            log.info("Circuit {} {} -> {}", name, from, to);
+        }
+        Counter.builder("auth.revocation.circuit.transitions")
+                .description("State changes of the revocation lookup circuit")
+                .tag("to", to.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Counter degradedCounter(String cause) {
+        return Counter.builder("auth.revocation.degraded")
+                .description("Revocation lookups answered without Redis")
+                .tag("mode", degradedMode.name().toLowerCase())
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.dto.BatchRevocationRequest;
+import com.deepLearning.security.dto.BatchRevocationResult;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.verifier.RevocationClient;
+import com.deepLearning.security.verifier.TokenClaims;
+
+import java.util.List;
+
+/**
+ * RevokedTokenService handles the revocation of JWT tokens by storing them in a Redis-based blacklist.
+ * <p>
+ * This service uses a {@code StringRedisTemplate} to persist revoked tokens with a time-to-live (TTL)
+ * equal to the remaining lifetime of the token. It supports both access tokens and refresh tokens.
+ * <p>
+ * The main methods are:
+ * <ul>
+ *   <li>{@code revokeToken(TokenDto tokens)} - Revokes the provided access and refresh tokens by storing
+ *       them in Redis with appropriate TTLs.</li>
+ *   <li>{@code revokeTokens(BatchRevocationRequest request)} - Revokes many tokens and refresh token families
+ *       at once.</li>
+ *   <li>{@code isTokenRevoked(String token)} - Checks if a given token is present in the Redis blacklist.</li>
+ * </ul>
+ * As a {@link RevocationClient} it can back a {@link com.deepLearning.security.verifier.TokenVerifier}.
+ *
+ */
+public interface RevokedTokenService extends RevocationClient {
+
+    /**
+     * Revokes the provided tokens by storing them in Redis with a TTL equal to their remaining lifetime.
+     * <p>
+     * The method expects a map containing the keys "refreshToken" and "accessToken". For each token, it calculates
+     * the remaining time until expiration and stores the token in Redis with that TTL if the token is still valid.
+     *
+     * @param tokens a object containing tokens value (e.g., accessToken, refreshToken)
+     */
+    void revokeToken(TokensDto tokens);
+
+    /**
+     * Revokes many tokens and refresh token families at once, e.g. all sessions of a compromised client.
+     * <p>
+     * Malformed, foreign and expired tokens are skipped and counted in the result; a refresh token revokes its
+     * whole family.
+     *
+     * @param request the tokens and family ids to revoke.
+     * @return the outcome of the revocation.
+     */
+    BatchRevocationResult revokeTokens(BatchRevocationRequest request);
+
+    /**
+     * Checks if a given token is revoked by verifying its existence in the Redis blacklist.
+     *
+     * @param token the JWT token to check for revocation
+     * @return {@code true} if the token is revoked; {@code false} otherwise
+     */
+    boolean isTokenRevoked(String token);
+
+    /**
+     * Checks if a given, already verified token is revoked. Implementations may use the claims to answer without
+     * a lookup by token, e.g. from the revocation index.
+     *
+     * @param token  the JWT token to check for revocation
+     * @param claims the verified claims of the token
+     * @return {@code true} if the token is revoked; {@code false} otherwise
+     */
+    @Override
+    default boolean isTokenRevoked(String token, TokenClaims claims) {
+        return isTokenRevoked(token);
+    }
+
+    /**
+     * Checks which of the given, already verified tokens are revoked. Implementations should answer the batch with
+     * as few remote lookups as possible.
+     *
+     * @param tokens the JWT tokens to check for revocation
+     * @param claims the verified claims of each token, in the same order
+     * @return for each token, {@code true} if it is revoked
+     */
+    default boolean[] areTokensRevoked(List<String> tokens, List<TokenClaims> claims) {
+        boolean[] revoked = new boolean[tokens.size()];
+        for (int i = 0; i < revoked.length; i++) {
+            revoked[i] = isTokenRevoked(tokens.get(i), claims.get(i));
+        }
+        return revoked;
+    }
+
+}
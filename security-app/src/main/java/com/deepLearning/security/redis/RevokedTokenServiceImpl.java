@@ -0,0 +1,372 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.dto.BatchRevocationRequest;
+import com.deepLearning.security.dto.BatchRevocationResult;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.revocation.RevocationBroadcast;
+import com.deepLearning.security.revocation.RevocationEvent;
+import com.deepLearning.security.revocation.RevocationIndex;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenIdSequence;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * RevokedTokenService handles the revocation of JWT tokens by storing them in a Redis-based blacklist.
+ * <p>
+ * This service uses a {@code StringRedisTemplate} to persist revoked tokens with a time-to-live (TTL)
+ * equal to the remaining lifetime of the token. It supports both access tokens and refresh tokens.
+ * <p>
+ * The main methods are:
+ * <ul>
+ *   <li>{@code revokeToken(TokenDto tokens)} - Revokes the provided access and refresh tokens by storing
+ *       them in Redis with appropriate TTLs.</li>
+ *   <li>{@code revokeTokens(BatchRevocationRequest request)} - Revokes many tokens and refresh token families
+ *       at once, in one pipelined round trip.</li>
+ *   <li>{@code isTokenRevoked(String token)} - Checks if a given token is present in the Redis blacklist.</li>
+ *   <li>{@code areTokensRevoked(List tokens, List claims)} - Checks a batch of tokens, with the tokens that
+ *       cannot be answered locally looked up in one round trip.</li>
+ * </ul>
+ * <p>
+ * Lookups can be answered locally:
+ * <ul>
+ *   <li>with {@code security.revocation-broadcast.enabled}, every revocation is also broadcast to a
+ *       {@link RevocationBroadcast}; tokens in its deny-list are answered locally, and once it is
+ *       {@linkplain RevocationBroadcast#isAuthoritative() authoritative}, all other tokens too;</li>
+ *   <li>with {@code security.revocation-cache.enabled}, the remaining lookups go through a
+ *       {@link TrackedRevocationCache}, which keeps the answers locally and is invalidated by Redis when a token
+ *       is revoked on any node.</li>
+ * </ul>
+ * Lookups that do go to Redis are guarded by a {@link ResilientRevocationLookup}: a per-call timeout, a circuit
+ * breaker, and a configurable answer while Redis is unavailable.
+ * <p>
+ * With {@code security.revocation-shards.enabled}, the blacklist is kept in a {@link ShardedRevocationStore}
+ * spread over several Redis nodes instead; refresh token families stay in {@code redisTemplate}.
+ * <p>
+ * With {@code security.revocation-index.enabled}, access tokens carry sequence-numbered ids and their revocations
+ * are recorded in the {@link RevocationIndex} instead of the blacklist; checking them is a local bitmap probe.
+ */
+@Service
+@Slf4j
+public class RevokedTokenServiceImpl implements RevokedTokenService {
+
+    /**
+     * Batch size from which tokens are verified in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 64;
+
+    /**
+     * Marks a token of a batch that failed verification.
+     */
+    private static final Revocation INVALID = new Revocation(null, null, 0, null, 0, -1);
+
+    /**
+     * Marks a token of a batch that has already expired.
+     */
+    private static final Revocation EXPIRED = new Revocation(null, null, 0, null, 0, -1);
+
+    /**
+     * Redis template for performing string-based operations.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * JwtTokenProvider provides methods for validating and extracting claims from JWT tokens.
+     */
+    private final JwtTokenProvider jwtTokenProvider;
+
+
+    /**
+     * Guarded Redis lookup, possibly through the local revocation cache.
+     */
+    private final ResilientRevocationLookup revocationLookup;
+
+    /**
+     * Broadcast of revocations to the deny-list of every node, or {@code null} if disabled.
+     */
+    private final RevocationBroadcast revocationBroadcast;
+
+    /**
+     * Sharded blacklist, or {@code null} if the blacklist is kept in {@code redisTemplate}.
+     */
+    private final ShardedRevocationStore shardedStore;
+
+    /**
+     * Index of sequence-numbered tokens, or {@code null} if every revocation goes to the blacklist.
+     */
+    private final RevocationIndex revocationIndex;
+
+    /**
+     * Constructs the service.
+     *
+     * @param redisTemplate             the Redis template.
+     * @param jwtTokenProvider          the token provider.
+     * @param revocationLookup          the guarded Redis lookup.
+     * @param revocationBroadcast       the revocation broadcast, if enabled.
+     * @param shardedStore              the sharded blacklist, if enabled.
+     * @param revocationIndex           the revocation index, if enabled.
+     */
+    public RevokedTokenServiceImpl(StringRedisTemplate redisTemplate,
+                                   JwtTokenProvider jwtTokenProvider,
+                                   ResilientRevocationLookup revocationLookup,
+                                   ObjectProvider<RevocationBroadcast> revocationBroadcast,
+                                   ObjectProvider<ShardedRevocationStore> shardedStore,
+                                   ObjectProvider<RevocationIndex> revocationIndex) {
+        this.redisTemplate = redisTemplate;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationLookup = revocationLookup;
+        this.revocationBroadcast = revocationBroadcast.getIfAvailable();
+        this.shardedStore = shardedStore.getIfAvailable();
+        this.revocationIndex = revocationIndex.getIfAvailable();
+    }
+
+    /**
+     * Revokes the provided tokens by storing them in Redis with a TTL equal to their remaining lifetime.
+     * <p>
+     * The method expects a map containing the keys "refreshToken" and "accessToken". For each token, it calculates
+     * the remaining time until expiration and stores the token in Redis with that TTL if the token is still valid.
+     * A refresh token that belongs to a family is revoked by revoking the whole family instead. Both writes are
+     * sent in one pipelined round trip.
+     *
+     * @param tokens a object containing tokens value (e.g., accessToken, refreshToken)
+     */
+    @Override
+    public void revokeToken(TokensDto tokens) {
+        List<Revocation> revocations = new ArrayList<>(2);
+        if (tokens.accessToken() != null) {
+            revocations.add(Revocation.of(tokens.accessToken(), jwtTokenProvider.parseToken(tokens.accessToken())));
+        } else {
+            log.warn("Access token is missing from the revoke request");
+        }
+        if (tokens.refreshToken() != null) {
+            revocations.add(Revocation.of(tokens.refreshToken(), jwtTokenProvider.parseToken(tokens.refreshToken())));
+        } else {
+            log.warn("Refresh token is missing from the revoke request");
+        }
+        write(revocations, Set.of(), System.currentTimeMillis());
+    }
+
+    /**
+     * Revokes many tokens and refresh token families at once.
+     * <p>
+     * Tokens are verified in parallel for large batches; malformed, foreign and expired tokens are skipped and
+     * counted. All blacklist entries and family deletions are then sent in one pipelined round trip.
+     *
+     * @param request the tokens and family ids to revoke.
+     * @return the outcome of the revocation.
+     */
+    @Override
+    public BatchRevocationResult revokeTokens(BatchRevocationRequest request) {
+        List<String> tokens = request.tokens() == null ? List.of() : request.tokens();
+        Stream<String> stream = tokens.size() >= PARALLEL_THRESHOLD ? tokens.parallelStream() : tokens.stream();
+        List<Revocation> parsed = stream.map(this::parseLeniently).toList();
+
+        long now = System.currentTimeMillis();
+        List<Revocation> revocations = new ArrayList<>(parsed.size());
+        int expired = 0;
+        int invalid = 0;
+        for (Revocation revocation : parsed) {
+            if (revocation == INVALID) {
+                invalid++;
+            } else if (revocation == EXPIRED || revocation.expiresAtMillis() <= now) {
+                expired++;
+            } else {
+                revocations.add(revocation);
+            }
+        }
+        Set<String> familyIds = request.familyIds() == null ? Set.of() : new HashSet<>(request.familyIds());
+        int[] written = write(revocations, familyIds, now);
+        log.info("Batch revocation: {} tokens, {} families, {} expired, {} invalid",
+                written[0], written[1], expired, invalid);
+        return new BatchRevocationResult(written[0], written[1], expired, invalid);
+    }
+
+    /**
+     * Checks if a given token is revoked by verifying its existence in the Redis blacklist.
+     *
+     * @param token the JWT token to check for revocation
+     * @return {@code true} if the token is revoked; {@code false} otherwise
+     */
+    @Override
+    public boolean isTokenRevoked(String token) {
+        if (revocationBroadcast != null) {
+            if (revocationBroadcast.isRevoked(token)) {
+                return true;
+            }
+            if (revocationBroadcast.isAuthoritative()) {
+                return false;
+            }
+        }
+        return revocationLookup.isRevoked(token);
+    }
+
+    /**
+     * Checks if a given, already verified token is revoked.
+     * <p>
+     * Tokens with a sequence-numbered id are checked in the revocation index while it is in sync, and with a
+     * guarded lookup of its store otherwise; all other tokens as in {@link #isTokenRevoked(String)}.
+     *
+     * @param token  the JWT token to check for revocation
+     * @param claims the verified claims of the token
+     * @return {@code true} if the token is revoked; {@code false} otherwise
+     */
+    @Override
+    public boolean isTokenRevoked(String token, TokenClaims claims) {
+        long tokenId = revocationIndex == null ? -1 : TokenIdSequence.parse(claims.tokenId());
+        if (tokenId < 0) {
+            return isTokenRevoked(token);
+        }
+        if (revocationIndex.isSynchronized()) {
+            return revocationIndex.isRevoked(claims.issuedAt(), tokenId);
+        }
+        return revocationLookup.isRevoked(token,
+                () -> revocationIndex.isRevokedRemotely(claims.issuedAt(), tokenId));
+    }
+
+    /**
+     * Checks which of the given, already verified tokens are revoked.
+     * <p>
+     * Sequence-numbered tokens are checked as in {@link #isTokenRevoked(String, TokenClaims)}, and the others in the
+     * deny-list of the revocation broadcast as in {@link #isTokenRevoked(String)}. The remaining tokens are looked up together with
+     * one remote batch lookup (an {@code MGET}, or one per shard) instead of one lookup per token.
+     *
+     * @param tokens the JWT tokens to check for revocation
+     * @param claims the verified claims of each token, in the same order
+     * @return for each token, {@code true} if it is revoked
+     */
+    @Override
+    public boolean[] areTokensRevoked(List<String> tokens, List<TokenClaims> claims) {
+        boolean[] revoked = new boolean[tokens.size()];
+        boolean broadcastAuthoritative = revocationBroadcast != null && revocationBroadcast.isAuthoritative();
+        List<Integer> remote = new ArrayList<>();
+        for (int i = 0; i < revoked.length; i++) {
+            String token = tokens.get(i);
+            if (revocationIndex != null && TokenIdSequence.parse(claims.get(i).tokenId()) >= 0) {
+                revoked[i] = isTokenRevoked(token, claims.get(i));
+            } else if (revocationBroadcast != null && revocationBroadcast.isRevoked(token)) {
+                revoked[i] = true;
+            } else if (!broadcastAuthoritative) {
+                remote.add(i);
+            }
+        }
+        if (!remote.isEmpty()) {
+            boolean[] answers = revocationLookup.areRevoked(remote.stream().map(tokens::get).toList());
+            for (int i = 0; i < answers.length; i++) {
+                revoked[remote.get(i)] = answers[i];
+            }
+        }
+        return revoked;
+    }
+
+    /**
+     * Records sequence-numbered tokens in the revocation index, writes the blacklist entries and deletes the
+     * refresh token families in one pipelined round trip, then records the revocations locally and broadcasts them.
+     *
+     * @return the number of revoked tokens and of revoked families.
+     */
+    private int[] write(List<Revocation> revocations, Set<String> familyIds, long now) {
+        List<Revocation> blacklisted = new ArrayList<>(revocations.size());
+        List<RevocationIndex.IndexedToken> indexed = new ArrayList<>();
+        Set<String> families = new HashSet<>(familyIds);
+        for (Revocation revocation : revocations) {
+            if (revocation.familyId() != null) {
+                families.add(revocation.familyId());
+            } else if (revocation.expiresAtMillis() <= now) {
+                continue;
+            } else if (revocationIndex != null && revocation.sequenceId() >= 0) {
+                indexed.add(new RevocationIndex.IndexedToken(revocation.issuedAt(), revocation.sequenceId()));
+                revocationLookup.recordRevocation(revocation.token(), revocation.expiresAtMillis());
+            } else {
+                blacklisted.add(revocation);
+            }
+        }
+        int indexedCount = indexed.isEmpty() ? 0 : revocationIndex.revokeAll(indexed);
+        if (blacklisted.isEmpty() && families.isEmpty()) {
+            return new int[]{indexedCount, 0};
+        }
+
+        for (Revocation revocation : blacklisted) {
+            revocationLookup.recordRevocation(revocation.token(), revocation.expiresAtMillis());
+        }
+        List<RevocationEvent> events = blacklisted.stream()
+                .map(revocation -> new RevocationEvent(revocation.token(), revocation.expiresAtMillis()))
+                .toList();
+        if (shardedStore != null && !blacklisted.isEmpty()) {
+            shardedStore.revokeAll(events, now);
+        }
+        if (!families.isEmpty() || shardedStore == null) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                if (shardedStore == null) {
+                    for (Revocation revocation : blacklisted) {
+                        strings.set(revocation.token(), revocation.value(),
+                                Expiration.milliseconds(revocation.expiresAtMillis() - now), SetOption.upsert());
+                    }
+                }
+                if (!families.isEmpty()) {
+                    strings.del(families.stream()
+                            .map(familyId -> RefreshTokenFamilyServiceImpl.KEY_PREFIX + familyId)
+                            .toArray(String[]::new));
+                }
+                return null;
+            });
+        }
+        if (revocationBroadcast != null && !events.isEmpty()) {
+            revocationBroadcast.revokedAll(events);
+        }
+        return new int[]{indexedCount + blacklisted.size(), families.size()};
+    }
+
+    /**
+     * Parses a token of a batch, returning {@link #INVALID} or {@link #EXPIRED} instead of throwing.
+     */
+    private Revocation parseLeniently(String token) {
+        try {
+            return Revocation.of(token, jwtTokenProvider.parseToken(token));
+        } catch (TokenRejectedException e) {
+            return e.getReason() == TokenRejectedException.Reason.EXPIRED ? EXPIRED : INVALID;
+        } catch (JwtException | IllegalArgumentException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * A verified token to revoke.
+     *
+     * @param token           the token.
+     * @param type            the type of the token.
+     * @param expiresAtMillis the expiry of the token, in epoch milliseconds.
+     * @param familyId        the refresh token family of the token, if any.
+     * @param issuedAt        the {@code iat} claim of the token, in epoch seconds.
+     * @param sequenceId      the sequence-numbered id of the token, or {@code -1}.
+     */
+    private record Revocation(String token, TokenType type, long expiresAtMillis, String familyId, long issuedAt,
+                              long sequenceId) {
+
+        static Revocation of(String token, TokenClaims claims) {
+            return new Revocation(token, claims.type(), claims.expiresAtMillis(),
+                    claims.type() == TokenType.REFRESH ? claims.familyId() : null, claims.issuedAt(),
+                    claims.type() == TokenType.ACCESS ? TokenIdSequence.parse(claims.tokenId()) : -1);
+        }
+
+        String value() {
+            return type == TokenType.REFRESH ? "refresh_token_revoked" : "access_token_revoked";
+        }
+    }
+}
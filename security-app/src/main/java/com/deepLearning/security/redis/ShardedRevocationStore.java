@@ -0,0 +1,624 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.revocation.RevocationEvent;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.RedisSystemException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * ShardedRevocationStore keeps the revocation blacklist on several Redis nodes, spread with a
+ * {@link ConsistentHashRing}.
+ * <p>
+ * Each revoked token is stored on exactly one node, its owner on the ring, as {@code rv:<token>} with the remaining
+ * lifetime of the token as TTL. Revocations of a batch are grouped by owner and sent as one pipeline per node; a
+ * lookup is a single {@code EXISTS} on the owner, and a batch lookup one {@code MGET} per owner.
+ * <p>
+ * When the set of nodes changes, only the keys whose owner changed are moved, about {@code 1/n} of them:
+ * <ul>
+ *   <li>{@link #addNode} and {@link #removeNode} swap the ring and move the affected keys right away;</li>
+ *   <li>on startup the previous node list is unknown, so {@link #rebalanceAsync} sweeps every node for keys
+ *       it no longer owns.</li>
+ * </ul>
+ * While keys are being moved, a lookup that misses on the owner also asks the other nodes, so a revoked token is
+ * never accepted because its key has not arrived yet. Keys are copied with their remaining TTL before they are
+ * deleted from the old owner, so a lookup that missed everywhere while a key was in flight finds it on the owner
+ * when it asks again. If moving fails, the other nodes keep being asked and the move is retried every
+ * {@link #REBALANCE_RETRY_DELAY}, or by the next change of the nodes. Writes and lookups hold the read side of a
+ * lock whose write side is taken to swap the ring, so none of them straddles a swap and writes to a node that has
+ * already been swept.
+ * <p>
+ * Every node has its own connection, with the timeout of its {@link RedisURI} as command timeout. A connection on
+ * which a command timed out is dropped and a new one is opened by the next command: the late replies of a slow
+ * moment would otherwise still be queued on it, and every later command on the node would time out behind them.
+ * Per node, the
+ * store records the command latency in {@code auth.revocation.shard.latency}, failures in
+ * {@code auth.revocation.shard.errors} and whether the last command succeeded in {@code auth.revocation.shard.up},
+ * all tagged with the {@code shard}; moved keys are counted in {@code auth.revocation.shard.rebalanced}. Redis
+ * errors are thrown as {@link RedisSystemException}.
+ */
+@Slf4j
+public class ShardedRevocationStore implements AutoCloseable {
+
+    /**
+     * Prefix of the blacklist keys on the shards.
+     */
+    static final String KEY_PREFIX = "rv:";
+
+    /**
+     * Number of keys asked for per {@code SCAN} while rebalancing.
+     */
+    static final int SCAN_COUNT = 500;
+
+    /**
+     * Delay before a failed rebalance is retried.
+     */
+    static final Duration REBALANCE_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private static final String VALUE = "revoked";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rebalanced;
+
+    /**
+     * Runs the startup sweep and the retries of failed rebalances.
+     */
+    private final ScheduledExecutorService rebalancer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revocation-shard-rebalancer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Serializes changes of the ring and rebalancing.
+     */
+    private final Object topologyLock = new Object();
+
+    /**
+     * Held for reading by writes and lookups, and for writing while the ring is swapped.
+     */
+    private final ReadWriteLock ringLock = new ReentrantReadWriteLock();
+
+    /**
+     * The current owners of the keys.
+     */
+    private volatile ConsistentHashRing<Shard> ring;
+
+    /**
+     * The nodes that may still hold misplaced keys; empty unless a rebalance is running or pending.
+     */
+    private volatile Collection<Shard> rebalanceSources;
+
+    /**
+     * The scheduled retry of a failed rebalance, or {@code null}. Guarded by the topology lock.
+     */
+    private ScheduledFuture<?> rebalanceRetry;
+
+    /**
+     * Connects to the given nodes.
+     * <p>
+     * Until {@link #rebalanceAsync} or another rebalance has completed, lookups that miss on the owner ask every
+     * node, since keys may still be where an earlier node list put them.
+     *
+     * @param nodes         the Redis nodes; their timeout is the command timeout.
+     * @param virtualNodes  the number of points per node on the ring.
+     * @param meterRegistry the registry of the shard metrics.
+     * @throws RedisSystemException if a node cannot be reached.
+     */
+    public ShardedRevocationStore(List<RedisURI> nodes, int virtualNodes, MeterRegistry meterRegistry) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one revocation shard is required");
+        }
+        this.meterRegistry = meterRegistry;
+        this.rebalanced = Counter.builder("auth.revocation.shard.rebalanced")
+                .description("Revocations moved to another shard after the shards changed")
+                .register(meterRegistry);
+        Map<String, Shard> shards = new LinkedHashMap<>();
+        try {
+            for (RedisURI node : nodes) {
+                Shard shard = connect(node);
+                shards.put(shard.name, shard);
+            }
+        } catch (RuntimeException e) {
+            shards.values().forEach(Shard::close);
+            throw e;
+        }
+        this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+        this.rebalanceSources = List.copyOf(shards.values());
+    }
+
+    /**
+     * Stores the given revocations on their owners, with one pipeline per node.
+     *
+     * @param revocations the revocations; already expired ones are skipped.
+     * @param now         the current time, in epoch milliseconds.
+     */
+    public void revokeAll(Collection<RevocationEvent> revocations, long now) {
+        // a write to the old owner must be done before the sweep of that node starts
+        ringLock.readLock().lock();
+        try {
+            ConsistentHashRing<Shard> owners = ring;
+            Map<Shard, List<RevocationEvent>> byShard = new HashMap<>();
+            for (RevocationEvent revocation : revocations) {
+                if (revocation.expiresAtMillis() > now) {
+                    byShard.computeIfAbsent(owners.nodeFor(revocation.token()), shard -> new ArrayList<>())
+                            .add(revocation);
+                }
+            }
+            byShard.forEach((shard, events) -> shard.execute(commands -> {
+                List<RedisFuture<String>> writes = new ArrayList<>(events.size());
+                for (RevocationEvent event : events) {
+                    writes.add(commands.set(KEY_PREFIX + event.token(), VALUE,
+                            SetArgs.Builder.px(event.expiresAtMillis() - now)));
+                }
+                return shard.await(writes);
+            }));
+        } finally {
+            ringLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the given token has been revoked.
+     *
+     * @param token the token.
+     * @return {@code true} if the token is on the blacklist.
+     */
+    public boolean isRevoked(String token) {
+        String key = KEY_PREFIX + token;
+        ringLock.readLock().lock();
+        try {
+            Shard owner = ring.nodeFor(token);
+            if (exists(owner, key)) {
+                return true;
+            }
+            Collection<Shard> sources = rebalanceSources;
+            for (Shard shard : sources) {
+                if (shard != owner && exists(shard, key)) {
+                    return true;
+                }
+            }
+            // the key may have been moved to the owner after it was asked
+            return !sources.isEmpty() && exists(owner, key);
+        } finally {
+            ringLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks which of the given tokens have been revoked, with one {@code MGET} per owner node.
+     *
+     * @param tokens the tokens.
+     * @return for each token, {@code true} if it is on the blacklist.
+     */
+    public boolean[] areRevoked(List<String> tokens) {
+        ringLock.readLock().lock();
+        try {
+            ConsistentHashRing<Shard> owners = ring;
+            Map<Shard, List<Integer>> byShard = new HashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                byShard.computeIfAbsent(owners.nodeFor(tokens.get(i)), shard -> new ArrayList<>()).add(i);
+            }
+            boolean[] revoked = new boolean[tokens.size()];
+            byShard.forEach((shard, indexes) -> markRevoked(shard, tokens, indexes, revoked));
+            Collection<Shard> sources = rebalanceSources;
+            for (Shard shard : sources) {
+                List<Integer> misses = misses(revoked);
+                if (misses.isEmpty()) {
+                    return revoked;
+                }
+                markRevoked(shard, tokens, misses, revoked);
+            }
+            if (!sources.isEmpty()) {
+                // keys may have been moved to their owners after these were asked
+                List<Integer> misses = misses(revoked);
+                byShard.forEach((shard, indexes) -> {
+                    List<Integer> stillMissing = indexes.stream().filter(misses::contains).toList();
+                    if (!stillMissing.isEmpty()) {
+                        markRevoked(shard, tokens, stillMissing, revoked);
+                    }
+                });
+            }
+            return revoked;
+        } finally {
+            ringLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a node and moves the keys it now owns to it.
+     *
+     * @param node the Redis node.
+     * @return the number of moved keys.
+     */
+    public long addNode(RedisURI node) {
+        synchronized (topologyLock) {
+            Shard shard = connect(node);
+            ConsistentHashRing<Shard> current = ring;
+            if (current.getNodes().containsKey(shard.name)) {
+                shard.close();
+                throw new IllegalArgumentException("Revocation shard " + shard.name + " already exists");
+            }
+            List<Shard> sources = new ArrayList<>(current.getNodes().values());
+            sources.add(shard);
+            return rebalance(current.with(shard.name, shard), sources);
+        }
+    }
+
+    /**
+     * Moves the keys of a node to their new owners and removes it.
+     *
+     * @param name the name of the node, {@code host:port}.
+     * @return the number of moved keys.
+     */
+    public long removeNode(String name) {
+        synchronized (topologyLock) {
+            ConsistentHashRing<Shard> current = ring;
+            Shard shard = current.getNodes().get(name);
+            if (shard == null) {
+                throw new IllegalArgumentException("Unknown revocation shard " + name);
+            }
+            if (current.getNodes().size() == 1) {
+                throw new IllegalStateException("Cannot remove the last revocation shard");
+            }
+            // the node is closed once its keys have been moved, which may only be on a retry
+            return rebalance(current.without(name), List.copyOf(current.getNodes().values()));
+        }
+    }
+
+    /**
+     * Moves every key that is not on its owner, in the background.
+     *
+     * @return the number of moved keys, once done.
+     */
+    public CompletableFuture<Long> rebalanceAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            synchronized (topologyLock) {
+                ConsistentHashRing<Shard> current = ring;
+                return rebalance(current, List.copyOf(current.getNodes().values()));
+            }
+        }, rebalancer);
+    }
+
+    /**
+     * Pings every node.
+     *
+     * @return whether each node answered, by name.
+     */
+    public Map<String, Boolean> checkHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        for (Shard shard : ring.getNodes().values()) {
+            boolean up;
+            try {
+                up = "PONG".equals(shard.execute(commands -> shard.await(commands.ping())));
+            } catch (RedisSystemException e) {
+                up = false;
+            }
+            health.put(shard.name, up);
+        }
+        return health;
+    }
+
+    /**
+     * Returns the names of the nodes, {@code host:port}.
+     */
+    public Collection<String> getNodeNames() {
+        return ring.getNodes().keySet();
+    }
+
+    @Override
+    public void close() {
+        rebalancer.shutdownNow();
+        synchronized (topologyLock) {
+            ring.getNodes().values().forEach(Shard::close);
+            closeRemoved(rebalanceSources, ring);
+        }
+    }
+
+    /**
+     * Swaps the ring and moves the keys of the given nodes, and of the nodes left over by a failed rebalance, that
+     * the new ring puts elsewhere. Lookups fall back to these nodes until all keys have been moved; if moving fails,
+     * they keep falling back to them and the rebalance is retried later. Must hold the topology lock.
+     *
+     * @throws RedisSystemException if a node failed while keys were moved.
+     */
+    private long rebalance(ConsistentHashRing<Shard> next, Collection<Shard> sources) {
+        Set<Shard> pending = new LinkedHashSet<>(rebalanceSources);
+        pending.addAll(sources);
+        Collection<Shard> allSources = List.copyOf(pending);
+        ringLock.writeLock().lock();
+        try {
+            rebalanceSources = allSources;
+            ring = next;
+        } finally {
+            ringLock.writeLock().unlock();
+        }
+        long moved = 0;
+        try {
+            for (Shard source : allSources) {
+                moved += migrate(source, next);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Moving revocations across shards failed after {} keys, retrying in {}: {}",
+                    moved, REBALANCE_RETRY_DELAY, e.getMessage());
+            scheduleRetry();
+            throw e;
+        }
+        rebalanceSources = List.of();
+        closeRemoved(allSources, next);
+        if (moved > 0) {
+            log.info("Moved {} revocations across {} shards", moved, next.getNodes().size());
+        }
+        return moved;
+    }
+
+    /**
+     * Schedules a rebalance of the current ring, unless one is already scheduled. Must hold the topology lock.
+     */
+    private void scheduleRetry() {
+        if ((rebalanceRetry != null && !rebalanceRetry.isDone()) || rebalancer.isShutdown()) {
+            return;
+        }
+        rebalanceRetry = rebalancer.schedule(() -> {
+            synchronized (topologyLock) {
+                rebalanceRetry = null;
+                if (!rebalanceSources.isEmpty()) {
+                    ConsistentHashRing<Shard> current = ring;
+                    rebalance(current, List.copyOf(current.getNodes().values()));
+                }
+            }
+            return null;
+        }, REBALANCE_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the given nodes that are no longer on the given ring.
+     */
+    private static void closeRemoved(Collection<Shard> shards, ConsistentHashRing<Shard> ring) {
+        for (Shard shard : shards) {
+            if (ring.getNodes().get(shard.name) != shard) {
+                shard.close();
+            }
+        }
+    }
+
+    /**
+     * Moves the keys of the given node that belong elsewhere on the given ring.
+     */
+    private long migrate(Shard source, ConsistentHashRing<Shard> next) {
+        ScanArgs args = ScanArgs.Builder.matches(KEY_PREFIX + "*").limit(SCAN_COUNT);
+        long moved = 0;
+        ScanCursor cursor = ScanCursor.INITIAL;
+        do {
+            ScanCursor position = cursor;
+            KeyScanCursor<String> page = source.execute(commands -> source.await(commands.scan(position, args)));
+            Map<Shard, List<String>> misplaced = new HashMap<>();
+            for (String key : page.getKeys()) {
+                Shard owner = next.nodeFor(key.substring(KEY_PREFIX.length()));
+                if (owner != source) {
+                    misplaced.computeIfAbsent(owner, shard -> new ArrayList<>()).add(key);
+                }
+            }
+            for (Map.Entry<Shard, List<String>> entry : misplaced.entrySet()) {
+                moved += move(source, entry.getKey(), entry.getValue());
+            }
+            cursor = page;
+        } while (!cursor.isFinished());
+        return moved;
+    }
+
+    /**
+     * Copies the given keys with their remaining TTL from one node to another, then deletes them from the first.
+     */
+    private long move(Shard source, Shard target, List<String> keys) {
+        List<RedisFuture<Long>> ttls = source.execute(commands -> {
+            List<RedisFuture<Long>> futures = new ArrayList<>(keys.size());
+            keys.forEach(key -> futures.add(commands.pttl(key)));
+            source.await(futures);
+            return futures;
+        });
+        long moved = target.execute(commands -> {
+            List<RedisFuture<String>> writes = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                long ttl = ttls.get(i).toCompletableFuture().getNow(-2L);
+                if (ttl > 0) {
+                    writes.add(commands.set(keys.get(i), VALUE, SetArgs.Builder.px(ttl)));
+                } else if (ttl == -1) {
+                    writes.add(commands.set(keys.get(i), VALUE));
+                }
+            }
+            target.await(writes);
+            return (long) writes.size();
+        });
+        source.execute(commands -> source.await(commands.del(keys.toArray(String[]::new))));
+        rebalanced.increment(moved);
+        return moved;
+    }
+
+    /**
+     * Marks the tokens at the given indexes that the given node holds.
+     */
+    private static void markRevoked(Shard shard, List<String> tokens, List<Integer> indexes, boolean[] revoked) {
+        String[] keys = indexes.stream().map(i -> KEY_PREFIX + tokens.get(i)).toArray(String[]::new);
+        List<KeyValue<String, String>> values = shard.execute(commands -> shard.await(commands.mget(keys)));
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).hasValue()) {
+                revoked[indexes.get(i)] = true;
+            }
+        }
+    }
+
+    private static List<Integer> misses(boolean[] revoked) {
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < revoked.length; i++) {
+            if (!revoked[i]) {
+                misses.add(i);
+            }
+        }
+        return misses;
+    }
+
+    private static boolean exists(Shard shard, String key) {
+        return shard.execute(commands -> shard.await(commands.exists(key))) > 0;
+    }
+
+    private Shard connect(RedisURI node) {
+        String name = node.getHost() + ':' + node.getPort();
+        RedisClient client = RedisClient.create(node);
+        try {
+            return new Shard(name, client, client.connect(), node.getTimeout(), meterRegistry);
+        } catch (RedisException e) {
+            client.shutdown();
+            throw new RedisSystemException("Cannot connect to revocation shard " + name, e);
+        }
+    }
+
+    /**
+     * A Redis node with its connection and metrics.
+     */
+    private static final class Shard {
+
+        private final String name;
+        private final RedisClient client;
+        private final Duration timeout;
+        private final MeterRegistry meterRegistry;
+        private final AtomicBoolean up = new AtomicBoolean(true);
+        private final Timer latency;
+        private final Counter errors;
+        private final Gauge upGauge;
+
+        /**
+         * The connection, or {@code null} after a command timed out until the next command reconnects.
+         */
+        private volatile StatefulRedisConnection<String, String> connection;
+
+        Shard(String name, RedisClient client, StatefulRedisConnection<String, String> connection,
+              Duration timeout, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.client = client;
+            this.connection = connection;
+            this.timeout = timeout;
+            this.meterRegistry = meterRegistry;
+            this.latency = Timer.builder("auth.revocation.shard.latency")
+                    .description("Latency of the commands sent to a revocation shard")
+                    .tag("shard", name)
+                    .register(meterRegistry);
+            this.errors = Counter.builder("auth.revocation.shard.errors")
+                    .description("Failed commands sent to a revocation shard")
+                    .tag("shard", name)
+                    .register(meterRegistry);
+            this.upGauge = Gauge.builder("auth.revocation.shard.up", up, flag -> flag.get() ? 1 : 0)
+                    .description("Whether the last command sent to a revocation shard succeeded")
+                    .tag("shard", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Runs the given commands, recording their latency and outcome.
+         */
+        <R> R execute(Function<RedisAsyncCommands<String, String>, R> commands) {
+            long start = System.nanoTime();
+            StatefulRedisConnection<String, String> used = null;
+            try {
+                used = connection();
+                R result = commands.apply(used.async());
+                up.set(true);
+                return result;
+            } catch (RedisException e) {
+                up.set(false);
+                errors.increment();
+                if (e instanceof RedisCommandTimeoutException) {
+                    drop(used);
+                }
+                throw new RedisSystemException("Revocation shard " + name + " failed: " + e.getMessage(), e);
+            } finally {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        <T> T await(RedisFuture<T> future) {
+            await(List.of(future));
+            return future.toCompletableFuture().getNow(null);
+        }
+
+        <F extends RedisFuture<?>> boolean await(List<F> futures) {
+            if (!LettuceFutures.awaitAll(timeout, futures.toArray(RedisFuture[]::new))) {
+                throw new RedisCommandTimeoutException("Command timed out after " + timeout);
+            }
+            return true;
+        }
+
+        synchronized void close() {
+            for (Meter meter : List.of(latency, errors, upGauge)) {
+                meterRegistry.remove(meter);
+            }
+            if (connection != null) {
+                connection.close();
+            }
+            client.shutdown();
+        }
+
+        /**
+         * Returns the connection, reconnecting if it was dropped.
+         */
+        private StatefulRedisConnection<String, String> connection() {
+            StatefulRedisConnection<String, String> current = connection;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (connection == null) {
+                    connection = client.connect();
+                }
+                return connection;
+            }
+        }
+
+        /**
+         * Drops the given connection, unless it has already been replaced, together with the replies still
+         * queued on it.
+         */
+        private synchronized void drop(StatefulRedisConnection<String, String> used) {
+            if (used != null && connection == used) {
+                connection = null;
+                used.closeAsync();
+                log.debug("Dropped the connection to revocation shard {} after a timeout", name);
+            }
+        }
+    }
+}
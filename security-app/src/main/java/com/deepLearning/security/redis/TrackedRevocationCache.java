@@ -0,0 +1,236 @@
+package com.deepLearning.security.redis;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.RedisSystemException;
+
+import java.net.SocketAddress;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TrackedRevocationCache answers revocation lookups from a local cache that Redis keeps consistent, using Redis
+ * client-side caching (server-assisted invalidation, Redis 6+).
+ * <p>
+ * It holds its own RESP3 connection with {@code CLIENT TRACKING} enabled. Every {@code EXISTS} sent on it makes
+ * the server remember that this client has seen the key, and any later change of the key - a logout on any node,
+ * or its expiry - is pushed back as an {@code invalidate} message on the same connection. So:
+ * <ul>
+ *   <li>both answers are cached, also "not revoked", which is by far the most frequent one;</li>
+ *   <li>repeated checks of the same token cost no round trip;</li>
+ *   <li>a revocation anywhere in the cluster evicts the cached answer on every node.</li>
+ * </ul>
+ * <p>
+ * An invalidation can arrive while a lookup of the same key is in flight. Every invalidation bumps an epoch, and a
+ * lookup only keeps its answer if the epoch did not move during the round trip; otherwise the next lookup simply
+ * asks Redis again. While the connection is down, the server forgets the tracking state, so the cache is dropped
+ * and lookups go to Redis until tracking has been enabled again on the new connection.
+ * <p>
+ * The cache holds at most {@code maxSize} answers; arbitrary entries are dropped once it is full. Lookups are
+ * counted in {@code auth.revocation.cache} tagged with {@code result} ({@code hit} or {@code miss}), and
+ * invalidations in {@code auth.revocation.cache.invalidations}.
+ * <p>
+ * Only standalone Redis is supported: in a cluster, every node would have to track the keys it owns.
+ */
+@Slf4j
+public class TrackedRevocationCache implements AutoCloseable {
+
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, String> connection;
+    private final int maxSize;
+
+    /**
+     * Cached answers, by token.
+     */
+    private final ConcurrentHashMap<String, Boolean> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every invalidation, to discard answers that raced with one.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Whether the server tracks the keys read on the current connection.
+     */
+    private volatile boolean tracking;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    /**
+     * Connects to Redis and enables tracking.
+     *
+     * @param redisUri      the Redis server.
+     * @param maxSize       the maximum number of cached answers.
+     * @param meterRegistry the registry of the cache metrics.
+     */
+    public TrackedRevocationCache(RedisURI redisUri, int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.invalidations = Counter.builder("auth.revocation.cache.invalidations")
+                .description("Revocation cache invalidations pushed by Redis")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.cache.size", entries, ConcurrentHashMap::size)
+                .description("Cached revocation answers")
+                .register(meterRegistry);
+        this.client = RedisClient.create(redisUri);
+        client.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                tracking = false;
+                invalidateAll();
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                // tracking is enabled again by the next lookup, off the I/O thread
+            }
+        });
+        this.connection = client.connect();
+        connection.addListener(message -> {
+            if (!"invalidate".equals(message.getType())) {
+                return;
+            }
+            invalidations.increment();
+            Object keys = message.getContent(StringCodec.UTF8::decodeKey).get(1);
+            if (keys == null) {
+                // FLUSHDB, FLUSHALL, or the server ran out of tracking table space
+                invalidateAll();
+            } else {
+                epoch.incrementAndGet();
+                for (Object key : (List<?>) keys) {
+                    entries.remove(key);
+                }
+            }
+        });
+        enableTracking();
+    }
+
+    /**
+     * Checks if the given token is in the Redis blacklist, from the local cache if possible.
+     *
+     * @param token the JWT token to check for revocation.
+     * @return {@code true} if the token is revoked; {@code false} otherwise.
+     * @throws RedisSystemException if Redis cannot be reached.
+     */
+    public boolean isRevoked(String token) {
+        if (!tracking && !enableTracking()) {
+            return exists(token);
+        }
+        Boolean cached = entries.get(token);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long before = epoch.get();
+        boolean revoked = exists(token);
+        if (tracking) {
+            if (entries.size() >= maxSize) {
+                evict();
+            }
+            entries.put(token, revoked);
+            if (epoch.get() != before) {
+                // an invalidation arrived during the round trip; it may have been for this token
+                entries.remove(token, revoked);
+            }
+        }
+        return revoked;
+    }
+
+    /**
+     * Returns the cached answer for the given token, without a round trip.
+     *
+     * @param token the JWT token to check for revocation.
+     * @return the cached answer, or {@code null} if the token has to be looked up with {@link #isRevoked(String)}.
+     */
+    public Boolean cachedAnswer(String token) {
+        if (!tracking) {
+            return null;
+        }
+        Boolean cached = entries.get(token);
+        if (cached != null) {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the number of cached answers.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+        client.shutdown();
+    }
+
+    private boolean exists(String token) {
+        try {
+            return connection.sync().exists(token) > 0;
+        } catch (RedisException e) {
+            throw new RedisSystemException("Revocation lookup failed", e);
+        }
+    }
+
+    /**
+     * Enables tracking on the current connection, once per connection.
+     */
+    private synchronized boolean enableTracking() {
+        if (tracking) {
+            return true;
+        }
+        try {
+            connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+            tracking = true;
+        } catch (RedisException e) {
+            log.warn("Could not enable client tracking, revocation lookups are not cached: {}", e.getMessage());
+        }
+        return tracking;
+    }
+
+    private void invalidateAll() {
+        epoch.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Drops arbitrary entries until the cache is down to 90% of its size. The server keeps tracking them, and its
+     * invalidations for them are ignored.
+     */
+    private void evict() {
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.revocation.cache")
+                .description("Revocation lookups by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
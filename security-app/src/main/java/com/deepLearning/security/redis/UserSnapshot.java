@@ -0,0 +1,122 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * UserSnapshot is the compact binary form of a {@link User} kept in the shared user cache.
+ * <p>
+ * Layout, with strings in modified UTF-8 as written by {@link DataOutputStream#writeUTF}:
+ * <pre>
+ * version (1 byte) | flags (1 byte) | id (8, if present) | username | image (if present)
+ *                  | lockedUntil epoch millis (8, if present) | role bitmask (4)
+ * </pre>
+ * The password hash is never written: a snapshot only serves the token path, which does not need it, and sign-in
+ * always reads the user from the database. Decoded users therefore have no password.
+ * <p>
+ * The role bitmask uses {@link Roles#mask()}, like compact tokens. A snapshot of another version is treated as
+ * missing, so the layout can change without flushing Redis.
+ */
+final class UserSnapshot {
+
+    static final byte VERSION = 2;
+
+    private static final int ACCOUNT_NON_EXPIRED = 1;
+    private static final int ACCOUNT_NON_LOCKED = 1 << 1;
+    private static final int CREDENTIALS_NON_EXPIRED = 1 << 2;
+    private static final int ENABLED = 1 << 3;
+    private static final int HAS_ID = 1 << 4;
+    // 1 << 5 flagged the password hash of version 1
+    private static final int HAS_IMAGE = 1 << 6;
+    private static final int HAS_LOCKED_UNTIL = 1 << 7;
+
+    private UserSnapshot() {
+    }
+
+    /**
+     * Encodes a user, without its password.
+     *
+     * @param user the user.
+     * @return the snapshot.
+     * @throws IOException if a string is too long for the format.
+     */
+    static byte[] encode(User user) throws IOException {
+        int flags = (user.isAccountNonExpired() ? ACCOUNT_NON_EXPIRED : 0)
+                | (user.isAccountNonLocked() ? ACCOUNT_NON_LOCKED : 0)
+                | (user.isCredentialsNonExpired() ? CREDENTIALS_NON_EXPIRED : 0)
+                | (user.isEnabled() ? ENABLED : 0)
+                | (user.getId() != null ? HAS_ID : 0)
+                | (user.getImage() != null ? HAS_IMAGE : 0)
+                | (user.getLockedUntil() != null ? HAS_LOCKED_UNTIL : 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        if (user.getId() != null) {
+            out.writeLong(user.getId());
+        }
+        out.writeUTF(user.getUsername());
+        if (user.getImage() != null) {
+            out.writeUTF(user.getImage());
+        }
+        if (user.getLockedUntil() != null) {
+            out.writeLong(user.getLockedUntil().toEpochMilli());
+        }
+        out.writeInt(Roles.maskOf(user.getRoles()));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot.
+     *
+     * @param snapshot the snapshot.
+     * @return the user, or {@code null} if the snapshot has another version or is truncated.
+     */
+    static User decode(byte[] snapshot) {
+        if (snapshot.length == 0 || snapshot[0] != VERSION) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot, 1, snapshot.length - 1));
+            int flags = in.readUnsignedByte();
+            User user = new User();
+            if ((flags & HAS_ID) != 0) {
+                user.setId(in.readLong());
+            }
+            user.setUsername(in.readUTF());
+            if ((flags & HAS_IMAGE) != 0) {
+                user.setImage(in.readUTF());
+            }
+            if ((flags & HAS_LOCKED_UNTIL) != 0) {
+                user.setLockedUntil(Instant.ofEpochMilli(in.readLong()));
+            }
+            user.setAccountNonExpired((flags & ACCOUNT_NON_EXPIRED) != 0);
+            user.setAccountNonLocked((flags & ACCOUNT_NON_LOCKED) != 0);
+            user.setCredentialsNonExpired((flags & CREDENTIALS_NON_EXPIRED) != 0);
+            user.setEnabled((flags & ENABLED) != 0);
+            user.setRoles(roles(in.readInt()));
+            return user;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Set<Roles> roles(int mask) {
+        Set<Roles> roles = EnumSet.noneOf(Roles.class);
+        for (Roles role : Roles.values()) {
+            if ((mask & role.mask()) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+}
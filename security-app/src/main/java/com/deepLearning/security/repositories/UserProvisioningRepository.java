@@ -0,0 +1,29 @@
+package com.deepLearning.security.repositories;
+
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+
+import java.util.Optional;
+
+/**
+ * UserProvisioningRepository is the custom fragment of {@link UserRepository} for creating users on their first
+ * sign-in through an external provider (OAuth2).
+ * <p>
+ * It is implemented by {@link UserProvisioningRepositoryImpl}.
+ */
+public interface UserProvisioningRepository {
+
+    /**
+     * Returns the user with the given username, creating it with the given image and role if it does not exist yet.
+     * <p>
+     * On PostgreSQL this is a single statement: the insert, the role and the lookup of an existing user are done in
+     * one round trip, and concurrent calls for the same username cannot create two users.
+     *
+     * @param username    the username of the user.
+     * @param image       the profile image of a new user.
+     * @param defaultRole the role of a new user.
+     * @return the existing or new user; empty if the user was created by a concurrent transaction that committed
+     *         while this statement ran, in which case it can be read with {@code findByUsername}.
+     */
+    Optional<User> provision(String username, String image, Roles defaultRole);
+}
@@ -0,0 +1,142 @@
+package com.deepLearning.security.repositories;
+
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * UserProvisioningRepositoryImpl implements {@link UserProvisioningRepository}.
+ * <p>
+ * On PostgreSQL, provisioning is one native statement:
+ * <ul>
+ *   <li>{@code insert ... on conflict (username) do nothing} creates the user unless it exists;</li>
+ *   <li>a second insert of the same statement adds the default role to a new user;</li>
+ *   <li>the result is the new row, or else the existing row with its roles aggregated into one column.</li>
+ * </ul>
+ * An existing user is therefore read without a write. If another transaction creates the same user while the
+ * statement waits on the conflict, the statement's snapshot sees neither row and the result is empty.
+ * <p>
+ * Other databases (H2 in development) use a lookup followed by an insert.
+ */
+public class UserProvisioningRepositoryImpl implements UserProvisioningRepository {
+
+    private static final String UPSERT = """
+            with inserted as (
+                insert into users (username, image, is_account_non_expired, is_account_non_locked,
+                                   is_credentials_non_expired, is_enabled)
+                values (:username, :image, true, true, true, true)
+                on conflict (username) do nothing
+                returning id, username, password, image, is_account_non_expired, is_account_non_locked,
+                          is_credentials_non_expired, is_enabled, locked_until
+            ), inserted_role as (
+                insert into user_roles (user_id, roles)
+                select id, :role from inserted
+            )
+            select i.*, cast(:role as varchar) as roles from inserted i
+            union all
+            select u.id, u.username, u.password, u.image, u.is_account_non_expired, u.is_account_non_locked,
+                   u.is_credentials_non_expired, u.is_enabled, u.locked_until,
+                   (select string_agg(r.roles, ',') from user_roles r where r.user_id = u.id) as roles
+            from users u
+            where u.username = :username and not exists (select 1 from inserted)
+            """;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Whether the database is PostgreSQL, determined on first use.
+     */
+    private volatile Boolean postgres;
+
+    /**
+     * Constructs the repository fragment.
+     *
+     * @param entityManager the shared entity manager.
+     */
+    public UserProvisioningRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> provision(String username, String image, Roles defaultRole) {
+        if (!isPostgres()) {
+            return provisionPortably(username, image, defaultRole);
+        }
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = entityManager.createNativeQuery(UPSERT, Tuple.class)
+                .setParameter("username", username)
+                .setParameter("image", image)
+                .setParameter("role", defaultRole.name())
+                .getResultList();
+        return rows.stream().findFirst().map(UserProvisioningRepositoryImpl::toUser);
+    }
+
+    private Optional<User> provisionPortably(String username, String image, Roles defaultRole) {
+        List<User> existing = entityManager
+                .createQuery("select u from User u where u.username = :username", User.class)
+                .setParameter("username", username)
+                .getResultList();
+        if (!existing.isEmpty()) {
+            return Optional.of(existing.get(0));
+        }
+        User user = new User(username, null, image, EnumSet.of(defaultRole));
+        entityManager.persist(user);
+        entityManager.flush();
+        return Optional.of(user);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgres = result;
+        }
+        return result;
+    }
+
+    static User toUser(Tuple row) {
+        Set<Roles> roles = EnumSet.noneOf(Roles.class);
+        String roleNames = row.get("roles", String.class);
+        if (roleNames != null) {
+            for (String role : roleNames.split(",")) {
+                roles.add(Roles.valueOf(role));
+            }
+        }
+        User user = new User(row.get("username", String.class), row.get("password", String.class),
+                row.get("image", String.class), roles);
+        user.setId(((Number) row.get("id")).longValue());
+        user.setAccountNonExpired(Boolean.TRUE.equals(row.get("is_account_non_expired")));
+        user.setAccountNonLocked(Boolean.TRUE.equals(row.get("is_account_non_locked")));
+        user.setCredentialsNonExpired(Boolean.TRUE.equals(row.get("is_credentials_non_expired")));
+        user.setEnabled(Boolean.TRUE.equals(row.get("is_enabled")));
+        user.setLockedUntil(toInstant(row.get("locked_until")));
+        return user;
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        return null;
+    }
+}
@@ -1,11 +1,19 @@
 package com.deepLearning.security.repositories;
 
 import com.deepLearning.security.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 /**
@@ -13,12 +21,17 @@ import java.util.Optional;
  * <p>
  * This interface extends {@link ListCrudRepository}, which provides CRUD operations for the {@code User} entity.
  * Additional query methods are defined to find, delete, and check the existence of a user by their username.
+ * Users of external providers are created with {@link UserProvisioningRepository#provision}, and users are listed
+ * page by page with {@link UserSearchRepository#search}.
  * <p>
  * <b>Key Methods:</b>
  * <ul>
  *   <li>{@code Optional<User> findByUsername(String username)} - Retrieves a user by their username.</li>
  *   <li>{@code void deleteByUsername(String username)} - Deletes a user by their username.</li>
  *   <li>{@code boolean existsUserByUsername(String username)} - Checks if a user with the given username exists.</li>
+ *   <li>{@code Stream<String> streamAllUsernames()} - Streams the usernames of all users.</li>
+ *   <li>{@code int updateLock(String username, boolean nonLocked, Instant lockedUntil)} - Locks or unlocks a user
+ *       with a single update statement.</li>
  * </ul>
  * <p>
  * <b>Note:</b> It is assumed that the username is unique as defined by the {@code User} entity.
@@ -33,7 +46,8 @@ import java.util.Optional;
  * </pre>
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserProvisioningRepository,
+        UserSearchRepository {
 
     /**
      * Retrieves a {@link User} by their username.
@@ -57,4 +71,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return {@code true} if a user with the given username exists, {@code false} otherwise.
      */
     boolean existsUserByUsername(String username);
+
+    /**
+     * Streams the usernames of all users, fetched in batches. Must be consumed inside a transaction and closed.
+     *
+     * @return the usernames.
+     */
+    @Query("select u.username from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllUsernames();
+
+    /**
+     * Sets the lock state of the {@link User} with the specified username, without loading it.
+     *
+     * @param username    the username of the user.
+     * @param nonLocked   whether the account is unlocked.
+     * @param lockedUntil the end of a temporary lock, or {@code null}.
+     * @return the number of updated users.
+     */
+    @Modifying
+    @Query("update User u set u.isAccountNonLocked = :nonLocked, u.lockedUntil = :lockedUntil where u.username = :username")
+    int updateLock(@Param("username") String username,
+                   @Param("nonLocked") boolean nonLocked,
+                   @Param("lockedUntil") Instant lockedUntil);
 }
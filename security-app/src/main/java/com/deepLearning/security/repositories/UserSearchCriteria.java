@@ -0,0 +1,26 @@
+package com.deepLearning.security.repositories;
+
+/**
+ * UserSearchCriteria selects the users listed by {@link UserSearchRepository#search}. Every criterion is optional;
+ * {@code null} matches every user.
+ *
+ * @param usernamePrefix        the start of the username, matched case-sensitively.
+ * @param accountNonExpired     the required value of {@code User.isAccountNonExpired()}.
+ * @param accountNonLocked      the required value of {@code User.isAccountNonLocked()}; a lock that has ended counts
+ *                              as unlocked, as it does at sign-in.
+ * @param credentialsNonExpired the required value of {@code User.isCredentialsNonExpired()}.
+ * @param enabled               the required value of {@code User.isEnabled()}.
+ */
+public record UserSearchCriteria(
+        String usernamePrefix,
+        Boolean accountNonExpired,
+        Boolean accountNonLocked,
+        Boolean credentialsNonExpired,
+        Boolean enabled
+) {
+
+    /**
+     * Criteria matching every user.
+     */
+    public static final UserSearchCriteria ALL = new UserSearchCriteria(null, null, null, null, null);
+}
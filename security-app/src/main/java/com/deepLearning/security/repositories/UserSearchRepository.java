@@ -0,0 +1,27 @@
+package com.deepLearning.security.repositories;
+
+import com.deepLearning.security.model.User;
+
+import java.util.List;
+
+/**
+ * UserSearchRepository is the custom fragment of {@link UserRepository} for listing users page by page.
+ * <p>
+ * Pages use keyset (seek) pagination: users are ordered by username, and the next page starts after the last
+ * username of the previous one instead of skipping an offset. Every page is therefore one index range scan of
+ * {@code limit} rows, however deep it is.
+ * <p>
+ * It is implemented by {@link UserSearchRepositoryImpl}.
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Returns the users matching the criteria whose username comes after the given one, in username order.
+     *
+     * @param criteria the criteria of the users.
+     * @param after    the last username of the previous page, or {@code null} for the first page.
+     * @param limit    the maximal number of users.
+     * @return at most {@code limit} users, with their roles.
+     */
+    List<User> search(UserSearchCriteria criteria, String after, int limit);
+}
@@ -0,0 +1,179 @@
+package com.deepLearning.security.repositories;
+
+import com.deepLearning.security.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * UserSearchRepositoryImpl implements {@link UserSearchRepository}.
+ * <p>
+ * On PostgreSQL the page is one native statement over the {@code users_username_c_idx} index, which orders usernames
+ * by the {@code "C"} collation (byte order):
+ * <ul>
+ *   <li>a username prefix becomes the range {@code [prefix, next prefix)}, so it needs no {@code LIKE} pattern that a
+ *       generic plan could not use the index for;</li>
+ *   <li>the keyset condition {@code > :after} and the {@code order by} use the same collation, so the range is read
+ *       in order and the scan stops after {@code limit} rows;</li>
+ *   <li>account flags are written into the statement as literals, so a query for locked or disabled users can use
+ *       the partial indexes of those users;</li>
+ *   <li>the roles are aggregated into one column instead of being loaded user by user.</li>
+ * </ul>
+ * Other databases (H2 in development) use an equivalent JPQL query ordered by the database's own collation.
+ */
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private static final String SELECT = """
+            select u.id, u.username, u.password, u.image, u.is_account_non_expired, u.is_account_non_locked,
+                   u.is_credentials_non_expired, u.is_enabled, u.locked_until,
+                   (select string_agg(r.roles, ',') from user_roles r where r.user_id = u.id) as roles
+            from users u
+            where true
+            """;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Whether the database is PostgreSQL, determined on first use.
+     */
+    private volatile Boolean postgres;
+
+    /**
+     * Constructs the repository fragment.
+     *
+     * @param entityManager the shared entity manager.
+     */
+    public UserSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> search(UserSearchCriteria criteria, String after, int limit) {
+        return isPostgres() ? searchNatively(criteria, after, limit) : searchPortably(criteria, after, limit);
+    }
+
+    private List<User> searchNatively(UserSearchCriteria criteria, String after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        String prefix = criteria.usernamePrefix();
+        String prefixEnd = prefix == null ? null : nextPrefix(prefix);
+        if (prefix != null) {
+            sql.append("and u.username collate \"C\" >= :prefix\n");
+        }
+        if (prefixEnd != null) {
+            sql.append("and u.username collate \"C\" < :prefixEnd\n");
+        }
+        if (after != null) {
+            sql.append("and u.username collate \"C\" > :after\n");
+        }
+        appendFlag(sql, "u.is_account_non_expired", criteria.accountNonExpired());
+        appendFlag(sql, "u.is_credentials_non_expired", criteria.credentialsNonExpired());
+        appendFlag(sql, "u.is_enabled", criteria.enabled());
+        if (Boolean.TRUE.equals(criteria.accountNonLocked())) {
+            sql.append("and (u.is_account_non_locked or u.locked_until < :now)\n");
+        } else if (Boolean.FALSE.equals(criteria.accountNonLocked())) {
+            sql.append("and not u.is_account_non_locked and (u.locked_until is null or u.locked_until >= :now)\n");
+        }
+        sql.append("order by u.username collate \"C\"\nlimit :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Tuple.class)
+                .setParameter("limit", limit);
+        if (prefix != null) {
+            query.setParameter("prefix", prefix);
+        }
+        if (prefixEnd != null) {
+            query.setParameter("prefixEnd", prefixEnd);
+        }
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        if (criteria.accountNonLocked() != null) {
+            query.setParameter("now", Instant.now());
+        }
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = query.getResultList();
+        return rows.stream().map(UserProvisioningRepositoryImpl::toUser).toList();
+    }
+
+    private List<User> searchPortably(UserSearchCriteria criteria, String after, int limit) {
+        StringBuilder jpql = new StringBuilder("select u from User u where 1 = 1\n");
+        if (criteria.usernamePrefix() != null) {
+            jpql.append("and u.username like :pattern escape '!'\n");
+        }
+        if (after != null) {
+            jpql.append("and u.username > :after\n");
+        }
+        appendFlag(jpql, "u.isAccountNonExpired", criteria.accountNonExpired());
+        appendFlag(jpql, "u.isCredentialsNonExpired", criteria.credentialsNonExpired());
+        appendFlag(jpql, "u.isEnabled", criteria.enabled());
+        if (Boolean.TRUE.equals(criteria.accountNonLocked())) {
+            jpql.append("and (u.isAccountNonLocked = true or u.lockedUntil < :now)\n");
+        } else if (Boolean.FALSE.equals(criteria.accountNonLocked())) {
+            jpql.append("and u.isAccountNonLocked = false and (u.lockedUntil is null or u.lockedUntil >= :now)\n");
+        }
+        jpql.append("order by u.username");
+
+        TypedQuery<User> query = entityManager.createQuery(jpql.toString(), User.class).setMaxResults(limit);
+        if (criteria.usernamePrefix() != null) {
+            query.setParameter("pattern", escapeLike(criteria.usernamePrefix()) + "%");
+        }
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        if (criteria.accountNonLocked() != null) {
+            query.setParameter("now", Instant.now());
+        }
+        return query.getResultList();
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            postgres = result;
+        }
+        return result;
+    }
+
+    /**
+     * Appends the condition of a flag as a literal, so that the planner can match it against partial indexes.
+     */
+    private static void appendFlag(StringBuilder query, String column, Boolean value) {
+        if (value != null) {
+            query.append("and ").append(column).append(" = ").append(value).append('\n');
+        }
+    }
+
+    /**
+     * Returns the smallest string greater than every string starting with the prefix, in code point order (which is
+     * the byte order of UTF-8, and so of the {@code "C"} collation), or {@code null} if there is none.
+     */
+    static String nextPrefix(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            int start = end - Character.charCount(last);
+            int next = last + 1;
+            if (next >= Character.MIN_SURROGATE && next <= Character.MAX_SURROGATE) {
+                next = Character.MAX_SURROGATE + 1;
+            }
+            if (next <= Character.MAX_CODE_POINT) {
+                return prefix.substring(0, start) + new String(Character.toChars(next));
+            }
+            end = start;
+        }
+        return null;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
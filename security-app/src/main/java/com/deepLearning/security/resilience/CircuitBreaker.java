@@ -0,0 +1,182 @@
+package com.deepLearning.security.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreaker stops calls to a failing dependency, so that callers fail fast instead of waiting for timeouts.
+ * <p>
+ * States:
+ * <ul>
+ *   <li>{@code CLOSED} - calls go through; {@code failureThreshold} consecutive failures open the circuit;</li>
+ *   <li>{@code OPEN} - calls are refused for {@code openDuration};</li>
+ *   <li>{@code HALF_OPEN} - a single probe call goes through; its success closes the circuit, its failure opens it
+ *       again. Other calls are refused while the probe is running. A probe without an outcome after
+ *       {@code probeTimeout} counts as failed, so a lost report cannot keep the circuit half-open.</li>
+ * </ul>
+ * <p>
+ * Callers ask {@link #tryAcquire()} before each call and report its outcome with {@link #onSuccess()} or
+ * {@link #onFailure()}, or {@link #onCancel()} if the call was abandoned. State changes are reported to the
+ * {@link Listener}, on the thread that caused them.
+ *
+ * <p>Usage Example:
+ * <pre>
+ * if (!breaker.tryAcquire()) {
+ *     return fallback();
+ * }
+ * try {
+ *     Result result = call();
+ *     breaker.onSuccess();
+ *     return result;
+ * } catch (RuntimeException e) {
+ *     breaker.onFailure();
+ *     return fallback();
+ * }
+ * </pre>
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Receives the state changes of a circuit breaker.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onTransition(String name, State from, State to);
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long probeNanos;
+    private final Listener listener;
+
+    /**
+     * Nanosecond clock.
+     */
+    private final LongSupplier clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+    private volatile long probeStartedAt;
+
+    /**
+     * Constructs a closed circuit breaker whose probes time out after the open duration.
+     *
+     * @param name             the name used in logs and metrics.
+     * @param failureThreshold the number of consecutive failures that open the circuit.
+     * @param openDuration     how long the circuit stays open before a probe is let through.
+     * @param listener         receives the state changes.
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Listener listener) {
+        this(name, failureThreshold, openDuration, openDuration, listener);
+    }
+
+    /**
+     * Constructs a closed circuit breaker.
+     *
+     * @param name             the name used in logs and metrics.
+     * @param failureThreshold the number of consecutive failures that open the circuit.
+     * @param openDuration     how long the circuit stays open before a probe is let through.
+     * @param probeTimeout     how long a probe may go without an outcome before it counts as failed.
+     * @param listener         receives the state changes.
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration probeTimeout,
+                          Listener listener) {
+        this(name, failureThreshold, openDuration, probeTimeout, listener, System::nanoTime);
+    }
+
+    /**
+     * Constructs a closed circuit breaker with the given nanosecond clock.
+     */
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration probeTimeout,
+                   Listener listener, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.probeNanos = probeTimeout.toNanos();
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks for permission to make a call.
+     *
+     * @return {@code true} if the call may be made; its outcome must then be reported.
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        if (current == State.OPEN && now - openedAt >= openNanos) {
+            probeStartedAt = now;
+            return transition(State.OPEN, State.HALF_OPEN);
+        }
+        if (current == State.HALF_OPEN && now - probeStartedAt >= probeNanos) {
+            // the outcome of the probe was lost
+            open(State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    /**
+     * Reports a successful call.
+     */
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    /**
+     * Reports a failed call.
+     */
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * Reports a call that was abandoned without an outcome, e.g. because its caller went away. An abandoned probe
+     * counts as failed; other calls are not counted.
+     */
+    public void onCancel() {
+        open(State.HALF_OPEN);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void open(State from) {
+        if (state.get() != from) {
+            return;
+        }
+        openedAt = clock.getAsLong();
+        if (transition(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        listener.onTransition(name, from, to);
+        return true;
+    }
+}
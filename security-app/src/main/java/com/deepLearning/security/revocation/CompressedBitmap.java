@@ -0,0 +1,253 @@
+package com.deepLearning.security.revocation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CompressedBitmap is a set of non-negative {@code long} values in the layout of a Roaring bitmap.
+ * <p>
+ * Values are split into a 48-bit key and a 16-bit low part; the low parts of each key are kept in a container:
+ * <ul>
+ *   <li>up to {@value #ARRAY_MAX} values as a sorted array of {@code char}s, two bytes per value;</li>
+ *   <li>above that as a bitmap of all 65536 low parts, 8 KiB regardless of how many are set.</li>
+ * </ul>
+ * A value thus costs at most two bytes plus its share of about 64 bytes per container, and in dense ranges, where
+ * more than one in sixteen of the low parts is set, at most one bit per low part. The savings depend on how the
+ * values cluster: values that share their upper 48 bits with many others, like revoked ids among the consecutive ids
+ * of {@link com.deepLearning.security.verifier.TokenIdSequence}, cost about two bytes each even when only a few percent
+ * of the range is set, while isolated values, one per 65536, cost a container each.
+ * <p>
+ * Containers are immutable and replaced on every change, so {@link #contains} is lock-free and never sees a
+ * partial update. Changes are meant to be rare compared to lookups; {@link #addAll} replaces each affected
+ * container once per call.
+ */
+public class CompressedBitmap {
+
+    /**
+     * Largest number of values kept in an array container.
+     */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /**
+     * Approximate heap size of a container besides its values: the object, the array header and the map entry.
+     */
+    private static final int CONTAINER_OVERHEAD = 64;
+
+    /**
+     * Containers, by the upper 48 bits of their values.
+     */
+    private final Map<Long, Container> containers = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if the given value is in the set.
+     *
+     * @param value the value.
+     * @return {@code true} if the value has been added.
+     */
+    public boolean contains(long value) {
+        if (value < 0) {
+            return false;
+        }
+        Container container = containers.get(value >>> 16);
+        return container != null && container.contains((char) value);
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value, not negative.
+     */
+    public void add(long value) {
+        addAll(new long[]{value});
+    }
+
+    /**
+     * Adds many values.
+     *
+     * @param values the values, not negative; the array is sorted in place.
+     */
+    public void addAll(long[] values) {
+        Arrays.sort(values);
+        if (values.length > 0 && values[0] < 0) {
+            throw new IllegalArgumentException("Negative value: " + values[0]);
+        }
+        int from = 0;
+        while (from < values.length) {
+            long key = values[from] >>> 16;
+            int to = from + 1;
+            while (to < values.length && values[to] >>> 16 == key) {
+                to++;
+            }
+            char[] lows = new char[to - from];
+            for (int i = from; i < to; i++) {
+                lows[i - from] = (char) values[i];
+            }
+            containers.compute(key, (k, container) -> container == null
+                    ? Container.of(lows)
+                    : container.with(lows));
+            from = to;
+        }
+    }
+
+    /**
+     * Returns all values, in ascending order.
+     */
+    public long[] toArray() {
+        long[] values = new long[Math.toIntExact(cardinality())];
+        int i = 0;
+        for (Map.Entry<Long, Container> entry : containers.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey()).toList()) {
+            long high = entry.getKey() << 16;
+            for (char low : entry.getValue().lows()) {
+                if (i == values.length) {
+                    return values;
+                }
+                values[i++] = high | low;
+            }
+        }
+        return i == values.length ? values : Arrays.copyOf(values, i);
+    }
+
+    /**
+     * Returns the number of values.
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (Container container : containers.values()) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the approximate heap size of the set in bytes.
+     */
+    public long sizeInBytes() {
+        long size = 0;
+        for (Container container : containers.values()) {
+            size += CONTAINER_OVERHEAD + container.valueBytes();
+        }
+        return size;
+    }
+
+    /**
+     * The low parts of the values of one key.
+     */
+    private sealed interface Container permits ArrayContainer, BitmapContainer {
+
+        static Container of(char[] sortedLows) {
+            return new ArrayContainer(new char[0]).with(sortedLows);
+        }
+
+        boolean contains(char low);
+
+        /**
+         * Returns a container with the given sorted low parts added.
+         */
+        Container with(char[] sortedLows);
+
+        int cardinality();
+
+        int valueBytes();
+
+        char[] lows();
+    }
+
+    private record ArrayContainer(char[] values) implements Container {
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        public Container with(char[] sortedLows) {
+            char[] merged = new char[values.length + sortedLows.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < values.length || j < sortedLows.length) {
+                char next;
+                if (j == sortedLows.length || (i < values.length && values[i] <= sortedLows[j])) {
+                    next = values[i++];
+                } else {
+                    next = sortedLows[j++];
+                }
+                if (n == 0 || merged[n - 1] != next) {
+                    merged[n++] = next;
+                }
+            }
+            if (n > ARRAY_MAX) {
+                return BitmapContainer.of(merged, n);
+            }
+            return new ArrayContainer(n == merged.length ? merged : Arrays.copyOf(merged, n));
+        }
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public int valueBytes() {
+            return values.length * Character.BYTES;
+        }
+
+        @Override
+        public char[] lows() {
+            return values;
+        }
+    }
+
+    private record BitmapContainer(long[] words, int cardinality) implements Container {
+
+        static BitmapContainer of(char[] lows, int count) {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < count; i++) {
+                words[lows[i] >>> 6] |= 1L << lows[i];
+            }
+            return new BitmapContainer(words, count);
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public Container with(char[] sortedLows) {
+            long[] copy = words.clone();
+            int added = 0;
+            for (char low : sortedLows) {
+                long bit = 1L << low;
+                if ((copy[low >>> 6] & bit) == 0) {
+                    copy[low >>> 6] |= bit;
+                    added++;
+                }
+            }
+            return added == 0 ? this : new BitmapContainer(copy, cardinality + added);
+        }
+
+        @Override
+        public int valueBytes() {
+            return BITMAP_WORDS * Long.BYTES;
+        }
+
+        @Override
+        public char[] lows() {
+            char[] lows = new char[cardinality];
+            int n = 0;
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    lows[n++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return lows;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.deepLearning.security.revocation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * LocalDenyList is the exact set of revoked tokens of this node, each kept until the token expires.
+ * <p>
+ * Lookups of expired entries drop them, and at most once per {@link #PURGE_INTERVAL_MILLIS} an add or a lookup
+ * sweeps all expired entries, so the list never holds much more than the tokens that are still valid.
+ */
+public class LocalDenyList {
+
+    /**
+     * Minimum time between two sweeps of expired entries.
+     */
+    static final long PURGE_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * Revoked tokens, by token, as expiry in epoch milliseconds.
+     */
+    private final ConcurrentHashMap<String, Long> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the next sweep.
+     */
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    /**
+     * Millisecond clock.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Constructs an empty deny-list.
+     */
+    public LocalDenyList() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs an empty deny-list with the given millisecond clock.
+     */
+    LocalDenyList(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a revoked token, unless it has already expired.
+     *
+     * @param token           the revoked token.
+     * @param expiresAtMillis the expiry of the token, in epoch milliseconds.
+     */
+    public void add(String token, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        purgeIfDue(now);
+        if (expiresAtMillis > now) {
+            entries.merge(token, expiresAtMillis, Math::max);
+        }
+    }
+
+    /**
+     * Checks if the given token is revoked.
+     *
+     * @param token the token.
+     * @return {@code true} if the token is on the list and has not expired.
+     */
+    public boolean contains(String token) {
+        long now = clock.getAsLong();
+        purgeIfDue(now);
+        Long expiresAt = entries.get(token);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= now) {
+            entries.remove(token, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of entries, including expired ones not swept yet.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void purgeIfDue(long now) {
+        long due = nextPurge.get();
+        if (now >= due && nextPurge.compareAndSet(due, now + PURGE_INTERVAL_MILLIS)) {
+            entries.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+    }
+}
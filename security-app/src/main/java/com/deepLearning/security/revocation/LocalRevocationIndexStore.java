@@ -0,0 +1,69 @@
+package com.deepLearning.security.revocation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * LocalRevocationIndexStore keeps the revocations of the {@link RevocationIndex} within this JVM and delivers them
+ * synchronously on the publishing thread.
+ * <p>
+ * It is the store of a single node, and the stand-in for Redis in tests: several {@link RevocationIndex} instances
+ * sharing one store behave like nodes of a cluster.
+ */
+public class LocalRevocationIndexStore implements RevocationIndexStore {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Published revocations, by segment.
+     */
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+
+    @Override
+    public void publishAll(Collection<SegmentRevocations> revocations) {
+        long now = System.currentTimeMillis();
+        segments.values().removeIf(segment -> segment.retainUntilMillis <= now);
+        for (SegmentRevocations revocation : revocations) {
+            segments.computeIfAbsent(revocation.segment(), key -> new Segment(revocation.retainUntilMillis()))
+                    .tokenIds.addAll(revocation.tokenIds().clone());
+            for (Subscriber subscriber : subscribers) {
+                subscriber.onRevocations(revocation);
+            }
+        }
+    }
+
+    @Override
+    public Collection<SegmentRevocations> snapshot() {
+        long now = System.currentTimeMillis();
+        return segments.entrySet().stream()
+                .filter(entry -> entry.getValue().retainUntilMillis > now)
+                .map(entry -> new SegmentRevocations(entry.getKey(), entry.getValue().retainUntilMillis,
+                        entry.getValue().tokenIds.toArray()))
+                .toList();
+    }
+
+    @Override
+    public boolean isRevoked(long segment, long tokenId) {
+        Segment stored = segments.get(segment);
+        return stored != null && stored.tokenIds.contains(tokenId);
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        subscriber.onConnected();
+    }
+
+    private static final class Segment {
+
+        private final long retainUntilMillis;
+        private final CompressedBitmap tokenIds = new CompressedBitmap();
+
+        private Segment(long retainUntilMillis) {
+            this.retainUntilMillis = retainUntilMillis;
+        }
+    }
+}
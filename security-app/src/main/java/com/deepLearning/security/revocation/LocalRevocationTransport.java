@@ -0,0 +1,53 @@
+package com.deepLearning.security.revocation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * LocalRevocationTransport delivers revocations within this JVM, synchronously on the publishing thread.
+ * <p>
+ * It is the transport of a single node, and the stand-in for Redis in tests: several {@link RevocationBroadcast}
+ * instances sharing one transport behave like nodes of a cluster.
+ * <p>
+ * The published revocations only live as long as this JVM, while the blacklist outlives it, so the snapshot is never
+ * {@linkplain #isComplete() complete}: the deny-list answers the tokens it holds, and the others are looked up.
+ */
+public class LocalRevocationTransport implements RevocationTransport {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Published revocations, by token, as expiry in epoch milliseconds.
+     */
+    private final Map<String, Long> revocations = new ConcurrentHashMap<>();
+
+    @Override
+    public void publishAll(Collection<RevocationEvent> events) {
+        long now = System.currentTimeMillis();
+        revocations.values().removeIf(expiresAt -> expiresAt <= now);
+        for (RevocationEvent event : events) {
+            revocations.put(event.token(), event.expiresAtMillis());
+            for (Subscriber subscriber : subscribers) {
+                subscriber.onRevocation(event);
+            }
+        }
+    }
+
+    @Override
+    public Collection<RevocationEvent> snapshot() {
+        long now = System.currentTimeMillis();
+        return revocations.entrySet().stream()
+                .filter(entry -> entry.getValue() > now)
+                .map(entry -> new RevocationEvent(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        subscriber.onConnected();
+    }
+}
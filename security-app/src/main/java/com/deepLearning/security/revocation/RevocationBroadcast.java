@@ -0,0 +1,140 @@
+package com.deepLearning.security.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RevocationBroadcast keeps a {@link LocalDenyList} on every node in sync with the revocations of the whole
+ * cluster, so that revocation checks are answered without a round trip.
+ * <p>
+ * Every revocation is added to the local list and published through the {@link RevocationTransport}; the
+ * revocations of other nodes arrive through the same transport. When the subscription is (re)established, the
+ * list is completed from the transport's snapshot of current revocations, which covers everything published
+ * while this node was not listening.
+ * <p>
+ * A token found in the list is always revoked. A token missing from it is only known not to be revoked while
+ * {@link #isAuthoritative()}: the list must be {@linkplain #isSynchronized() in sync}, and the transport must know
+ * that its snapshot holds every entry of the shared blacklist. Otherwise, callers look the token up in the
+ * blacklist, which also covers the entries written before the broadcast was rolled out.
+ */
+@Slf4j
+public class RevocationBroadcast implements RevocationTransport.Subscriber, AutoCloseable {
+
+    private final RevocationTransport transport;
+    private final LocalDenyList denyList;
+
+    /**
+     * Whether every revocation of the cluster has reached the local list.
+     */
+    private volatile boolean synchronizedWithCluster;
+
+    /**
+     * Whether the snapshot of the last resync held every entry of the blacklist.
+     */
+    private volatile boolean complete;
+
+    /**
+     * Number of lost subscriptions, so that a resync overtaken by a disconnect does not claim to be in sync.
+     */
+    private final AtomicLong disconnects = new AtomicLong();
+
+    /**
+     * Constructs the broadcast and subscribes to the transport.
+     *
+     * @param transport the transport of the revocation events.
+     * @param denyList  the local deny-list to keep in sync.
+     */
+    public RevocationBroadcast(RevocationTransport transport, LocalDenyList denyList) {
+        this.transport = transport;
+        this.denyList = denyList;
+        transport.subscribe(this);
+    }
+
+    /**
+     * Records a revocation made on this node and publishes it to the others.
+     *
+     * @param token           the revoked token.
+     * @param expiresAtMillis the expiry of the token, in epoch milliseconds.
+     */
+    public void revoked(String token, long expiresAtMillis) {
+        denyList.add(token, expiresAtMillis);
+        transport.publish(new RevocationEvent(token, expiresAtMillis));
+    }
+
+    /**
+     * Records many revocations made on this node and publishes them to the others at once.
+     *
+     * @param events the revocations.
+     */
+    public void revokedAll(Collection<RevocationEvent> events) {
+        for (RevocationEvent event : events) {
+            denyList.add(event.token(), event.expiresAtMillis());
+        }
+        transport.publishAll(events);
+    }
+
+    /**
+     * Checks the local deny-list. A {@code true} answer is always right; a {@code false} answer only while
+     * {@link #isAuthoritative()}.
+     *
+     * @param token the token.
+     * @return {@code true} if the token is revoked.
+     */
+    public boolean isRevoked(String token) {
+        return denyList.contains(token);
+    }
+
+    /**
+     * Returns whether the local deny-list holds every current revocation of the cluster.
+     */
+    public boolean isSynchronized() {
+        return synchronizedWithCluster;
+    }
+
+    /**
+     * Returns whether a token missing from the local deny-list is known not to be revoked.
+     */
+    public boolean isAuthoritative() {
+        return synchronizedWithCluster && complete;
+    }
+
+    @Override
+    public void onRevocation(RevocationEvent event) {
+        denyList.add(event.token(), event.expiresAtMillis());
+    }
+
+    @Override
+    public void onConnected() {
+        long disconnectsBefore = disconnects.get();
+        try {
+            for (RevocationEvent event : transport.snapshot()) {
+                denyList.add(event.token(), event.expiresAtMillis());
+            }
+            complete = transport.isComplete();
+            synchronizedWithCluster = true;
+            // a disconnect during the resync has either been counted by now, or writes false after this
+            if (disconnects.get() != disconnectsBefore) {
+                synchronizedWithCluster = false;
+                return;
+            }
+            log.info("Revocation deny-list synchronized, {} entries{}", denyList.size(),
+                    complete ? "" : ", blacklist still checked for other tokens");
+        } catch (RuntimeException e) {
+            log.warn("Revocation deny-list resync failed, checking revocations remotely: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onDisconnected() {
+        disconnects.incrementAndGet();
+        synchronizedWithCluster = false;
+        log.warn("Revocation broadcast disconnected, checking revocations remotely until resynchronized");
+    }
+
+    @Override
+    public void close() {
+        transport.close();
+    }
+}
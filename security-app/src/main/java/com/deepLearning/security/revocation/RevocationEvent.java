@@ -0,0 +1,10 @@
+package com.deepLearning.security.revocation;
+
+/**
+ * A revoked token, broadcast to every node.
+ *
+ * @param token           the revoked token.
+ * @param expiresAtMillis the expiry of the token, in epoch milliseconds; the revocation is irrelevant afterwards.
+ */
+public record RevocationEvent(String token, long expiresAtMillis) {
+}
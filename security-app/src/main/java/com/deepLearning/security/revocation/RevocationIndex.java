@@ -0,0 +1,260 @@
+package com.deepLearning.security.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * RevocationIndex keeps the revocations of sequence-numbered tokens (see
+ * {@link com.deepLearning.security.verifier.TokenIdSequence}) of the whole cluster in memory on every node, so that a
+ * revocation check is a local bitmap probe.
+ * <p>
+ * Revocations are kept in one {@link CompressedBitmap} per segment of issue time: the segment of a token is its
+ * {@code iat} divided by the segment length. Since the tokens of a segment were all issued within one segment
+ * length, all of them have expired one maximum token lifetime after the end of the segment, and the whole segment
+ * is dropped then. Since the ids of a node are consecutive, revoked ids share their containers with the other
+ * revocations of the same range: a revocation costs about two bytes when it is one of a few percent of the issued
+ * ids, and at most one bit per issued id when many are revoked together. A million live revocations thus take
+ * about two megabytes instead of a Redis key per token. Only ranges with a single revocation pay a whole container,
+ * about 70 bytes, for it.
+ * <p>
+ * Revocations made on this node are added right away and published through the {@link RevocationIndexStore}; those
+ * of other nodes arrive through the same store. As with the {@link RevocationBroadcast}, the index is only
+ * authoritative while {@link #isSynchronized()} is {@code true}; in between, {@link #isRevokedRemotely} asks the
+ * store.
+ * <p>
+ * All nodes must use the same segment length.
+ */
+@Slf4j
+public class RevocationIndex implements RevocationIndexStore.Subscriber, AutoCloseable {
+
+    /**
+     * Minimum time between two sweeps of expired segments.
+     */
+    static final long PURGE_INTERVAL_MILLIS = 1000L;
+
+    private final RevocationIndexStore store;
+    private final long segmentMillis;
+    private final long maxLifetimeMillis;
+
+    /**
+     * Millisecond clock.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Revoked token ids, by segment.
+     */
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the next sweep.
+     */
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    /**
+     * Whether every revocation of the cluster has reached the index.
+     */
+    private volatile boolean synchronizedWithCluster;
+
+    /**
+     * Constructs the index and subscribes to the store.
+     *
+     * @param store             the store of the revocations.
+     * @param segmentLength     the issue time covered by one segment.
+     * @param maxTokenLifetime  the longest lifetime of an indexed token.
+     */
+    public RevocationIndex(RevocationIndexStore store, Duration segmentLength, Duration maxTokenLifetime) {
+        this(store, segmentLength, maxTokenLifetime, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the index with the given millisecond clock.
+     */
+    RevocationIndex(RevocationIndexStore store, Duration segmentLength, Duration maxTokenLifetime,
+                    LongSupplier clock) {
+        if (segmentLength.toSeconds() < 1) {
+            throw new IllegalArgumentException("Segment length must be at least one second");
+        }
+        this.store = store;
+        this.segmentMillis = segmentLength.toSeconds() * 1000L;
+        this.maxLifetimeMillis = maxTokenLifetime.toMillis();
+        this.clock = clock;
+        store.subscribe(this);
+    }
+
+    /**
+     * Records revocations made on this node and publishes them to the others at once. Tokens whose segment has
+     * already expired are ignored.
+     *
+     * @param tokens the revoked tokens.
+     * @return the number of tokens recorded.
+     */
+    public int revokeAll(Collection<IndexedToken> tokens) {
+        long now = clock.getAsLong();
+        Map<Long, List<IndexedToken>> bySegment = new HashMap<>();
+        for (IndexedToken token : tokens) {
+            long segment = segmentOf(token.issuedAt());
+            if (retainUntil(segment) > now) {
+                bySegment.computeIfAbsent(segment, key -> new ArrayList<>()).add(token);
+            }
+        }
+        List<SegmentRevocations> revocations = new ArrayList<>(bySegment.size());
+        int recorded = 0;
+        for (Map.Entry<Long, List<IndexedToken>> entry : bySegment.entrySet()) {
+            long[] tokenIds = entry.getValue().stream().mapToLong(IndexedToken::tokenId).toArray();
+            SegmentRevocations revocation = new SegmentRevocations(entry.getKey(), retainUntil(entry.getKey()),
+                    tokenIds);
+            add(revocation, now);
+            revocations.add(revocation);
+            recorded += tokenIds.length;
+        }
+        if (!revocations.isEmpty()) {
+            store.publishAll(revocations);
+        }
+        return recorded;
+    }
+
+    /**
+     * Checks the index. Only meaningful while {@link #isSynchronized()}.
+     *
+     * @param issuedAt the {@code iat} claim of the token, in epoch seconds.
+     * @param tokenId  the id of the token.
+     * @return {@code true} if the token is revoked.
+     */
+    public boolean isRevoked(long issuedAt, long tokenId) {
+        long now = clock.getAsLong();
+        purgeIfDue(now);
+        Segment segment = segments.get(segmentOf(issuedAt));
+        return segment != null && segment.tokenIds.contains(tokenId);
+    }
+
+    /**
+     * Checks the store instead of the index, for lookups while the index is not in sync.
+     *
+     * @param issuedAt the {@code iat} claim of the token, in epoch seconds.
+     * @param tokenId  the id of the token.
+     * @return {@code true} if the token is revoked.
+     */
+    public boolean isRevokedRemotely(long issuedAt, long tokenId) {
+        return store.isRevoked(segmentOf(issuedAt), tokenId);
+    }
+
+    /**
+     * Returns whether the index holds every current revocation of the cluster.
+     */
+    public boolean isSynchronized() {
+        return synchronizedWithCluster;
+    }
+
+    /**
+     * Returns the number of revoked tokens in the index, including those of expired segments not swept yet.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.tokenIds.cardinality();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the approximate heap size of the index in bytes.
+     */
+    public long sizeInBytes() {
+        long size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.tokenIds.sizeInBytes();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of segments, including expired ones not swept yet.
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void onRevocations(SegmentRevocations revocations) {
+        add(revocations, clock.getAsLong());
+    }
+
+    @Override
+    public void onConnected() {
+        try {
+            long now = clock.getAsLong();
+            for (SegmentRevocations revocations : store.snapshot()) {
+                add(revocations, now);
+            }
+            synchronizedWithCluster = true;
+            log.info("Revocation index synchronized, {} tokens in {} segments", size(), segments.size());
+        } catch (RuntimeException e) {
+            log.warn("Revocation index resync failed, checking revocations remotely: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onDisconnected() {
+        synchronizedWithCluster = false;
+        log.warn("Revocation index disconnected, checking revocations remotely until resynchronized");
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private long segmentOf(long issuedAt) {
+        return issuedAt * 1000L / segmentMillis;
+    }
+
+    private long retainUntil(long segment) {
+        return (segment + 1) * segmentMillis + maxLifetimeMillis;
+    }
+
+    private void add(SegmentRevocations revocations, long now) {
+        purgeIfDue(now);
+        long retainUntil = retainUntil(revocations.segment());
+        if (retainUntil <= now) {
+            return;
+        }
+        segments.computeIfAbsent(revocations.segment(), key -> new Segment(retainUntil))
+                .tokenIds.addAll(revocations.tokenIds().clone());
+    }
+
+    private void purgeIfDue(long now) {
+        long due = nextPurge.get();
+        if (now >= due && nextPurge.compareAndSet(due, now + PURGE_INTERVAL_MILLIS)) {
+            segments.values().removeIf(segment -> segment.retainUntilMillis <= now);
+        }
+    }
+
+    /**
+     * A sequence-numbered token to revoke.
+     *
+     * @param issuedAt the {@code iat} claim of the token, in epoch seconds.
+     * @param tokenId  the id of the token.
+     */
+    public record IndexedToken(long issuedAt, long tokenId) {
+    }
+
+    private static final class Segment {
+
+        private final long retainUntilMillis;
+        private final CompressedBitmap tokenIds = new CompressedBitmap();
+
+        private Segment(long retainUntilMillis) {
+            this.retainUntilMillis = retainUntilMillis;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.deepLearning.security.revocation;
+
+import java.util.Collection;
+
+/**
+ * RevocationIndexStore keeps the revocations of the {@link RevocationIndex} of the whole cluster and carries them
+ * from the node that revokes a token to every other node.
+ * <p>
+ * Implementations:
+ * <ul>
+ *   <li>{@link LocalRevocationIndexStore} - in-process, for a single node and for tests;</li>
+ *   <li>{@link com.deepLearning.security.redis.RedisRevocationIndexStore} - Redis bitmaps and pub/sub.</li>
+ * </ul>
+ * Segments are kept until their {@link SegmentRevocations#retainUntilMillis()}, so that a node that (re)connects
+ * can catch up on what it missed.
+ */
+public interface RevocationIndexStore extends AutoCloseable {
+
+    /**
+     * Stores revocations and publishes them to every subscribed node, including this one.
+     *
+     * @param revocations the revocations, at most one entry per segment.
+     */
+    void publishAll(Collection<SegmentRevocations> revocations);
+
+    /**
+     * Returns the revocations of all segments that are still retained.
+     *
+     * @return the current revocations.
+     */
+    Collection<SegmentRevocations> snapshot();
+
+    /**
+     * Checks the stored revocations directly, for lookups while the local index is not in sync.
+     *
+     * @param segment the segment of the token.
+     * @param tokenId the id of the token.
+     * @return {@code true} if the token is revoked.
+     */
+    boolean isRevoked(long segment, long tokenId);
+
+    /**
+     * Starts delivering revocations to the given subscriber.
+     *
+     * @param subscriber the subscriber.
+     */
+    void subscribe(Subscriber subscriber);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Receives revocations and the state of the subscription, like {@link RevocationTransport.Subscriber}.
+     */
+    interface Subscriber {
+
+        /**
+         * Called for each published set of revocations.
+         */
+        void onRevocations(SegmentRevocations revocations);
+
+        /**
+         * Called once the subscription is active, initially and after every reconnect; revocations published
+         * from now on are delivered.
+         */
+        void onConnected();
+
+        /**
+         * Called when the subscription is lost; revocations may be missed until {@link #onConnected()}.
+         */
+        void onDisconnected();
+    }
+}
@@ -0,0 +1,88 @@
+package com.deepLearning.security.revocation;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * RevocationTransport carries revocations from the node that revokes a token to every other node.
+ * <p>
+ * Implementations:
+ * <ul>
+ *   <li>{@link LocalRevocationTransport} - in-process, for a single node and for tests;</li>
+ *   <li>{@link com.deepLearning.security.redis.RedisRevocationTransport} - Redis pub/sub.</li>
+ * </ul>
+ * Besides the live events, a transport keeps the revocations that have not expired yet, so that a node that
+ * (re)connects can catch up on what it missed.
+ */
+public interface RevocationTransport extends AutoCloseable {
+
+    /**
+     * Publishes a revocation to every subscribed node, including this one.
+     *
+     * @param event the revocation.
+     */
+    default void publish(RevocationEvent event) {
+        publishAll(List.of(event));
+    }
+
+    /**
+     * Publishes many revocations at once to every subscribed node, including this one.
+     *
+     * @param events the revocations.
+     */
+    void publishAll(Collection<RevocationEvent> events);
+
+    /**
+     * Returns all revocations that have not expired yet.
+     *
+     * @return the current revocations.
+     */
+    Collection<RevocationEvent> snapshot();
+
+    /**
+     * Returns whether the snapshot holds every revocation of the shared blacklist, so that a token missing from it
+     * is not revoked. Blacklist entries written before the broadcast was rolled out, or by nodes that do not
+     * publish yet, are only in the blacklist; until the transport knows there are none left, a token missing from
+     * the snapshot must still be looked up in the blacklist.
+     *
+     * @return {@code true} if a token missing from the snapshot is not revoked.
+     */
+    default boolean isComplete() {
+        return false;
+    }
+
+    /**
+     * Starts delivering revocations to the given subscriber.
+     *
+     * @param subscriber the subscriber.
+     */
+    void subscribe(Subscriber subscriber);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Receives revocations and the state of the subscription. {@link #onRevocation} may run concurrently with
+     * {@link #onConnected}, and {@link #onDisconnected} may run concurrently with both: a lost subscription is
+     * reported right away, on the thread that noticed it, so it must not block.
+     */
+    interface Subscriber {
+
+        /**
+         * Called for each published revocation.
+         */
+        void onRevocation(RevocationEvent event);
+
+        /**
+         * Called once the subscription is active, initially and after every reconnect; revocations published
+         * from now on are delivered.
+         */
+        void onConnected();
+
+        /**
+         * Called when the subscription is lost; revocations may be missed until {@link #onConnected()}.
+         */
+        void onDisconnected();
+    }
+}
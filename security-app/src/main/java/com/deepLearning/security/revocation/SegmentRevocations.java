@@ -0,0 +1,11 @@
+package com.deepLearning.security.revocation;
+
+/**
+ * Revoked sequence-numbered tokens of one segment of the {@link RevocationIndex}.
+ *
+ * @param segment           the segment, i.e. the issue time of the tokens divided by the segment length.
+ * @param retainUntilMillis the time in epoch milliseconds after which every token of the segment has expired.
+ * @param tokenIds          the ids of the revoked tokens.
+ */
+public record SegmentRevocations(long segment, long retainUntilMillis, long[] tokenIds) {
+}
@@ -0,0 +1,160 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.dto.AuthCredentials;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.exceptions.AccountTemporarilyLockedException;
+import com.deepLearning.security.exceptions.UserAlreadyExist;
+import com.deepLearning.security.jwt.JwtTokenManager;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.userServices.UserService;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
+
+
+/**
+ * AuthServiceImpl implements the {@link com.deepLearning.security.securityServices.AuthService} interface and provides
+ * concrete methods for user authentication and registration.
+ * <p>
+ * The implementation utilizes:
+ * <ul>
+ *   <li>{@code UserService} for user persistence and existence checks.</li>
+ *   <li>{@code PasswordEncoder} to encode user passwords.</li>
+ *   <li>{@code AuthenticationManager} to check the credentials during authentication.</li>
+ *   <li>{@code LoginAttemptService} to lock accounts temporarily after repeated failed sign-ins.</li>
+ *   <li>{@code JwtTokenManager} to issue JWT access tokens and refresh token families.</li>
+ * </ul>
+ * <p>
+ * A locked username is rejected before the user is loaded or the password is hashed, so repeated attempts
+ * against a locked account only cost a counter lookup. The lock is written to the user row only when it
+ * changes: once when the account is locked, and once on the first successful sign-in after it has ended.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * AuthCredentials credentials = new AuthCredentials("john.doe", "securePassword");
+ * Map&lt;String, String&gt; tokens = authService.authenticate(credentials);
+ * </pre>
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthServiceImpl implements AuthService {
+
+    /**
+     * Service for managing user entities.
+     */
+    private final UserService userService;
+
+    /**
+     * Encoder for hashing user passwords.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Checks the credentials of the user.
+     */
+    private final AuthenticationManager authenticationManager;
+
+    /**
+     * Counts failed sign-ins and locks accounts temporarily.
+     */
+    private final LoginAttemptService loginAttemptService;
+
+    /**
+     * Issues JWT access tokens and starts refresh token families.
+     */
+    private final JwtTokenManager jwtTokenManager;
+
+    /**
+     * Authenticates a user using the provided credentials and generates JWT tokens.
+     * <p>
+     * This method rejects temporarily locked usernames, checks the credentials with the
+     * {@code AuthenticationManager}, records the outcome, and on success generates an access token and the first
+     * refresh token of a new refresh token family.
+     *
+     * @param credentials the authentication credentials (username and password).
+     * @return a {@link TokensDto} containing the generated access and refresh tokens.
+     * @throws AccountTemporarilyLockedException if the username is locked after repeated failed sign-ins.
+     * @throws AuthenticationException           if the credentials are invalid or the account cannot sign in.
+     */
+    @Override
+    public TokensDto authenticate(@NonNull AuthCredentials credentials) {
+        String username = credentials.username();
+        Instant lockedUntil = loginAttemptService.lockedUntil(username);
+        if (lockedUntil != null) {
+            throw new AccountTemporarilyLockedException(lockedUntil);
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(username, credentials.password()));
+        } catch (BadCredentialsException e) {
+            lockedUntil = loginAttemptService.recordFailure(username);
+            if (lockedUntil != null) {
+                userService.lockUntil(username, lockedUntil);
+                throw new AccountTemporarilyLockedException(lockedUntil);
+            }
+            throw e;
+        }
+
+        loginAttemptService.recordSuccess(username);
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        if (userDetails instanceof User user && user.getLockedUntil() != null) {
+            // the temporary lock has ended, clear it once
+            userService.unlock(username);
+        }
+        return jwtTokenManager.issueTokens(userDetails);
+    }
+
+    /**
+     * Registers a new user with the provided credentials.
+     * <p>
+     * The method checks if a user with the specified username already exists.
+     * If the user exists, a {@link com.deepLearning.security.exceptions.UserAlreadyExist} exception is thrown.
+     * Otherwise, a new user is saved with the password encoded and a default role assigned. A save rejected by the
+     * unique constraint on the username (a concurrent registration, or a user the existence check did not know yet)
+     * is reported the same way.
+     *
+     * @param credentials the registration credentials (username and password).
+     * @return {@code true} if the registration is successful.
+     * @throws com.deepLearning.security.exceptions.UserAlreadyExist if a user with the given username already exists.
+     */
+    @Override
+    public boolean registration(@NonNull AuthCredentials credentials) {
+        boolean isExistUsername = userService.isExistUsername(credentials.username());
+        if (isExistUsername) {
+            throw userAlreadyExist(credentials.username());
+        } else {
+            // Instead of double-brace initialization, use Collections.singletonList for better performance.
+            try {
+                userService.save(new User(
+                        credentials.username(),
+                        passwordEncoder.encode(credentials.password()),
+                        null,
+                        Set.of(Roles.ROLE_USER))
+                );
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently, or by another node and not yet known to the username filter
+                throw userAlreadyExist(credentials.username());
+            }
+            return true;
+        }
+    }
+
+    private static UserAlreadyExist userAlreadyExist(String username) {
+        return new UserAlreadyExist(String.format("User with username %s already exists", username));
+    }
+}
@@ -0,0 +1,123 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.configuration.LoginAttemptProperties;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * LocalLoginAttemptService keeps the failure counters of {@link LoginAttemptService} in memory.
+ * <p>
+ * Each username has a small record with the failure counts of the current and the previous fixed window; the
+ * sliding count is the current count plus the previous one weighted by the part of the previous window that is
+ * still covered. Checking a lock is a single map lookup and a read of a volatile field.
+ * <p>
+ * At most {@code max-keys} usernames are tracked. When the map grows past it, records that no longer affect any
+ * decision are dropped first and then arbitrary ones, like {@code LocalUserCache}.
+ */
+public class LocalLoginAttemptService implements LoginAttemptService {
+
+    private final ConcurrentHashMap<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final LoginAttemptProperties properties;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    /**
+     * Constructs the service.
+     *
+     * @param properties the login attempt properties.
+     */
+    public LocalLoginAttemptService(LoginAttemptProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the service with the given millisecond clock.
+     */
+    LocalLoginAttemptService(LoginAttemptProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.windowMillis = Math.max(1, properties.getWindow().toMillis());
+        this.clock = clock;
+    }
+
+    @Override
+    public Instant lockedUntil(String username) {
+        Attempts entry = attempts.get(username);
+        if (entry == null) {
+            return null;
+        }
+        long lockedUntil = entry.lockedUntil;
+        return lockedUntil > clock.getAsLong() ? Instant.ofEpochMilli(lockedUntil) : null;
+    }
+
+    @Override
+    public Instant recordFailure(String username) {
+        long now = clock.getAsLong();
+        Attempts entry = attempts.get(username);
+        if (entry == null) {
+            if (attempts.size() >= properties.getMaxKeys()) {
+                evict(now);
+            }
+            entry = attempts.computeIfAbsent(username, key -> new Attempts());
+        }
+        synchronized (entry) {
+            if (entry.lockedUntil > now) {
+                return null;
+            }
+            long window = now / windowMillis;
+            if (window == entry.window + 1) {
+                entry.previous = entry.current;
+                entry.current = 0;
+            } else if (window != entry.window) {
+                entry.previous = 0;
+                entry.current = 0;
+            }
+            entry.window = window;
+            entry.current++;
+            entry.lastFailure = now;
+
+            double covered = (double) (windowMillis - now % windowMillis) / windowMillis;
+            if (entry.previous * covered + entry.current < properties.getMaxFailures()) {
+                return null;
+            }
+            entry.lockouts++;
+            entry.previous = 0;
+            entry.current = 0;
+            entry.lockedUntil = now + properties.lockDurationMillis(entry.lockouts);
+            return Instant.ofEpochMilli(entry.lockedUntil);
+        }
+    }
+
+    @Override
+    public void recordSuccess(String username) {
+        attempts.remove(username);
+    }
+
+    /**
+     * Drops records that no longer affect any decision, then arbitrary ones until the map is back to 90% of its
+     * maximum size.
+     */
+    private void evict(long now) {
+        attempts.values().removeIf(entry -> Math.max(entry.lastFailure, entry.lockedUntil) + 2 * windowMillis < now);
+        int target = properties.getMaxKeys() - properties.getMaxKeys() / 10;
+        Iterator<Attempts> iterator = attempts.values().iterator();
+        while (attempts.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Failure counters of one username, guarded by its own monitor.
+     */
+    private static final class Attempts {
+        long window;
+        int current;
+        int previous;
+        int lockouts;
+        long lastFailure;
+        volatile long lockedUntil;
+    }
+}
@@ -0,0 +1,49 @@
+package com.deepLearning.security.securityServices;
+
+import java.time.Instant;
+
+/**
+ * LoginAttemptService counts failed sign-ins per username and locks accounts temporarily.
+ * <p>
+ * Failures are counted over a sliding window. Once {@code security.login-attempts.max-failures} is reached, the
+ * username is locked for {@code lock-duration}; every further lockout while the failures go on doubles the
+ * duration, up to {@code max-lock-duration}. A lock ends by itself, and a successful sign-in resets the counters.
+ * <p>
+ * Usernames are tracked whether or not the account exists, so a lockout does not tell whether a username is
+ * registered.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * if (loginAttemptService.lockedUntil(username) != null) {
+ *     // reject without loading the user or checking the password
+ * }
+ * </pre>
+ *
+ * @see LocalLoginAttemptService for the in-process implementation.
+ * @see com.deepLearning.security.redis.RedisLoginAttemptService for the cluster-wide implementation.
+ */
+public interface LoginAttemptService {
+
+    /**
+     * Returns the end of the current lock of the username.
+     *
+     * @param username the username.
+     * @return the end of the lock, or {@code null} if the username is not locked.
+     */
+    Instant lockedUntil(String username);
+
+    /**
+     * Records a failed sign-in.
+     *
+     * @param username the username.
+     * @return the end of the lock if this failure locked the username, {@code null} otherwise.
+     */
+    Instant recordFailure(String username);
+
+    /**
+     * Records a successful sign-in and resets the counters of the username.
+     *
+     * @param username the username.
+     */
+    void recordSuccess(String username);
+}
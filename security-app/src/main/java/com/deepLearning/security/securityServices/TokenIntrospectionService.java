@@ -0,0 +1,30 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.dto.TokenIntrospection;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * TokenIntrospectionService tells resource servers that cannot verify tokens themselves about the status of tokens
+ * issued by this application.
+ */
+public interface TokenIntrospectionService {
+
+    /**
+     * Introspects a batch of tokens.
+     *
+     * @param tokens the tokens.
+     * @return the status of each token, in the same order.
+     */
+    List<TokenIntrospection> introspect(List<String> tokens);
+
+    /**
+     * Returns how long the caller may cache the given answers: until the first active token expires, at most the
+     * configured maximum.
+     *
+     * @param introspections the answers.
+     * @return the cache lifetime, possibly zero.
+     */
+    Duration cacheDuration(List<TokenIntrospection> introspections);
+}
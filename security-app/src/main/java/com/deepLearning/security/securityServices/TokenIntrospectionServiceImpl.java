@@ -0,0 +1,96 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.configuration.IntrospectionProperties;
+import com.deepLearning.security.dto.TokenIntrospection;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * TokenIntrospectionServiceImpl answers introspection requests from the tokens themselves and the revocations.
+ * <p>
+ * Tokens are verified with {@link JwtTokenProvider}, in parallel for large batches. The revocation status of all
+ * verified tokens is then checked at once with {@link RevokedTokenService#areTokensRevoked}, which needs at most one
+ * Redis round trip for the whole batch.
+ * <p>
+ * Only access tokens can be active; refresh tokens are only meant for this application and are reported inactive,
+ * like malformed, foreign, expired and revoked tokens.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    /**
+     * Batch size from which tokens are verified in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 64;
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RevokedTokenService revokedTokenService;
+    private final IntrospectionProperties properties;
+
+    @Override
+    public List<TokenIntrospection> introspect(List<String> tokens) {
+        Stream<String> stream = tokens.size() >= PARALLEL_THRESHOLD ? tokens.parallelStream() : tokens.stream();
+        List<TokenClaims> parsed = stream.map(this::parseLeniently).toList();
+
+        List<Integer> positions = new ArrayList<>(parsed.size());
+        List<String> verified = new ArrayList<>(parsed.size());
+        List<TokenClaims> verifiedClaims = new ArrayList<>(parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            TokenClaims claims = parsed.get(i);
+            if (claims != null && claims.type() == TokenType.ACCESS) {
+                positions.add(i);
+                verified.add(tokens.get(i));
+                verifiedClaims.add(claims);
+            }
+        }
+        TokenIntrospection[] introspections = new TokenIntrospection[tokens.size()];
+        Arrays.fill(introspections, TokenIntrospection.INACTIVE);
+        boolean[] revoked = verified.isEmpty()
+                ? new boolean[0]
+                : revokedTokenService.areTokensRevoked(verified, verifiedClaims);
+        for (int i = 0; i < revoked.length; i++) {
+            if (!revoked[i]) {
+                TokenClaims claims = verifiedClaims.get(i);
+                introspections[positions.get(i)] = new TokenIntrospection(true, claims.subject(),
+                        String.join(" ", claims.authorities()), claims.expiresAt(), claims.issuedAt(),
+                        "access_token");
+            }
+        }
+        return Arrays.asList(introspections);
+    }
+
+    @Override
+    public Duration cacheDuration(List<TokenIntrospection> introspections) {
+        long maxAge = properties.getMaxCacheAge().toSeconds();
+        long now = System.currentTimeMillis() / 1000L;
+        for (TokenIntrospection introspection : introspections) {
+            if (introspection.active()) {
+                maxAge = Math.min(maxAge, introspection.exp() - now);
+            }
+        }
+        return Duration.ofSeconds(Math.max(0, maxAge));
+    }
+
+    /**
+     * Parses a token, returning {@code null} instead of throwing if it is malformed, foreign or expired.
+     */
+    private TokenClaims parseLeniently(String token) {
+        try {
+            return token == null ? null : jwtTokenProvider.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.deepLearning.security.userServices;
+
+import com.deepLearning.security.configuration.UserCacheProperties;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LocalUserCache is a bounded, time-limited, in-memory {@link UserCache}.
+ * <p>
+ * Reads are a single lock-free map lookup. Entries expire after {@code security.user-cache.time-to-live};
+ * when the cache grows past {@code max-size}, expired entries are dropped first and then arbitrary ones, so
+ * the size stays bounded without keeping an access order.
+ * <p>
+ * Entries are removed by {@link UserServiceImpl} whenever a user is saved or deleted, so changes made through
+ * the application are visible immediately. With {@code security.user-cache.shared.enabled}, this cache is the first
+ * tier of {@link com.deepLearning.security.redis.RedisUserCache}, which also removes the entries changed on other
+ * nodes.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * UserDetails user = userCache.getUserFromCache(username);
+ * if (user == null) {
+ *     user = userDetailsService.loadUserByUsername(username);
+ *     userCache.putUserInCache(user);
+ * }
+ * </pre>
+ */
+@Component
+public class LocalUserCache implements UserCache {
+
+    private final ConcurrentHashMap<String, Entry> users = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long timeToLiveNanos;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param properties the cache properties.
+     */
+    public LocalUserCache(UserCacheProperties properties) {
+        this.maxSize = properties.getMaxSize();
+        this.timeToLiveNanos = properties.getTimeToLive().toNanos();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry = users.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.cachedAt > timeToLiveNanos) {
+            users.remove(username, entry);
+            return null;
+        }
+        return entry.user;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (maxSize <= 0) {
+            return;
+        }
+        users.put(user.getUsername(), new Entry(user, System.nanoTime()));
+        if (users.size() > maxSize) {
+            evict();
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.remove(username);
+    }
+
+    /**
+     * Removes every cached user, e.g. when invalidations from other nodes may have been missed.
+     */
+    public void clear() {
+        users.clear();
+    }
+
+    /**
+     * @return the number of cached users, including expired ones not evicted yet.
+     */
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * Drops expired entries, then arbitrary ones until the cache is back to 90% of its maximum size.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        users.values().removeIf(entry -> now - entry.cachedAt > timeToLiveNanos);
+        int target = maxSize - maxSize / 10;
+        Iterator<String> iterator = users.keySet().iterator();
+        while (users.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(UserDetails user, long cachedAt) {
+    }
+}
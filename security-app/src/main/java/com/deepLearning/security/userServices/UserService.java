@@ -0,0 +1,120 @@
+package com.deepLearning.security.userServices;
+
+import com.deepLearning.security.dto.UserPage;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.repositories.UserSearchCriteria;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * UserService defines the contract for managing user entities.
+ * <p>
+ * It provides methods for saving a user, retrieving a user by username or ID,
+ * deleting a user by ID or username, checking if a user exists by username, and listing users page by page.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * Optional&lt;User&gt; userOpt = userService.findUserByUsername("john.doe");
+ * if(userOpt.isPresent()) {
+ *     // Process user
+ * }
+ * </pre>
+ *
+ * @see com.deepLearning.security.model.User
+ */
+public interface UserService {
+
+    /**
+     * Saves the given user.
+     *
+     * @param user the user to save.
+     * @return the saved user.
+     */
+    User save(User user);
+
+    /**
+     * Finds a user by their username.
+     *
+     * @param username the username to search for.
+     * @return an {@link Optional} containing the user if found, or empty otherwise.
+     */
+    Optional<User> findUserByUsername(String username);
+
+    /**
+     * Finds a user by their ID.
+     *
+     * @param id the ID of the user.
+     * @return an {@link Optional} containing the user if found, or empty otherwise.
+     */
+    Optional<User> findUserById(Long id);
+
+    /**
+     * Deletes the user identified by the given ID.
+     *
+     * @param id the ID of the user to delete.
+     */
+    void deleteUserById(Long id);
+
+    /**
+     * Deletes the user with the specified username.
+     *
+     * @param username the username of the user to delete.
+     */
+    void deleteByUsername(String username);
+
+    /**
+     * Checks whether a user with the specified username exists.
+     *
+     * @param username the username to check.
+     * @return {@code true} if a user with the username exists, {@code false} otherwise.
+     */
+    boolean isExistUsername(String username);
+
+    /**
+     * Returns the user with the specified username, creating it with the default role (ROLE_USER) if it does not
+     * exist yet, e.g. on the first sign-in through OAuth2.
+     *
+     * @param username the username of the user.
+     * @param image    the profile image of a new user.
+     * @return the existing or new user.
+     */
+    User provision(String username, String image);
+
+    /**
+     * Loads the user with the specified username for sign-in, with its password hash, always from the database.
+     * <p>
+     * Users of the user cache are not used for sign-in: the shared tier keeps no password hashes.
+     *
+     * @param username the username of the user.
+     * @return the user.
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if the user is not found.
+     */
+    User loadUserForSignIn(String username);
+
+    /**
+     * Locks the user with the specified username until the given instant.
+     *
+     * @param username    the username of the user to lock.
+     * @param lockedUntil the end of the lock.
+     */
+    void lockUntil(String username, Instant lockedUntil);
+
+    /**
+     * Removes the lock of the user with the specified username.
+     *
+     * @param username the username of the user to unlock.
+     */
+    void unlock(String username);
+
+    /**
+     * Lists the users matching the criteria in username order, one page at a time.
+     *
+     * @param criteria the criteria of the users.
+     * @param after    the cursor of the page (the {@code next} of the previous page), or {@code null} for the first.
+     * @param limit    the maximal number of users in the page.
+     * @return the page, with the cursor of the next page if there is one.
+     */
+    UserPage searchUsers(UserSearchCriteria criteria, String after, int limit);
+}
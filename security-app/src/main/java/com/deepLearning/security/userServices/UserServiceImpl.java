@@ -0,0 +1,316 @@
+package com.deepLearning.security.userServices;
+
+import com.deepLearning.security.dto.UserPage;
+import com.deepLearning.security.dto.UserSummary;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.repositories.UserRepository;
+import com.deepLearning.security.repositories.UserSearchCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserServiceImpl provides a concrete implementation of the {@link UserService} interface,
+ * as well as {@link org.springframework.security.core.userdetails.UserDetailsService} for loading user details during authentication.
+ * <p>
+ * It delegates CRUD operations to {@link UserRepository} and is responsible for basic user management, such as
+ * saving, retrieving, and deleting user entities. The {@code loadUserByUsername} method is used by Spring Security
+ * to retrieve user details based on the username.
+ * <p>
+ * Every save, delete, lock or unlock also evicts the user from the {@link UserCache}, so cached lookups never outlive
+ * a change made through this service. The eviction runs once the change is committed: evicting earlier would let a
+ * concurrent lookup cache the old row again. With the shared tier of the cache, the eviction reaches every node.
+ * <p>
+ * Sign-in loads the user from the database with {@link #loadUserForSignIn}, as the shared tier of the cache keeps no
+ * password hashes; {@link #loadUserByUsername} serves the token path from the cache.
+ * <p>
+ * Existence checks first ask the {@link UsernameFilter}; a username it has definitely never seen is reported as
+ * new without a query. Every saved or provisioned user is added to the filter.
+ * <p>
+ * Users of external providers are provisioned with one upsert statement (see
+ * {@link UserRepository#provision}); concurrent provisioning of the same username on this node waits for the first
+ * one instead of sending its own statement, so a burst of first sign-ins costs one round trip per user.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * User user = userService.save(new User("john.doe", "encodedPassword", null, List.of("ROLE_USER")));
+ * UserDetails userDetails = userService.loadUserByUsername("john.doe");
+ * </pre>
+ *
+ * @see com.deepLearning.security.model.User
+ * @see com.deepLearning.security.repositories.UserRepository
+ */
+@Service
+@RequiredArgsConstructor
+public class UserServiceImpl implements UserService, UserDetailsService {
+
+    /**
+     * Repository for performing CRUD operations on User entities.
+     */
+    private final UserRepository userRepo;
+
+    /**
+     * Cache of loaded users, evicted on every change.
+     */
+    private final UserCache userCache;
+
+    /**
+     * In-memory filter of existing usernames.
+     */
+    private final UsernameFilter usernameFilter;
+
+    /**
+     * Running provisionings on this node, by username.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<User>> provisioning = new ConcurrentHashMap<>();
+
+    /**
+     * Saves the provided user entity.
+     *
+     * @param user the user to save.
+     * @return the saved user.
+     */
+    @Override
+    public User save(@NonNull User user) {
+        User saved = userRepo.saveAndFlush(user);
+        evictAfterCommit(saved.getUsername());
+        usernameFilter.add(saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * Retrieves a user by their username.
+     *
+     * @param username the username to search for.
+     * @return an {@link Optional} containing the user if found, or empty otherwise.
+     */
+    @Override
+    public Optional<User> findUserByUsername(@NonNull String username) {
+        return userRepo.findByUsername(username);
+    }
+
+    /**
+     * Retrieves a user by their ID.
+     *
+     * @param id the ID of the user.
+     * @return an {@link Optional} containing the user if found, or empty otherwise.
+     */
+    @Override
+    public Optional<User> findUserById(@NonNull Long id) {
+        return userRepo.findById(id);
+    }
+
+    /**
+     * Deletes the user identified by the given ID.
+     *
+     * @param id the ID of the user to delete.
+     */
+    @Override
+    public void deleteUserById(@NonNull Long id) {
+        Optional<User> user = userRepo.findById(id);
+        userRepo.deleteById(id);
+        user.ifPresent(deleted -> evictAfterCommit(deleted.getUsername()));
+    }
+
+    /**
+     * Deletes the user with the specified username.
+     *
+     * @param username the username of the user to delete.
+     */
+    @Override
+    public void deleteByUsername(@NonNull String username) {
+        userRepo.deleteByUsername(username);
+        evictAfterCommit(username);
+    }
+
+    /**
+     * Checks if a user with the specified username exists.
+     * <p>
+     * Only usernames that the {@link UsernameFilter} may have seen are looked up in the database. A user created by
+     * another node since the last rebuild of the filter can be reported as missing; callers that create users rely
+     * on the unique constraint for that case.
+     *
+     * @param username the username to check.
+     * @return {@code true} if a user with the given username exists, {@code false} otherwise.
+     */
+    @Override
+    public boolean isExistUsername(@NonNull String username) {
+        return usernameFilter.mightExist(username) && userRepo.existsUserByUsername(username);
+    }
+
+    /**
+     * Returns the user with the specified username, creating it with ROLE_USER if it does not exist yet.
+     * <p>
+     * A cached user is returned without a query. Otherwise a concurrent call for the same username on this node
+     * is joined; only the first call runs the upsert, and the result is put into the {@link UserCache}. A user
+     * created concurrently by another node is read back after the upsert.
+     *
+     * @param username the username of the user.
+     * @param image    the profile image of a new user.
+     * @return the existing or new user.
+     */
+    @Override
+    public User provision(@NonNull String username, String image) {
+        if (userCache.getUserFromCache(username) instanceof User cached) {
+            return cached;
+        }
+        CompletableFuture<User> running = new CompletableFuture<>();
+        CompletableFuture<User> existing = provisioning.putIfAbsent(username, running);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            User user = provisionOnce(username, image);
+            userCache.putUserInCache(user);
+            usernameFilter.add(username);
+            running.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            running.completeExceptionally(e);
+            throw e;
+        } finally {
+            provisioning.remove(username, running);
+        }
+    }
+
+    /**
+     * Locks the user with the specified username until the given instant, with a single update statement.
+     *
+     * @param username    the username of the user to lock.
+     * @param lockedUntil the end of the lock.
+     */
+    @Override
+    @Transactional
+    public void lockUntil(@NonNull String username, @NonNull Instant lockedUntil) {
+        userRepo.updateLock(username, false, lockedUntil);
+        evictAfterCommit(username);
+    }
+
+    /**
+     * Removes the lock of the user with the specified username, with a single update statement.
+     *
+     * @param username the username of the user to unlock.
+     */
+    @Override
+    @Transactional
+    public void unlock(@NonNull String username) {
+        userRepo.updateLock(username, true, null);
+        evictAfterCommit(username);
+    }
+
+    /**
+     * Lists the users matching the criteria in username order, one page at a time.
+     * <p>
+     * One user more than the limit is read to know whether a next page exists; its cursor is the last username of
+     * this page.
+     *
+     * @param criteria the criteria of the users.
+     * @param after    the cursor of the page, or {@code null} for the first.
+     * @param limit    the maximal number of users in the page.
+     * @return the page, with the cursor of the next page if there is one.
+     */
+    @Override
+    public UserPage searchUsers(@NonNull UserSearchCriteria criteria, String after, int limit) {
+        List<User> users = userRepo.search(criteria, after, limit + 1);
+        boolean hasNext = users.size() > limit;
+        List<UserSummary> page = users.stream().limit(limit).map(UserSummary::of).toList();
+        String next = hasNext ? page.get(page.size() - 1).username() : null;
+        return new UserPage(page, next);
+    }
+
+    /**
+     * Loads the user by username to authenticate a request with a token.
+     * <p>
+     * The user is read from the {@link UserCache} if possible, and otherwise loaded from the database and cached.
+     * A cached user may have no password hash; sign-in uses {@link #loadUserForSignIn} instead.
+     * If the user is not found, a {@link UsernameNotFoundException} is thrown.
+     *
+     * @param username the username of the user to load.
+     * @return a {@link UserDetails} object representing the user.
+     * @throws UsernameNotFoundException if the user is not found.
+     */
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = userCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+        User user = findUserByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        userCache.putUserInCache(user);
+        return user;
+    }
+
+    /**
+     * Loads the user by username for sign-in, from the database and with its password hash.
+     * <p>
+     * The {@link UserCache} is neither read nor filled: its shared tier keeps no password hashes, and sign-in
+     * hashes the presented password anyway, so the query is not what it waits for.
+     *
+     * @param username the username of the user to load.
+     * @return the user.
+     * @throws UsernameNotFoundException if the user is not found.
+     */
+    @Override
+    public User loadUserForSignIn(String username) throws UsernameNotFoundException {
+        return findUserByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    /**
+     * Evicts the user from the {@link UserCache} after the commit of the running transaction, or right away when
+     * there is none.
+     *
+     * @param username the username of the changed user.
+     */
+    private void evictAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userCache.removeUserFromCache(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userCache.removeUserFromCache(username);
+            }
+        });
+    }
+
+    private User provisionOnce(String username, String image) {
+        try {
+            return userRepo.provision(username, image, Roles.ROLE_USER)
+                    .or(() -> userRepo.findByUsername(username))
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        } catch (DataIntegrityViolationException e) {
+            // created by another node between the lookup and the insert of the portable path
+            return userRepo.findByUsername(username).orElseThrow(() -> e);
+        }
+    }
+
+    private static User await(CompletableFuture<User> provisioning) {
+        try {
+            return provisioning.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
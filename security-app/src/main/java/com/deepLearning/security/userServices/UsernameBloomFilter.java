@@ -0,0 +1,113 @@
+package com.deepLearning.security.userServices;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * UsernameBloomFilter is a fixed-size Bloom filter of usernames.
+ * <p>
+ * {@link #mightContain} never returns {@code false} for an added username; for any other username it returns
+ * {@code true} with about the false positive rate the filter was sized for, as long as no more than the expected
+ * number of usernames are added. Usernames cannot be removed.
+ * <p>
+ * The bit positions are derived from one 64-bit hash of the username by double hashing. Bits are set with atomic
+ * updates, so adds and lookups may run concurrently without locking.
+ */
+final class UsernameBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Constructs an empty filter.
+     *
+     * @param expectedUsernames the number of usernames the filter is sized for.
+     * @param falsePositiveRate the false positive rate at the expected number of usernames, in {@code (0, 1)}.
+     */
+    UsernameBloomFilter(long expectedUsernames, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+        }
+        long expected = Math.max(1, expectedUsernames);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expected * LN2));
+    }
+
+    /**
+     * Adds a username.
+     *
+     * @param username the username.
+     */
+    void add(String username) {
+        long hash = hash(username);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a username may have been added.
+     *
+     * @param username the username.
+     * @return {@code false} if the username was definitely not added.
+     */
+    boolean mightContain(String username) {
+        long hash = hash(username);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of hash functions.
+     */
+    int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Returns the number of bits.
+     */
+    long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * FNV-1a over the characters of the username, finished with the MurmurHash3 finalizer to spread the bits.
+     */
+    private static long hash(String username) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < username.length(); i++) {
+            hash ^= username.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE1A85EC3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,141 @@
+package com.deepLearning.security.userServices;
+
+import com.deepLearning.security.configuration.UsernameFilterProperties;
+import com.deepLearning.security.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * UsernameFilter answers "does this username definitely not exist?" from memory, so that
+ * {@link UserServiceImpl#isExistUsername} only queries the database for usernames that may exist.
+ * <p>
+ * The usernames of the {@code users} table are streamed into a {@link UsernameBloomFilter} once the application is
+ * ready, and again every {@code security.username-filter.rebuild-interval} on a background thread, which drops the
+ * usernames of deleted users. Every user saved or provisioned through {@link UserServiceImpl} is added right away;
+ * a user added while a rebuild runs goes into both the current and the new filter, so it is never lost by the swap.
+ * <p>
+ * Until the first build completes, or if {@code security.username-filter.enabled} is off, every username may exist.
+ * Users created by other nodes are only known after the next rebuild, so a "not present" answer is a hint, not a
+ * guarantee: the unique constraint on {@code users.username} stays the authority.
+ */
+@Slf4j
+@Component
+public class UsernameFilter implements AutoCloseable {
+
+    private final UserRepository userRepo;
+    private final TransactionTemplate readOnlyTransaction;
+    private final UsernameFilterProperties properties;
+
+    /**
+     * The filter used for lookups, or {@code null} until the first build.
+     */
+    private volatile UsernameBloomFilter current;
+
+    /**
+     * The filter being rebuilt, or {@code null} outside a rebuild.
+     */
+    private volatile UsernameBloomFilter next;
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the filter.
+     *
+     * @param userRepo           the repository the usernames are streamed from.
+     * @param transactionManager the transaction manager of the streaming query.
+     * @param properties         the filter properties.
+     */
+    public UsernameFilter(UserRepository userRepo, PlatformTransactionManager transactionManager,
+                          UsernameFilterProperties properties) {
+        this.userRepo = userRepo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    /**
+     * Starts the background rebuild, beginning with the first build, once the database is initialized.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getRebuildInterval().toMillis();
+        rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether a user with the given username may exist.
+     *
+     * @param username the username.
+     * @return {@code false} if no user with the username existed at the last build and none was added since.
+     */
+    public boolean mightExist(String username) {
+        UsernameBloomFilter filter = current;
+        return filter == null || filter.mightContain(username);
+    }
+
+    /**
+     * Records a username that now exists.
+     *
+     * @param username the username.
+     */
+    public void add(String username) {
+        // the rebuild is read first: if it has ended by then, the current filter read next is the rebuilt one
+        UsernameBloomFilter building = next;
+        if (building != null) {
+            building.add(username);
+        }
+        UsernameBloomFilter filter = current;
+        if (filter != null) {
+            filter.add(username);
+        }
+    }
+
+    /**
+     * Builds a new filter from the {@code users} table and swaps it in.
+     */
+    public void rebuild() {
+        long users = userRepo.count();
+        UsernameBloomFilter building = new UsernameBloomFilter(
+                Math.max(properties.getExpectedUsernames(), users + users / 2), properties.getFalsePositiveRate());
+        next = building;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepo.streamAllUsernames()) {
+                    usernames.forEach(building::add);
+                }
+            });
+            current = building;
+        } finally {
+            next = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding the username filter failed: {}", e.toString());
+        }
+    }
+}
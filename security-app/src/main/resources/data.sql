@@ -0,0 +1,15 @@
+-- Создаём пользователя (пароль: securePassword)
+INSERT INTO users
+(username, password, image,
+ is_account_non_expired, is_account_non_locked,
+ is_credentials_non_expired, is_enabled)
+VALUES
+    ('john.doe', '$2a$10$itJEq1BtIFY.SFziLIZIgu2EKTdZhGfHPZpU6JD9l99aBkbmK.f4K', '/images/john.png',
+     true, true, true, true);
+
+-- Добавляем роли
+INSERT INTO user_roles (user_id, roles)
+SELECT id, 'ROLE_ADMIN' FROM users WHERE username = 'john.doe';
+
+INSERT INTO user_roles (user_id, roles)
+SELECT id, 'ROLE_USER' FROM users WHERE username = 'john.doe';
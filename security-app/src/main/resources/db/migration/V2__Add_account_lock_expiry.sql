@@ -0,0 +1,2 @@
+alter table users
+    add column locked_until timestamp(6) with time zone;
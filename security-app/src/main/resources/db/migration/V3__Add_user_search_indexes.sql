@@ -0,0 +1,14 @@
+-- Keyset pagination of users by username (UserSearchRepositoryImpl).
+-- The "C" collation orders by bytes, so one index serves the prefix range, the "> after" seek and the order by;
+-- a text_pattern_ops index would only serve LIKE.
+create index concurrently if not exists users_username_c_idx
+    on users (username collate "C");
+
+-- Locked and disabled users are few; listing them scans only their entries.
+create index concurrently if not exists users_locked_username_c_idx
+    on users (username collate "C")
+    where not is_account_non_locked;
+
+create index concurrently if not exists users_disabled_username_c_idx
+    on users (username collate "C")
+    where not is_enabled;
@@ -0,0 +1,54 @@
+-- Records a failed sign-in and locks the username once the sliding window count reaches the limit.
+--
+-- KEYS[1]  attempts hash of the username with the fields
+--            w  index of the current fixed window
+--            c  failures in the current window
+--            p  failures in the previous window
+--            n  lockouts so far
+--            u  end of the current lock in epoch milliseconds
+-- ARGV[1]  maximum number of failures within the window
+-- ARGV[2]  window length in milliseconds
+-- ARGV[3]  duration of the first lockout in milliseconds
+-- ARGV[4]  maximum lockout duration in milliseconds
+--
+-- Returns  the end of the lock in epoch milliseconds if this failure locked the username, 0 otherwise.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local max_failures = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local lock_duration = tonumber(ARGV[3])
+local max_lock_duration = tonumber(ARGV[4])
+
+local state = redis.call('HMGET', KEYS[1], 'w', 'c', 'p', 'n', 'u')
+local locked_until = tonumber(state[5]) or 0
+if locked_until > now then
+    return 0
+end
+
+local index = math.floor(now / window)
+local current = tonumber(state[2]) or 0
+local previous = tonumber(state[3]) or 0
+local lockouts = tonumber(state[4]) or 0
+local last_index = tonumber(state[1]) or index
+if index == last_index + 1 then
+    previous = current
+    current = 0
+elseif index ~= last_index then
+    previous = 0
+    current = 0
+end
+current = current + 1
+
+local result = 0
+if previous * (window - now % window) / window + current >= max_failures then
+    lockouts = lockouts + 1
+    locked_until = now + math.min(lock_duration * 2 ^ math.min(lockouts - 1, 30), max_lock_duration)
+    previous = 0
+    current = 0
+    result = locked_until
+end
+
+redis.call('HSET', KEYS[1], 'w', index, 'c', current, 'p', previous, 'n', lockouts,
+        'u', string.format('%.0f', locked_until))
+redis.call('PEXPIRE', KEYS[1], math.max(locked_until - now, 0) + 2 * window)
+return result
@@ -0,0 +1,30 @@
+-- Records revoked tokens in the index of current revocations and publishes them to every node.
+--
+-- KEYS[1]  sorted set of the revoked tokens, scored by their expiry in epoch milliseconds
+-- ARGV[1]  channel of the revocation events
+-- ARGV[2n], ARGV[2n+1]  a revoked token and its expiry in epoch milliseconds, for n = 1, 2, ...
+--
+-- Publishes one message with a line "<expiresAt> <token>" per revocation that has not expired yet.
+-- Returns  the number of nodes that received the message; 0 if every token has already expired.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+
+local lines = {}
+for i = 2, #ARGV, 2 do
+    local expires_at = tonumber(ARGV[i + 1])
+    if expires_at > now then
+        redis.call('ZADD', KEYS[1], expires_at, ARGV[i])
+        lines[#lines + 1] = ARGV[i + 1] .. ' ' .. ARGV[i]
+    end
+end
+if #lines == 0 then
+    return 0
+end
+
+-- the index lives as long as its longest-lived entry
+local last = redis.call('ZRANGE', KEYS[1], -1, -1, 'WITHSCORES')
+redis.call('PEXPIREAT', KEYS[1], tonumber(last[2]))
+
+return redis.call('PUBLISH', ARGV[1], table.concat(lines, '\n'))
@@ -0,0 +1,26 @@
+-- Takes one token from a GCRA token bucket.
+--
+-- KEYS[1]  bucket key, its value is the theoretical arrival time (TAT) of the next request in microseconds
+-- ARGV[1]  time needed to refill one token in microseconds
+-- ARGV[2]  burst tolerance (capacity * refill interval) in microseconds
+--
+-- The current time is read from the Redis server, so all nodes share one clock.
+--
+-- Returns  {allowed (1 or 0), remaining tokens, retry after in microseconds, reset in microseconds}
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+local interval = tonumber(ARGV[1])
+local tolerance = tonumber(ARGV[2])
+
+local tat = tonumber(redis.call('GET', KEYS[1])) or now
+if tat < now then
+    tat = now
+end
+local next_tat = tat + interval
+local allow_at = next_tat - tolerance
+if allow_at > now then
+    return {0, 0, allow_at - now, tat - now}
+end
+-- the bucket is full again once its TAT has passed, so it does not need to outlive it
+redis.call('SET', KEYS[1], string.format('%.0f', next_tat), 'PX', math.ceil((next_tat - now) / 1000))
+return {1, math.floor((now - allow_at) / interval), 0, next_tat - now}
@@ -0,0 +1,31 @@
+-- Atomically consumes the current refresh token of a family and registers its successor.
+--
+-- KEYS[1]  family key, its value is the id (jti) of the only refresh token of the family that may be used
+-- KEYS[2]  grace key of the presented token, holds the tokens issued in exchange for it
+-- ARGV[1]  id of the presented refresh token
+-- ARGV[2]  id of the refresh token issued in exchange
+-- ARGV[3]  time to live of the family in milliseconds
+-- ARGV[4]  tokens issued in exchange, kept under the grace key
+-- ARGV[5]  grace period in milliseconds, 0 disables it
+--
+-- Returns  'R'           if the token was current and has been replaced,
+--          'U'           if the family is unknown (expired or revoked),
+--          'G' .. tokens if the token was replaced within the grace period; the earlier result is returned,
+--          'X'           if an already consumed token was presented; the whole family is revoked.
+local current = redis.call('GET', KEYS[1])
+if not current then
+    return 'U'
+end
+if current == ARGV[1] then
+    redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+    if tonumber(ARGV[5]) > 0 then
+        redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[5])
+    end
+    return 'R'
+end
+local previous = redis.call('GET', KEYS[2])
+if previous then
+    return 'G' .. previous
+end
+redis.call('DEL', KEYS[1])
+return 'X'
@@ -0,0 +1,146 @@
+package com.deepLearning.security.authorization;
+
+import com.deepLearning.security.model.Roles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoleCheckAuthorizationManagerTest {
+
+    private RoleCheckAuthorizationManager manager;
+
+    private final Authentication anonymous = new AnonymousAuthenticationToken(
+            "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+    private final Authentication user = new UsernamePasswordAuthenticationToken(
+            "user", null, List.of(Roles.ROLE_USER));
+    private final Authentication admin = new UsernamePasswordAuthenticationToken(
+            "admin", null, AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+
+    @BeforeEach
+    void setUp() {
+        manager = new RoleCheckAuthorizationManager();
+        manager.precompile(Endpoints.class);
+    }
+
+    @Test
+    @DisplayName("hasRole_grantsOnlyMatchingRole")
+    void grantsOnlyUsersHoldingTheRole() throws Exception {
+        assertTrue(isGranted("admin", admin));
+        assertFalse(isGranted("admin", user));
+        assertFalse(isGranted("admin", anonymous));
+        assertTrue(isGranted("user", user));
+    }
+
+    @Test
+    @DisplayName("requireAll_needsEveryRole")
+    void requireAllNeedsEveryListedRole() throws Exception {
+        assertTrue(isGranted("userAndAdmin", admin));
+        assertFalse(isGranted("userAndAdmin", user));
+    }
+
+    @Test
+    @DisplayName("anonymousAndAuthenticated_matchSpelSemantics")
+    void anonymousAndAuthenticatedFollowSpelSemantics() throws Exception {
+        assertTrue(isGranted("anonymousOnly", anonymous));
+        assertTrue(isGranted("anonymousOnly", null));
+        assertFalse(isGranted("anonymousOnly", user));
+
+        assertTrue(isGranted("authenticatedOnly", user));
+        assertFalse(isGranted("authenticatedOnly", anonymous));
+        assertFalse(isGranted("authenticatedOnly",
+                UsernamePasswordAuthenticationToken.unauthenticated("user", "pass")));
+    }
+
+    @Test
+    @DisplayName("typeLevelAnnotation_appliesToUnannotatedMethods")
+    void typeLevelAnnotationIsInherited() throws Exception {
+        CompiledRoleRequirement requirement = manager.getRequirement(
+                AdminEndpoints.class.getMethod("dashboard"), new AdminEndpoints());
+        assertEquals(Roles.ROLE_ADMIN.mask(), requirement.getRequiredMask());
+        assertFalse(requirement.isGranted(user));
+    }
+
+    @Test
+    @DisplayName("inheritedMethod_guardedByTheTypeLevelAnnotationOfEachSubclass")
+    void inheritedMethodIsCompiledPerTargetClass() throws Exception {
+        manager.precompile(UserPages.class);
+        manager.precompile(AdminPages.class);
+        SimpleMethodInvocation userPage = new SimpleMethodInvocation(new UserPages(), Pages.class.getMethod("page"));
+        SimpleMethodInvocation adminPage = new SimpleMethodInvocation(new AdminPages(), Pages.class.getMethod("page"));
+
+        assertTrue(manager.check(() -> user, userPage).isGranted());
+        assertFalse(manager.check(() -> user, adminPage).isGranted());
+        assertTrue(manager.check(() -> admin, adminPage).isGranted());
+    }
+
+    @Test
+    @DisplayName("decisions_areSharedInstances")
+    void decisionsAreNotAllocatedPerCall() throws Exception {
+        SimpleMethodInvocation invocation = invocation("user");
+        assertSame(manager.check(() -> user, invocation), manager.check(() -> admin, invocation));
+    }
+
+    private boolean isGranted(String method, Authentication authentication) throws Exception {
+        return manager.check(() -> authentication, invocation(method)).isGranted();
+    }
+
+    private SimpleMethodInvocation invocation(String method) throws NoSuchMethodException {
+        return new SimpleMethodInvocation(new Endpoints(), Endpoints.class.getMethod(method));
+    }
+
+    static class Endpoints {
+
+        @RoleCheck(Roles.ROLE_USER)
+        public void user() {
+        }
+
+        @RoleCheck(Roles.ROLE_ADMIN)
+        public void admin() {
+        }
+
+        @RoleCheck(value = {Roles.ROLE_USER, Roles.ROLE_ADMIN}, requireAll = true)
+        public void userAndAdmin() {
+        }
+
+        @RoleCheck(access = RoleCheck.Access.ANONYMOUS)
+        public void anonymousOnly() {
+        }
+
+        @RoleCheck(access = RoleCheck.Access.AUTHENTICATED)
+        public void authenticatedOnly() {
+        }
+    }
+
+    @RoleCheck(Roles.ROLE_ADMIN)
+    static class AdminEndpoints {
+
+        public void dashboard() {
+        }
+    }
+
+    static class Pages {
+
+        public void page() {
+        }
+    }
+
+    @RoleCheck(Roles.ROLE_USER)
+    static class UserPages extends Pages {
+    }
+
+    @RoleCheck(Roles.ROLE_ADMIN)
+    static class AdminPages extends Pages {
+    }
+}
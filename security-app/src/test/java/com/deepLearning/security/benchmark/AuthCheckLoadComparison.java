@@ -0,0 +1,52 @@
+package com.deepLearning.security.benchmark;
+
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.redis.EmbeddedRedis;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Measures the throughput of the gateway token check ({@code /internal/auth/check}, answered by
+ * {@link com.deepLearning.security.jwt.AuthCheckFilter}) against the same check done by a request through the
+ * Spring Security filter chain and Spring MVC ({@code /home/user}).
+ * <p>
+ * Both endpoints are served by one servlet application against an embedded Redis, with the load harness of
+ * {@link AuthStackLoadComparison}: {@code concurrency} requests in flight, a warm-up round of {@code requests}
+ * that is not reported, then a measured round. The check endpoint is enabled for the run; the load comes from the
+ * loopback address, which it accepts by default.
+ * <p>
+ * Run with (defaults: 256 concurrent requests, 50000 requests):
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.deepLearning.security.benchmark.AuthCheckLoadComparison 256 50000"
+ * </pre>
+ */
+public class AuthCheckLoadComparison {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        try (EmbeddedRedis redis = new EmbeddedRedis();
+             ConfigurableApplicationContext context =
+                     AuthStackLoadComparison.start(WebApplicationType.SERVLET, redis.getPort(),
+                             "--security.auth-check.enabled=true")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String accessToken = context.getBean(JwtTokenProvider.class).generateAccessToken(
+                    context.getBean(UserDetailsService.class).loadUserByUsername("john.doe"));
+
+            for (String[] endpoint : new String[][]{{"/internal/auth/check", "204"}, {"/home/user", "200"}}) {
+                int expectedStatus = Integer.parseInt(endpoint[1]);
+                AuthStackLoadComparison.run(port, endpoint[0], expectedStatus, accessToken, concurrency, requests);
+                AuthStackLoadComparison.Result result = AuthStackLoadComparison.run(port, endpoint[0],
+                        expectedStatus, accessToken, concurrency, requests);
+                System.out.printf("%-22s concurrency=%d requests=%d failed=%d throughput=%.0f req/s "
+                                + "p50=%.2f ms p99=%.2f ms%n",
+                        endpoint[0], concurrency, requests, result.failed(), result.throughput(),
+                        result.percentileMillis(0.50), result.percentileMillis(0.99));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.deepLearning.security.benchmark;
+
+import com.deepLearning.security.SecurityDeepLearningApplication;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.redis.EmbeddedRedis;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the same load against the servlet and the reactive security stack and prints throughput and latency.
+ * <p>
+ * Each stack is started in turn against an embedded Redis and the in-memory database. The load is
+ * {@code concurrency} requests in flight at any time to {@code /home/user} with a valid access token, so every
+ * request goes through token verification, the Redis revocation check and the user lookup. The first
+ * {@code requests} are a warm-up and are not reported.
+ * <p>
+ * Run with (defaults: 256 concurrent requests, 20000 requests):
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.deepLearning.security.benchmark.AuthStackLoadComparison 256 20000"
+ * </pre>
+ */
+public class AuthStackLoadComparison {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        try (EmbeddedRedis redis = new EmbeddedRedis()) {
+            for (WebApplicationType type : new WebApplicationType[]{WebApplicationType.SERVLET, WebApplicationType.REACTIVE}) {
+                try (ConfigurableApplicationContext context = start(type, redis.getPort())) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    String accessToken = context.getBean(JwtTokenProvider.class).generateAccessToken(
+                            context.getBean(UserDetailsService.class).loadUserByUsername("john.doe"));
+
+                    run(port, "/home/user", 200, accessToken, concurrency, requests);
+                    Result result = run(port, "/home/user", 200, accessToken, concurrency, requests);
+                    System.out.printf("%-8s concurrency=%d requests=%d failed=%d throughput=%.0f req/s "
+                                    + "p50=%.2f ms p99=%.2f ms%n",
+                            type, concurrency, requests, result.failed, result.throughput(),
+                            result.percentileMillis(0.50), result.percentileMillis(0.99));
+                }
+                redis.flush();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType type, int redisPort, String... extraArgs) {
+        SpringApplication application = new SpringApplication(SecurityDeepLearningApplication.class);
+        application.setWebApplicationType(type);
+        String[] args = {
+                "--spring.profiles.active=dev",
+                "--spring.datasource.url=jdbc:h2:mem:" + type.name().toLowerCase(),
+                "--server.port=0",
+                "--spring.data.redis.port=" + redisPort,
+                "--spring.docker.compose.enabled=false",
+                "--oauth2.google.client-id=benchmark",
+                "--oauth2.google.client-secret=benchmark",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql=WARN",
+                "--logging.level.org.springframework.jdbc.core=WARN",
+                "--logging.level.org.springframework.transaction=WARN"};
+        String[] all = Arrays.copyOf(args, args.length + extraArgs.length);
+        System.arraycopy(extraArgs, 0, all, args.length, extraArgs.length);
+        return application.run(all);
+    }
+
+    static Result run(int port, String path, int expectedStatus, String accessToken, int concurrency, int requests)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder().executor(executor).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+
+        long[] latencies = new long[requests];
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != expectedStatus) {
+                            failed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).exceptionally(error -> null).join();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return new Result(latencies, elapsed, failed.get());
+    }
+
+    record Result(long[] latencies, long elapsedNanos, int failed) {
+
+        double throughput() {
+            return latencies.length * 1e9 / elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.deepLearning.security.benchmark;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.configuration.RevocationCheckProperties.DegradedMode;
+import com.deepLearning.security.dto.BatchRevocationRequest;
+import com.deepLearning.security.dto.BatchRevocationResult;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.jwt.TestTokens;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.redis.EmbeddedRedis;
+import com.deepLearning.security.redis.ResilientRevocationLookup;
+import com.deepLearning.security.redis.RevokedTokenServiceImpl;
+import com.deepLearning.security.redis.ShardedRevocationStore;
+import com.deepLearning.security.revocation.RevocationBroadcast;
+import com.deepLearning.security.revocation.RevocationIndex;
+import com.deepLearning.security.verifier.TokenClaims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of revoking tokens in a batch against an embedded Redis, in tokens per second.
+ * <p>
+ * {@code oneByOne} verifies each token and writes its blacklist entry in a round trip of its own, as a loop over
+ * the single-token logout would; {@code batch} goes through {@link RevokedTokenServiceImpl#revokeTokens}, which
+ * verifies the tokens in parallel and writes them all in one pipelined round trip.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main BatchRevocationBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchRevocationBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private EmbeddedRedis redis;
+    private JwtTokenProvider jwtTokenProvider;
+    private RevokedTokenServiceImpl service;
+    private List<String> tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redis = new EmbeddedRedis();
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        JwtProperties properties = new JwtProperties();
+        properties.setAccessTokenTtl(Duration.ofHours(1));
+        jwtTokenProvider = TestTokens.provider(key, properties);
+        ResilientRevocationLookup lookup = new ResilientRevocationLookup(
+                token -> Boolean.TRUE.equals(redis.getTemplate().hasKey(token)), DegradedMode.FAIL_CLOSED,
+                5, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        service = new RevokedTokenServiceImpl(redis.getTemplate(), jwtTokenProvider, lookup,
+                beans.getBeanProvider(RevocationBroadcast.class), beans.getBeanProvider(ShardedRevocationStore.class),
+                beans.getBeanProvider(RevocationIndex.class));
+        tokens = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tokens.add(jwtTokenProvider.generateAccessToken(
+                    User.withUsername("user" + i).password("x").authorities(Roles.ROLE_USER).build()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redis.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int oneByOne() {
+        long now = System.currentTimeMillis();
+        for (String token : tokens) {
+            TokenClaims claims = jwtTokenProvider.parseToken(token);
+            redis.getTemplate().opsForValue().set(token, "access_token_revoked",
+                    claims.expiresAtMillis() - now, TimeUnit.MILLISECONDS);
+        }
+        return tokens.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchRevocationResult batch() {
+        return service.revokeTokens(new BatchRevocationRequest(tokens, List.of()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.deepLearning.security.benchmark;
+
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.verifier.ClaimProfile;
+import com.deepLearning.security.verifier.Hs256TokenCodec;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares signing and verifying an access token with jjwt against the specialized {@link Hs256TokenCodec}.
+ * <p>
+ * The jjwt variants are what {@code JwtTokenProvider} did before the codec: a builder per token and a parser
+ * per verification. {@code jjwtCachedParserVerify} isolates the gain of the codec from merely reusing the parser.
+ * The {@code Compact} variants use the {@link ClaimProfile#COMPACT compact} claim profile.
+ * Run with {@code -prof gc} to compare allocation rates.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtCodecBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtCodecBenchmark {
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(key.getEncoded(), List.of("ROLE_USER", "ROLE_ADMIN"));
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
+    private final List<Roles> roles = List.of(Roles.ROLE_USER);
+    private final List<String> authorities = List.of("ROLE_USER");
+
+    private long issuedAt;
+    private long expiresAt;
+    private String token;
+    private String compactToken;
+
+    @Setup
+    public void setUp() {
+        issuedAt = System.currentTimeMillis() / 1000L;
+        expiresAt = issuedAt + 3600;
+        token = codec.sign("john.doe@example.com", issuedAt, expiresAt, TokenType.ACCESS, authorities);
+        compactToken = codec.sign(ClaimProfile.COMPACT, "john.doe@example.com", issuedAt, expiresAt,
+                TokenType.ACCESS, authorities);
+    }
+
+    @Benchmark
+    public String jjwtSign() {
+        return Jwts.builder().subject("john.doe@example.com")
+                .issuedAt(new Date(issuedAt * 1000L))
+                .expiration(new Date(expiresAt * 1000L))
+                .claim("token_type", "accessToken")
+                .claim("authorities", roles)
+                .signWith(key)
+                .compact();
+    }
+
+    @Benchmark
+    public String codecSign() {
+        return codec.sign("john.doe@example.com", issuedAt, expiresAt, TokenType.ACCESS, authorities);
+    }
+
+    @Benchmark
+    public Claims jjwtVerify() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims jjwtCachedParserVerify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public TokenClaims codecVerify() {
+        return codec.verify(token);
+    }
+
+    @Benchmark
+    public String codecSignCompact() {
+        return codec.sign(ClaimProfile.COMPACT, "john.doe@example.com", issuedAt, expiresAt, TokenType.ACCESS,
+                authorities);
+    }
+
+    @Benchmark
+    public TokenClaims codecVerifyCompact() {
+        return codec.verify(compactToken);
+    }
+}
@@ -0,0 +1,70 @@
+package com.deepLearning.security.benchmark;
+
+import com.deepLearning.security.rateLimit.LocalRateLimiter;
+import com.deepLearning.security.rateLimit.RateLimitDecision;
+import com.deepLearning.security.rateLimit.RateLimitRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-check overhead of the {@link LocalRateLimiter}.
+ * <p>
+ * {@code hotKey} hits a single bucket from four threads, the worst case for the compare-and-set loop;
+ * {@code spreadKeys} cycles through more keys than the limiter keeps, so it includes the cost of eviction.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RateLimiterBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private final RateLimitRule rule = RateLimitRule.of(1_000_000, Duration.ofSeconds(1));
+    private final LocalRateLimiter limiter = new LocalRateLimiter(10_000, 64);
+
+    private String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        keys = new String[16_384];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "ip:10.0." + (i >> 8) + '.' + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public RateLimitDecision hotKey() {
+        return limiter.tryAcquire("ip:10.0.0.1", rule);
+    }
+
+    @Benchmark
+    public RateLimitDecision spreadKeys(Cursor cursor) {
+        String key = keys[cursor.next++ & (keys.length - 1)];
+        return limiter.tryAcquire(key, rule);
+    }
+}
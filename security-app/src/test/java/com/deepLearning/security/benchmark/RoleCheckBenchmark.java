@@ -0,0 +1,89 @@
+package com.deepLearning.security.benchmark;
+
+import com.deepLearning.security.authorization.RoleCheck;
+import com.deepLearning.security.authorization.RoleCheckAuthorizationManager;
+import com.deepLearning.security.model.Roles;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares a SpEL {@code @PreAuthorize("hasRole('USER')")} decision with the compiled {@link RoleCheck} decision.
+ * <p>
+ * Both managers are called directly with the same authentication and an equivalent method, which isolates the
+ * cost of the decision itself from the rest of the interceptor chain.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RoleCheckBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleCheckBenchmark {
+
+    private final PreAuthorizeAuthorizationManager spelManager = new PreAuthorizeAuthorizationManager();
+    private final RoleCheckAuthorizationManager compiledManager = new RoleCheckAuthorizationManager();
+
+    private Supplier<Authentication> authentication;
+    private MethodInvocation spelInvocation;
+    private MethodInvocation compiledInvocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Authentication user = new UsernamePasswordAuthenticationToken(
+                "john.doe", null, List.of(Roles.ROLE_USER, Roles.ROLE_ADMIN));
+        authentication = () -> user;
+
+        Endpoints endpoints = new Endpoints();
+        spelInvocation = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("spel"));
+        compiledInvocation = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("compiled"));
+        compiledManager.precompile(Endpoints.class);
+    }
+
+    @Benchmark
+    public AuthorizationResult spelPreAuthorize() {
+        return spelManager.authorize(authentication, spelInvocation);
+    }
+
+    @Benchmark
+    public AuthorizationResult compiledRoleCheck() {
+        return compiledManager.authorize(authentication, compiledInvocation);
+    }
+
+    public static class Endpoints {
+
+        @PreAuthorize("hasRole('USER')")
+        public String spel() {
+            return "spel";
+        }
+
+        @RoleCheck(Roles.ROLE_USER)
+        public String compiled() {
+            return "compiled";
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.deepLearning.security.controllers;
 
 import com.deepLearning.security.dto.AuthCredentials;
 import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.rateLimit.AuthRateLimiter;
 import com.deepLearning.security.securityServices.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -21,7 +23,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -129,6 +133,54 @@ class AuthControllerTest {
         verifyNoMoreInteractions(authService);
     }
 
+    @Test
+    @DisplayName("signIn_carriesRateLimitHeaders")
+    @WithAnonymousUser
+    void signInResponsesCarryRateLimitHeaders() throws Exception {
+        when(authService.authenticate(any())).thenReturn(new TokensDto("accessToken", "refreshToken"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post(singInUrl)
+                        .with(request -> {
+                            request.setRemoteAddr("203.0.113.7");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthCredentials("rate.limited", "pass"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AuthRateLimiter.LIMIT_HEADER, "10"))
+                .andExpect(header().string(AuthRateLimiter.REMAINING_HEADER, "9"))
+                .andExpect(header().exists(AuthRateLimiter.RESET_HEADER));
+    }
 
+    @Test
+    @DisplayName("signIn_tooManyRequests_sameUsername")
+    @WithAnonymousUser
+    void getTooManyRequests_whenUsernameExceedsItsLimit() throws Exception {
+        when(authService.authenticate(any())).thenReturn(new TokensDto("accessToken", "refreshToken"));
+        String body = objectMapper.writeValueAsString(new AuthCredentials("Brute.Forced", "guess"));
+
+        for (int i = 0; i < 10; i++) {
+            int address = i;
+            mockMvc.perform(MockMvcRequestBuilders.post(singInUrl)
+                            .with(request -> {
+                                request.setRemoteAddr("198.51.100." + address);
+                                return request;
+                            })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.post(singInUrl)
+                        .with(request -> {
+                            request.setRemoteAddr("198.51.100.200");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthCredentials("brute.forced", "guess"))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(AuthRateLimiter.REMAINING_HEADER, "0"))
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
 
+        verify(authService, times(10)).authenticate(any());
+    }
 }
@@ -0,0 +1,54 @@
+package com.deepLearning.security.controllers;
+
+import com.deepLearning.security.configuration.IntrospectionProperties;
+import com.deepLearning.security.dto.IntrospectionRequest;
+import com.deepLearning.security.securityServices.TokenIntrospectionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IntrospectionControllerTest {
+
+    private final TokenIntrospectionService tokenIntrospectionService = mock(TokenIntrospectionService.class);
+    private final IntrospectionProperties properties = new IntrospectionProperties();
+
+    @Test
+    @DisplayName("callerOutsideNetworksOrWithoutSecret_forbidden")
+    void refusesCallersOtherThanTheResourceServers() {
+        properties.setSharedSecret("client-secret");
+        when(tokenIntrospectionService.introspect(any())).thenReturn(List.of());
+        when(tokenIntrospectionService.cacheDuration(any())).thenReturn(Duration.ZERO);
+        IntrospectionController controller = new IntrospectionController(tokenIntrospectionService, properties);
+
+        assertEquals(403, introspect(controller, "10.1.2.3", null));
+        assertEquals(403, introspect(controller, "10.1.2.3", "wrong"));
+        assertEquals(403, introspect(controller, "203.0.113.7", "client-secret"));
+        assertEquals(200, introspect(controller, "10.1.2.3", "client-secret"));
+    }
+
+    @Test
+    @DisplayName("noSharedSecret_everyCallerForbidden")
+    void refusesEveryCallerUntilASecretIsSet() {
+        IntrospectionController controller = new IntrospectionController(tokenIntrospectionService, properties);
+
+        assertEquals(403, introspect(controller, "127.0.0.1", null));
+        assertEquals(403, introspect(controller, "127.0.0.1", ""));
+        verifyNoInteractions(tokenIntrospectionService);
+    }
+
+    private int introspect(IntrospectionController controller, String remoteAddress, String secret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/introspect");
+        request.setRemoteAddr(remoteAddress);
+        return controller.introspect(new IntrospectionRequest(List.of("token")), secret, request)
+                .getStatusCode().value();
+    }
+}
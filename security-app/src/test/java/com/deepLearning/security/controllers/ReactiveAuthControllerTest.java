@@ -0,0 +1,134 @@
+package com.deepLearning.security.controllers;
+
+import com.deepLearning.security.dto.AuthCredentials;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.redis.EmbeddedRedis;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.repositories.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ReactiveAuthControllerTest {
+
+    private static final EmbeddedRedis redis = new EmbeddedRedis();
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.port", redis::getPort);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private RevokedTokenService revokedTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("signIn_thenAccessProtectedEndpoint")
+    void signsInAndUsesTheAccessToken() {
+        TokensDto tokens = webTestClient.post().uri("/api/auth/sign-in")
+                .bodyValue(new AuthCredentials("john.doe", "securePassword"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("RateLimit-Remaining")
+                .expectBody(TokensDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(tokens);
+
+        webTestClient.get().uri("/home/admin")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.accessToken())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("wrongPassword_status401")
+    void rejectsWrongCredentials() {
+        webTestClient.post().uri("/api/auth/sign-in")
+                .bodyValue(new AuthCredentials("john.doe", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("missingOrInvalidToken_status401")
+    void rejectsRequestsWithoutValidAccessToken() {
+        UserDetails john = userDetailsService.loadUserByUsername("john.doe");
+
+        webTestClient.get().uri("/home/user")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/home/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not.a.token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/home/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenProvider.generateRefreshToken(john, "f", "t"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("revokedToken_status401")
+    void rejectsRevokedAccessTokens() {
+        UserDetails john = userDetailsService.loadUserByUsername("john.doe");
+        String accessToken = tokenProvider.generateAccessToken(john);
+        String refreshToken = tokenProvider.generateRefreshToken(john, "f", "t");
+
+        webTestClient.get().uri("/home/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isOk();
+
+        revokedTokenService.revokeToken(new TokensDto(accessToken, refreshToken));
+
+        webTestClient.get().uri("/home/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("userOnAdminEndpoint_status403")
+    void forbidsAdminEndpointForUsers() {
+        User plain = userRepository.save(new User("plain.user", "x", null, Set.of(Roles.ROLE_USER)));
+        String accessToken = tokenProvider.generateAccessToken(plain);
+
+        webTestClient.get().uri("/home/admin")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+}
@@ -0,0 +1,133 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.AuthCheckProperties;
+import com.deepLearning.security.configuration.RejectionProperties;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthCheckFilterTest {
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final JwtTokenProvider tokenProvider = TestTokens.provider(key);
+    private final RevokedTokenService revokedTokenService = mock(RevokedTokenService.class);
+    private final RejectionLog rejectionLog = new RejectionLog(new RejectionProperties());
+    private final UserDetails user = User.withUsername("john.doe").password("x")
+            .authorities(Roles.ROLE_USER, Roles.ROLE_ADMIN).build();
+    private final UserDetails disabled = User.withUsername("jane.doe").password("x")
+            .authorities(Roles.ROLE_USER).disabled(true).build();
+    private final UserDetailsService userDetailsService = new InMemoryUserDetailsManager(user, disabled);
+    private final AuthCheckProperties properties = new AuthCheckProperties();
+    private AuthCheckFilter filter = filter();
+
+    @Test
+    @DisplayName("validAccessToken_noContentWithIdentityHeaders")
+    void answersValidTokensWithIdentityHeaders() {
+        String token = tokenProvider.generateAccessToken(user);
+
+        MockHttpServletResponse response = check("Bearer " + token);
+
+        assertEquals(204, response.getStatus());
+        assertEquals("john.doe", response.getHeader(AuthCheckFilter.USER_HEADER));
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                List.of(response.getHeader(AuthCheckFilter.ROLES_HEADER).split(",")).stream().sorted().toList());
+        assertEquals(Long.toString(tokenProvider.parseToken(token).expiresAt()),
+                response.getHeader(AuthCheckFilter.EXPIRES_HEADER));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("missingInvalidRefreshOrRevokedToken_unauthorizedWithoutBody")
+    void rejectsEverythingButValidAccessTokens() {
+        String revoked = tokenProvider.generateAccessToken(user);
+        when(revokedTokenService.isTokenRevoked(eq(revoked), any())).thenReturn(true);
+
+        for (String authorization : new String[]{null, "Basic am9objp4", "Bearer not-a-token",
+                "Bearer " + tokenProvider.generateRefreshToken(user, "f1", "t1"), "Bearer " + revoked}) {
+            MockHttpServletResponse response = check(authorization);
+
+            assertEquals(401, response.getStatus(), String.valueOf(authorization));
+            assertEquals("Bearer", response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+            assertNull(response.getHeader(AuthCheckFilter.USER_HEADER));
+            assertEquals(0, response.getContentAsByteArray().length);
+        }
+        assertEquals(1, rejectionLog.pending(TokenRejectedException.Reason.REVOKED));
+        assertEquals(1, rejectionLog.pending(TokenRejectedException.Reason.WRONG_TOKEN_TYPE));
+    }
+
+    @Test
+    @DisplayName("disabledUser_unauthorizedDespiteValidToken")
+    void rejectsTokensOfInactiveUsers() {
+        // the first rejection of a new log flushes its window
+        check(null);
+
+        MockHttpServletResponse response = check("Bearer " + tokenProvider.generateAccessToken(disabled));
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer", response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertNull(response.getHeader(AuthCheckFilter.USER_HEADER));
+        assertNull(response.getHeader(AuthCheckFilter.ROLES_HEADER));
+        assertEquals(1, rejectionLog.pending(TokenRejectedException.Reason.ACCESS_DENIED));
+    }
+
+    @Test
+    @DisplayName("callerOutsideNetworksOrWithoutSecret_forbidden")
+    void refusesCallersOtherThanTheProxy() {
+        String token = "Bearer " + tokenProvider.generateAccessToken(user);
+        properties.setSharedSecret("proxy-secret");
+        filter = filter();
+
+        assertEquals(403, check(token, "127.0.0.1", null).getStatus());
+        assertEquals(403, check(token, "127.0.0.1", "wrong").getStatus());
+        assertEquals(403, check(token, "203.0.113.7", "proxy-secret").getStatus());
+        assertEquals(204, check(token, "10.1.2.3", "proxy-secret").getStatus());
+    }
+
+    private AuthCheckFilter filter() {
+        return new AuthCheckFilter(tokenProvider, revokedTokenService,
+                new TokenSanityGate(4096, List.of("HS256"), List.of("k1")), rejectionLog, userDetailsService,
+                properties);
+    }
+
+    private MockHttpServletResponse check(String authorization) {
+        return check(authorization, "127.0.0.1", null);
+    }
+
+    private MockHttpServletResponse check(String authorization, String remoteAddress, String secret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/auth/check");
+        request.setRemoteAddr(remoteAddress);
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        if (secret != null) {
+            request.addHeader(AuthCheckFilter.SECRET_HEADER, secret);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertNull(chain.getRequest(), "the check must not continue the chain");
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.deepLearning.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class JwtAuthFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    private final String userUrl = "/home/user";
+    private final String adminUrl = "/home/admin";
+
+    @Test
+    @DisplayName("garbageToken_rejectedWithPreRenderedBody")
+    void getUnauthorized_whenTokenIsGarbage() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(userUrl)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"))
+                .andExpect(content().json("{\"status\":401,\"error\":\"Unauthorized\"}"))
+                .andReturn();
+
+        assertNull(result.getResponse().getErrorMessage(), "sendError must not be used in fast mode");
+    }
+
+    @Test
+    @DisplayName("missingToken_onProtectedEndpoint_unauthorized")
+    void getUnauthorized_whenNoTokenOnProtectedEndpoint() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(userUrl))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().json("{\"status\":401,\"error\":\"Unauthorized\"}"))
+                .andReturn();
+
+        assertNull(result.getResponse().getErrorMessage());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    @DisplayName("missingRole_forbiddenWithPreRenderedBody")
+    void getForbidden_whenUserLacksRole() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(adminUrl))
+                .andExpect(status().isForbidden())
+                .andExpect(content().json("{\"status\":403,\"error\":\"Forbidden\"}"))
+                .andReturn();
+
+        assertNull(result.getResponse().getErrorMessage());
+    }
+}
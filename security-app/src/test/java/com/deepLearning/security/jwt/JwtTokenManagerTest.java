@@ -0,0 +1,154 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.configuration.UserCacheProperties;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.redis.EmbeddedRedis;
+import com.deepLearning.security.redis.RefreshTokenFamilyServiceImpl;
+import com.deepLearning.security.userServices.LocalUserCache;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtTokenManagerTest {
+
+    private static EmbeddedRedis redis;
+
+    private final AtomicInteger userLoads = new AtomicInteger();
+    private UserDetails user = User.withUsername("john.doe").password("x").authorities(Roles.ROLE_USER).build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtTokenProvider provider;
+    private JwtTokenManager manager;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        provider = TestTokens.provider(key);
+        manager = manager(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("refresh_rotatesWithinFamily")
+    void refreshIssuesTheNextTokenOfTheFamily() {
+        TokensDto first = manager.issueTokens(user);
+        TokensDto second = manager.manageTokens(first);
+        TokensDto third = manager.manageTokens(second);
+
+        TokenClaims firstClaims = provider.parseToken(first.refreshToken());
+        TokenClaims thirdClaims = provider.parseToken(third.refreshToken());
+        assertEquals(firstClaims.familyId(), thirdClaims.familyId());
+        assertNotEquals(firstClaims.tokenId(), thirdClaims.tokenId());
+        assertEquals(TokenType.ACCESS, provider.parseToken(third.accessToken()).type());
+        assertEquals(1, userLoads.get(), "user is loaded once and then served from the cache");
+    }
+
+    @Test
+    @DisplayName("refresh_reuseRevokesFamily")
+    void reusingAConsumedTokenRevokesTheFamily() {
+        TokensDto first = manager.issueTokens(user);
+        TokensDto second = manager.manageTokens(first);
+
+        assertReason(TokenRejectedException.Reason.REVOKED, first);
+        assertReason(TokenRejectedException.Reason.REVOKED, second);
+    }
+
+    @Test
+    @DisplayName("refresh_rejectsAccessTokensAndLockedUsers")
+    void rejectsWrongTokensAndLockedUsers() {
+        TokensDto tokens = manager.issueTokens(user);
+        assertReason(TokenRejectedException.Reason.WRONG_TOKEN_TYPE, new TokensDto(null, tokens.accessToken()));
+
+        user = User.withUsername("john.doe").password("x").authorities(Roles.ROLE_USER).accountLocked(true).build();
+        manager = manager(Duration.ZERO);
+        assertReason(TokenRejectedException.Reason.REVOKED, tokens);
+    }
+
+    @Test
+    @DisplayName("refresh_concurrentRepeatsShareOneRotation")
+    void concurrentRefreshesWithTheSameTokenGetTheSamePair() throws Exception {
+        manager = manager(Duration.ofSeconds(10));
+        TokensDto first = manager.issueTokens(user);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TokensDto>> results = executor.invokeAll(
+                    Collections.nCopies(16, (Callable<TokensDto>) () -> manager.manageTokens(first)));
+
+            Set<TokensDto> distinct = new HashSet<>();
+            for (Future<TokensDto> result : results) {
+                distinct.add(result.get());
+            }
+            assertEquals(1, distinct.size());
+            assertEquals(15, meterRegistry.counter("auth.refresh", "outcome", "deduplicated_local").count()
+                    + meterRegistry.counter("auth.refresh", "outcome", "deduplicated_grace").count());
+            assertEquals(1, meterRegistry.counter("auth.refresh", "outcome", "rotated").count());
+            assertNotNull(manager.manageTokens(distinct.iterator().next()).refreshToken(), "the shared pair is live");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("refresh_repeatOnOtherNodeWithinGrace")
+    void repeatedRefreshOnAnotherNodeGetsTheSamePair() {
+        manager = manager(Duration.ofSeconds(10));
+        JwtTokenManager otherNode = manager(Duration.ofSeconds(10));
+        TokensDto first = manager.issueTokens(user);
+
+        TokensDto second = manager.manageTokens(first);
+
+        assertEquals(second, otherNode.manageTokens(first));
+        assertEquals(1, meterRegistry.counter("auth.refresh", "outcome", "deduplicated_grace").count());
+    }
+
+    private JwtTokenManager manager(Duration gracePeriod) {
+        JwtProperties properties = new JwtProperties();
+        properties.setRefreshGracePeriod(gracePeriod);
+        return new JwtTokenManager(provider, username -> {
+            userLoads.incrementAndGet();
+            return user;
+        }, new LocalUserCache(new UserCacheProperties()), new RefreshTokenFamilyServiceImpl(redis.getTemplate()),
+                properties, meterRegistry);
+    }
+
+    private void assertReason(TokenRejectedException.Reason reason, TokensDto tokens) {
+        assertEquals(reason, assertThrows(TokenRejectedException.class, () -> manager.manageTokens(tokens)).getReason());
+    }
+}
@@ -0,0 +1,100 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.verifier.ClaimProfile;
+import com.deepLearning.security.verifier.Hs256TokenCodec;
+import com.deepLearning.security.verifier.TokenClaims;
+import com.deepLearning.security.verifier.TokenRejectedException;
+import com.deepLearning.security.verifier.TokenSanityGate;
+import com.deepLearning.security.verifier.TokenType;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenProviderTest {
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(key.getEncoded(), List.of("ROLE_USER", "ROLE_ADMIN"));
+    private final TokenSanityGate gate = new TokenSanityGate(4096, List.of("HS256"), List.of("k1"));
+
+    private final UserDetails user = User.withUsername("john.doe").password("x")
+            .authorities(Roles.ROLE_USER, Roles.ROLE_ADMIN).build();
+
+    @Test
+    @DisplayName("bothProfiles_areReadDuringRollover")
+    void readsTokensOfEitherProfile() {
+        JwtTokenProvider legacy = provider(ClaimProfile.LEGACY);
+        JwtTokenProvider compact = provider(ClaimProfile.COMPACT);
+
+        for (JwtTokenProvider issuer : List.of(legacy, compact)) {
+            for (JwtTokenProvider reader : List.of(legacy, compact)) {
+                TokenClaims access = reader.parseToken(issuer.generateAccessToken(user));
+                assertEquals("john.doe", access.subject());
+                assertEquals(TokenType.ACCESS, access.type());
+                assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), access.authorities().stream().sorted().toList());
+                TokenClaims refresh = reader.parseToken(issuer.generateRefreshToken(user, "f1", "t1"));
+                assertEquals(TokenType.REFRESH, refresh.type());
+                assertEquals("f1", refresh.familyId());
+                assertEquals("t1", refresh.tokenId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("compactToken_readByJjwtFallback")
+    void readsCompactTokensOnTheFallbackPath() {
+        long now = System.currentTimeMillis();
+        String withKid = Jwts.builder().header().keyId("k1").and()
+                .subject("john.doe").issuedAt(new Date(now)).expiration(new Date(now + 60000))
+                .claim("v", 1).claim("t", 0).claim("r", 2)
+                .signWith(key, Jwts.SIG.HS256).compact();
+        String unknownVersion = Jwts.builder().header().keyId("k1").and()
+                .subject("john.doe").expiration(new Date(now + 60000)).claim("v", 2)
+                .signWith(key, Jwts.SIG.HS256).compact();
+
+        TokenClaims claims = provider(ClaimProfile.COMPACT).parseToken(withKid);
+
+        assertEquals(List.of("ROLE_ADMIN"), claims.authorities());
+        assertEquals(TokenType.ACCESS, claims.type());
+        assertEquals(TokenRejectedException.Reason.INVALID, assertThrows(TokenRejectedException.class,
+                () -> provider(ClaimProfile.COMPACT).parseToken(unknownVersion)).getReason());
+    }
+
+    @Test
+    @DisplayName("lifetimes_areJitteredDownwards")
+    void spreadsExpiriesWithinTheJitterRange() {
+        JwtProperties properties = new JwtProperties();
+        properties.setAccessTokenTtl(Duration.ofMinutes(10));
+        properties.setTtlJitter(0.2);
+        JwtTokenProvider provider = new JwtTokenProvider(gate, codec, key, properties);
+
+        Set<Long> lifetimes = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            TokenClaims claims = provider.parseToken(provider.generateAccessToken(user));
+            long lifetime = claims.expiresAt() - claims.issuedAt();
+            assertTrue(lifetime >= 479 && lifetime <= 600, "lifetime " + lifetime);
+            lifetimes.add(lifetime);
+        }
+        assertTrue(lifetimes.size() > 1, "expiries are spread");
+    }
+
+    private JwtTokenProvider provider(ClaimProfile profile) {
+        JwtProperties properties = new JwtProperties();
+        properties.setClaimProfile(profile);
+        return new JwtTokenProvider(gate, codec, key, properties);
+    }
+}
@@ -0,0 +1,55 @@
+package com.deepLearning.security.jwt;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.verifier.Hs256TokenCodec;
+import com.deepLearning.security.verifier.TokenIdSequence;
+import com.deepLearning.security.verifier.TokenSanityGate;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+/**
+ * TestTokens builds the {@link JwtTokenProvider} of the tests: HS256 only, key id {@code k1}, and the roles
+ * {@code ROLE_USER} and {@code ROLE_ADMIN}.
+ */
+public final class TestTokens {
+
+    private TestTokens() {
+    }
+
+    /**
+     * Returns a provider signing with the given key, with the default {@link JwtProperties}.
+     *
+     * @param key the signing key.
+     * @return the provider.
+     */
+    public static JwtTokenProvider provider(SecretKey key) {
+        return provider(key, new JwtProperties());
+    }
+
+    /**
+     * Returns a provider signing with the given key.
+     *
+     * @param key        the signing key.
+     * @param properties the token properties.
+     * @return the provider.
+     */
+    public static JwtTokenProvider provider(SecretKey key, JwtProperties properties) {
+        return provider(key, properties, null);
+    }
+
+    /**
+     * Returns a provider signing with the given key and issuing access tokens with sequence-numbered ids.
+     *
+     * @param key             the signing key.
+     * @param properties      the token properties.
+     * @param tokenIdSequence the token id sequence, or {@code null} for random ids.
+     * @return the provider.
+     */
+    public static JwtTokenProvider provider(SecretKey key, JwtProperties properties, TokenIdSequence tokenIdSequence) {
+        return new JwtTokenProvider(
+                new TokenSanityGate(4096, List.of("HS256"), List.of("k1")),
+                new Hs256TokenCodec(key.getEncoded(), List.of("ROLE_USER", "ROLE_ADMIN")),
+                key, properties, tokenIdSequence);
+    }
+}
@@ -0,0 +1,66 @@
+package com.deepLearning.security.rateLimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RateLimitRule rule = RateLimitRule.of(3, Duration.ofSeconds(3));
+
+    @Test
+    @DisplayName("burstThenRefill")
+    void allowsABurstAndRefillsOneTokenPerInterval() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, 4, clock::get);
+
+        assertEquals(2, limiter.tryAcquire("k", rule).remaining());
+        assertEquals(1, limiter.tryAcquire("k", rule).remaining());
+        assertEquals(0, limiter.tryAcquire("k", rule).remaining());
+        RateLimitDecision denied = limiter.tryAcquire("k", rule);
+        assertFalse(denied.allowed());
+        assertEquals(1, denied.retryAfterSeconds());
+        assertEquals(3, denied.resetSeconds());
+        assertTrue(limiter.tryAcquire("other", rule).allowed(), "buckets are per key");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire("k", rule).allowed());
+        assertFalse(limiter.tryAcquire("k", rule).allowed());
+    }
+
+    @Test
+    @DisplayName("eviction_boundsMemory")
+    void keepsTheNumberOfBucketsBounded() {
+        LocalRateLimiter limiter = new LocalRateLimiter(64, 4, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("k" + i, rule);
+        }
+        assertTrue(limiter.size() <= 64, "size " + limiter.size());
+    }
+
+    @Test
+    @DisplayName("eviction_dropsIdleBucketsFirst")
+    void idleBucketsAreEvictedBeforeBusyOnes() {
+        LocalRateLimiter limiter = new LocalRateLimiter(4, 1, clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("idle" + i, rule);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("busy", rule);
+        }
+
+        limiter.tryAcquire("new", rule);
+
+        assertEquals(2, limiter.size());
+        assertFalse(limiter.tryAcquire("busy", rule).allowed(), "busy bucket kept its state");
+    }
+}
@@ -0,0 +1,90 @@
+package com.deepLearning.security.rateLimit;
+
+import com.deepLearning.security.redis.EmbeddedRedis;
+import com.deepLearning.security.redis.LatencyProxy;
+import io.lettuce.core.RedisURI;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisRateLimiterTest {
+
+    private static EmbeddedRedis redis;
+
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+
+    private final RateLimitRule rule = RateLimitRule.of(3, Duration.ofMinutes(1));
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+    }
+
+    @Test
+    @DisplayName("limitIsSharedByNodes")
+    void nodesShareTheBuckets() {
+        try (RedisRateLimiter first = limiter(redis.getPort());
+             RedisRateLimiter second = limiter(redis.getPort())) {
+            assertEquals(2, first.tryAcquire("ip:1", rule).remaining());
+            assertEquals(1, second.tryAcquire("ip:1", rule).remaining());
+            assertTrue(first.tryAcquire("ip:1", rule).allowed());
+            RateLimitDecision denied = second.tryAcquire("ip:1", rule);
+
+            assertFalse(denied.allowed());
+            assertEquals(20, denied.retryAfterSeconds());
+        }
+        Long ttl = redis.getTemplate().getExpire(RedisRateLimiter.KEY_PREFIX + "ip:1");
+        assertTrue(ttl > 0 && ttl <= 60, "bucket expires once it is full again");
+    }
+
+    @Test
+    @DisplayName("redisDown_usesFallback")
+    void fallsBackToTheLocalLimiter() {
+        try (RedisRateLimiter limiter = limiter(1)) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(limiter.tryAcquire("ip:1", rule).allowed());
+            }
+            assertFalse(limiter.tryAcquire("ip:1", rule).allowed());
+        }
+    }
+
+    @Test
+    @DisplayName("redisSlow_usesFallbackAfterTimeout")
+    void slowRedisCostsAtMostTheTimeout() {
+        try (LatencyProxy proxy = new LatencyProxy(redis.getPort());
+             RedisRateLimiter limiter = limiter(proxy.getPort())) {
+            assertTrue(limiter.tryAcquire("ip:1", rule).allowed());
+            proxy.setLatencyMillis(2_000);
+
+            long start = System.nanoTime();
+            RateLimitDecision decision = limiter.tryAcquire("ip:2", rule);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(decision.allowed());
+            assertEquals(2, decision.remaining(), "answered by the local limiter");
+            assertTrue(elapsedMillis < 1_000, "waited " + elapsedMillis + " ms");
+        }
+    }
+
+    private static RedisRateLimiter limiter(int port) {
+        return new RedisRateLimiter(RedisURI.create("localhost", port), TIMEOUT, new LocalRateLimiter(100, 1));
+    }
+}
@@ -0,0 +1,59 @@
+package com.deepLearning.security.redis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    @Test
+    @DisplayName("keys_spreadEvenly")
+    void spreadsKeysEvenly() {
+        ConsistentHashRing<String> ring = ring("a", "b", "c");
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("eyJhbGciOiJIUzI1NiJ9." + UUID.randomUUID()), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 * 0.15, "count " + count));
+    }
+
+    @Test
+    @DisplayName("addedNode_onlyTakesItsShare")
+    void movesOnlyTheKeysOfTheAddedNode() {
+        ConsistentHashRing<String> before = ring("a", "b", "c");
+        ConsistentHashRing<String> after = before.with("d", "d");
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = UUID.randomUUID().toString();
+            String owner = after.nodeFor(key);
+            if (!owner.equals(before.nodeFor(key))) {
+                assertEquals("d", owner, "keys only move to the new node");
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 4 * 0.2, "moved " + moved);
+        assertEquals(before.nodeFor("k"), after.without("d").nodeFor("k"));
+    }
+
+    private static ConsistentHashRing<String> ring(String... names) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (String name : names) {
+            nodes.put(name, name);
+        }
+        return new ConsistentHashRing<>(nodes, 160);
+    }
+}
@@ -0,0 +1,93 @@
+package com.deepLearning.security.redis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Test helper that forwards TCP connections to a local port, delaying every request by a configurable latency.
+ * Put it between a client and {@link EmbeddedRedis} to simulate a slow Redis.
+ */
+public final class LatencyProxy implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final int targetPort;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private volatile long latencyMillis;
+
+    public LatencyProxy(int targetPort) {
+        this.targetPort = targetPort;
+        try {
+            this.serverSocket = new ServerSocket(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread acceptor = new Thread(this::accept, "latency-proxy");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Sets the delay added to every chunk of data sent to the target.
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket target = new Socket("localhost", targetPort);
+                sockets.add(client);
+                sockets.add(target);
+                pipe(client, target, true);
+                pipe(target, client, false);
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void pipe(Socket from, Socket to, boolean delayed) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    long latency = latencyMillis;
+                    if (delayed && latency > 0) {
+                        Thread.sleep(latency);
+                    }
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // connection closed
+            }
+        }, "latency-proxy-pipe");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,76 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.LoginAttemptProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisLoginAttemptServiceTest {
+
+    private static EmbeddedRedis redis;
+
+    private final LoginAttemptProperties properties = new LoginAttemptProperties();
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+    }
+
+    @Test
+    @DisplayName("lockIsSharedByNodes")
+    void failuresOnAllNodesCountTowardsTheLock() {
+        RedisLoginAttemptService first = new RedisLoginAttemptService(redis.getTemplate(), properties);
+        RedisLoginAttemptService second = new RedisLoginAttemptService(redis.getTemplate(), properties);
+
+        for (int i = 0; i < 2; i++) {
+            assertNull(first.recordFailure("john.doe"));
+            assertNull(second.recordFailure("john.doe"));
+        }
+        Instant lockedUntil = first.recordFailure("john.doe");
+
+        assertNotNull(lockedUntil);
+        long lockMillis = lockedUntil.toEpochMilli() - System.currentTimeMillis();
+        assertTrue(lockMillis > 50_000 && lockMillis <= 60_000, "locked for " + lockMillis);
+        assertEquals(lockedUntil, second.lockedUntil("john.doe"));
+        assertNull(second.lockedUntil("jane.doe"));
+        Long ttl = redis.getTemplate().getExpire(RedisLoginAttemptService.KEY_PREFIX + "john.doe");
+        assertTrue(ttl > 60, "counters outlive the lock");
+    }
+
+    @Test
+    @DisplayName("success_resetsCounters")
+    void successfulSignInResetsTheCounters() {
+        properties.setLockDuration(Duration.ofSeconds(30));
+        RedisLoginAttemptService service = new RedisLoginAttemptService(redis.getTemplate(), properties);
+        for (int i = 0; i < 4; i++) {
+            service.recordFailure("john.doe");
+        }
+
+        service.recordSuccess("john.doe");
+
+        for (int i = 0; i < 4; i++) {
+            assertNull(service.recordFailure("john.doe"));
+        }
+        assertNull(service.lockedUntil("john.doe"));
+    }
+}
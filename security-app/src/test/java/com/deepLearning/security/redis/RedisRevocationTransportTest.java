@@ -0,0 +1,98 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.revocation.LocalDenyList;
+import com.deepLearning.security.revocation.RevocationBroadcast;
+import io.lettuce.core.RedisURI;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisRevocationTransportTest {
+
+    private static EmbeddedRedis redis;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+    }
+
+    @Test
+    @DisplayName("revocation_isPublishedToOtherNodes")
+    void deliversRevocationsThroughPubSub() throws InterruptedException {
+        try (RevocationBroadcast first = node(); RevocationBroadcast second = node()) {
+            await(() -> first.isSynchronized() && second.isSynchronized());
+
+            first.revoked("token", System.currentTimeMillis() + 60_000);
+
+            assertTrue(first.isRevoked("token"));
+            assertTrue(await(() -> second.isRevoked("token")), "delivered to the other node");
+        }
+    }
+
+    @Test
+    @DisplayName("subscribingNode_loadsCurrentRevocations")
+    void resynchronizesFromTheIndex() throws InterruptedException {
+        try (RevocationBroadcast first = node()) {
+            await(first::isSynchronized);
+            first.revoked("token", System.currentTimeMillis() + 60_000);
+            first.revoked("expired", System.currentTimeMillis() - 1);
+
+            try (RevocationBroadcast late = node()) {
+                assertTrue(await(late::isSynchronized));
+                assertTrue(late.isRevoked("token"));
+                assertFalse(late.isRevoked("expired"));
+            }
+        }
+        assertEquals(1L, redis.getTemplate().opsForZSet().zCard(RedisRevocationTransport.INDEX_KEY),
+                "expired revocations are dropped from the index");
+        assertTrue(redis.getTemplate().getExpire(RedisRevocationTransport.INDEX_KEY) > 0, "the index expires");
+    }
+
+    @Test
+    @DisplayName("completeMarker_makesDenyListAuthoritative")
+    void trustsMissesOnlyOnceTheMarkerIsSet() throws InterruptedException {
+        try (RevocationBroadcast before = node()) {
+            assertTrue(await(before::isSynchronized));
+            assertFalse(before.isAuthoritative(), "legacy blacklist entries are not in the index");
+        }
+        redis.getTemplate().opsForValue().set(RedisRevocationTransport.COMPLETE_KEY, "1");
+        try (RevocationBroadcast after = node()) {
+            assertTrue(await(after::isAuthoritative));
+        }
+    }
+
+    private static RevocationBroadcast node() {
+        RedisRevocationTransport transport = new RedisRevocationTransport(
+                redis.getTemplate(), RedisURI.create("localhost", redis.getPort()));
+        return new RevocationBroadcast(transport, new LocalDenyList());
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
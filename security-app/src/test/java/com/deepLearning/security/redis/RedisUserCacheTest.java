@@ -0,0 +1,125 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.UserCacheProperties;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.userServices.LocalUserCache;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisUserCacheTest {
+
+    private static final Instant LOCKED_UNTIL = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.MILLIS);
+
+    private static EmbeddedRedis redis;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+    }
+
+    @Test
+    @DisplayName("coldNode_fillsFromRedis")
+    void servesUsersCachedByAnotherNode() throws InterruptedException {
+        LocalUserCache coldLocal = new LocalUserCache(new UserCacheProperties());
+        try (RedisUserCache warm = node(new LocalUserCache(new UserCacheProperties()));
+             RedisUserCache cold = node(coldLocal)) {
+            assertTrue(await(() -> warm.isSubscribed() && cold.isSubscribed()));
+            warm.putUserInCache(user());
+
+            User shared = (User) cold.getUserFromCache("john.doe");
+
+            assertEquals(7L, shared.getId());
+            assertNull(shared.getPassword(), "the password hash stays out of Redis");
+            assertEquals("/images/john.png", shared.getImage());
+            assertEquals(Set.of(Roles.ROLE_USER, Roles.ROLE_ADMIN), shared.getRoles());
+            assertFalse(shared.isAccountNonLocked());
+            assertEquals(LOCKED_UNTIL, shared.getLockedUntil());
+            assertEquals(1, coldLocal.size(), "kept in the local tier");
+            assertNull(cold.getUserFromCache("jane.doe"));
+            assertEquals(1, meterRegistry.get("auth.users.cache").tag("result", "shared").counter().count());
+            assertEquals(1, meterRegistry.get("auth.users.cache").tag("result", "miss").counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("removal_invalidatesEveryNode")
+    void broadcastsRemovals() throws InterruptedException {
+        try (RedisUserCache first = node(new LocalUserCache(new UserCacheProperties()));
+             RedisUserCache second = node(new LocalUserCache(new UserCacheProperties()))) {
+            assertTrue(await(() -> first.isSubscribed() && second.isSubscribed()));
+            first.putUserInCache(user());
+            assertEquals("john.doe", second.getUserFromCache("john.doe").getUsername());
+
+            first.removeUserFromCache("john.doe");
+
+            assertFalse(redis.getTemplate().hasKey(RedisUserCache.KEY_PREFIX + "john.doe"));
+            assertTrue(await(() -> second.getUserFromCache("john.doe") == null), "removed on the other node");
+        }
+    }
+
+    @Test
+    @DisplayName("snapshot_ofAnotherVersion_isAMiss")
+    void ignoresSnapshotsOfAnotherVersion() throws InterruptedException {
+        try (RedisUserCache cache = node(new LocalUserCache(new UserCacheProperties()))) {
+            assertTrue(await(cache::isSubscribed));
+            redis.getTemplate().opsForValue().set(RedisUserCache.KEY_PREFIX + "john.doe", "\u0002garbage");
+
+            assertNull(cache.getUserFromCache("john.doe"));
+        }
+    }
+
+    private RedisUserCache node(LocalUserCache local) {
+        RedisUserCache cache = new RedisUserCache(local, redis.getTemplate(), Duration.ofMinutes(5), meterRegistry);
+        cache.subscribe(RedisURI.create("localhost", redis.getPort()));
+        return cache;
+    }
+
+    private static User user() {
+        User user = new User("john.doe", "{bcrypt}hash", "/images/john.png",
+                Set.of(Roles.ROLE_USER, Roles.ROLE_ADMIN));
+        user.setId(7L);
+        user.setAccountNonLocked(false);
+        user.setLockedUntil(LOCKED_UNTIL);
+        return user;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.deepLearning.security.redis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.deepLearning.security.redis.RefreshTokenFamilyService.RotationResult.ALREADY_ROTATED;
+import static com.deepLearning.security.redis.RefreshTokenFamilyService.RotationResult.REUSED;
+import static com.deepLearning.security.redis.RefreshTokenFamilyService.RotationResult.ROTATED;
+import static com.deepLearning.security.redis.RefreshTokenFamilyService.RotationResult.UNKNOWN_FAMILY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshTokenFamilyServiceImplTest {
+
+    private static EmbeddedRedis redis;
+    private RefreshTokenFamilyServiceImpl service;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        service = new RefreshTokenFamilyServiceImpl(redis.getTemplate());
+    }
+
+    @Test
+    @DisplayName("rotate_consumesCurrentToken")
+    void rotatesTheCurrentToken() {
+        service.startFamily("f1", "t1", 60_000);
+
+        assertEquals(ROTATED, rotate("f1", "t1", "t2", 60_000));
+        assertEquals(ROTATED, rotate("f1", "t2", "t3", 60_000));
+        assertEquals("t3", redis.getTemplate().opsForValue().get(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1"));
+    }
+
+    @Test
+    @DisplayName("rotate_reuseRevokesFamily")
+    void reuseRevokesTheWholeFamily() {
+        service.startFamily("f1", "t1", 60_000);
+        rotate("f1", "t1", "t2", 60_000);
+
+        assertEquals(REUSED, rotate("f1", "t1", "t3", 60_000));
+        assertEquals(UNKNOWN_FAMILY, rotate("f1", "t2", "t4", 60_000), "latest token is revoked as well");
+    }
+
+    @Test
+    @DisplayName("revokeAndUnknownFamily")
+    void revokedAndUnknownFamiliesCannotRotate() {
+        service.startFamily("f1", "t1", 60_000);
+        service.startFamily("f2", "t1", 60_000);
+        service.revokeFamily("f1");
+
+        assertEquals(UNKNOWN_FAMILY, rotate("f1", "t1", "t2", 60_000));
+        assertEquals(UNKNOWN_FAMILY, rotate("nope", "t1", "t2", 60_000));
+        assertEquals(ROTATED, rotate("f2", "t1", "t2", 60_000));
+    }
+
+    @Test
+    @DisplayName("rotate_refreshesTtl")
+    void rotationSetsTheTtl() {
+        service.startFamily("f1", "t1", 1_000);
+        rotate("f1", "t1", "t2", 120_000);
+
+        Long ttl = redis.getTemplate().getExpire(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1");
+        assertTrue(ttl > 100);
+        assertFalse(redis.getTemplate().hasKey("f1"));
+    }
+
+    @Test
+    @DisplayName("rotate_repeatWithinGraceReturnsGrant")
+    void repeatedRotationWithinGraceReturnsTheFirstGrant() {
+        service.startFamily("f1", "t1", 60_000);
+
+        assertEquals(ROTATED, service.rotate("f1", "t1", "t2", 60_000, "a2 r2", 60_000).result());
+        RefreshTokenFamilyService.Rotation repeated = service.rotate("f1", "t1", "t3", 60_000, "a3 r3", 60_000);
+
+        assertEquals(ALREADY_ROTATED, repeated.result());
+        assertEquals("a2 r2", repeated.grant());
+        assertEquals("t2", redis.getTemplate().opsForValue().get(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1"));
+    }
+
+    @Test
+    @DisplayName("rotate_graceEndsWithFamily")
+    void graceDoesNotOutliveTheFamily() {
+        service.startFamily("f1", "t1", 60_000);
+        service.rotate("f1", "t1", "t2", 60_000, "a2 r2", 60_000);
+        service.revokeFamily("f1");
+
+        assertEquals(UNKNOWN_FAMILY, service.rotate("f1", "t1", "t3", 60_000, "a3 r3", 60_000).result());
+    }
+
+    private RefreshTokenFamilyService.RotationResult rotate(String familyId, String tokenId, String nextTokenId,
+                                                            long ttlMillis) {
+        return service.rotate(familyId, tokenId, nextTokenId, ttlMillis, "access refresh", 0).result();
+    }
+}
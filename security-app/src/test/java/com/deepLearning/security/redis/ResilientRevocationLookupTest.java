@@ -0,0 +1,178 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.RevocationCheckProperties.DegradedMode;
+import com.deepLearning.security.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientRevocationLookupTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(50);
+    private static final Duration OPEN_DURATION = Duration.ofMillis(300);
+
+    private static EmbeddedRedis redis;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LatencyProxy proxy;
+    private LettuceConnectionFactory connectionFactory;
+    private ReactiveStringRedisTemplate template;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        redis.getTemplate().opsForValue().set("revoked", "access_token_revoked");
+        proxy = new LatencyProxy(redis.getPort());
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", proxy.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+        proxy.close();
+    }
+
+    @Test
+    @DisplayName("slowRedis_opensCircuit_andLookupsStopWaiting")
+    void failsFastOnceTheCircuitIsOpen() {
+        ResilientRevocationLookup lookup = lookup(DegradedMode.FAIL_OPEN);
+        assertTrue(lookup.isRevoked("revoked"));
+        assertFalse(lookup.isRevoked("valid"));
+
+        proxy.setLatencyMillis(500);
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            assertFalse(lookup.isRevoked("revoked"), "fail-open accepts tokens it cannot check");
+            assertTrue(elapsedMillis(start) < 300, "bounded by the per-call timeout");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, lookup.getCircuitState());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            lookup.isRevoked("valid");
+        }
+        assertTrue(elapsedMillis(start) < 100, "open circuit costs no round trip");
+        assertEquals(1000, meterRegistry.get("auth.revocation.degraded").tag("cause", "open").counter().count());
+    }
+
+    @Test
+    @DisplayName("failOpen_stillRejectsLocalRevocations")
+    void answersFromRecentLocalRevocationsWhenFailingOpen() {
+        ResilientRevocationLookup lookup = lookup(DegradedMode.FAIL_OPEN);
+        lookup.recordRevocation("logged-out", System.currentTimeMillis() + 60_000);
+        proxy.setLatencyMillis(500);
+
+        assertTrue(lookup.isRevoked("logged-out"));
+        assertFalse(lookup.isRevoked("valid"));
+    }
+
+    @Test
+    @DisplayName("failClosed_rejectsEveryToken")
+    void rejectsTokensWhenFailingClosed() {
+        ResilientRevocationLookup lookup = lookup(DegradedMode.FAIL_CLOSED);
+        proxy.setLatencyMillis(500);
+
+        assertTrue(lookup.isRevoked("valid"));
+    }
+
+    @Test
+    @DisplayName("recoveredRedis_closesCircuitAfterProbe")
+    void resumesAfterRedisRecovers() throws InterruptedException {
+        ResilientRevocationLookup lookup = lookup(DegradedMode.FAIL_CLOSED);
+        proxy.setLatencyMillis(500);
+        for (int i = 0; i < 3; i++) {
+            lookup.isRevoked("valid");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, lookup.getCircuitState());
+
+        proxy.setLatencyMillis(0);
+        Thread.sleep(OPEN_DURATION.toMillis() + 600);
+
+        // the first lookups may still see replies delayed before the recovery
+        boolean recovered = false;
+        for (int i = 0; i < 20 && !recovered; i++) {
+            recovered = !lookup.isRevoked("valid");
+            Thread.sleep(OPEN_DURATION.toMillis());
+        }
+        assertTrue(recovered);
+        assertEquals(CircuitBreaker.State.CLOSED, lookup.getCircuitState());
+        assertEquals(1, meterRegistry.get("auth.revocation.circuit.transitions").tag("to", "closed").counter().count());
+    }
+
+    @Test
+    @DisplayName("reactiveLookup_slowRedis_timesOutAndOpensCircuit")
+    void guardsNonBlockingLookups() {
+        ResilientRevocationLookup lookup = lookup(DegradedMode.FAIL_CLOSED);
+        assertFalse(lookup.isRevoked("valid", template.hasKey("valid"), TIMEOUT).block());
+        assertTrue(lookup.isRevoked("revoked", template.hasKey("revoked"), TIMEOUT).block());
+
+        proxy.setLatencyMillis(500);
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            assertTrue(lookup.isRevoked("valid", template.hasKey("valid"), TIMEOUT).block(),
+                    "fail-closed rejects tokens it cannot check");
+            assertTrue(elapsedMillis(start) < 300, "bounded by the per-call timeout");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, lookup.getCircuitState());
+        assertEquals(3, meterRegistry.get("auth.revocation.degraded").tag("cause", "error").counter().count());
+    }
+
+    @Test
+    @DisplayName("reactiveProbe_cancelledByClient_reopensCircuit")
+    void reopensWhenTheProbeIsCancelled() throws InterruptedException {
+        ResilientRevocationLookup lookup = lookup(DegradedMode.FAIL_CLOSED);
+        proxy.setLatencyMillis(500);
+        for (int i = 0; i < 3; i++) {
+            lookup.isRevoked("valid", template.hasKey("valid"), TIMEOUT).block();
+        }
+        proxy.setLatencyMillis(0);
+        Thread.sleep(OPEN_DURATION.toMillis());
+
+        Disposable probe = lookup.isRevoked("valid", Mono.never(), Duration.ofMinutes(1)).subscribe();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, lookup.getCircuitState());
+        probe.dispose();
+
+        assertEquals(CircuitBreaker.State.OPEN, lookup.getCircuitState(), "the lost probe counts as failed");
+        Thread.sleep(OPEN_DURATION.toMillis());
+        assertFalse(lookup.isRevoked("valid", template.hasKey("valid"), TIMEOUT).block());
+        assertEquals(CircuitBreaker.State.CLOSED, lookup.getCircuitState());
+    }
+
+    private ResilientRevocationLookup lookup(DegradedMode degradedMode) {
+        return new ResilientRevocationLookup(
+                token -> Boolean.TRUE.equals(template.hasKey(token).timeout(TIMEOUT).block()),
+                degradedMode, 3, OPEN_DURATION, meterRegistry);
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,174 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.configuration.JwtProperties;
+import com.deepLearning.security.configuration.RevocationCheckProperties.DegradedMode;
+import com.deepLearning.security.dto.BatchRevocationRequest;
+import com.deepLearning.security.dto.BatchRevocationResult;
+import com.deepLearning.security.dto.TokensDto;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.jwt.TestTokens;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.revocation.LocalDenyList;
+import com.deepLearning.security.revocation.LocalRevocationIndexStore;
+import com.deepLearning.security.revocation.LocalRevocationTransport;
+import com.deepLearning.security.revocation.RevocationBroadcast;
+import com.deepLearning.security.revocation.RevocationIndex;
+import com.deepLearning.security.verifier.TokenIdSequence;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevokedTokenServiceImplTest {
+
+    private static EmbeddedRedis redis;
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final JwtTokenProvider jwtTokenProvider = TestTokens.provider(key);
+    private final UserDetails user = User.withUsername("john.doe").password("x")
+            .authorities(Roles.ROLE_USER).build();
+
+    private RevokedTokenServiceImpl service;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        ResilientRevocationLookup lookup = new ResilientRevocationLookup(
+                token -> Boolean.TRUE.equals(redis.getTemplate().hasKey(token)), DegradedMode.FAIL_CLOSED,
+                5, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        service = new RevokedTokenServiceImpl(redis.getTemplate(), jwtTokenProvider, lookup,
+                beans.getBeanProvider(RevocationBroadcast.class), beans.getBeanProvider(ShardedRevocationStore.class),
+                beans.getBeanProvider(RevocationIndex.class));
+    }
+
+    @Test
+    @DisplayName("revokeToken_blacklistsAccessAndRevokesFamily")
+    void revokesAccessTokenAndRefreshTokenFamily() {
+        String accessToken = jwtTokenProvider.generateAccessToken(user);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user, "f1", "t1");
+        redis.getTemplate().opsForValue().set(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1", "t1");
+
+        service.revokeToken(new TokensDto(accessToken, refreshToken));
+
+        assertTrue(service.isTokenRevoked(accessToken));
+        assertEquals("access_token_revoked", redis.getTemplate().opsForValue().get(accessToken));
+        assertFalse(redis.getTemplate().hasKey(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1"));
+    }
+
+    @Test
+    @DisplayName("revokeTokens_countsExpiredAndInvalid")
+    void revokesABatchAndSkipsExpiredAndInvalidTokens() {
+        List<String> tokens = new ArrayList<>();
+        IntStream.range(0, RevokedTokenServiceImpl.PARALLEL_THRESHOLD)
+                .forEach(i -> tokens.add(jwtTokenProvider.generateAccessToken(
+                        User.withUsername("user" + i).password("x").authorities(Roles.ROLE_USER).build())));
+        tokens.add(jwtTokenProvider.generateRefreshToken(user, "f2", "t1"));
+        tokens.add(expiredToken());
+        tokens.add("not-a-token");
+        redis.getTemplate().opsForValue().set(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1", "t1");
+        redis.getTemplate().opsForValue().set(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f2", "t1");
+
+        BatchRevocationResult result = service.revokeTokens(new BatchRevocationRequest(tokens, List.of("f1")));
+
+        assertEquals(new BatchRevocationResult(RevokedTokenServiceImpl.PARALLEL_THRESHOLD, 2, 1, 1), result);
+        for (String token : tokens.subList(0, RevokedTokenServiceImpl.PARALLEL_THRESHOLD)) {
+            assertTrue(service.isTokenRevoked(token));
+            long ttl = redis.getTemplate().getExpire(token);
+            assertTrue(ttl > 0 && ttl <= 600, "ttl " + ttl);
+        }
+        assertFalse(redis.getTemplate().hasKey(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f1"));
+        assertFalse(redis.getTemplate().hasKey(RefreshTokenFamilyServiceImpl.KEY_PREFIX + "f2"));
+        assertFalse(redis.getTemplate().hasKey("not-a-token"));
+    }
+
+    @Test
+    @DisplayName("revokeToken_withIndex_recordsSequenceIdInsteadOfBlacklist")
+    void revokesSequenceNumberedAccessTokensInTheIndex() {
+        JwtTokenProvider provider = TestTokens.provider(key, new JwtProperties(), new TokenIdSequence(7));
+        ResilientRevocationLookup lookup = new ResilientRevocationLookup(
+                token -> Boolean.TRUE.equals(redis.getTemplate().hasKey(token)), DegradedMode.FAIL_CLOSED,
+                5, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        RevocationIndex index = new RevocationIndex(new LocalRevocationIndexStore(), Duration.ofMinutes(1),
+                Duration.ofMinutes(3));
+        beans.addBean("revocationIndex", index);
+        RevokedTokenServiceImpl indexed = new RevokedTokenServiceImpl(redis.getTemplate(), provider, lookup,
+                beans.getBeanProvider(RevocationBroadcast.class), beans.getBeanProvider(ShardedRevocationStore.class),
+                beans.getBeanProvider(RevocationIndex.class));
+        String revoked = provider.generateAccessToken(user);
+        String other = provider.generateAccessToken(user);
+
+        indexed.revokeToken(new TokensDto(revoked, null));
+
+        assertTrue(indexed.isTokenRevoked(revoked, provider.parseToken(revoked)));
+        assertFalse(indexed.isTokenRevoked(other, provider.parseToken(other)));
+        assertFalse(redis.getTemplate().hasKey(revoked));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("isTokenRevoked_withBroadcast_stillFindsLegacyBlacklistEntries")
+    void fallsThroughToTheBlacklistUntilTheDenyListIsAuthoritative() {
+        ResilientRevocationLookup lookup = new ResilientRevocationLookup(
+                token -> Boolean.TRUE.equals(redis.getTemplate().hasKey(token)), DegradedMode.FAIL_CLOSED,
+                5, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("revocationBroadcast",
+                new RevocationBroadcast(new LocalRevocationTransport(), new LocalDenyList()));
+        RevokedTokenServiceImpl broadcasting = new RevokedTokenServiceImpl(redis.getTemplate(), jwtTokenProvider,
+                lookup, beans.getBeanProvider(RevocationBroadcast.class),
+                beans.getBeanProvider(ShardedRevocationStore.class), beans.getBeanProvider(RevocationIndex.class));
+        String legacy = jwtTokenProvider.generateAccessToken(user);
+        String revoked = jwtTokenProvider.generateAccessToken(user);
+        String valid = jwtTokenProvider.generateAccessToken(user);
+        redis.getTemplate().opsForValue().set(legacy, "access_token_revoked", Duration.ofMinutes(1));
+
+        broadcasting.revokeToken(new TokensDto(revoked, null));
+
+        assertTrue(broadcasting.isTokenRevoked(legacy), "written before the broadcast, so only in the blacklist");
+        assertTrue(broadcasting.isTokenRevoked(revoked));
+        assertFalse(broadcasting.isTokenRevoked(valid));
+        boolean[] batch = broadcasting.areTokensRevoked(List.of(legacy, revoked, valid), List.of(
+                jwtTokenProvider.parseToken(legacy), jwtTokenProvider.parseToken(revoked),
+                jwtTokenProvider.parseToken(valid)));
+        assertTrue(batch[0]);
+        assertTrue(batch[1]);
+        assertFalse(batch[2]);
+    }
+
+    private String expiredToken() {
+        long now = System.currentTimeMillis();
+        return Jwts.builder().header().keyId("k1").and()
+                .subject("john.doe").issuedAt(new Date(now - 120_000)).expiration(new Date(now - 60_000))
+                .claim("v", 1).claim("t", 0).claim("r", 1)
+                .signWith(key, Jwts.SIG.HS256).compact();
+    }
+}
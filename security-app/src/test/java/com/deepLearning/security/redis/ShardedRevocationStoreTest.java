@@ -0,0 +1,160 @@
+package com.deepLearning.security.redis;
+
+import com.deepLearning.security.revocation.RevocationEvent;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisSystemException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedRevocationStoreTest {
+
+    private static final int TOKENS = 600;
+
+    private static final List<EmbeddedRedis> nodes = new ArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RevocationEvent> revocations = IntStream.range(0, TOKENS)
+            .mapToObj(i -> new RevocationEvent("token-" + i, System.currentTimeMillis() + 60_000))
+            .toList();
+    private ShardedRevocationStore store;
+
+    @BeforeAll
+    static void startRedis() {
+        for (int i = 0; i < 3; i++) {
+            nodes.add(new EmbeddedRedis());
+        }
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        nodes.forEach(EmbeddedRedis::close);
+    }
+
+    @BeforeEach
+    void setUp() {
+        nodes.forEach(EmbeddedRedis::flush);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("revocations_spreadOverShards")
+    void spreadsRevocationsOverTheShards() {
+        store = store(0, 1, 2);
+        store.rebalanceAsync().join();
+
+        store.revokeAll(revocations, System.currentTimeMillis());
+
+        for (int i = 0; i < 3; i++) {
+            long keys = keys(i);
+            assertTrue(keys > TOKENS / 6, "shard " + i + " holds " + keys);
+        }
+        assertEquals(TOKENS, keys(0) + keys(1) + keys(2));
+        assertTrue(revocations.stream().allMatch(revocation -> store.isRevoked(revocation.token())));
+        assertFalse(store.isRevoked("token-unknown"));
+        assertEquals(1.0, meterRegistry.get("auth.revocation.shard.up").tag("shard", name(0)).gauge().value());
+        assertTrue(meterRegistry.get("auth.revocation.shard.latency").tag("shard", name(2)).timer().count() > 0);
+    }
+
+    @Test
+    @DisplayName("addNode_movesOnlyItsShareWithTtl")
+    void movesTheKeysOfAnAddedNodeWithTheirTtl() {
+        store = store(0, 1);
+        store.rebalanceAsync().join();
+        store.revokeAll(revocations, System.currentTimeMillis());
+
+        long moved = store.addNode(uri(2));
+
+        assertEquals(keys(2), moved);
+        assertTrue(moved > TOKENS / 6 && moved < TOKENS / 2, "moved " + moved);
+        assertEquals(TOKENS, keys(0) + keys(1) + keys(2), "moved keys are deleted from the old owner");
+        assertTrue(revocations.stream().allMatch(revocation -> store.isRevoked(revocation.token())));
+        String key = nodes.get(2).getTemplate().keys(ShardedRevocationStore.KEY_PREFIX + "*").iterator().next();
+        long ttl = nodes.get(2).getTemplate().getExpire(key);
+        assertTrue(ttl > 50 && ttl <= 60, "ttl " + ttl);
+
+        store.removeNode(name(2));
+
+        assertEquals(0, keys(2));
+        assertEquals(TOKENS, keys(0) + keys(1));
+    }
+
+    @Test
+    @DisplayName("restartWithMoreNodes_findsKeysBeforeAndAfterSweep")
+    void findsRevocationsWrittenWithAnEarlierNodeList() {
+        store = store(0);
+        store.revokeAll(revocations, System.currentTimeMillis());
+        store.close();
+
+        store = store(0, 1, 2);
+
+        assertTrue(revocations.stream().allMatch(revocation -> store.isRevoked(revocation.token())),
+                "misses ask every shard until the sweep is done");
+        assertEquals(TOKENS, keys(0));
+        store.rebalanceAsync().join();
+        assertTrue(keys(1) > 0 && keys(2) > 0);
+        assertTrue(revocations.stream().allMatch(revocation -> store.isRevoked(revocation.token())));
+        assertTrue(store.checkHealth().values().stream().allMatch(up -> up));
+    }
+
+    @Test
+    @DisplayName("failedRebalance_keepsAskingOldOwners")
+    void keepsFallingBackUntilARebalanceSucceeds() {
+        try (LatencyProxy slow = new LatencyProxy(nodes.get(1).getPort())) {
+            RedisURI slowUri = RedisURI.builder().withHost("localhost").withPort(slow.getPort())
+                    .withTimeout(Duration.ofMillis(300)).build();
+            store = new ShardedRevocationStore(List.of(uri(0), slowUri), 160, meterRegistry);
+            store.rebalanceAsync().join();
+            store.revokeAll(revocations, System.currentTimeMillis());
+
+            slow.setLatencyMillis(1000);
+            assertThrows(RedisSystemException.class, () -> store.addNode(uri(2)));
+            slow.setLatencyMillis(0);
+
+            assertTrue(revocations.stream().allMatch(revocation -> store.isRevoked(revocation.token())),
+                    "keys left on the old owner are still found");
+            assertTrue(store.rebalanceAsync().join() > 0);
+            assertTrue(keys(2) > 0);
+            assertTrue(revocations.stream().allMatch(revocation -> store.isRevoked(revocation.token())));
+        }
+    }
+
+    private ShardedRevocationStore store(int... indexes) {
+        return new ShardedRevocationStore(IntStream.of(indexes).mapToObj(ShardedRevocationStoreTest::uri).toList(),
+                160, meterRegistry);
+    }
+
+    private static RedisURI uri(int index) {
+        return RedisURI.builder().withHost("localhost").withPort(nodes.get(index).getPort())
+                .withTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    private static String name(int index) {
+        return "localhost:" + nodes.get(index).getPort();
+    }
+
+    private static long keys(int index) {
+        return Stream.ofNullable(nodes.get(index).getTemplate().keys(ShardedRevocationStore.KEY_PREFIX + "*"))
+                .mapToLong(keys -> keys.size())
+                .sum();
+    }
+}
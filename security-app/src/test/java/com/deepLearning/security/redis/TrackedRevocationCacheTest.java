@@ -0,0 +1,109 @@
+package com.deepLearning.security.redis;
+
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackedRevocationCacheTest {
+
+    private static EmbeddedRedis redis;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TrackedRevocationCache cache;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        cache = new TrackedRevocationCache(RedisURI.create("localhost", redis.getPort()), 100, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    @DisplayName("repeatedLookups_areServedLocally")
+    void answersRepeatedLookupsFromTheCache() {
+        redis.getTemplate().opsForValue().set("revoked", "access_token_revoked");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cache.isRevoked("revoked"));
+            assertFalse(cache.isRevoked("valid"));
+        }
+
+        assertEquals(2, count("miss"));
+        assertEquals(4, count("hit"));
+    }
+
+    @Test
+    @DisplayName("revocationOnAnotherNode_invalidatesCachedAnswer")
+    void seesRevocationsMadeThroughOtherConnections() throws InterruptedException {
+        assertFalse(cache.isRevoked("token"));
+
+        redis.getTemplate().opsForValue().set("token", "access_token_revoked", Duration.ofMinutes(1));
+
+        assertTrue(awaitRevoked("token"), "the cached answer is invalidated");
+        assertTrue(meterRegistry.get("auth.revocation.cache.invalidations").counter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("expiredRevocation_invalidatesCachedAnswer")
+    void seesRevocationsExpire() throws InterruptedException {
+        redis.getTemplate().opsForValue().set("token", "access_token_revoked", Duration.ofMillis(200));
+        assertTrue(cache.isRevoked("token"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.isRevoked("token") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertFalse(cache.isRevoked("token"));
+    }
+
+    @Test
+    @DisplayName("cacheSize_isBounded")
+    void keepsAtMostMaxSizeAnswers() {
+        for (int i = 0; i < 1000; i++) {
+            cache.isRevoked("token-" + i);
+        }
+
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+        assertEquals(cache.size(), meterRegistry.get("auth.revocation.cache.size").gauge().value());
+    }
+
+    private boolean awaitRevoked(String token) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (cache.isRevoked(token)) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("auth.revocation.cache").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,93 @@
+package com.deepLearning.security.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 3, Duration.ofSeconds(1), Duration.ofSeconds(2),
+            (name, from, to) -> transitions.add(from + "->" + to), now::get);
+
+    @Test
+    @DisplayName("consecutiveFailures_openCircuit_untilProbeSucceeds")
+    void opensAfterConsecutiveFailuresAndClosesAfterSuccessfulProbe() {
+        fail();
+        fail();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        fail();
+        fail();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "a success resets the count");
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire(), "probe");
+        assertFalse(breaker.tryAcquire(), "only one probe at a time");
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    @DisplayName("failedProbe_reopensCircuit")
+    void reopensAfterFailedProbe() {
+        fail();
+        fail();
+        fail();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "open for another period");
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("unreportedOrCancelledProbe_reopensCircuit")
+    void reopensAfterLostProbe() {
+        fail();
+        fail();
+        fail();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire(), "probe whose outcome is never reported");
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos() - 1);
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        now.addAndGet(1);
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "the probe timed out");
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire(), "cancelled probe");
+        breaker.onCancel();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onCancel();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "other calls are not counted");
+    }
+
+    private void fail() {
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+    }
+}
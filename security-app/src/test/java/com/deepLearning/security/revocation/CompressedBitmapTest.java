@@ -0,0 +1,85 @@
+package com.deepLearning.security.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+
+    private final CompressedBitmap bitmap = new CompressedBitmap();
+
+    @Test
+    @DisplayName("addAll_sparseAndDenseValues_areFound")
+    void findsValuesInArrayAndBitmapContainers() {
+        long base = (3L << 48) | (1_700_000_000_000L * 64);
+        long[] dense = LongStream.range(base, base + CompressedBitmap.ARRAY_MAX + 100).toArray();
+        long[] sparse = {5, 70_000, 1L << 40};
+
+        bitmap.addAll(dense.clone());
+        bitmap.addAll(sparse.clone());
+        bitmap.add(base);
+
+        for (long value : dense) {
+            assertTrue(bitmap.contains(value));
+        }
+        for (long value : sparse) {
+            assertTrue(bitmap.contains(value));
+        }
+        assertFalse(bitmap.contains(base - 1));
+        assertFalse(bitmap.contains(6));
+        assertFalse(bitmap.contains(-1));
+        assertEquals(dense.length + sparse.length, bitmap.cardinality());
+        assertArrayEquals(LongStream.concat(LongStream.of(sparse), LongStream.of(dense)).sorted().toArray(),
+                bitmap.toArray());
+    }
+
+    @Test
+    @DisplayName("millionConsecutiveIds_takeKilobytes")
+    void storesConsecutiveIdsInAboutOneBitEach() {
+        long base = (3L << 48) | (1_700_000_000_000L * 64);
+        long[] values = LongStream.range(base, base + 1_000_000).toArray();
+
+        bitmap.addAll(values);
+
+        assertEquals(1_000_000, bitmap.cardinality());
+        assertTrue(bitmap.sizeInBytes() < 200 * 1024, "size " + bitmap.sizeInBytes());
+        assertTrue(bitmap.contains(base + 999_999));
+        assertFalse(bitmap.contains(base + 1_000_000));
+    }
+
+    @Test
+    @DisplayName("sparseRevocationsAmongConsecutiveIds_takeAboutTwoBytesEach")
+    void storesScatteredIdsOfConsecutiveRangesInArrayContainers() {
+        // three nodes issue two million ids each, and one in a hundred is revoked
+        Random random = new Random(42);
+        long[] values = LongStream.range(0, 3)
+                .flatMap(node -> LongStream.range(0, 2_000_000)
+                        .map(counter -> (node << 48) | (1_700_000_000_000L * 64 + counter)))
+                .filter(id -> random.nextInt(100) == 0)
+                .toArray();
+
+        bitmap.addAll(values.clone());
+
+        assertEquals(values.length, bitmap.cardinality());
+        double bytesPerValue = (double) bitmap.sizeInBytes() / values.length;
+        assertTrue(bytesPerValue < 2.5, "bytes per value " + bytesPerValue);
+        assertTrue(LongStream.of(values).allMatch(bitmap::contains));
+    }
+
+    @Test
+    @DisplayName("isolatedValues_costAContainerEach")
+    void storesValuesOfDistinctKeysInOneContainerEach() {
+        long[] values = LongStream.range(0, 1000).map(i -> i << 16).toArray();
+
+        bitmap.addAll(values);
+
+        assertTrue(bitmap.sizeInBytes() >= 1000 * 64L, "size " + bitmap.sizeInBytes());
+    }
+}
@@ -0,0 +1,48 @@
+package com.deepLearning.security.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalDenyListTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final LocalDenyList denyList = new LocalDenyList(now::get);
+
+    @Test
+    @DisplayName("entries_expireWithTheirToken")
+    void dropsEntriesAtTokenExpiry() {
+        denyList.add("short", now.get() + 1000);
+        denyList.add("long", now.get() + 60_000);
+        denyList.add("expired", now.get() - 1);
+
+        assertTrue(denyList.contains("short"));
+        assertTrue(denyList.contains("long"));
+        assertFalse(denyList.contains("expired"));
+        assertEquals(2, denyList.size());
+
+        now.addAndGet(1000);
+
+        assertFalse(denyList.contains("short"));
+        assertTrue(denyList.contains("long"));
+        assertEquals(1, denyList.size());
+    }
+
+    @Test
+    @DisplayName("expiredEntries_areSwept")
+    void sweepsExpiredEntriesThatAreNotLookedUp() {
+        for (int i = 0; i < 100; i++) {
+            denyList.add("token-" + i, now.get() + 500);
+        }
+        now.addAndGet(LocalDenyList.PURGE_INTERVAL_MILLIS);
+
+        denyList.add("fresh", now.get() + 500);
+
+        assertEquals(1, denyList.size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.deepLearning.security.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationBroadcastTest {
+
+    private final LocalRevocationTransport transport = new LocalRevocationTransport();
+
+    @Test
+    @DisplayName("revocation_reachesEveryNode")
+    void deliversRevocationsToAllNodes() {
+        RevocationBroadcast first = new RevocationBroadcast(transport, new LocalDenyList());
+        RevocationBroadcast second = new RevocationBroadcast(transport, new LocalDenyList());
+
+        first.revoked("token", System.currentTimeMillis() + 60_000);
+
+        assertTrue(first.isSynchronized());
+        assertTrue(first.isRevoked("token"));
+        assertTrue(second.isRevoked("token"));
+        assertFalse(second.isRevoked("other"));
+    }
+
+    @Test
+    @DisplayName("connectingNode_catchesUpFromSnapshot")
+    void resynchronizesOnConnect() {
+        RevocationBroadcast first = new RevocationBroadcast(transport, new LocalDenyList());
+        first.revoked("token", System.currentTimeMillis() + 60_000);
+        first.revoked("expired", System.currentTimeMillis() - 1);
+
+        RevocationBroadcast late = new RevocationBroadcast(transport, new LocalDenyList());
+
+        assertTrue(late.isSynchronized());
+        assertTrue(late.isRevoked("token"));
+        assertFalse(late.isRevoked("expired"));
+    }
+
+    @Test
+    @DisplayName("disconnectedNode_isNotAuthoritative")
+    void isOutOfSyncBetweenDisconnectAndResync() {
+        RevocationBroadcast node = new RevocationBroadcast(transport, new LocalDenyList());
+
+        node.onDisconnected();
+        assertFalse(node.isSynchronized());
+
+        node.onConnected();
+        assertTrue(node.isSynchronized());
+    }
+
+    @Test
+    @DisplayName("incompleteSnapshot_isNotAuthoritative")
+    void missesAreOnlyTrustedOnceTheSnapshotIsComplete() {
+        RevocationBroadcast node = new RevocationBroadcast(transport, new LocalDenyList());
+
+        assertTrue(node.isSynchronized());
+        assertFalse(node.isAuthoritative(), "the blacklist may hold entries that were never published");
+        assertTrue(new RevocationBroadcast(new StubTransport(true, null), new LocalDenyList()).isAuthoritative());
+    }
+
+    @Test
+    @DisplayName("disconnectDuringResync_staysOutOfSync")
+    void resyncOvertakenByDisconnectIsNotTrusted() {
+        AtomicReference<RevocationBroadcast> node = new AtomicReference<>();
+        RevocationBroadcast flaky = new RevocationBroadcast(new StubTransport(true, node), new LocalDenyList());
+        node.set(flaky);
+
+        flaky.onConnected();
+
+        assertFalse(flaky.isSynchronized());
+        assertFalse(flaky.isAuthoritative());
+    }
+
+    /**
+     * Transport with an empty snapshot, which disconnects the given node while the snapshot is read.
+     */
+    private record StubTransport(boolean complete, AtomicReference<RevocationBroadcast> disconnecting)
+            implements RevocationTransport {
+
+        @Override
+        public void publishAll(Collection<RevocationEvent> events) {
+        }
+
+        @Override
+        public Collection<RevocationEvent> snapshot() {
+            if (disconnecting != null && disconnecting.get() != null) {
+                disconnecting.get().onDisconnected();
+            }
+            return List.of();
+        }
+
+        @Override
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public void subscribe(Subscriber subscriber) {
+            subscriber.onConnected();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.deepLearning.security.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationIndexTest {
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final LocalRevocationIndexStore store = new LocalRevocationIndexStore();
+
+    private RevocationIndex newNode() {
+        return new RevocationIndex(store, Duration.ofMinutes(1), Duration.ofMinutes(3), now::get);
+    }
+
+    @Test
+    @DisplayName("revokeAll_reachesEveryNode")
+    void revocationsOfOneNodeAreSeenByTheOthers() {
+        RevocationIndex first = newNode();
+        RevocationIndex second = newNode();
+        long issuedAt = now.get() / 1000;
+
+        first.revokeAll(List.of(new RevocationIndex.IndexedToken(issuedAt, 42)));
+
+        assertTrue(first.isSynchronized());
+        assertTrue(first.isRevoked(issuedAt, 42));
+        assertTrue(second.isRevoked(issuedAt, 42));
+        assertFalse(second.isRevoked(issuedAt, 43));
+        assertTrue(second.isRevokedRemotely(issuedAt, 42));
+    }
+
+    @Test
+    @DisplayName("newNode_catchesUpFromSnapshot")
+    void lateNodeLoadsCurrentRevocations() {
+        long issuedAt = now.get() / 1000;
+        newNode().revokeAll(List.of(new RevocationIndex.IndexedToken(issuedAt, 7),
+                new RevocationIndex.IndexedToken(issuedAt - 120, 8)));
+
+        RevocationIndex late = newNode();
+
+        assertTrue(late.isRevoked(issuedAt, 7));
+        assertTrue(late.isRevoked(issuedAt - 120, 8));
+        assertFalse(late.isRevoked(issuedAt, 8));
+        assertEquals(2, late.size());
+    }
+
+    @Test
+    @DisplayName("segments_areDroppedOnceTheirTokensExpired")
+    void dropsSegmentsAfterTheLastTokenExpired() {
+        RevocationIndex index = newNode();
+        long issuedAt = now.get() / 1000;
+        index.revokeAll(List.of(new RevocationIndex.IndexedToken(issuedAt, 1)));
+        assertEquals(1, index.segmentCount());
+
+        now.addAndGet(Duration.ofMinutes(3).toMillis());
+        assertTrue(index.isRevoked(issuedAt, 1));
+
+        now.addAndGet(Duration.ofMinutes(1).toMillis() + RevocationIndex.PURGE_INTERVAL_MILLIS);
+        assertFalse(index.isRevoked(issuedAt, 1));
+        assertEquals(0, index.segmentCount());
+        assertEquals(0, index.revokeAll(List.of(new RevocationIndex.IndexedToken(issuedAt, 2))));
+    }
+}
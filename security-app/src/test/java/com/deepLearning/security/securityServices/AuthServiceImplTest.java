@@ -0,0 +1,104 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.dto.AuthCredentials;
+import com.deepLearning.security.exceptions.AccountTemporarilyLockedException;
+import com.deepLearning.security.exceptions.UserAlreadyExist;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.redis.RefreshTokenFamilyService;
+import com.deepLearning.security.repositories.UserRepository;
+import com.deepLearning.security.userServices.UserService;
+import com.deepLearning.security.userServices.UsernameFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AuthServiceImplTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @MockitoBean
+    private RefreshTokenFamilyService refreshTokenFamilyService;
+
+    @Test
+    @DisplayName("repeatedFailures_lockAccount_untilExpiry")
+    void repeatedFailedSignInsLockTheAccount() {
+        userRepository.save(new User("locked.out", passwordEncoder.encode("right"), null, Set.of()));
+        AuthCredentials wrong = new AuthCredentials("locked.out", "wrong");
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(BadCredentialsException.class, () -> authService.authenticate(wrong));
+        }
+        assertThrows(AccountTemporarilyLockedException.class, () -> authService.authenticate(wrong));
+
+        User locked = userRepository.findByUsername("locked.out").orElseThrow();
+        assertNotNull(locked.getLockedUntil());
+        assertFalse(locked.isAccountNonLocked());
+        assertThrows(AccountTemporarilyLockedException.class,
+                () -> authService.authenticate(new AuthCredentials("locked.out", "right")),
+                "the right password does not help while locked");
+
+        // let the lock end
+        loginAttemptService.recordSuccess("locked.out");
+        userService.lockUntil("locked.out", Instant.now().minusSeconds(1));
+
+        assertNotNull(authService.authenticate(new AuthCredentials("locked.out", "right")).accessToken());
+        User unlocked = userRepository.findByUsername("locked.out").orElseThrow();
+        assertNull(unlocked.getLockedUntil(), "the ended lock is cleared once");
+        assertTrue(unlocked.isAccountNonLocked());
+    }
+
+    @Test
+    @DisplayName("unknownUsername_isLockedLikeKnownOnes")
+    void unknownUsernamesAreLockedAsWell() {
+        AuthCredentials unknown = new AuthCredentials("nobody.here", "guess");
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(BadCredentialsException.class, () -> authService.authenticate(unknown));
+        }
+        assertThrows(AccountTemporarilyLockedException.class, () -> authService.authenticate(unknown));
+        assertTrue(userRepository.findByUsername("nobody.here").isEmpty());
+    }
+
+    @Test
+    @DisplayName("registration_userUnknownToFilter_rejectedAsExisting")
+    void registrationOfAUserCreatedElsewhereIsRejected() {
+        usernameFilter.rebuild();
+        // created behind the filter's back, like a user created by another node since the last rebuild
+        userRepository.saveAndFlush(new User("other.node", passwordEncoder.encode("secret"), null, Set.of()));
+
+        assertThrows(UserAlreadyExist.class,
+                () -> authService.registration(new AuthCredentials("other.node", "secret")));
+        assertTrue(authService.registration(new AuthCredentials("brand.new", "secret")));
+        assertTrue(userService.isExistUsername("brand.new"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.configuration.LoginAttemptProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalLoginAttemptServiceTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MINUTE);
+    private final LoginAttemptProperties properties = new LoginAttemptProperties();
+    private final LocalLoginAttemptService service = new LocalLoginAttemptService(properties, clock::get);
+
+    @Test
+    @DisplayName("locksAfterMaxFailures_thenUnlocksByItself")
+    void locksAfterTooManyFailuresAndUnlocksAutomatically() {
+        for (int i = 0; i < 4; i++) {
+            assertNull(service.recordFailure("john.doe"));
+        }
+        Instant lockedUntil = service.recordFailure("john.doe");
+
+        assertEquals(Instant.ofEpochMilli(clock.get() + MINUTE), lockedUntil);
+        assertEquals(lockedUntil, service.lockedUntil("john.doe"));
+        assertNull(service.lockedUntil("jane.doe"));
+        assertNull(service.recordFailure("john.doe"), "failures while locked do not lock again");
+
+        clock.addAndGet(MINUTE);
+        assertNull(service.lockedUntil("john.doe"));
+    }
+
+    @Test
+    @DisplayName("repeatedLockouts_doubleUpToMax")
+    void lockDurationGrowsWithRepeatedLockouts() {
+        properties.setMaxLockDuration(Duration.ofMinutes(3));
+
+        assertEquals(MINUTE, lockFor("john.doe"));
+        assertEquals(2 * MINUTE, lockFor("john.doe"));
+        assertEquals(3 * MINUTE, lockFor("john.doe"));
+
+        service.recordSuccess("john.doe");
+        assertEquals(MINUTE, lockFor("john.doe"), "a successful sign-in resets the escalation");
+    }
+
+    @Test
+    @DisplayName("slidingWindow_forgetsOldFailures")
+    void failuresOutsideTheWindowDoNotCount() {
+        clock.set(1_005 * MINUTE - 1);
+        for (int i = 0; i < 4; i++) {
+            service.recordFailure("john.doe");
+        }
+        // next window, 1/3 of the previous one still covered: 4 * 1/3 + 1 < 5
+        clock.set(1_025 * MINUTE);
+        assertNull(service.recordFailure("john.doe"));
+        clock.set(1_050 * MINUTE);
+        for (int i = 0; i < 4; i++) {
+            assertNull(service.recordFailure("john.doe"));
+        }
+    }
+
+    private long lockFor(String username) {
+        Instant lockedUntil = null;
+        long start = clock.get();
+        while (lockedUntil == null) {
+            lockedUntil = service.recordFailure(username);
+        }
+        clock.set(lockedUntil.toEpochMilli());
+        return lockedUntil.toEpochMilli() - start;
+    }
+}
@@ -0,0 +1,106 @@
+package com.deepLearning.security.securityServices;
+
+import com.deepLearning.security.configuration.IntrospectionProperties;
+import com.deepLearning.security.dto.TokenIntrospection;
+import com.deepLearning.security.jwt.JwtTokenProvider;
+import com.deepLearning.security.jwt.TestTokens;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.redis.RevokedTokenService;
+import com.deepLearning.security.verifier.TokenClaims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceImplTest {
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final JwtTokenProvider tokenProvider = TestTokens.provider(key);
+    private final RevokedTokenService revokedTokenService = mock(RevokedTokenService.class);
+    private final IntrospectionProperties properties = new IntrospectionProperties();
+    private final TokenIntrospectionServiceImpl service =
+            new TokenIntrospectionServiceImpl(tokenProvider, revokedTokenService, properties);
+
+    private final UserDetails user = User.withUsername("john.doe").password("x")
+            .authorities(Roles.ROLE_USER).build();
+
+    @Test
+    @DisplayName("mixedBatch_onlyUnrevokedAccessTokensAreActive_withOneRevocationCheck")
+    void introspectsABatchWithOneRevocationCheck() {
+        String active = tokenProvider.generateAccessToken(user);
+        String revoked = tokenProvider.generateAccessToken(User.withUsername("jane.doe").password("x")
+                .authorities(Roles.ROLE_USER).build());
+        String refresh = tokenProvider.generateRefreshToken(user, "f1", "t1");
+        when(revokedTokenService.areTokensRevoked(anyList(), anyList()))
+                .thenAnswer(invocation -> {
+                    List<String> tokens = invocation.getArgument(0);
+                    boolean[] result = new boolean[tokens.size()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = tokens.get(i).equals(revoked);
+                    }
+                    return result;
+                });
+
+        List<TokenIntrospection> introspections =
+                service.introspect(Arrays.asList(active, "not-a-token", revoked, refresh, null));
+
+        TokenClaims claims = tokenProvider.parseToken(active);
+        assertEquals(new TokenIntrospection(true, "john.doe", "ROLE_USER", claims.expiresAt(),
+                claims.issuedAt(), "access_token"), introspections.get(0));
+        assertEquals(List.of(TokenIntrospection.INACTIVE, TokenIntrospection.INACTIVE,
+                TokenIntrospection.INACTIVE, TokenIntrospection.INACTIVE), introspections.subList(1, 5));
+        verify(revokedTokenService, times(1)).areTokensRevoked(List.of(active, revoked),
+                List.of(claims, tokenProvider.parseToken(revoked)));
+    }
+
+    @Test
+    @DisplayName("largeBatch_verifiedInParallel_keepsTheOrder")
+    void keepsTheOrderOfLargeBatches() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < TokenIntrospectionServiceImpl.PARALLEL_THRESHOLD * 2; i++) {
+            tokens.add(i % 2 == 0 ? tokenProvider.generateAccessToken(User.withUsername("user" + i)
+                    .password("x").authorities(Roles.ROLE_USER).build()) : "garbage" + i);
+        }
+        when(revokedTokenService.areTokensRevoked(anyList(), anyList()))
+                .thenAnswer(invocation -> new boolean[invocation.<List<?>>getArgument(0).size()]);
+
+        List<TokenIntrospection> introspections = service.introspect(tokens);
+
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(i % 2 == 0, introspections.get(i).active());
+            if (i % 2 == 0) {
+                assertEquals("user" + i, introspections.get(i).sub());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("cacheDuration_boundedByTheFirstExpiringActiveToken")
+    void boundsTheCacheDurationByTheTokenExpiry() {
+        long now = System.currentTimeMillis() / 1000L;
+        TokenIntrospection soon = new TokenIntrospection(true, "a", "", now + 5, now, "access_token");
+        TokenIntrospection later = new TokenIntrospection(true, "b", "", now + 3600, now, "access_token");
+
+        assertEquals(properties.getMaxCacheAge(), service.cacheDuration(List.of(TokenIntrospection.INACTIVE)));
+        assertEquals(properties.getMaxCacheAge(), service.cacheDuration(List.of(later)));
+        long seconds = service.cacheDuration(List.of(later, soon)).toSeconds();
+        assertTrue(seconds <= 5 && seconds >= 4, String.valueOf(seconds));
+        assertEquals(Duration.ZERO, service.cacheDuration(List.of(new TokenIntrospection(true, "c", "", now - 1,
+                now - 60, "access_token"))));
+    }
+}
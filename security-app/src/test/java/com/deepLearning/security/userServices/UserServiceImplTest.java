@@ -0,0 +1,146 @@
+package com.deepLearning.security.userServices;
+
+import com.deepLearning.security.dto.UserPage;
+import com.deepLearning.security.dto.UserSummary;
+import com.deepLearning.security.model.Roles;
+import com.deepLearning.security.model.User;
+import com.deepLearning.security.redis.RefreshTokenFamilyService;
+import com.deepLearning.security.repositories.UserRepository;
+import com.deepLearning.security.repositories.UserSearchCriteria;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserServiceImplTest {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private RefreshTokenFamilyService refreshTokenFamilyService;
+
+    @Test
+    @DisplayName("provision_concurrentFirstSignIns_createOneUser")
+    void concurrentProvisioningCreatesTheUserOnce() {
+        List<CompletableFuture<User>> signIns = IntStream.range(0, 16)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> userService.provision("first.login@example.com", "/images/first.png")))
+                .toList();
+
+        Set<Long> ids = signIns.stream().map(signIn -> signIn.join().getId()).collect(Collectors.toSet());
+
+        assertEquals(1, ids.size());
+        User stored = userRepository.findByUsername("first.login@example.com").orElseThrow();
+        assertEquals(ids.iterator().next(), stored.getId());
+        assertEquals(Set.of(Roles.ROLE_USER), stored.getRoles());
+        assertEquals("/images/first.png", stored.getImage());
+    }
+
+    @Test
+    @DisplayName("provision_existingUser_keepsRoles")
+    void provisioningAnExistingUserReturnsItUnchanged() {
+        User user = userService.provision("john.doe", "/images/other.png");
+
+        assertNotNull(user.getId());
+        assertEquals(Set.of(Roles.ROLE_USER, Roles.ROLE_ADMIN), Set.copyOf(user.getRoles()));
+        assertEquals("/images/john.png", user.getImage());
+    }
+
+    @Test
+    @DisplayName("searchUsers_prefixAndFlags_pagedByUsername")
+    void searchUsersSeeksPageByPage() {
+        for (String name : List.of("search.d", "search.a", "search.c", "search.b", "search.e", "searchx")) {
+            userRepository.save(new User(name, null, null, Set.of(Roles.ROLE_USER)));
+        }
+        User disabled = userRepository.findByUsername("search.c").orElseThrow();
+        disabled.setEnabled(false);
+        userRepository.save(disabled);
+        User locked = userRepository.findByUsername("search.d").orElseThrow();
+        locked.setAccountNonLocked(false);
+        locked.setLockedUntil(Instant.now().plus(1, ChronoUnit.HOURS));
+        userRepository.save(locked);
+        User lockEnded = userRepository.findByUsername("search.e").orElseThrow();
+        lockEnded.setAccountNonLocked(false);
+        lockEnded.setLockedUntil(Instant.now().minus(1, ChronoUnit.HOURS));
+        userRepository.save(lockEnded);
+        UserSearchCriteria prefix = new UserSearchCriteria("search.", null, null, null, null);
+
+        UserPage first = userService.searchUsers(prefix, null, 2);
+        UserPage second = userService.searchUsers(prefix, first.next(), 2);
+        UserPage last = userService.searchUsers(prefix, second.next(), 2);
+
+        assertEquals(List.of("search.a", "search.b"), usernames(first));
+        assertEquals("search.b", first.next());
+        assertEquals(List.of("search.c", "search.d"), usernames(second));
+        assertEquals(List.of("search.e"), usernames(last));
+        assertNull(last.next());
+        assertEquals(List.of("search.a", "search.b", "search.d", "search.e"), usernames(userService.searchUsers(
+                new UserSearchCriteria("search.", null, null, null, true), null, 10)));
+        assertEquals(List.of("search.d"), usernames(userService.searchUsers(
+                new UserSearchCriteria("search.", null, false, null, null), null, 10)));
+        assertTrue(userService.searchUsers(
+                new UserSearchCriteria("search_", null, null, null, null), null, 10).users().isEmpty(),
+                "the prefix is not a LIKE pattern");
+    }
+
+    @Test
+    @DisplayName("lockUntil_evictsTheCachedUserAfterCommit")
+    void evictsChangedUsersOnceCommitted() {
+        userRepository.save(new User("lock.me", null, null, Set.of(Roles.ROLE_USER)));
+        userService.loadUserByUsername("lock.me");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.lockUntil("lock.me", Instant.now().plus(1, ChronoUnit.HOURS));
+            assertNotNull(userCache.getUserFromCache("lock.me"), "kept until the commit");
+        });
+
+        assertNull(userCache.getUserFromCache("lock.me"));
+        assertFalse(userService.loadUserByUsername("lock.me").isAccountNonLocked());
+    }
+
+    @Test
+    @DisplayName("loadUserForSignIn_readsThePasswordFromTheDatabase")
+    void signInBypassesTheCache() {
+        User stored = userRepository.findByUsername("john.doe").orElseThrow();
+        userCache.putUserInCache(new User("john.doe", null, stored.getImage(), stored.getRoles()));
+        try {
+            assertNull(userService.loadUserByUsername("john.doe").getPassword());
+            assertEquals(stored.getPassword(), userService.loadUserForSignIn("john.doe").getPassword());
+        } finally {
+            userCache.removeUserFromCache("john.doe");
+        }
+    }
+
+    private static List<String> usernames(UserPage page) {
+        return page.users().stream().map(UserSummary::username).toList();
+    }
+}
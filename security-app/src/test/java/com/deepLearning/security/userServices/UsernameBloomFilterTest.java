@@ -0,0 +1,54 @@
+package com.deepLearning.security.userServices;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsernameBloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain_addedUsernames_alwaysTrue")
+    void addedUsernamesAreNeverMissing() {
+        UsernameBloomFilter filter = new UsernameBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("mightContain_newUsernames_falsePositiveRateNearConfigured")
+    void newUsernamesAreMostlyRejected() {
+        UsernameBloomFilter filter = new UsernameBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("new" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("constructor_sizesBitsAndHashesForRate")
+    void filterIsSizedForTheRate() {
+        UsernameBloomFilter filter = new UsernameBloomFilter(1_000_000, 0.01);
+
+        assertEquals(7, filter.hashCount());
+        assertTrue(filter.bitCount() >= 9_585_059 && filter.bitCount() < 9_585_059 + 64);
+        assertFalse(new UsernameBloomFilter(1, 0.01).mightContain("john.doe"));
+        assertThrows(IllegalArgumentException.class, () -> new UsernameBloomFilter(10, 1));
+    }
+}
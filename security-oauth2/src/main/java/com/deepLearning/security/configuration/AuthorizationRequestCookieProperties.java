@@ -0,0 +1,49 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * AuthorizationRequestCookieProperties configures the cookie that carries a pending OAuth2 authorization request
+ * from {@code /oauth2/login} to the {@code /login/oauth2/code/*} callback.
+ * <p>
+ * Bound from the {@code security.oauth2.authorization-request} prefix:
+ * <pre>
+ * security:
+ *   oauth2:
+ *     authorization-request:
+ *       cookie-name: oauth2_auth_request
+ *       max-age: 3m         # how long a login may take at the provider
+ *       secure: true        # send the cookie over HTTPS only
+ *       secret:             # base64 AES key, derived from security.jwt.secret if empty
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.oauth2.authorization-request")
+public class AuthorizationRequestCookieProperties {
+
+    /**
+     * Name of the cookie.
+     */
+    private String cookieName = "oauth2_auth_request";
+
+    /**
+     * Lifetime of the cookie; a callback arriving later is rejected.
+     */
+    private Duration maxAge = Duration.ofMinutes(3);
+
+    /**
+     * Whether the cookie is marked {@code Secure}. Browsers accept secure cookies from {@code http://localhost}.
+     */
+    private boolean secure = true;
+
+    /**
+     * Base64-encoded AES key (128, 192 or 256 bits) of the cookie. If empty, a key is derived from the JWT signing
+     * key, so all nodes sharing {@code security.jwt.secret} can read each other's cookies.
+     */
+    private String secret;
+}
@@ -0,0 +1,164 @@
+package com.deepLearning.security.configuration;
+
+import com.deepLearning.security.oAuth2.CachedIdTokenDecoderFactory;
+import com.deepLearning.security.oAuth2.ProviderLatencyInterceptor;
+import com.deepLearning.security.oAuth2.ProviderMetadataCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientAuthorizationCodeTokenResponseClient;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OAuth2ProviderConfig provides the HTTP plumbing of the calls that {@code oauth2Login} makes to the providers.
+ * <p>
+ * All calls share one JDK {@link HttpClient}, which keeps connections alive and reuses them per provider host (over
+ * HTTP/2 when the provider supports it), with the connect and read timeouts of {@link OAuth2ProviderProperties}.
+ * The latency of every call is recorded in {@code auth.oauth2.provider.latency} by {@link ProviderLatencyInterceptor},
+ * tagged with the endpoint.
+ * <p>
+ * ID tokens are verified with the signing keys held by the {@link ProviderMetadataCache}, which is warmed at startup
+ * and refreshed in the background.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class OAuth2ProviderConfig {
+
+    /**
+     * Provides the request factory shared by the provider clients.
+     *
+     * @param properties the provider client properties.
+     * @return the request factory.
+     */
+    @Bean
+    public JdkClientHttpRequestFactory oAuth2ProviderRequestFactory(OAuth2ProviderProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * Provides the client of the token endpoint, which exchanges the authorization code.
+     *
+     * @param oAuth2ProviderRequestFactory the shared request factory.
+     * @param meterRegistry                the registry of the latency metrics.
+     * @return the token response client.
+     */
+    @Bean
+    public OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient(
+            JdkClientHttpRequestFactory oAuth2ProviderRequestFactory, MeterRegistry meterRegistry) {
+        RestClient restClient = RestClient.builder()
+                .requestFactory(oAuth2ProviderRequestFactory)
+                .requestInterceptor(new ProviderLatencyInterceptor("token", meterRegistry))
+                .messageConverters(converters -> {
+                    converters.clear();
+                    converters.add(new FormHttpMessageConverter());
+                    converters.add(new OAuth2AccessTokenResponseHttpMessageConverter());
+                })
+                .defaultStatusHandler(new OAuth2ErrorResponseErrorHandler())
+                .build();
+        RestClientAuthorizationCodeTokenResponseClient client = new RestClientAuthorizationCodeTokenResponseClient();
+        client.setRestClient(restClient);
+        return client;
+    }
+
+    /**
+     * Provides the user service of plain OAuth2 providers, which calls the user info endpoint.
+     *
+     * @param oAuth2ProviderRequestFactory the shared request factory.
+     * @param meterRegistry                the registry of the latency metrics.
+     * @return the user service.
+     */
+    @Bean
+    public DefaultOAuth2UserService oAuth2UserService(JdkClientHttpRequestFactory oAuth2ProviderRequestFactory,
+                                                      MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(oAuth2ProviderRequestFactory);
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        restTemplate.getInterceptors().add(new ProviderLatencyInterceptor("userinfo", meterRegistry));
+        DefaultOAuth2UserService userService = new DefaultOAuth2UserService();
+        userService.setRestOperations(restTemplate);
+        return userService;
+    }
+
+    /**
+     * Provides the user service of OpenID Connect providers, which calls the user info endpoint through
+     * {@link #oAuth2UserService} when needed.
+     *
+     * @param oAuth2UserService the user service of plain OAuth2 providers.
+     * @return the OIDC user service.
+     */
+    @Bean
+    public OidcUserService oidcUserService(DefaultOAuth2UserService oAuth2UserService) {
+        OidcUserService userService = new OidcUserService();
+        userService.setOauth2UserService(oAuth2UserService);
+        return userService;
+    }
+
+    /**
+     * Provides the cache of the provider metadata and signing keys, and starts its warm-up.
+     *
+     * @param registrations                the client registrations.
+     * @param properties                   the provider client properties.
+     * @param oAuth2ProviderRequestFactory the shared request factory.
+     * @param meterRegistry                the registry of the latency metrics.
+     * @return the cache.
+     */
+    @Bean(destroyMethod = "close")
+    public ProviderMetadataCache providerMetadataCache(ClientRegistrationRepository registrations,
+                                                       OAuth2ProviderProperties properties,
+                                                       JdkClientHttpRequestFactory oAuth2ProviderRequestFactory,
+                                                       MeterRegistry meterRegistry) {
+        List<ClientRegistration> clientRegistrations = new ArrayList<>();
+        if (registrations instanceof Iterable<?> iterable) {
+            for (Object registration : iterable) {
+                clientRegistrations.add((ClientRegistration) registration);
+            }
+        }
+        ProviderMetadataCache cache = new ProviderMetadataCache(clientRegistrations,
+                providerClient(oAuth2ProviderRequestFactory, "metadata", meterRegistry),
+                providerClient(oAuth2ProviderRequestFactory, "jwks", meterRegistry),
+                properties.getRefreshInterval(), properties.getKeyRefreshCooldown());
+        cache.start();
+        return cache;
+    }
+
+    /**
+     * Provides the decoders of ID tokens, verified with the cached signing keys.
+     *
+     * @param providerMetadataCache the cache of the provider signing keys.
+     * @return the ID token decoder factory.
+     */
+    @Bean
+    public JwtDecoderFactory<ClientRegistration> idTokenDecoderFactory(ProviderMetadataCache providerMetadataCache) {
+        return new CachedIdTokenDecoderFactory(providerMetadataCache);
+    }
+
+    private static RestClient providerClient(JdkClientHttpRequestFactory requestFactory, String endpoint,
+                                             MeterRegistry meterRegistry) {
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor(new ProviderLatencyInterceptor(endpoint, meterRegistry))
+                .build();
+    }
+}
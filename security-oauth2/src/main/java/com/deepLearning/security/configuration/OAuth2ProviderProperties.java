@@ -0,0 +1,49 @@
+package com.deepLearning.security.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * OAuth2ProviderProperties configures the HTTP client of the calls made to OAuth2 providers during
+ * {@code oauth2Login} (code exchange, user info, provider metadata and signing keys).
+ * <p>
+ * Bound from the {@code security.oauth2.provider} prefix:
+ * <pre>
+ * security:
+ *   oauth2:
+ *     provider:
+ *       connect-timeout: 2s
+ *       read-timeout: 5s
+ *       refresh-interval: 15m     # background refresh of provider metadata and signing keys
+ *       key-refresh-cooldown: 30s # minimal interval of refreshes triggered by an unknown key id
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.oauth2.provider")
+public class OAuth2ProviderProperties {
+
+    /**
+     * Timeout of establishing a connection to a provider.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Timeout of reading the response of a provider.
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Interval of the background refresh of provider metadata and signing keys.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(15);
+
+    /**
+     * Minimal interval between two refreshes of the signing keys of a provider caused by a token signed with an
+     * unknown key, e.g. right after a key rotation.
+     */
+    private Duration keyRefreshCooldown = Duration.ofSeconds(30);
+}
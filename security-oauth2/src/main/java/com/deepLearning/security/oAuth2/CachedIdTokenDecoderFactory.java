@@ -0,0 +1,61 @@
+package com.deepLearning.security.oAuth2;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CachedIdTokenDecoderFactory creates the decoders of the OpenID Connect ID tokens received during
+ * {@code oauth2Login}, verifying their RS256 signatures with the keys of the {@link ProviderMetadataCache} instead of
+ * fetching the provider's JWK set on the login request.
+ * <p>
+ * Claims are validated and converted like with Spring's {@link OidcIdTokenDecoderFactory}: timestamps, issuer,
+ * audience and nonce-related checks of {@link OidcIdTokenValidator}, and the default claim type conversions.
+ */
+public class CachedIdTokenDecoderFactory implements JwtDecoderFactory<ClientRegistration> {
+
+    private final ProviderMetadataCache cache;
+    private final Map<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the factory.
+     *
+     * @param cache the cache of the provider signing keys.
+     */
+    public CachedIdTokenDecoderFactory(ProviderMetadataCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public JwtDecoder createDecoder(ClientRegistration registration) {
+        return decoders.computeIfAbsent(registration.getRegistrationId(), id -> decoder(registration));
+    }
+
+    private JwtDecoder decoder(ClientRegistration registration) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256,
+                cache.jwkSource(registration.getRegistrationId())));
+        // claims are validated by the Spring validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(), new OidcIdTokenValidator(registration)));
+        decoder.setClaimSetConverter(
+                new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters()));
+        return decoder;
+    }
+}
@@ -0,0 +1,223 @@
+package com.deepLearning.security.oAuth2;
+
+import com.deepLearning.security.configuration.AuthorizationRequestCookieProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+
+/**
+ * CookieOAuth2AuthorizationRequestRepository keeps the pending OAuth2 authorization request in a cookie instead of
+ * the HTTP session, so that the {@code /login/oauth2/code/*} callback can be completed by any node and no session is
+ * created per login.
+ * <p>
+ * The request is written as JSON with the Spring Security Jackson modules, prefixed with its expiry time and
+ * encrypted with AES-GCM. The authentication tag of GCM makes the cookie tamper-proof: a modified, truncated or
+ * foreign cookie fails to decrypt and is treated as absent, just like an expired one. The cookie name is bound to
+ * the ciphertext as associated data.
+ * <p>
+ * The cookie is {@code HttpOnly}, {@code SameSite=Lax} (the provider redirects back with a top-level {@code GET},
+ * which carries lax cookies) and lives for {@code security.oauth2.authorization-request.max-age}. As with the
+ * session-based repository, the request is only returned if its {@code state} matches the callback's.
+ * <p>
+ * The key is {@code security.oauth2.authorization-request.secret}, or else derived from the JWT signing key with
+ * HMAC-SHA256, so it is shared by every node with the same {@code security.jwt.secret}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class CookieOAuth2AuthorizationRequestRepository
+        implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    /**
+     * Label of the key derived from the JWT signing key.
+     */
+    private static final byte[] KEY_LABEL = "oauth2-authorization-request".getBytes(StandardCharsets.UTF_8);
+
+    private final String cookieName;
+    private final long maxAgeMillis;
+    private final boolean secure;
+    private final SecretKey key;
+    private final byte[] associatedData;
+
+    /**
+     * Millisecond clock.
+     */
+    private final LongSupplier clock;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Constructs the repository.
+     *
+     * @param properties    the cookie properties.
+     * @param jwtSigningKey the JWT signing key, from which the cookie key is derived unless one is configured.
+     */
+    @Autowired
+    public CookieOAuth2AuthorizationRequestRepository(AuthorizationRequestCookieProperties properties,
+                                                      SecretKey jwtSigningKey) {
+        this(properties, cookieKey(properties, jwtSigningKey), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the repository with the given key and millisecond clock.
+     */
+    CookieOAuth2AuthorizationRequestRepository(AuthorizationRequestCookieProperties properties, SecretKey key,
+                                               LongSupplier clock) {
+        this.cookieName = properties.getCookieName();
+        this.maxAgeMillis = properties.getMaxAge().toMillis();
+        this.secure = properties.isSecure();
+        this.key = key;
+        this.associatedData = cookieName.getBytes(StandardCharsets.UTF_8);
+        this.clock = clock;
+        // includes the OAuth2 client module and restricts polymorphic typing to the Spring Security types
+        objectMapper.registerModules(SecurityJackson2Modules.getModules(getClass().getClassLoader()));
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) {
+            return null;
+        }
+        OAuth2AuthorizationRequest authorizationRequest = read(request);
+        return authorizationRequest != null && state.equals(authorizationRequest.getState())
+                ? authorizationRequest
+                : null;
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            clear(response);
+            return;
+        }
+        write(response, encrypt(authorizationRequest), maxAgeMillis / 1000);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request,
+                                                                 HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            clear(response);
+        }
+        return authorizationRequest;
+    }
+
+    private OAuth2AuthorizationRequest read(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                return decrypt(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    private String encrypt(OAuth2AuthorizationRequest authorizationRequest) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(authorizationRequest);
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(associatedData);
+            byte[] plaintext = ByteBuffer.allocate(Long.BYTES + json.length)
+                    .putLong(clock.getAsLong() + maxAgeMillis)
+                    .put(json)
+                    .array();
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    ByteBuffer.allocate(IV_LENGTH + ciphertext.length).put(iv).put(ciphertext).array());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt the OAuth2 authorization request", e);
+        }
+    }
+
+    private OAuth2AuthorizationRequest decrypt(String value) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(value);
+            if (bytes.length < IV_LENGTH + TAG_BITS / 8 + Long.BYTES) {
+                return null;
+            }
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_LENGTH));
+            cipher.updateAAD(associatedData);
+            ByteBuffer plaintext = ByteBuffer.wrap(cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH));
+            if (plaintext.getLong() <= clock.getAsLong()) {
+                return null;
+            }
+            return objectMapper.readValue(plaintext.array(), plaintext.position(), plaintext.remaining(),
+                    OAuth2AuthorizationRequest.class);
+        } catch (IllegalArgumentException | IOException | GeneralSecurityException e) {
+            log.debug("Ignoring invalid OAuth2 authorization request cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void clear(HttpServletResponse response) {
+        write(response, "", 0);
+    }
+
+    private void write(HttpServletResponse response, String value, long maxAgeSeconds) {
+        ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax")
+                .maxAge(maxAgeSeconds)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * Returns the configured cookie key, or derives one from the JWT signing key.
+     */
+    static SecretKey cookieKey(AuthorizationRequestCookieProperties properties, SecretKey jwtSigningKey) {
+        if (StringUtils.hasText(properties.getSecret())) {
+            return new SecretKeySpec(Base64.getDecoder().decode(properties.getSecret()), "AES");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(jwtSigningKey.getEncoded(), "HmacSHA256"));
+            return new SecretKeySpec(mac.doFinal(KEY_LABEL), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive the OAuth2 authorization request cookie key", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.deepLearning.security.oAuth2;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProviderLatencyInterceptor records the latency of the calls made to an OAuth2 provider endpoint in the
+ * {@code auth.oauth2.provider.latency} timer, tagged with the endpoint ({@code token}, {@code userinfo},
+ * {@code metadata} or {@code jwks}), the provider host and the outcome: the status series of the response
+ * ({@code 2xx}, {@code 4xx}, ...) or {@code error} if no response was received.
+ */
+public class ProviderLatencyInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String endpoint;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs the interceptor of one endpoint.
+     *
+     * @param endpoint      the endpoint tag.
+     * @param meterRegistry the registry of the timer.
+     */
+    public ProviderLatencyInterceptor(String endpoint, MeterRegistry meterRegistry) {
+        this.endpoint = endpoint;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = response.getStatusCode().value() / 100 + "xx";
+            return response;
+        } finally {
+            Timer.builder("auth.oauth2.provider.latency")
+                    .description("Latency of the calls made to OAuth2 providers")
+                    .tag("endpoint", endpoint)
+                    .tag("host", String.valueOf(request.getURI().getHost()))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.deepLearning.security.oAuth2;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * ProviderMetadataCache keeps the metadata (OpenID discovery document) and the signing keys (JWK set) of the OAuth2
+ * providers in memory, so that verifying an ID token never waits for the provider.
+ * <p>
+ * Every provider is fetched once in the background right after {@link #start()}, and again every refresh interval.
+ * The JWK set is read from the {@code jwks_uri} of the metadata if the registration has an issuer, otherwise from its
+ * configured JWK set URI. A failed refresh keeps the previous entry. A token signed with a key that is not in the
+ * cache (a rotation between two refreshes) triggers an immediate refresh of the keys, at most once per cooldown.
+ * <p>
+ * Providers are fetched sequentially on a single thread of the cache.
+ */
+@Slf4j
+public class ProviderMetadataCache implements AutoCloseable {
+
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+
+    private final Map<String, ClientRegistration> registrations = new ConcurrentHashMap<>();
+    private final RestClient metadataClient;
+    private final RestClient jwksClient;
+    private final Duration refreshInterval;
+    private final long keyRefreshCooldownMillis;
+
+    /**
+     * Millisecond clock.
+     */
+    private final LongSupplier clock;
+
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the last fetch attempt, by registration.
+     */
+    private final Map<String, Long> lastAttempts = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "oauth2-provider-metadata");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the cache.
+     *
+     * @param registrations      the client registrations whose providers are cached.
+     * @param metadataClient     the client of the discovery documents.
+     * @param jwksClient         the client of the JWK sets.
+     * @param refreshInterval    the interval of the background refresh.
+     * @param keyRefreshCooldown the minimal interval of refreshes triggered by an unknown key.
+     */
+    public ProviderMetadataCache(List<ClientRegistration> registrations, RestClient metadataClient,
+                                 RestClient jwksClient, Duration refreshInterval, Duration keyRefreshCooldown) {
+        this(registrations, metadataClient, jwksClient, refreshInterval, keyRefreshCooldown,
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the cache with the given millisecond clock.
+     */
+    ProviderMetadataCache(List<ClientRegistration> registrations, RestClient metadataClient, RestClient jwksClient,
+                          Duration refreshInterval, Duration keyRefreshCooldown, LongSupplier clock) {
+        for (ClientRegistration registration : registrations) {
+            this.registrations.put(registration.getRegistrationId(), registration);
+        }
+        this.metadataClient = metadataClient;
+        this.jwksClient = jwksClient;
+        this.refreshInterval = refreshInterval;
+        this.keyRefreshCooldownMillis = keyRefreshCooldown.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the background refresh, beginning with the warm-up of all providers.
+     */
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refreshAll, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refreshes the metadata and keys of every provider.
+     */
+    public void refreshAll() {
+        for (String registrationId : registrations.keySet()) {
+            refresh(registrationId);
+        }
+    }
+
+    /**
+     * Refreshes the metadata and keys of one provider; on failure the previous entry is kept.
+     *
+     * @param registrationId the registration of the provider.
+     * @return {@code true} if the provider was fetched.
+     */
+    public boolean refresh(String registrationId) {
+        ClientRegistration registration = registrations.get(registrationId);
+        if (registration == null) {
+            return false;
+        }
+        lastAttempts.put(registrationId, clock.getAsLong());
+        try {
+            Map<String, Object> metadata = fetchMetadata(registration);
+            Object jwksUri = metadata.get("jwks_uri");
+            String keysUri = jwksUri instanceof String uri
+                    ? uri
+                    : registration.getProviderDetails().getJwkSetUri();
+            JWKSet keys = StringUtils.hasText(keysUri)
+                    ? JWKSet.parse(jwksClient.get().uri(keysUri).retrieve().body(String.class))
+                    : new JWKSet();
+            providers.put(registrationId, new Provider(metadata, keys));
+            return true;
+        } catch (ParseException | RuntimeException e) {
+            log.warn("Refreshing the metadata of OAuth2 provider {} failed: {}", registrationId, e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the discovery document of a provider, fetching it if it is not cached yet.
+     *
+     * @param registrationId the registration of the provider.
+     * @return the metadata, empty if the provider has no issuer or could not be fetched.
+     */
+    public Map<String, Object> metadata(String registrationId) {
+        Provider provider = provider(registrationId);
+        return provider != null ? provider.metadata() : Map.of();
+    }
+
+    /**
+     * Returns the signing keys of a provider, fetching them if they are not cached yet.
+     *
+     * @param registrationId the registration of the provider.
+     * @return the keys, empty if none could be fetched.
+     */
+    public JWKSet keys(String registrationId) {
+        Provider provider = provider(registrationId);
+        return provider != null ? provider.keys() : new JWKSet();
+    }
+
+    /**
+     * Returns the key source of the ID tokens of a registration, backed by this cache.
+     *
+     * @param registrationId the registration of the provider.
+     * @return the key source.
+     */
+    public JWKSource<SecurityContext> jwkSource(String registrationId) {
+        return (selector, context) -> {
+            List<JWK> keys = selector.select(keys(registrationId));
+            if (keys.isEmpty() && refreshIfCooledDown(registrationId)) {
+                keys = selector.select(keys(registrationId));
+            }
+            if (keys.isEmpty() && !providers.containsKey(registrationId)) {
+                throw new KeySourceException("Signing keys of OAuth2 provider " + registrationId
+                        + " are not available");
+            }
+            return keys;
+        };
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private Provider provider(String registrationId) {
+        Provider provider = providers.get(registrationId);
+        if (provider == null && refreshIfCooledDown(registrationId)) {
+            provider = providers.get(registrationId);
+        }
+        return provider;
+    }
+
+    /**
+     * Refreshes a provider on demand (missing entry or unknown key), unless it was attempted within the cooldown.
+     */
+    private synchronized boolean refreshIfCooledDown(String registrationId) {
+        Long lastAttempt = lastAttempts.get(registrationId);
+        if (lastAttempt != null && clock.getAsLong() - lastAttempt < keyRefreshCooldownMillis) {
+            return false;
+        }
+        return refresh(registrationId);
+    }
+
+    private Map<String, Object> fetchMetadata(ClientRegistration registration) throws ParseException {
+        String issuer = registration.getProviderDetails().getIssuerUri();
+        if (!StringUtils.hasText(issuer)) {
+            return Map.of();
+        }
+        String uri = (issuer.endsWith("/") ? issuer.substring(0, issuer.length() - 1) : issuer) + DISCOVERY_PATH;
+        return JSONObjectUtils.parse(metadataClient.get().uri(uri).retrieve().body(String.class));
+    }
+
+    /**
+     * The cached state of a provider.
+     */
+    private record Provider(Map<String, Object> metadata, JWKSet keys) {
+    }
+}
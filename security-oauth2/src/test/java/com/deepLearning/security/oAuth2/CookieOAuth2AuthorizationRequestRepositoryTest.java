@@ -0,0 +1,122 @@
+package com.deepLearning.security.oAuth2;
+
+import com.deepLearning.security.configuration.AuthorizationRequestCookieProperties;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CookieOAuth2AuthorizationRequestRepositoryTest {
+
+    private static final String STATE = "c3RhdGU";
+
+    private final AuthorizationRequestCookieProperties properties = new AuthorizationRequestCookieProperties();
+    private final SecretKey jwtSigningKey = Jwts.SIG.HS256.key().build();
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private final OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+            .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+            .clientId("client")
+            .redirectUri("http://localhost:8080/login/oauth2/code/google")
+            .scopes(Set.of("openid", "email", "profile"))
+            .state(STATE)
+            .additionalParameters(Map.of("nonce", "n-0S6_WzA2Mj"))
+            .attributes(Map.of("registration_id", "google", "nonce", "secret-nonce"))
+            .build();
+
+    @Test
+    @DisplayName("save_thenLoadOnAnotherNode_returnsTheRequest")
+    void roundTripsBetweenNodesSharingTheJwtKey() {
+        String cookie = save(repository());
+
+        OAuth2AuthorizationRequest loaded = repository().loadAuthorizationRequest(callback(cookie, STATE));
+
+        assertNotNull(loaded);
+        assertEquals(authorizationRequest.getAuthorizationRequestUri(), loaded.getAuthorizationRequestUri());
+        assertEquals(authorizationRequest.getRedirectUri(), loaded.getRedirectUri());
+        assertEquals(authorizationRequest.getScopes(), loaded.getScopes());
+        assertEquals(authorizationRequest.getAttributes(), loaded.getAttributes());
+    }
+
+    @Test
+    @DisplayName("save_writesAShortLivedHttpOnlyCookie")
+    void writesAShortLivedHttpOnlyCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository().saveAuthorizationRequest(authorizationRequest, new MockHttpServletRequest(), response);
+
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(header);
+        assertTrue(header.contains("Max-Age=180"));
+        assertTrue(header.contains("HttpOnly"));
+        assertTrue(header.contains("Secure"));
+        assertTrue(header.contains("SameSite=Lax"));
+        assertTrue(header.length() < 4096);
+    }
+
+    @Test
+    @DisplayName("load_rejectsTamperedForeignAndExpiredCookies")
+    void rejectsTamperedForeignAndExpiredCookies() {
+        CookieOAuth2AuthorizationRequestRepository repository = repository();
+        String cookie = save(repository);
+        char last = cookie.charAt(cookie.length() - 10);
+        String tampered = cookie.substring(0, cookie.length() - 10) + (last == 'A' ? 'B' : 'A')
+                + cookie.substring(cookie.length() - 9);
+        CookieOAuth2AuthorizationRequestRepository otherKey = new CookieOAuth2AuthorizationRequestRepository(
+                properties, CookieOAuth2AuthorizationRequestRepository.cookieKey(properties,
+                Jwts.SIG.HS256.key().build()), clock::get);
+
+        assertNull(repository.loadAuthorizationRequest(callback(tampered, STATE)));
+        assertNull(repository.loadAuthorizationRequest(callback("not base64!", STATE)));
+        assertNull(otherKey.loadAuthorizationRequest(callback(cookie, STATE)));
+        assertNull(repository.loadAuthorizationRequest(callback(cookie, "other-state")));
+        assertNull(repository.loadAuthorizationRequest(callback(cookie, null)));
+
+        clock.addAndGet(properties.getMaxAge().toMillis());
+        assertNull(repository.loadAuthorizationRequest(callback(cookie, STATE)));
+    }
+
+    @Test
+    @DisplayName("remove_returnsTheRequestAndClearsTheCookie")
+    void removesTheRequestAndClearsTheCookie() {
+        CookieOAuth2AuthorizationRequestRepository repository = repository();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNotNull(repository.removeAuthorizationRequest(callback(save(repository), STATE), response));
+        assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+    }
+
+    private CookieOAuth2AuthorizationRequestRepository repository() {
+        return new CookieOAuth2AuthorizationRequestRepository(properties,
+                CookieOAuth2AuthorizationRequestRepository.cookieKey(properties, jwtSigningKey), clock::get);
+    }
+
+    private String save(CookieOAuth2AuthorizationRequestRepository repository) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveAuthorizationRequest(authorizationRequest, new MockHttpServletRequest(), response);
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        return header.substring(header.indexOf('=') + 1, header.indexOf(';'));
+    }
+
+    private MockHttpServletRequest callback(String cookie, String state) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login/oauth2/code/google");
+        request.setCookies(new Cookie(properties.getCookieName(), cookie));
+        if (state != null) {
+            request.setParameter("state", state);
+        }
+        return request;
+    }
+}
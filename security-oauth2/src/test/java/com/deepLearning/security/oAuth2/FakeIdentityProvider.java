@@ -0,0 +1,119 @@
+package com.deepLearning.security.oAuth2;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test helper serving a minimal OpenID Connect provider on a local port: discovery document, JWK set, token and
+ * user info endpoints. Tokens are signed with an RSA key that can be rotated.
+ */
+public final class FakeIdentityProvider implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private volatile RSAKey signingKey = newKey();
+    private volatile String idToken = "";
+
+    public FakeIdentityProvider() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/.well-known/openid-configuration", exchange -> respond(exchange, """
+                {"issuer":"%1$s","authorization_endpoint":"%1$s/authorize","token_endpoint":"%1$s/token",
+                "userinfo_endpoint":"%1$s/userinfo","jwks_uri":"%1$s/jwks"}""".formatted(issuer())));
+        server.createContext("/jwks", exchange -> respond(exchange,
+                new JWKSet(signingKey.toPublicJWK()).toString()));
+        server.createContext("/token", exchange -> respond(exchange, """
+                {"access_token":"access","token_type":"Bearer","expires_in":3600,"scope":"openid email",
+                "id_token":"%s"}""".formatted(idToken)));
+        server.createContext("/userinfo", exchange -> respond(exchange,
+                "{\"sub\":\"1\",\"email\":\"jane@example.com\"}"));
+        server.start();
+    }
+
+    public String issuer() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Replaces the signing key; the JWK set only serves the new one.
+     */
+    public void rotateKey() {
+        signingKey = newKey();
+    }
+
+    /**
+     * Signs an ID token for the given client, returned by the token endpoint from now on.
+     */
+    public String issueIdToken(String clientId) {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer())
+                .subject("1")
+                .audience(clientId)
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                .claim("email", "jane@example.com")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(signingKey.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(signingKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        idToken = jwt.serialize();
+        return idToken;
+    }
+
+    /**
+     * Returns the number of requests received on the given path.
+     */
+    public int requests(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requests.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static RSAKey newKey() {
+        try {
+            return new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.deepLearning.security.oAuth2;
+
+import com.deepLearning.security.configuration.OAuth2ProviderConfig;
+import com.deepLearning.security.configuration.OAuth2ProviderProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationExchange;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponse;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderMetadataCacheTest {
+
+    private static final String CLIENT_ID = "client";
+    private static final String REDIRECT_URI = "http://localhost:8080/login/oauth2/code/fake";
+
+    private final FakeIdentityProvider provider = new FakeIdentityProvider();
+    private final ClientRegistration registration = ClientRegistration.withRegistrationId("fake")
+            .clientId(CLIENT_ID)
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri(REDIRECT_URI)
+            .scope("openid", "email")
+            .issuerUri(provider.issuer())
+            .authorizationUri(provider.issuer() + "/authorize")
+            .tokenUri(provider.issuer() + "/token")
+            .userInfoUri(provider.issuer() + "/userinfo")
+            .userNameAttributeName("sub")
+            .build();
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final ProviderMetadataCache cache = new ProviderMetadataCache(List.of(registration),
+            RestClient.create(), RestClient.create(), Duration.ofMinutes(15), Duration.ofSeconds(30), clock::get);
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+        provider.close();
+    }
+
+    @Test
+    @DisplayName("warmUp_thenIdTokensAreVerifiedWithoutCallingTheProvider")
+    void verifiesIdTokensWithTheWarmedKeys() {
+        cache.refreshAll();
+        JwtDecoder decoder = new CachedIdTokenDecoderFactory(cache).createDecoder(registration);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("jane@example.com", decoder.decode(provider.issueIdToken(CLIENT_ID)).getClaim("email"));
+        }
+        assertEquals(provider.issuer() + "/jwks", cache.metadata("fake").get("jwks_uri"));
+        assertEquals(1, provider.requests("/.well-known/openid-configuration"));
+        assertEquals(1, provider.requests("/jwks"));
+    }
+
+    @Test
+    @DisplayName("unknownKey_refreshesOncePerCooldown")
+    void refreshesTheKeysAfterARotationOncePerCooldown() {
+        cache.refreshAll();
+        JwtDecoder decoder = new CachedIdTokenDecoderFactory(cache).createDecoder(registration);
+        clock.addAndGet(Duration.ofSeconds(30).toMillis());
+
+        provider.rotateKey();
+        decoder.decode(provider.issueIdToken(CLIENT_ID));
+        assertEquals(2, provider.requests("/jwks"));
+
+        provider.rotateKey();
+        String token = provider.issueIdToken(CLIENT_ID);
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        assertEquals(2, provider.requests("/jwks"));
+
+        clock.addAndGet(Duration.ofSeconds(30).toMillis());
+        decoder.decode(token);
+        assertEquals(3, provider.requests("/jwks"));
+    }
+
+    @Test
+    @DisplayName("rejectsIdTokensOfAnotherAudience")
+    void rejectsIdTokensOfAnotherAudience() {
+        JwtDecoder decoder = new CachedIdTokenDecoderFactory(cache).createDecoder(registration);
+
+        assertThrows(JwtException.class, () -> decoder.decode(provider.issueIdToken("other-client")));
+    }
+
+    @Test
+    @DisplayName("providerClients_exchangeTheCodeAndRecordLatency")
+    void exchangesTheCodeAndLoadsTheUserThroughThePooledClient() {
+        OAuth2ProviderConfig config = new OAuth2ProviderConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdkClientHttpRequestFactory requestFactory =
+                config.oAuth2ProviderRequestFactory(new OAuth2ProviderProperties());
+        OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> tokenClient =
+                config.authorizationCodeTokenResponseClient(requestFactory, meterRegistry);
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri(provider.issuer() + "/authorize")
+                .clientId(CLIENT_ID)
+                .redirectUri(REDIRECT_URI)
+                .state("state")
+                .build();
+        OAuth2AuthorizationResponse authorizationResponse = OAuth2AuthorizationResponse.success("code")
+                .redirectUri(REDIRECT_URI)
+                .state("state")
+                .build();
+        provider.issueIdToken(CLIENT_ID);
+
+        OAuth2AccessTokenResponse tokenResponse = tokenClient.getTokenResponse(new OAuth2AuthorizationCodeGrantRequest(
+                registration, new OAuth2AuthorizationExchange(authorizationRequest, authorizationResponse)));
+        OAuth2User user = config.oAuth2UserService(requestFactory, meterRegistry)
+                .loadUser(new OAuth2UserRequest(registration, tokenResponse.getAccessToken()));
+
+        assertEquals("access", tokenResponse.getAccessToken().getTokenValue());
+        assertTrue(tokenResponse.getAdditionalParameters().containsKey("id_token"));
+        assertEquals("jane@example.com", user.getAttribute("email"));
+        for (String endpoint : List.of("token", "userinfo")) {
+            assertEquals(1, meterRegistry.get("auth.oauth2.provider.latency")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", "2xx")
+                    .timer()
+                    .count());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.deepLearning.security.verifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base64Url is a small table-driven Base64URL (RFC 4648 section 5, no padding) codec for JWT segments.
+ * <p>
+ * Unlike {@link java.util.Base64} it works on index ranges of a {@link CharSequence} and writes into caller-provided
+ * buffers, so a token segment can be checked and decoded without {@code substring} and without intermediate
+ * arrays. It is used by {@link TokenSanityGate} for the header and by the HS256 fast path for the whole token.
+ */
+public final class Base64Url {
+
+    private static final byte[] ENCODE =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Maps an ASCII character to its 6-bit value, or {@code -1} if it is not part of the Base64URL alphabet.
+     */
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ENCODE.length; i++) {
+            DECODE[ENCODE[i]] = (byte) i;
+        }
+    }
+
+    private Base64Url() {
+    }
+
+    /**
+     * Checks whether the given character belongs to the Base64URL alphabet.
+     *
+     * @param c the character.
+     * @return {@code true} for {@code A-Z}, {@code a-z}, {@code 0-9}, {@code -} and {@code _}.
+     */
+    public static boolean isAlphabet(char c) {
+        return c < 128 && DECODE[c] >= 0;
+    }
+
+    /**
+     * Returns the number of bytes encoded by an unpadded Base64URL string of the given length.
+     *
+     * @param encodedLength number of characters.
+     * @return number of decoded bytes, or {@code -1} if no valid unpadded encoding has that length.
+     */
+    public static int decodedLength(int encodedLength) {
+        int remainder = encodedLength & 3;
+        if (remainder == 1) {
+            return -1;
+        }
+        return (encodedLength >> 2) * 3 + (remainder == 0 ? 0 : remainder - 1);
+    }
+
+    /**
+     * Returns the number of characters needed to encode the given number of bytes without padding.
+     *
+     * @param length number of bytes.
+     * @return number of characters.
+     */
+    public static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * Decodes {@code src[from, to)} into {@code dst} starting at {@code dstOffset}.
+     *
+     * @param src       the encoded characters.
+     * @param from      first index (inclusive).
+     * @param to        last index (exclusive).
+     * @param dst       destination buffer, must have room for {@link #decodedLength(int)} bytes.
+     * @param dstOffset offset in the destination buffer.
+     * @return number of bytes written, or {@code -1} if the range is not valid unpadded Base64URL.
+     */
+    public static int decode(CharSequence src, int from, int to, byte[] dst, int dstOffset) {
+        int length = decodedLength(to - from);
+        if (length < 0 || dstOffset + length > dst.length) {
+            return -1;
+        }
+        int out = dstOffset;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[out++] = (byte) (bits >> bitCount);
+            }
+        }
+        // the unused trailing bits of the last character must be zero for a canonical encoding
+        if ((bits & ((1 << bitCount) - 1)) != 0) {
+            return -1;
+        }
+        return out - dstOffset;
+    }
+
+    /**
+     * Encodes {@code src[offset, offset + length)} as unpadded Base64URL ASCII bytes into {@code dst}.
+     *
+     * @param src       bytes to encode.
+     * @param offset    first byte to encode.
+     * @param length    number of bytes to encode.
+     * @param dst       destination buffer, must have room for {@link #encodedLength(int)} bytes.
+     * @param dstOffset offset in the destination buffer.
+     * @return number of bytes written.
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int out = dstOffset;
+        int end = offset + length;
+        int i = offset;
+        for (; i + 2 < end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[out++] = ENCODE[bits >>> 18];
+            dst[out++] = ENCODE[(bits >>> 12) & 0x3f];
+            dst[out++] = ENCODE[(bits >>> 6) & 0x3f];
+            dst[out++] = ENCODE[bits & 0x3f];
+        }
+        int remaining = end - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            dst[out++] = ENCODE[bits >>> 18];
+            dst[out++] = ENCODE[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[out++] = ENCODE[bits >>> 18];
+            dst[out++] = ENCODE[(bits >>> 12) & 0x3f];
+            dst[out++] = ENCODE[(bits >>> 6) & 0x3f];
+        }
+        return out - dstOffset;
+    }
+}
@@ -0,0 +1,34 @@
+package com.deepLearning.security.verifier;
+
+/**
+ * ClaimProfile selects how the claims of newly issued tokens are encoded.
+ * <p>
+ * Tokens of both profiles are always accepted, so the profile can be switched without invalidating tokens that
+ * are already in circulation. Versions that predate the compact profile do not read it, so compact tokens may only
+ * be issued once every service that verifies them reads both profiles.
+ *
+ * <p><b>Example payloads of an access token:</b></p>
+ * <pre>
+ * LEGACY:  {"sub":"john.doe","iat":1700000000,"exp":1700000180,"token_type":"accessToken","authorities":["ROLE_USER","ROLE_ADMIN"]}
+ * COMPACT: {"v":1,"sub":"john.doe","iat":1700000000,"exp":1700000180,"t":0,"r":3}
+ * </pre>
+ */
+public enum ClaimProfile {
+
+    /**
+     * Verbose claims: {@code token_type} as a string and {@code authorities} as a list of names.
+     */
+    LEGACY,
+
+    /**
+     * Version 1 of the compact claims: {@code v} is the profile version, {@code t} the numeric
+     * {@link TokenType#getCode() token type} and {@code r} a bitmask of the roles, one bit per entry of the role
+     * table the codec was created with.
+     */
+    COMPACT;
+
+    /**
+     * Current value of the {@code v} claim of compact tokens.
+     */
+    public static final int COMPACT_VERSION = 1;
+}
@@ -0,0 +1,62 @@
+package com.deepLearning.security.verifier;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * HmacKeyRing holds the HMAC-SHA256 keys a service accepts tokens from: the primary key, which verifies tokens
+ * without a {@code kid}, and any number of keys by key id, e.g. the current and the previous key of a rotation.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * HmacKeyRing keyRing = new HmacKeyRing(currentSecret, Map.of("2024-06", currentSecret, "2024-01", previousSecret));
+ * TokenVerifier verifier = TokenVerifier.create(keyRing, List.of("ROLE_USER", "ROLE_ADMIN"), RevocationClient.NONE);
+ * </pre>
+ * <p>
+ * The key ring is immutable and thread-safe.
+ */
+public final class HmacKeyRing implements SigningKeyResolver {
+
+    private final SecretKey primaryKey;
+    private final Map<String, SecretKey> keysById;
+
+    /**
+     * Constructs a key ring.
+     *
+     * @param primarySecret the raw secret of tokens without a key id
+     * @param secretsById   the raw secrets by key id, possibly empty
+     */
+    public HmacKeyRing(byte[] primarySecret, Map<String, byte[]> secretsById) {
+        this.primaryKey = new SecretKeySpec(Objects.requireNonNull(primarySecret), "HmacSHA256");
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        secretsById.forEach((keyId, secret) -> keys.put(keyId, new SecretKeySpec(secret, "HmacSHA256")));
+        this.keysById = Map.copyOf(keys);
+    }
+
+    @Override
+    public SecretKey resolve(String keyId) {
+        return keyId == null ? primaryKey : keysById.get(keyId);
+    }
+
+    /**
+     * Returns the key of tokens without a key id.
+     *
+     * @return the primary key
+     */
+    public SecretKey primaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * Returns the key ids of the ring, to be allowed by the {@link TokenSanityGate}.
+     *
+     * @return the key ids
+     */
+    public List<String> keyIds() {
+        return List.copyOf(keysById.keySet());
+    }
+}
@@ -0,0 +1,829 @@
+package com.deepLearning.security.verifier;
+
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hs256TokenCodec is a specialized signer and verifier for the fixed set of claims issued by this application.
+ * <p>
+ * It produces exactly the bytes jjwt produces for the same input - header {@code {"alg":"HS256"}}, payload
+ * {@code {"sub":..,"iat":..,"exp":..,"token_type":..[,"authorities":[..]][,"jti":..][,"fid":..]}} with Jackson's
+ * string escaping, or the {@link ClaimProfile#COMPACT compact} payload
+ * {@code {"v":1,"sub":..,"iat":..,"exp":..,"t":..[,"r":..][,"jti":..][,"fid":..]}} - but
+ * without jjwt's general machinery:
+ * <ul>
+ *   <li>one {@link Mac} per thread, initialized once, instead of a new instance per token;</li>
+ *   <li>JSON is written and Base64URL encoded/decoded into per-thread reusable buffers;</li>
+ *   <li>the payload is read by a small parser that only understands the known claim set and fills a
+ *       {@link TokenClaims} directly - no {@code Map}, no {@code Date}, no Jackson.</li>
+ * </ul>
+ * Verification returns {@code null} when a token is well signed-looking but does not have the known shape
+ * (another header, unknown claims, non-integer dates, ...). The caller is then expected to fall back to the
+ * general-purpose parser, so accepting a token never depends on this fast path.
+ * <p>
+ * Role bitmasks of compact tokens are translated with the role table passed to the constructor: bit {@code i}
+ * stands for the {@code i}-th authority name. The table may only be appended to, never reordered.
+ * <p>
+ * The class only depends on the JDK and {@link TokenRejectedException}; it is thread-safe.
+ */
+public final class Hs256TokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = Base64Url.encodedLength(SIGNATURE_LENGTH);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The encoded header {@code {"alg":"HS256"}} shared by every token.
+     */
+    private static final byte[] HEADER;
+
+    static {
+        byte[] json = "{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII);
+        HEADER = new byte[Base64Url.encodedLength(json.length)];
+        Base64Url.encode(json, 0, json.length, HEADER, 0);
+    }
+
+    /**
+     * Role bitmasks up to this width have their authority lists precomputed.
+     */
+    private static final int PRECOMPUTED_ROLE_BITS = 8;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * Authority names indexed by their bit in a role bitmask.
+     */
+    private final List<String> roleNames;
+
+    /**
+     * Authority lists indexed by role bitmask, if the role table is small enough.
+     */
+    private final List<List<String>> authoritiesByMask;
+
+    /**
+     * Constructs a codec for the given HMAC secret without a role table; compact tokens carry no roles.
+     *
+     * @param secret the raw HMAC-SHA256 secret, at least 256 bits.
+     */
+    public Hs256TokenCodec(byte[] secret) {
+        this(secret, List.of());
+    }
+
+    /**
+     * Constructs a codec for the given HMAC secret and role table.
+     *
+     * @param secret    the raw HMAC-SHA256 secret, at least 256 bits.
+     * @param roleNames authority names indexed by their bit in the compact {@code r} claim, at most 31.
+     */
+    public Hs256TokenCodec(byte[] secret, List<String> roleNames) {
+        if (secret == null || secret.length < SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException("HS256 secret must be at least 256 bits");
+        }
+        if (roleNames.size() > 31) {
+            throw new IllegalArgumentException("At most 31 roles fit into a role bitmask");
+        }
+        this.key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac()));
+        this.roleNames = List.copyOf(roleNames);
+        if (roleNames.size() <= PRECOMPUTED_ROLE_BITS) {
+            List<List<String>> lists = new ArrayList<>(1 << roleNames.size());
+            for (int mask = 0; mask < 1 << roleNames.size(); mask++) {
+                lists.add(decodeRoles(mask));
+            }
+            this.authoritiesByMask = List.copyOf(lists);
+        } else {
+            this.authoritiesByMask = null;
+        }
+    }
+
+    /**
+     * Signs a token with the given claims in the {@link ClaimProfile#LEGACY legacy} profile.
+     *
+     * @param subject     the {@code sub} claim.
+     * @param issuedAt    the {@code iat} claim in seconds since the epoch.
+     * @param expiresAt   the {@code exp} claim in seconds since the epoch.
+     * @param type        the token type, written as {@code token_type}.
+     * @param authorities authority names written as {@code authorities}, or {@code null} to omit the claim.
+     * @return the compact token, or {@code null} if the subject cannot be encoded (e.g. unpaired surrogates).
+     */
+    public String sign(String subject, long issuedAt, long expiresAt, TokenType type, Collection<String> authorities) {
+        return sign(ClaimProfile.LEGACY, subject, issuedAt, expiresAt, type, authorities);
+    }
+
+    /**
+     * Signs a token with the given claims in the given profile.
+     * <p>
+     * A {@link ClaimProfile#COMPACT compact} token can only carry authorities from the role table; if any other
+     * authority is present, the token is written in the legacy profile instead.
+     *
+     * @param profile     the claim profile.
+     * @param subject     the {@code sub} claim.
+     * @param issuedAt    the {@code iat} claim in seconds since the epoch.
+     * @param expiresAt   the {@code exp} claim in seconds since the epoch.
+     * @param type        the token type.
+     * @param authorities authority names, or {@code null} to omit the claim.
+     * @return the compact token, or {@code null} if the subject cannot be encoded (e.g. unpaired surrogates).
+     */
+    public String sign(ClaimProfile profile, String subject, long issuedAt, long expiresAt, TokenType type,
+                       Collection<String> authorities) {
+        return sign(profile, subject, issuedAt, expiresAt, type, authorities, null, null);
+    }
+
+    /**
+     * Signs a token with the given claims, including the identifiers of a refresh token.
+     *
+     * @param profile     the claim profile.
+     * @param subject     the {@code sub} claim.
+     * @param issuedAt    the {@code iat} claim in seconds since the epoch.
+     * @param expiresAt   the {@code exp} claim in seconds since the epoch.
+     * @param type        the token type.
+     * @param authorities authority names, or {@code null} to omit the claim.
+     * @param tokenId     the {@code jti} claim, or {@code null} to omit it.
+     * @param familyId    the {@code fid} claim (refresh token family), or {@code null} to omit it.
+     * @return the compact token, or {@code null} if a value cannot be encoded (e.g. unpaired surrogates).
+     */
+    public String sign(ClaimProfile profile, String subject, long issuedAt, long expiresAt, TokenType type,
+                       Collection<String> authorities, String tokenId, String familyId) {
+        if (profile == ClaimProfile.COMPACT) {
+            int roles = authorities == null ? 0 : roleMaskOf(authorities);
+            if (roles >= 0) {
+                return signCompact(subject, issuedAt, expiresAt, type, authorities == null ? -1 : roles,
+                        tokenId, familyId);
+            }
+        }
+        Scratch s = scratch.get();
+        JsonWriter json = s.writer.reset();
+        json.raw("{\"sub\":");
+        if (!json.string(subject)) {
+            return null;
+        }
+        json.raw(",\"iat\":").number(issuedAt);
+        json.raw(",\"exp\":").number(expiresAt);
+        json.raw(",\"token_type\":").string(type.getClaimValue());
+        if (authorities != null) {
+            json.raw(",\"authorities\":[");
+            boolean first = true;
+            for (String authority : authorities) {
+                if (!first) {
+                    json.raw(',');
+                }
+                if (!json.string(authority)) {
+                    return null;
+                }
+                first = false;
+            }
+            json.raw(']');
+        }
+        if (!identifiers(json, tokenId, familyId)) {
+            return null;
+        }
+        json.raw('}');
+        return finish(s);
+    }
+
+    /**
+     * Returns the authority names of a compact role bitmask.
+     *
+     * @param mask the value of the {@code r} claim.
+     * @return the authority names, or {@code null} if the mask has bits outside the role table.
+     */
+    public List<String> authoritiesOf(long mask) {
+        if (mask < 0 || mask >= 1L << roleNames.size()) {
+            return null;
+        }
+        return authoritiesByMask != null ? authoritiesByMask.get((int) mask) : decodeRoles((int) mask);
+    }
+
+    /**
+     * @return the role bitmask of the given authority names, or {@code -1} if one is not in the role table.
+     */
+    private int roleMaskOf(Collection<String> authorities) {
+        int mask = 0;
+        for (String authority : authorities) {
+            int bit = roleNames.indexOf(authority);
+            if (bit < 0) {
+                return -1;
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
+    private List<String> decodeRoles(int mask) {
+        List<String> names = new ArrayList<>(Integer.bitCount(mask));
+        for (int bit = 0; bit < roleNames.size(); bit++) {
+            if ((mask & (1 << bit)) != 0) {
+                names.add(roleNames.get(bit));
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    private String signCompact(String subject, long issuedAt, long expiresAt, TokenType type, int roles,
+                               String tokenId, String familyId) {
+        Scratch s = scratch.get();
+        JsonWriter json = s.writer.reset();
+        json.raw("{\"v\":").number(ClaimProfile.COMPACT_VERSION);
+        json.raw(",\"sub\":");
+        if (!json.string(subject)) {
+            return null;
+        }
+        json.raw(",\"iat\":").number(issuedAt);
+        json.raw(",\"exp\":").number(expiresAt);
+        json.raw(",\"t\":").number(type.getCode());
+        if (roles >= 0) {
+            json.raw(",\"r\":").number(roles);
+        }
+        if (!identifiers(json, tokenId, familyId)) {
+            return null;
+        }
+        json.raw('}');
+        return finish(s);
+    }
+
+    private static boolean identifiers(JsonWriter json, String tokenId, String familyId) {
+        if (tokenId != null && !json.raw(",\"jti\":").string(tokenId)) {
+            return false;
+        }
+        return familyId == null || json.raw(",\"fid\":").string(familyId);
+    }
+
+    /**
+     * Encodes the payload in the scratch writer, signs it and renders the token.
+     */
+    private static String finish(Scratch s) {
+        JsonWriter json = s.writer;
+        int payloadChars = Base64Url.encodedLength(json.length());
+        byte[] out = s.out(HEADER.length + 1 + payloadChars + 1 + ENCODED_SIGNATURE_LENGTH);
+        System.arraycopy(HEADER, 0, out, 0, HEADER.length);
+        int pos = HEADER.length;
+        out[pos++] = '.';
+        pos += Base64Url.encode(json.buffer(), 0, json.length(), out, pos);
+
+        s.mac.update(out, 0, pos);
+        doFinal(s);
+
+        out[pos++] = '.';
+        pos += Base64Url.encode(s.expected, 0, SIGNATURE_LENGTH, out, pos);
+        return new String(out, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Verifies a token against the current time.
+     *
+     * @param token the compact token.
+     * @return the claims, or {@code null} if the token does not have the shape understood by this codec.
+     * @throws TokenRejectedException if the token is malformed, its signature is invalid or it has expired.
+     */
+    public TokenClaims verify(CharSequence token) {
+        return verify(token, System.currentTimeMillis());
+    }
+
+    /**
+     * Verifies a token against the given time.
+     *
+     * @param token     the compact token.
+     * @param nowMillis the current time in milliseconds since the epoch.
+     * @return the claims, or {@code null} if the token does not have the shape understood by this codec.
+     * @throws TokenRejectedException if the token is malformed, its signature is invalid or it has expired.
+     */
+    public TokenClaims verify(CharSequence token, long nowMillis) {
+        int length = token.length();
+        int firstDot = indexOf(token, '.', 0);
+        int secondDot = firstDot < 0 ? -1 : indexOf(token, '.', firstDot + 1);
+        if (secondDot < 0 || indexOf(token, '.', secondDot + 1) >= 0) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        if (!isKnownHeader(token, firstDot)) {
+            return null;
+        }
+        if (length - secondDot - 1 != ENCODED_SIGNATURE_LENGTH) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.INVALID);
+        }
+
+        Scratch s = scratch.get();
+        byte[] signingInput = s.out(secondDot);
+        for (int i = 0; i < secondDot; i++) {
+            char c = token.charAt(i);
+            if (c >= 128) {
+                throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+            }
+            signingInput[i] = (byte) c;
+        }
+        s.mac.update(signingInput, 0, secondDot);
+        doFinal(s);
+        if (Base64Url.decode(token, secondDot + 1, length, s.signature, 0) != SIGNATURE_LENGTH
+                || !constantTimeEquals(s.expected, s.signature)) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.INVALID);
+        }
+
+        int payloadLength = Base64Url.decodedLength(secondDot - firstDot - 1);
+        if (payloadLength < 0) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        byte[] payload = s.writer.reset().ensure(payloadLength);
+        if (Base64Url.decode(token, firstDot + 1, secondDot, payload, 0) != payloadLength) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        TokenClaims claims = new PayloadParser(payload, payloadLength).parse();
+        if (claims != null && nowMillis > claims.expiresAtMillis()) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.EXPIRED);
+        }
+        return claims;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static void doFinal(Scratch s) {
+        try {
+            s.mac.doFinal(s.expected, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isKnownHeader(CharSequence token, int headerLength) {
+        if (headerLength != HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < headerLength; i++) {
+            if (token.charAt(i) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence value, char c, int from) {
+        for (int i = from, length = value.length(); i < length; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Per-thread state: the initialized {@link Mac} and growable buffers.
+     */
+    private static final class Scratch {
+
+        private final Mac mac;
+        private final JsonWriter writer = new JsonWriter();
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private byte[] out = new byte[512];
+
+        private Scratch(Mac mac) {
+            this.mac = mac;
+        }
+
+        private byte[] out(int capacity) {
+            if (out.length < capacity) {
+                out = new byte[Math.max(capacity, out.length * 2)];
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Minimal UTF-8 JSON writer over a reusable buffer, escaping strings the way Jackson does.
+     */
+    private static final class JsonWriter {
+
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        JsonWriter reset() {
+            length = 0;
+            return this;
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int length() {
+            return length;
+        }
+
+        byte[] ensure(int capacity) {
+            if (buffer.length < capacity) {
+                buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+            }
+            return buffer;
+        }
+
+        JsonWriter raw(char c) {
+            ensure(length + 1)[length++] = (byte) c;
+            return this;
+        }
+
+        JsonWriter raw(String ascii) {
+            ensure(length + ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                buffer[length++] = (byte) ascii.charAt(i);
+            }
+            return this;
+        }
+
+        JsonWriter number(long value) {
+            ensure(length + 20);
+            if (value < 0) {
+                buffer[length++] = '-';
+                value = -value;
+            }
+            int start = length;
+            do {
+                buffer[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = tmp;
+            }
+            return this;
+        }
+
+        /**
+         * Writes a quoted, escaped string.
+         *
+         * @return {@code false} if the value contains an unpaired surrogate.
+         */
+        boolean string(String value) {
+            ensure(length + value.length() * 6 + 2);
+            buffer[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        buffer[length++] = '\\';
+                        buffer[length++] = (byte) c;
+                    } else if (c >= 0x20) {
+                        buffer[length++] = (byte) c;
+                    } else {
+                        escapeControl(c);
+                    }
+                } else if (c < 0x800) {
+                    buffer[length++] = (byte) (0xc0 | (c >> 6));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    if (!Character.isHighSurrogate(c) || i + 1 >= value.length()
+                            || !Character.isLowSurrogate(value.charAt(i + 1))) {
+                        return false;
+                    }
+                    // like Jackson, characters outside the BMP are written as escaped surrogate pairs
+                    escapeUnicode(c);
+                    escapeUnicode(value.charAt(++i));
+                } else {
+                    buffer[length++] = (byte) (0xe0 | (c >> 12));
+                    buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            buffer[length++] = '"';
+            return true;
+        }
+
+        private void escapeControl(char c) {
+            byte shortForm = switch (c) {
+                case '\b' -> 'b';
+                case '\t' -> 't';
+                case '\n' -> 'n';
+                case '\f' -> 'f';
+                case '\r' -> 'r';
+                default -> 0;
+            };
+            if (shortForm == 0) {
+                escapeUnicode(c);
+            } else {
+                buffer[length++] = '\\';
+                buffer[length++] = shortForm;
+            }
+        }
+
+        private void escapeUnicode(char c) {
+            buffer[length++] = '\\';
+            buffer[length++] = 'u';
+            buffer[length++] = HEX[c >> 12];
+            buffer[length++] = HEX[(c >> 8) & 0xf];
+            buffer[length++] = HEX[(c >> 4) & 0xf];
+            buffer[length++] = HEX[c & 0xf];
+        }
+    }
+
+    /**
+     * Parser for the known payload shape. Returns {@code null} for anything else.
+     */
+    private final class PayloadParser {
+
+        private final byte[] json;
+        private final int end;
+        private int pos;
+
+        PayloadParser(byte[] json, int end) {
+            this.json = json;
+            this.end = end;
+        }
+
+        TokenClaims parse() {
+            String subject = null;
+            long issuedAt = -1;
+            long expiresAt = -1;
+            TokenType type = null;
+            List<String> authorities = null;
+            boolean typeSeen = false;
+            long version = -1;
+            long typeCode = -1;
+            long roles = -1;
+            String tokenId = null;
+            String familyId = null;
+
+            if (!consume('{')) {
+                return null;
+            }
+            if (peek() == '}') {
+                return null;
+            }
+            do {
+                skipWhitespace();
+                int nameStart = pos + 1;
+                if (!skipSimpleString()) {
+                    return null;
+                }
+                int nameEnd = pos - 1;
+                if (!consume(':')) {
+                    return null;
+                }
+                skipWhitespace();
+                if (is(nameStart, nameEnd, "sub") && subject == null) {
+                    subject = readString();
+                    if (subject == null) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "iat") && issuedAt < 0) {
+                    issuedAt = readNumber();
+                    if (issuedAt < 0) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "exp") && expiresAt < 0) {
+                    expiresAt = readNumber();
+                    if (expiresAt < 0) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "token_type") && !typeSeen) {
+                    String value = readString();
+                    if (value == null) {
+                        return null;
+                    }
+                    type = TokenType.fromClaimValue(value);
+                    typeSeen = true;
+                } else if (is(nameStart, nameEnd, "authorities") && authorities == null) {
+                    authorities = readStringArray();
+                    if (authorities == null) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "v") && version < 0) {
+                    version = readNumber();
+                    if (version != ClaimProfile.COMPACT_VERSION) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "t") && typeCode < 0) {
+                    typeCode = readNumber();
+                    if (typeCode < 0) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "jti") && tokenId == null) {
+                    tokenId = readString();
+                    if (tokenId == null) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "fid") && familyId == null) {
+                    familyId = readString();
+                    if (familyId == null) {
+                        return null;
+                    }
+                } else if (is(nameStart, nameEnd, "r") && roles < 0) {
+                    roles = readNumber();
+                    if (roles < 0) {
+                        return null;
+                    }
+                } else {
+                    // unknown or duplicate claim: leave it to the general-purpose parser
+                    return null;
+                }
+                skipWhitespace();
+            } while (consumeIf(','));
+            if (!consume('}')) {
+                return null;
+            }
+            skipWhitespace();
+            if (pos != end || subject == null || issuedAt < 0 || expiresAt < 0) {
+                return null;
+            }
+            if (version < 0) {
+                if (typeCode >= 0 || roles >= 0) {
+                    return null;
+                }
+            } else {
+                // compact claims must not be mixed with legacy ones
+                if (typeSeen || authorities != null) {
+                    return null;
+                }
+                type = typeCode < 0 ? null : TokenType.fromCode(typeCode);
+                if (roles >= 0) {
+                    authorities = authoritiesOf(roles);
+                    if (authorities == null) {
+                        return null;
+                    }
+                }
+            }
+            return new TokenClaims(subject, issuedAt, expiresAt, type,
+                    authorities == null ? List.of() : authorities, tokenId, familyId);
+        }
+
+        private List<String> readStringArray() {
+            if (!consume('[')) {
+                return null;
+            }
+            List<String> values = new ArrayList<>(2);
+            skipWhitespace();
+            if (consumeIf(']')) {
+                return List.of();
+            }
+            do {
+                skipWhitespace();
+                String value = readString();
+                if (value == null) {
+                    return null;
+                }
+                values.add(value);
+                skipWhitespace();
+            } while (consumeIf(','));
+            return consume(']') ? List.copyOf(values) : null;
+        }
+
+        private long readNumber() {
+            int start = pos;
+            long value = 0;
+            while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+                value = value * 10 + (json[pos++] - '0');
+                if (pos - start > 18) {
+                    return -1;
+                }
+            }
+            if (pos == start || (pos < end && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E'))) {
+                return -1;
+            }
+            return value;
+        }
+
+        /**
+         * Reads a string value, decoding escapes only when there are any.
+         */
+        private String readString() {
+            if (pos >= end || json[pos] != '"') {
+                return null;
+            }
+            int start = ++pos;
+            boolean escaped = false;
+            while (pos < end && json[pos] != '"') {
+                if (json[pos] == '\\') {
+                    escaped = true;
+                    pos++;
+                }
+                pos++;
+            }
+            if (pos >= end) {
+                return null;
+            }
+            int stringEnd = pos++;
+            if (!escaped) {
+                return new String(json, start, stringEnd - start, StandardCharsets.UTF_8);
+            }
+            return unescape(start, stringEnd);
+        }
+
+        private String unescape(int start, int stringEnd) {
+            StringBuilder value = new StringBuilder(stringEnd - start);
+            int runStart = start;
+            for (int i = start; i < stringEnd; i++) {
+                if (json[i] != '\\') {
+                    continue;
+                }
+                value.append(new String(json, runStart, i - runStart, StandardCharsets.UTF_8));
+                char c = (char) json[++i];
+                switch (c) {
+                    case 'b' -> value.append('\b');
+                    case 't' -> value.append('\t');
+                    case 'n' -> value.append('\n');
+                    case 'f' -> value.append('\f');
+                    case 'r' -> value.append('\r');
+                    case 'u' -> {
+                        if (i + 4 >= stringEnd) {
+                            return null;
+                        }
+                        int codeUnit = 0;
+                        for (int h = 1; h <= 4; h++) {
+                            int digit = Character.digit(json[i + h], 16);
+                            if (digit < 0) {
+                                return null;
+                            }
+                            codeUnit = (codeUnit << 4) | digit;
+                        }
+                        value.append((char) codeUnit);
+                        i += 4;
+                    }
+                    default -> value.append(c);
+                }
+                runStart = i + 1;
+            }
+            value.append(new String(json, runStart, stringEnd - runStart, StandardCharsets.UTF_8));
+            return value.toString();
+        }
+
+        /**
+         * Skips a member name; names with escapes are not part of the known shape.
+         */
+        private boolean skipSimpleString() {
+            if (pos >= end || json[pos] != '"') {
+                return false;
+            }
+            pos++;
+            while (pos < end && json[pos] != '"') {
+                if (json[pos] == '\\') {
+                    return false;
+                }
+                pos++;
+            }
+            if (pos >= end) {
+                return false;
+            }
+            pos++;
+            return true;
+        }
+
+        private boolean is(int start, int stop, String name) {
+            if (stop - start != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (json[start + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int peek() {
+            skipWhitespace();
+            return pos < end ? json[pos] : -1;
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (pos < end && json[pos] == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consumeIf(char c) {
+            return consume(c);
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.deepLearning.security.verifier;
+
+/**
+ * RevocationClient tells a {@link TokenVerifier} whether a verified token has been revoked.
+ * <p>
+ * The application answers from its revocation stores; a downstream service plugs in whatever it can reach, e.g. a
+ * lookup in the shared Redis blacklist, or {@link #NONE} if it accepts tokens until they expire.
+ */
+@FunctionalInterface
+public interface RevocationClient {
+
+    /**
+     * Client that considers no token revoked.
+     */
+    RevocationClient NONE = (token, claims) -> false;
+
+    /**
+     * Checks if a given, already verified token is revoked.
+     *
+     * @param token  the JWT token to check for revocation
+     * @param claims the verified claims of the token
+     * @return {@code true} if the token is revoked; {@code false} otherwise
+     */
+    boolean isTokenRevoked(String token, TokenClaims claims);
+}
@@ -0,0 +1,31 @@
+package com.deepLearning.security.verifier;
+
+import javax.crypto.SecretKey;
+
+/**
+ * SigningKeyResolver looks up the key a token was signed with by the {@code kid} of its header, so a
+ * {@link TokenVerifier} keeps accepting the tokens of the previous key while the signing key is rotated.
+ * <p>
+ * The application resolves with its single key; a downstream service uses an {@link HmacKeyRing} or its own lookup.
+ */
+@FunctionalInterface
+public interface SigningKeyResolver {
+
+    /**
+     * Returns the key of a key id.
+     *
+     * @param keyId the {@code kid} of the token header, or {@code null} if the token has none
+     * @return the HMAC key, or {@code null} if the key id is unknown
+     */
+    SecretKey resolve(String keyId);
+
+    /**
+     * Returns a resolver that verifies every token with the same key, whatever its key id.
+     *
+     * @param key the HMAC key
+     * @return the resolver
+     */
+    static SigningKeyResolver of(SecretKey key) {
+        return keyId -> key;
+    }
+}
@@ -0,0 +1,99 @@
+package com.deepLearning.security.verifier;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * TokenClaims is the typed, verified content of a token issued by this application.
+ * <p>
+ * It replaces ad-hoc {@link Claims} lookups on the request path: a token is parsed once into a
+ * {@code TokenClaims} and every consumer (filter, refresh, revocation) reads from it.
+ *
+ * @param subject     the {@code sub} claim (the username).
+ * @param issuedAt    the {@code iat} claim in seconds since the epoch.
+ * @param expiresAt   the {@code exp} claim in seconds since the epoch.
+ * @param type        the token type, or {@code null} if the token carries no known {@code token_type}.
+ * @param authorities the authority names of an access token, empty for refresh tokens.
+ * @param tokenId     the {@code jti} claim, or {@code null}.
+ * @param familyId    the {@code fid} claim identifying the refresh token family, or {@code null}.
+ */
+public record TokenClaims(
+        String subject,
+        long issuedAt,
+        long expiresAt,
+        TokenType type,
+        List<String> authorities,
+        String tokenId,
+        String familyId
+) {
+
+    /**
+     * Creates claims of a token without identifiers.
+     */
+    public TokenClaims(String subject, long issuedAt, long expiresAt, TokenType type, List<String> authorities) {
+        this(subject, issuedAt, expiresAt, type, authorities, null, null);
+    }
+
+    /**
+     * @return the expiration time in milliseconds since the epoch.
+     */
+    public long expiresAtMillis() {
+        return expiresAt * 1000L;
+    }
+
+    /**
+     * Converts claims parsed by jjwt into {@code TokenClaims}. Both {@link ClaimProfile claim profiles} are
+     * understood.
+     *
+     * @param claims      the jjwt claims.
+     * @param roleDecoder translates the role bitmask of a compact token into authority names, returning
+     *                    {@code null} for unknown bits.
+     * @return the typed claims.
+     * @throws IllegalArgumentException if the token has an unsupported profile version or unknown role bits.
+     */
+    public static TokenClaims from(Claims claims, LongFunction<List<String>> roleDecoder) {
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        long issuedAtSeconds = issuedAt == null ? 0 : issuedAt.getTime() / 1000L;
+        long expiresAtSeconds = expiration == null ? 0 : expiration.getTime() / 1000L;
+
+        Object version = claims.get("v");
+        if (version != null) {
+            if (!(version instanceof Number number) || number.longValue() != ClaimProfile.COMPACT_VERSION) {
+                throw new IllegalArgumentException("Unsupported claim profile version: " + version);
+            }
+            List<String> authorities = List.of();
+            if (claims.get("r") instanceof Number roles) {
+                authorities = roleDecoder.apply(roles.longValue());
+                if (authorities == null) {
+                    throw new IllegalArgumentException("Unknown roles in token: " + roles);
+                }
+            }
+            TokenType type = claims.get("t") instanceof Number code ? TokenType.fromCode(code.longValue()) : null;
+            return new TokenClaims(claims.getSubject(), issuedAtSeconds, expiresAtSeconds, type, authorities,
+                    claims.getId(), claims.get("fid", String.class));
+        }
+
+        List<String> authorities = new ArrayList<>();
+        if (claims.get("authorities") instanceof Collection<?> values) {
+            for (Object value : values) {
+                // authorities serialized by Jackson as objects look like {"authority": "ROLE_USER"}
+                authorities.add(String.valueOf(value instanceof Map<?, ?> map ? map.get("authority") : value));
+            }
+        }
+        return new TokenClaims(
+                claims.getSubject(),
+                issuedAtSeconds,
+                expiresAtSeconds,
+                TokenType.fromClaimValue(claims.get("token_type", String.class)),
+                List.copyOf(authorities),
+                claims.getId(),
+                claims.get("fid", String.class));
+    }
+}
@@ -0,0 +1,107 @@
+package com.deepLearning.security.verifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenIdSequence issues the numeric {@code jti} of access tokens when the revocation index is enabled.
+ * <p>
+ * An id is a positive {@code long}: the node id in the upper {@value #NODE_BITS} bits and a counter of this node in
+ * the lower {@value #COUNTER_BITS} bits, written in decimal. Ids of one node are consecutive, so the ids of a
+ * period of time fall into few dense ranges, and the revoked ones among them share the containers of a compressed
+ * bitmap.
+ * <p>
+ * The counter is not persisted; it starts at the current time in milliseconds times {@value #IDS_PER_MILLI}. A
+ * restarted node therefore continues above every id it issued before, as long as it has issued fewer than
+ * {@value #IDS_PER_MILLI} ids per millisecond on average since its previous start. Node ids must be unique within
+ * the cluster.
+ * <p>
+ * The class only depends on the JDK; it is thread-safe.
+ */
+public final class TokenIdSequence {
+
+    static final int NODE_BITS = 15;
+    static final int COUNTER_BITS = 48;
+    static final long IDS_PER_MILLI = 64;
+
+    /**
+     * Largest node id.
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /**
+     * The node id, shifted into place.
+     */
+    private final long nodePrefix;
+
+    private final AtomicLong counter;
+
+    /**
+     * Constructs the sequence of the given node.
+     *
+     * @param nodeId the id of this node, unique in the cluster, from 0 to {@link #MAX_NODE_ID}.
+     */
+    public TokenIdSequence(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the sequence of the given node with the given millisecond clock.
+     */
+    TokenIdSequence(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodePrefix = (long) nodeId << COUNTER_BITS;
+        this.counter = new AtomicLong(clock.getAsLong() * IDS_PER_MILLI);
+    }
+
+    /**
+     * Issues the next id.
+     *
+     * @return the id, unique in the cluster.
+     * @throws IllegalStateException if the counter of this node is exhausted.
+     */
+    public long next() {
+        long value = counter.getAndIncrement();
+        if (value > COUNTER_MASK) {
+            throw new IllegalStateException("Token id counter exhausted");
+        }
+        return nodePrefix | value;
+    }
+
+    /**
+     * Issues the next id as {@code jti} value.
+     *
+     * @return the decimal id.
+     */
+    public String nextTokenId() {
+        return Long.toString(next());
+    }
+
+    /**
+     * Parses the {@code jti} of a token.
+     *
+     * @param tokenId the {@code jti} claim, or {@code null}.
+     * @return the id, or {@code -1} if the token has no id of this sequence (e.g. the UUID of a refresh token).
+     */
+    public static long parse(String tokenId) {
+        if (tokenId == null || tokenId.isEmpty() || tokenId.length() > 19) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < tokenId.length(); i++) {
+            char c = tokenId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+            if (value < 0) {
+                return -1;
+            }
+        }
+        return value;
+    }
+}
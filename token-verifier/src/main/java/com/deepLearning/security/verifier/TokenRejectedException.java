@@ -0,0 +1,68 @@
+package com.deepLearning.security.verifier;
+
+import io.jsonwebtoken.JwtException;
+import lombok.Getter;
+
+/**
+ * TokenRejectedException is a lightweight {@link JwtException} used on the request path to reject a token.
+ * <p>
+ * Unlike a regular exception it does not capture a stack trace: the throw site is always known from the
+ * {@link Reason}, and under a flood of bad tokens filling in the stack trace is by far the most expensive part of
+ * rejecting a request. The exception is still a {@code JwtException}, so existing {@code catch (JwtException e)}
+ * blocks keep working.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * if (revokedTokenService.isTokenRevoked(token)) {
+ *     throw new TokenRejectedException(TokenRejectedException.Reason.REVOKED);
+ * }
+ * </pre>
+ */
+@Getter
+public class TokenRejectedException extends JwtException {
+
+    /**
+     * Why the request was rejected.
+     */
+    private final Reason reason;
+
+    /**
+     * Constructs a new exception with the default message of the given reason.
+     *
+     * @param reason why the token was rejected.
+     */
+    public TokenRejectedException(Reason reason) {
+        super(reason.getMessage());
+        this.reason = reason;
+    }
+
+    /**
+     * Does not fill in the stack trace.
+     *
+     * @return this exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    /**
+     * The reasons for which a request can be rejected, used as keys of the aggregated rejection log.
+     */
+    @Getter
+    public enum Reason {
+        MALFORMED("Malformed token"),
+        INVALID("Invalid JWT token"),
+        EXPIRED("Token has expired"),
+        REVOKED("Token has been revoked"),
+        WRONG_TOKEN_TYPE("Refresh token can't be used for authentication"),
+        UNAUTHENTICATED("Full authentication is required"),
+        ACCESS_DENIED("Access denied");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+    }
+}
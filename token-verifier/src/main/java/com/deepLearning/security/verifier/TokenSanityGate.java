@@ -0,0 +1,298 @@
+package com.deepLearning.security.verifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * TokenSanityGate is a cheap structural check that runs before any cryptographic or JSON work on a bearer token.
+ * <p>
+ * A single pass over the characters checks:
+ * <ol>
+ *   <li>the maximum length,</li>
+ *   <li>the compact JWS shape: exactly three non-empty segments separated by two dots,</li>
+ *   <li>that every segment only uses the Base64URL alphabet (no padding, no whitespace),</li>
+ *   <li>that the signature segment has the exact length produced by the announced HMAC algorithm.</li>
+ * </ol>
+ * Then only the (small, bounded) header segment is decoded and scanned as a flat JSON object - without a JSON
+ * library and without touching the payload - to check that {@code alg} is one of the allowed algorithms and that
+ * {@code kid}, if present, is one of the allowed key ids. Headers with nested values, duplicate members or escaped
+ * member names are rejected: the tokens issued by this application never contain them.
+ * <p>
+ * The gate is thread-safe and allocation-light (a single small buffer for the decoded header); it has no
+ * dependencies outside the JDK.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * TokenSanityGate gate = new TokenSanityGate(4096, List.of("HS256"), List.of());
+ * if (gate.check(token) != TokenSanityGate.Result.OK) {
+ *     // reject without parsing
+ * }
+ * </pre>
+ */
+public final class TokenSanityGate {
+
+    /**
+     * Upper bound of the encoded header length; our headers are a few dozen characters.
+     */
+    static final int MAX_HEADER_LENGTH = 512;
+
+    /**
+     * Encoded signature lengths of the HMAC algorithms, used to reject truncated or padded signatures early.
+     */
+    private static final Map<String, Integer> SIGNATURE_LENGTHS = Map.of(
+            "HS256", Base64Url.encodedLength(32),
+            "HS384", Base64Url.encodedLength(48),
+            "HS512", Base64Url.encodedLength(64));
+
+    private final int maxLength;
+    private final byte[][] allowedAlgorithms;
+    private final int[] signatureLengths;
+    private final byte[][] allowedKeyIds;
+
+    /**
+     * Outcome of {@link #check(CharSequence)}.
+     */
+    public enum Result {
+        OK,
+        EMPTY,
+        TOO_LONG,
+        BAD_SHAPE,
+        BAD_ALPHABET,
+        BAD_SIGNATURE_LENGTH,
+        BAD_HEADER,
+        ALGORITHM_NOT_ALLOWED,
+        KEY_ID_NOT_ALLOWED
+    }
+
+    /**
+     * Constructs a gate.
+     *
+     * @param maxLength         maximum accepted token length in characters.
+     * @param allowedAlgorithms accepted values of the {@code alg} header (e.g. "HS256"), must not be empty.
+     * @param allowedKeyIds     accepted values of the {@code kid} header; a token without {@code kid} is always
+     *                          accepted, a token with a {@code kid} must match one of these.
+     */
+    public TokenSanityGate(int maxLength, Collection<String> allowedAlgorithms, Collection<String> allowedKeyIds) {
+        if (allowedAlgorithms.isEmpty()) {
+            throw new IllegalArgumentException("At least one algorithm must be allowed");
+        }
+        this.maxLength = maxLength;
+        this.allowedAlgorithms = toBytes(allowedAlgorithms);
+        this.signatureLengths = allowedAlgorithms.stream()
+                .mapToInt(alg -> SIGNATURE_LENGTHS.getOrDefault(alg, -1))
+                .toArray();
+        this.allowedKeyIds = toBytes(allowedKeyIds);
+    }
+
+    /**
+     * @return the maximum accepted token length in characters.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Checks the structure of the given token.
+     *
+     * @param token the compact serialized token (without the "Bearer " prefix).
+     * @return {@link Result#OK} if the token may be handed to the signature verification, otherwise the first
+     * failed check.
+     */
+    public Result check(CharSequence token) {
+        if (token == null || token.isEmpty()) {
+            return Result.EMPTY;
+        }
+        int length = token.length();
+        if (length > maxLength) {
+            return Result.TOO_LONG;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return Result.BAD_SHAPE;
+                }
+            } else if (!Base64Url.isAlphabet(c)) {
+                return Result.BAD_ALPHABET;
+            }
+        }
+        if (secondDot < 0 || firstDot == 0 || secondDot == firstDot + 1 || secondDot == length - 1) {
+            return Result.BAD_SHAPE;
+        }
+        if (firstDot > MAX_HEADER_LENGTH) {
+            return Result.BAD_HEADER;
+        }
+
+        int headerLength = Base64Url.decodedLength(firstDot);
+        if (headerLength < 0) {
+            return Result.BAD_HEADER;
+        }
+        byte[] header = new byte[headerLength];
+        if (Base64Url.decode(token, 0, firstDot, header, 0) != headerLength) {
+            return Result.BAD_HEADER;
+        }
+        return checkHeader(header, length - secondDot - 1);
+    }
+
+    /**
+     * Scans the decoded header as a flat JSON object and checks {@code alg}, {@code kid} and the signature length.
+     */
+    private Result checkHeader(byte[] json, int signatureLength) {
+        int algStart = -1;
+        int algEnd = -1;
+        int kidStart = -1;
+        int kidEnd = -1;
+
+        int i = skipWhitespace(json, 0);
+        if (i >= json.length || json[i] != '{') {
+            return Result.BAD_HEADER;
+        }
+        i = skipWhitespace(json, i + 1);
+        if (i < json.length && json[i] == '}') {
+            return Result.ALGORITHM_NOT_ALLOWED;
+        }
+        while (true) {
+            // member name
+            if (i >= json.length || json[i] != '"') {
+                return Result.BAD_HEADER;
+            }
+            int nameStart = i + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < json.length && json[nameEnd] != '"') {
+                if (json[nameEnd] == '\\') {
+                    return Result.BAD_HEADER;
+                }
+                nameEnd++;
+            }
+            if (nameEnd >= json.length) {
+                return Result.BAD_HEADER;
+            }
+            i = skipWhitespace(json, nameEnd + 1);
+            if (i >= json.length || json[i] != ':') {
+                return Result.BAD_HEADER;
+            }
+            i = skipWhitespace(json, i + 1);
+            if (i >= json.length) {
+                return Result.BAD_HEADER;
+            }
+
+            // member value: a string or a primitive, nested values are not accepted
+            int valueStart;
+            int valueEnd;
+            boolean string = json[i] == '"';
+            if (string) {
+                valueStart = i + 1;
+                valueEnd = valueStart;
+                while (valueEnd < json.length && json[valueEnd] != '"') {
+                    valueEnd += json[valueEnd] == '\\' ? 2 : 1;
+                }
+                if (valueEnd >= json.length) {
+                    return Result.BAD_HEADER;
+                }
+                i = valueEnd + 1;
+            } else {
+                if (json[i] == '{' || json[i] == '[') {
+                    return Result.BAD_HEADER;
+                }
+                valueStart = i;
+                while (i < json.length && json[i] != ',' && json[i] != '}' && !isWhitespace(json[i])) {
+                    i++;
+                }
+                valueEnd = i;
+            }
+
+            if (equals(json, nameStart, nameEnd, "alg")) {
+                if (algStart >= 0 || !string) {
+                    return Result.BAD_HEADER;
+                }
+                algStart = valueStart;
+                algEnd = valueEnd;
+            } else if (equals(json, nameStart, nameEnd, "kid")) {
+                if (kidStart >= 0 || !string) {
+                    return Result.BAD_HEADER;
+                }
+                kidStart = valueStart;
+                kidEnd = valueEnd;
+            }
+
+            i = skipWhitespace(json, i);
+            if (i >= json.length) {
+                return Result.BAD_HEADER;
+            }
+            if (json[i] == '}') {
+                if (skipWhitespace(json, i + 1) != json.length) {
+                    return Result.BAD_HEADER;
+                }
+                break;
+            }
+            if (json[i] != ',') {
+                return Result.BAD_HEADER;
+            }
+            i = skipWhitespace(json, i + 1);
+        }
+
+        int algorithm = indexOf(allowedAlgorithms, json, algStart, algEnd);
+        if (algorithm < 0) {
+            return Result.ALGORITHM_NOT_ALLOWED;
+        }
+        int expectedSignatureLength = signatureLengths[algorithm];
+        if (expectedSignatureLength > 0 && expectedSignatureLength != signatureLength) {
+            return Result.BAD_SIGNATURE_LENGTH;
+        }
+        if (kidStart >= 0 && indexOf(allowedKeyIds, json, kidStart, kidEnd) < 0) {
+            return Result.KEY_ID_NOT_ALLOWED;
+        }
+        return Result.OK;
+    }
+
+    private static int indexOf(byte[][] candidates, byte[] json, int start, int end) {
+        if (start < 0) {
+            return -1;
+        }
+        for (int c = 0; c < candidates.length; c++) {
+            byte[] candidate = candidates[c];
+            if (candidate.length == end - start && Arrays.equals(candidate, 0, candidate.length, json, start, end)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equals(byte[] json, int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (json[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(byte[] json, int i) {
+        while (i < json.length && isWhitespace(json[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static byte[][] toBytes(Collection<String> values) {
+        return values.stream()
+                .map(value -> value.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+    }
+}
@@ -0,0 +1,72 @@
+package com.deepLearning.security.verifier;
+
+/**
+ * TokenType enumerates the kinds of tokens issued by the application.
+ * <p>
+ * The value of the {@code token_type} claim is the {@link #getClaimValue() claim value} of the constant; compact
+ * tokens carry the numeric {@link #getCode() code} in the {@code t} claim instead.
+ */
+public enum TokenType {
+
+    /**
+     * Short-lived token used to authenticate API requests.
+     */
+    ACCESS(0, "accessToken"),
+
+    /**
+     * Long-lived token that can only be exchanged for new tokens.
+     */
+    REFRESH(1, "refreshToken");
+
+    private final int code;
+    private final String claimValue;
+
+    TokenType(int code, String claimValue) {
+        this.code = code;
+        this.claimValue = claimValue;
+    }
+
+    /**
+     * @return the value of the compact {@code t} claim.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return the value of the {@code token_type} claim.
+     */
+    public String getClaimValue() {
+        return claimValue;
+    }
+
+    /**
+     * Resolves a token type from the value of the {@code token_type} claim.
+     *
+     * @param claimValue the claim value, may be {@code null}.
+     * @return the token type, or {@code null} if the value is unknown.
+     */
+    public static TokenType fromClaimValue(String claimValue) {
+        for (TokenType type : values()) {
+            if (type.claimValue.equals(claimValue)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves a token type from the value of the compact {@code t} claim.
+     *
+     * @param code the claim value.
+     * @return the token type, or {@code null} if the code is unknown.
+     */
+    public static TokenType fromCode(long code) {
+        for (TokenType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
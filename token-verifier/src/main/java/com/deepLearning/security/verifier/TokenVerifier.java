@@ -0,0 +1,157 @@
+package com.deepLearning.security.verifier;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TokenVerifier verifies the tokens issued by this application, in the application itself and in any other JVM
+ * service that shares the signing key, without Spring and without a call to the application.
+ * <p>
+ * A token passes the {@link TokenSanityGate}, is verified by the {@link Hs256TokenCodec} and, only if the codec does
+ * not understand its shape, by jjwt; both paths accept exactly the same tokens. Access tokens are additionally checked
+ * against a {@link RevocationClient}.
+ * <p>
+ * jjwt looks the key up by the {@code kid} of the token header with a {@link SigningKeyResolver}, so tokens of a
+ * previous key stay valid during a key rotation. The codec only verifies tokens without a {@code kid}, with the key
+ * it was created with; every other token takes the jjwt path.
+ * <p>
+ * The role table must be the one the tokens were issued with (the application's {@code Roles} in declaration
+ * order), otherwise the roles of compact tokens cannot be read.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * TokenVerifier verifier = TokenVerifier.create(secret, List.of("ROLE_USER", "ROLE_ADMIN"), RevocationClient.NONE);
+ * TokenClaims claims = verifier.verifyAccessToken(bearerToken);
+ * </pre>
+ * <p>
+ * The verifier is thread-safe.
+ */
+@Slf4j
+public final class TokenVerifier {
+
+    /**
+     * Maximum token length of {@link #create}, the application's default.
+     */
+    public static final int DEFAULT_MAX_TOKEN_LENGTH = 4096;
+
+    private final TokenSanityGate sanityGate;
+    private final Hs256TokenCodec codec;
+    private final JwtParser parser;
+    private final RevocationClient revocationClient;
+
+    /**
+     * Constructs a verifier with a single key.
+     *
+     * @param sanityGate       the structural pre-verification gate.
+     * @param codec            the HS256 fast path codec.
+     * @param key              the HS256 key, the same one the codec was created with.
+     * @param revocationClient the revocation client of access tokens.
+     */
+    public TokenVerifier(TokenSanityGate sanityGate, Hs256TokenCodec codec, SecretKey key,
+                         RevocationClient revocationClient) {
+        this(sanityGate, codec, SigningKeyResolver.of(key), revocationClient);
+    }
+
+    /**
+     * Constructs a verifier that looks the key of a token up by its key id.
+     *
+     * @param sanityGate       the structural pre-verification gate, allowing the key ids of the resolver.
+     * @param codec            the HS256 fast path codec, created with the key of tokens without a key id.
+     * @param keyResolver      the key lookup by key id.
+     * @param revocationClient the revocation client of access tokens.
+     */
+    public TokenVerifier(TokenSanityGate sanityGate, Hs256TokenCodec codec, SigningKeyResolver keyResolver,
+                         RevocationClient revocationClient) {
+        this.sanityGate = sanityGate;
+        this.codec = codec;
+        this.parser = Jwts.parser()
+                .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                        ? keyResolver.resolve(protectedHeader.getKeyId()) : null)
+                .build();
+        this.revocationClient = revocationClient;
+    }
+
+    /**
+     * Creates a verifier with the application's default sanity gate: HS256 only, no key ids, at most
+     * {@link #DEFAULT_MAX_TOKEN_LENGTH} characters.
+     *
+     * @param secret           the raw HMAC-SHA256 secret ({@code security.jwt.secret}, Base64-decoded).
+     * @param roleNames        the role table the tokens were issued with.
+     * @param revocationClient the revocation client of access tokens.
+     * @return the verifier.
+     */
+    public static TokenVerifier create(byte[] secret, List<String> roleNames, RevocationClient revocationClient) {
+        return create(new HmacKeyRing(secret, Map.of()), roleNames, revocationClient);
+    }
+
+    /**
+     * Creates a verifier of the tokens signed with any key of a key ring, with the application's default sanity
+     * gate otherwise: HS256 only, the key ids of the ring, at most {@link #DEFAULT_MAX_TOKEN_LENGTH} characters.
+     *
+     * @param keyRing          the accepted keys.
+     * @param roleNames        the role table the tokens were issued with.
+     * @param revocationClient the revocation client of access tokens.
+     * @return the verifier.
+     */
+    public static TokenVerifier create(HmacKeyRing keyRing, List<String> roleNames,
+                                       RevocationClient revocationClient) {
+        return new TokenVerifier(
+                new TokenSanityGate(DEFAULT_MAX_TOKEN_LENGTH, List.of("HS256"), keyRing.keyIds()),
+                new Hs256TokenCodec(keyRing.primaryKey().getEncoded(), roleNames),
+                keyRing,
+                revocationClient);
+    }
+
+    /**
+     * Verifies the signature and expiry of a token of any type and returns its claims.
+     *
+     * @param token the JWT token.
+     * @return the verified claims.
+     * @throws TokenRejectedException if the token is malformed, invalid or expired.
+     */
+    public TokenClaims parse(String token) {
+        TokenSanityGate.Result result = sanityGate.check(token);
+        if (result != TokenSanityGate.Result.OK) {
+            log.debug("Token rejected by sanity gate: {}", result);
+            throw new TokenRejectedException(TokenRejectedException.Reason.MALFORMED);
+        }
+        TokenClaims claims = codec.verify(token);
+        if (claims != null) {
+            return claims;
+        }
+        try {
+            return TokenClaims.from(parser.parseSignedClaims(token).getPayload(), codec::authoritiesOf);
+        } catch (ExpiredJwtException e) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.EXPIRED);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            throw new TokenRejectedException(TokenRejectedException.Reason.INVALID);
+        }
+    }
+
+    /**
+     * Verifies a token presented to authenticate a request: a valid, unexpired and unrevoked access token.
+     *
+     * @param token the JWT token.
+     * @return the verified claims.
+     * @throws TokenRejectedException if the token is malformed, invalid, expired, not an access token or revoked.
+     */
+    public TokenClaims verifyAccessToken(String token) {
+        TokenClaims claims = parse(token);
+        if (claims.type() != TokenType.ACCESS) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.WRONG_TOKEN_TYPE);
+        }
+        if (revocationClient.isTokenRevoked(token, claims)) {
+            throw new TokenRejectedException(TokenRejectedException.Reason.REVOKED);
+        }
+        return claims;
+    }
+}
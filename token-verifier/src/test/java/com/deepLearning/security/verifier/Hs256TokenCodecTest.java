@@ -0,0 +1,136 @@
+package com.deepLearning.security.verifier;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Hs256TokenCodecTest {
+
+    private static final long IAT = 1_700_000_000L;
+    private static final long EXP = IAT + 180;
+    private static final long NOW = IAT * 1000L + 5;
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(key.getEncoded(), List.of("ROLE_USER", "ROLE_ADMIN"));
+
+    @Test
+    @DisplayName("sign_matchesJjwtByteForByte")
+    void signsExactlyLikeJjwt() {
+        for (String subject : List.of("john.doe", "a\"b\\c/d", "tab\there\nnew\u0001\u001f\u007f",
+                "ümläut-€-😀")) {
+            assertEquals(jjwt(subject, TokenType.ACCESS, List.of("ROLE_USER", "ROLE_ADMIN")),
+                    codec.sign(subject, IAT, EXP, TokenType.ACCESS, List.of("ROLE_USER", "ROLE_ADMIN")));
+            assertEquals(jjwt(subject, TokenType.ACCESS, List.of()),
+                    codec.sign(subject, IAT, EXP, TokenType.ACCESS, List.of()));
+            assertEquals(jjwt(subject, TokenType.REFRESH, null),
+                    codec.sign(subject, IAT, EXP, TokenType.REFRESH, null));
+        }
+    }
+
+    @Test
+    @DisplayName("verify_readsJjwtTokens")
+    void verifiesTokensIssuedByJjwt() {
+        String subject = "üser\"\n😀";
+        TokenClaims claims = codec.verify(jjwt(subject, TokenType.ACCESS, List.of("ROLE_USER")), NOW);
+
+        assertEquals(new TokenClaims(subject, IAT, EXP, TokenType.ACCESS, List.of("ROLE_USER")), claims);
+        assertEquals(new TokenClaims("john.doe", IAT, EXP, TokenType.REFRESH, List.of()),
+                codec.verify(jjwt("john.doe", TokenType.REFRESH, null), NOW));
+    }
+
+    @Test
+    @DisplayName("verify_rejectsTamperedAndExpiredTokens")
+    void rejectsTamperedAndExpiredTokens() {
+        String token = codec.sign("john.doe", IAT, EXP, TokenType.ACCESS, List.of("ROLE_USER"));
+        String forged = codec.sign("admin", IAT, EXP, TokenType.ACCESS, List.of("ROLE_ADMIN"));
+        String spliced = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+        String otherKey = new Hs256TokenCodec(Jwts.SIG.HS256.key().build().getEncoded())
+                .sign("john.doe", IAT, EXP, TokenType.ACCESS, List.of("ROLE_USER"));
+
+        assertReason(TokenRejectedException.Reason.INVALID, spliced, NOW);
+        assertReason(TokenRejectedException.Reason.INVALID, otherKey, NOW);
+        assertReason(TokenRejectedException.Reason.INVALID, token.substring(0, token.length() - 1), NOW);
+        assertReason(TokenRejectedException.Reason.MALFORMED, "abc.def", NOW);
+        assertReason(TokenRejectedException.Reason.EXPIRED, token, EXP * 1000L + 1);
+        assertEquals("john.doe", codec.verify(token, EXP * 1000L).subject());
+    }
+
+    @Test
+    @DisplayName("verify_unknownShapeFallsBack")
+    void returnsNullForUnknownShapes() {
+        String withClaim = Jwts.builder().subject("john.doe").issuedAt(new Date(IAT * 1000L))
+                .expiration(new Date(EXP * 1000L)).claim("scope", "x").signWith(key, Jwts.SIG.HS256).compact();
+        String withKid = Jwts.builder().header().keyId("k1").and().subject("john.doe")
+                .issuedAt(new Date(IAT * 1000L)).expiration(new Date(EXP * 1000L))
+                .signWith(key, Jwts.SIG.HS256).compact();
+        String withoutExp = Jwts.builder().subject("john.doe").signWith(key, Jwts.SIG.HS256).compact();
+
+        assertNull(codec.verify(withClaim, NOW));
+        assertNull(codec.verify(withKid, NOW));
+        assertNull(codec.verify(withoutExp, NOW));
+        assertNull(codec.verify(signed("{\"sub\":\"john.doe\",\"iat\":1.5,\"exp\":" + EXP + "}"), NOW));
+        assertNull(codec.verify(signed("{\"sub\":\"a\",\"sub\":\"b\",\"iat\":1,\"exp\":" + EXP + "}"), NOW));
+    }
+
+    @Test
+    @DisplayName("compact_roundTripsAndIsSmaller")
+    void signsAndVerifiesCompactTokens() {
+        List<String> roles = List.of("ROLE_USER", "ROLE_ADMIN");
+        String compact = codec.sign(ClaimProfile.COMPACT, "john.doe", IAT, EXP, TokenType.ACCESS, roles);
+        String legacy = codec.sign(ClaimProfile.LEGACY, "john.doe", IAT, EXP, TokenType.ACCESS, roles);
+
+        assertEquals("{\"v\":1,\"sub\":\"john.doe\",\"iat\":" + IAT + ",\"exp\":" + EXP + ",\"t\":0,\"r\":3}",
+                payload(compact));
+        assertTrue(compact.length() < legacy.length() - 40);
+        assertEquals(new TokenClaims("john.doe", IAT, EXP, TokenType.ACCESS, roles), codec.verify(compact, NOW));
+        assertEquals(new TokenClaims("john.doe", IAT, EXP, TokenType.REFRESH, List.of()),
+                codec.verify(codec.sign(ClaimProfile.COMPACT, "john.doe", IAT, EXP, TokenType.REFRESH, null), NOW));
+    }
+
+    @Test
+    @DisplayName("compact_unknownRoleOrVersionFallsBack")
+    void handlesCompactEdgeCases() {
+        String token = codec.sign(ClaimProfile.COMPACT, "john.doe", IAT, EXP, TokenType.ACCESS, List.of("SCOPE_x"));
+        assertTrue(payload(token).contains("\"authorities\":[\"SCOPE_x\"]"), "unknown roles keep the legacy profile");
+
+        assertNull(codec.verify(signed("{\"v\":2,\"sub\":\"a\",\"iat\":1,\"exp\":" + EXP + "}"), NOW));
+        assertNull(codec.verify(signed("{\"v\":1,\"sub\":\"a\",\"iat\":1,\"exp\":" + EXP + ",\"r\":4}"), NOW));
+        assertNull(codec.verify(signed("{\"sub\":\"a\",\"iat\":1,\"exp\":" + EXP + ",\"t\":0}"), NOW));
+        assertNull(codec.verify(signed("{\"v\":1,\"sub\":\"a\",\"iat\":1,\"exp\":" + EXP
+                + ",\"token_type\":\"accessToken\"}"), NOW));
+    }
+
+    private String jjwt(String subject, TokenType type, List<?> authorities) {
+        var builder = Jwts.builder().subject(subject).issuedAt(new Date(IAT * 1000L))
+                .expiration(new Date(EXP * 1000L)).claim("token_type", type.getClaimValue());
+        if (authorities != null) {
+            builder.claim("authorities", authorities);
+        }
+        return builder.signWith(key, Jwts.SIG.HS256).compact();
+    }
+
+    private String signed(String payloadJson) {
+        return Jwts.builder().content(payloadJson.getBytes(StandardCharsets.UTF_8))
+                .signWith(key, Jwts.SIG.HS256).compact();
+    }
+
+    private static String payload(String token) {
+        String payload = token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'));
+        return new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+    }
+
+    private void assertReason(TokenRejectedException.Reason reason, String token, long now) {
+        assertEquals(reason, assertThrows(TokenRejectedException.class, () -> codec.verify(token, now)).getReason());
+    }
+}
@@ -0,0 +1,53 @@
+package com.deepLearning.security.verifier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenIdSequenceTest {
+
+    @Test
+    @DisplayName("ids_carryNodeAndIncrease")
+    void issuesIncreasingIdsWithTheNodePrefix() {
+        TokenIdSequence sequence = new TokenIdSequence(5, () -> 1_000L);
+
+        long first = sequence.next();
+        long second = sequence.next();
+
+        assertEquals(5, first >>> TokenIdSequence.COUNTER_BITS);
+        assertEquals(1_000L * TokenIdSequence.IDS_PER_MILLI, first & ((1L << TokenIdSequence.COUNTER_BITS) - 1));
+        assertEquals(first + 1, second);
+        assertEquals(second + 1, TokenIdSequence.parse(sequence.nextTokenId()));
+    }
+
+    @Test
+    @DisplayName("restart_continuesAboveEarlierIds")
+    void restartedNodeDoesNotReuseIds() {
+        AtomicLong now = new AtomicLong(1_000L);
+        TokenIdSequence before = new TokenIdSequence(1, now::get);
+        long last = 0;
+        for (int i = 0; i < TokenIdSequence.IDS_PER_MILLI; i++) {
+            last = before.next();
+        }
+        now.incrementAndGet();
+
+        assertTrue(new TokenIdSequence(1, now::get).next() > last);
+    }
+
+    @Test
+    @DisplayName("parse_rejectsForeignIds")
+    void parseReturnsMinusOneForOtherIds() {
+        assertEquals(-1, TokenIdSequence.parse(null));
+        assertEquals(-1, TokenIdSequence.parse(""));
+        assertEquals(-1, TokenIdSequence.parse(UUID.randomUUID().toString()));
+        assertEquals(-1, TokenIdSequence.parse("9223372036854775808"));
+        assertEquals(Long.MAX_VALUE, TokenIdSequence.parse(Long.toString(Long.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> new TokenIdSequence(TokenIdSequence.MAX_NODE_ID + 1));
+    }
+}
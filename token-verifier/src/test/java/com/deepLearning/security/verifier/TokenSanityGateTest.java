@@ -0,0 +1,70 @@
+package com.deepLearning.security.verifier;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenSanityGateTest {
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final TokenSanityGate gate = new TokenSanityGate(4096, List.of("HS256"), List.of("k1"));
+
+    private final String validToken = Jwts.builder().subject("john.doe").signWith(key).compact();
+    private final String signature = validToken.substring(validToken.lastIndexOf('.') + 1);
+    private final String payload = validToken.split("\\.")[1];
+
+    @Test
+    @DisplayName("jjwtToken_passes")
+    void acceptsTokensIssuedByJjwt() {
+        assertEquals(TokenSanityGate.Result.OK, gate.check(validToken));
+        String withKid = Jwts.builder().header().keyId("k1").and().subject("john.doe").signWith(key).compact();
+        assertEquals(TokenSanityGate.Result.OK, gate.check(withKid));
+    }
+
+    @Test
+    @DisplayName("structure_isChecked")
+    void rejectsStructurallyInvalidTokens() {
+        assertEquals(TokenSanityGate.Result.EMPTY, gate.check(""));
+        assertEquals(TokenSanityGate.Result.TOO_LONG, gate.check("a".repeat(4097)));
+        assertEquals(TokenSanityGate.Result.BAD_SHAPE, gate.check("abc.def"));
+        assertEquals(TokenSanityGate.Result.BAD_SHAPE, gate.check(validToken + ".x"));
+        assertEquals(TokenSanityGate.Result.BAD_SHAPE, gate.check(".." + signature));
+        assertEquals(TokenSanityGate.Result.BAD_ALPHABET, gate.check(validToken.replace('.', ' ')));
+        assertEquals(TokenSanityGate.Result.BAD_ALPHABET, gate.check(validToken + "="));
+        assertEquals(TokenSanityGate.Result.BAD_SIGNATURE_LENGTH, gate.check(validToken + "A"));
+    }
+
+    @Test
+    @DisplayName("header_algAndKidAreChecked")
+    void rejectsDisallowedHeaders() {
+        assertEquals(TokenSanityGate.Result.ALGORITHM_NOT_ALLOWED, gate.check(token("{\"alg\":\"none\"}")));
+        assertEquals(TokenSanityGate.Result.ALGORITHM_NOT_ALLOWED, gate.check(token("{\"typ\":\"JWT\"}")));
+        assertEquals(TokenSanityGate.Result.KEY_ID_NOT_ALLOWED,
+                gate.check(token("{\"alg\":\"HS256\",\"kid\":\"other\"}")));
+        assertEquals(TokenSanityGate.Result.OK,
+                gate.check(token(" { \"typ\" : \"JWT\" , \"alg\" : \"HS256\" } ")));
+    }
+
+    @Test
+    @DisplayName("header_unexpectedJsonIsRejected")
+    void rejectsUnexpectedHeaderJson() {
+        assertEquals(TokenSanityGate.Result.BAD_HEADER, gate.check(token("{\"alg\":\"HS256\",\"jwk\":{\"k\":\"x\"}}")));
+        assertEquals(TokenSanityGate.Result.BAD_HEADER, gate.check(token("{\"alg\":\"HS256\",\"alg\":\"HS256\"}")));
+        assertEquals(TokenSanityGate.Result.BAD_HEADER, gate.check(token("[\"alg\"]")));
+        assertEquals(TokenSanityGate.Result.BAD_HEADER, gate.check(token("{\"alg\":\"HS256\"")));
+        assertEquals(TokenSanityGate.Result.BAD_HEADER, gate.check(token("{\"alg\":\"HS256\"}garbage")));
+    }
+
+    private String token(String headerJson) {
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(headerJson.getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + "." + signature;
+    }
+}
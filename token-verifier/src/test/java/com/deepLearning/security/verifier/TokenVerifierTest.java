@@ -0,0 +1,100 @@
+package com.deepLearning.security.verifier;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenVerifierTest {
+
+    private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    private final SecretKey key = Jwts.SIG.HS256.key().build();
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(key.getEncoded(), ROLES);
+    private final long iat = System.currentTimeMillis() / 1000L;
+    private final long exp = iat + 180;
+
+    @Test
+    @DisplayName("verifyAccessToken_readsBothProfilesAndJjwtTokens")
+    void verifiesAccessTokensOfEveryShape() {
+        TokenVerifier verifier = TokenVerifier.create(key.getEncoded(), ROLES, RevocationClient.NONE);
+        String jjwt = Jwts.builder().subject("john.doe")
+                .issuedAt(new Date(iat * 1000L))
+                .expiration(new Date(exp * 1000L))
+                .claim("token_type", TokenType.ACCESS.getClaimValue())
+                .claim("authorities", List.of("ROLE_USER"))
+                .claim("extra", "not understood by the codec")
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+
+        for (String token : List.of(
+                codec.sign(ClaimProfile.LEGACY, "john.doe", iat, exp, TokenType.ACCESS, List.of("ROLE_USER")),
+                codec.sign(ClaimProfile.COMPACT, "john.doe", iat, exp, TokenType.ACCESS, List.of("ROLE_USER")),
+                jjwt)) {
+            TokenClaims claims = verifier.verifyAccessToken(token);
+
+            assertEquals("john.doe", claims.subject());
+            assertEquals(List.of("ROLE_USER"), claims.authorities());
+            assertEquals(exp, claims.expiresAt());
+        }
+    }
+
+    @Test
+    @DisplayName("verifyAccessToken_rejectsMalformedForeignExpiredRefreshAndRevokedTokens")
+    void rejectsEverythingButValidAccessTokens() {
+        String revoked = codec.sign("jane.doe", iat, exp, TokenType.ACCESS, List.of("ROLE_USER"));
+        TokenVerifier verifier = TokenVerifier.create(key.getEncoded(), ROLES,
+                (token, claims) -> token.equals(revoked));
+
+        assertRejected(TokenRejectedException.Reason.MALFORMED, verifier, "not-a-token");
+        assertRejected(TokenRejectedException.Reason.INVALID, verifier,
+                new Hs256TokenCodec(Jwts.SIG.HS256.key().build().getEncoded())
+                        .sign("john.doe", iat, exp, TokenType.ACCESS, List.of()));
+        assertRejected(TokenRejectedException.Reason.EXPIRED, verifier,
+                codec.sign("john.doe", iat - 600, iat - 300, TokenType.ACCESS, List.of()));
+        assertRejected(TokenRejectedException.Reason.WRONG_TOKEN_TYPE, verifier,
+                codec.sign("john.doe", iat, exp, TokenType.REFRESH, null));
+        assertRejected(TokenRejectedException.Reason.REVOKED, verifier, revoked);
+        assertEquals(TokenType.REFRESH,
+                verifier.parse(codec.sign("john.doe", iat, exp, TokenType.REFRESH, null)).type());
+    }
+
+    @Test
+    @DisplayName("keyRing_acceptsEveryKeyOfARotation")
+    void verifiesTokensOfEveryKeyOfTheRing() {
+        SecretKey previous = Jwts.SIG.HS256.key().build();
+        TokenVerifier verifier = TokenVerifier.create(
+                new HmacKeyRing(key.getEncoded(), Map.of("current", key.getEncoded(), "previous", previous.getEncoded())),
+                ROLES, RevocationClient.NONE);
+
+        assertEquals("john.doe", verifier.verifyAccessToken(
+                codec.sign("john.doe", iat, exp, TokenType.ACCESS, List.of("ROLE_USER"))).subject());
+        assertEquals("john.doe", verifier.verifyAccessToken(signed("current", key)).subject());
+        assertEquals("john.doe", verifier.verifyAccessToken(signed("previous", previous)).subject());
+        assertRejected(TokenRejectedException.Reason.INVALID, verifier, signed("current", previous));
+        assertRejected(TokenRejectedException.Reason.MALFORMED, verifier, signed("retired", previous));
+    }
+
+    private String signed(String keyId, SecretKey signingKey) {
+        return Jwts.builder().header().keyId(keyId).and()
+                .subject("john.doe")
+                .issuedAt(new Date(iat * 1000L))
+                .expiration(new Date(exp * 1000L))
+                .claim("token_type", TokenType.ACCESS.getClaimValue())
+                .claim("authorities", List.of("ROLE_USER"))
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    private static void assertRejected(TokenRejectedException.Reason reason, TokenVerifier verifier, String token) {
+        assertEquals(reason, assertThrows(TokenRejectedException.class,
+                () -> verifier.verifyAccessToken(token)).getReason());
+    }
+}